@@ -0,0 +1,64 @@
+package ch.epfl.tchu.bench;
+
+import java.util.Objects;
+
+/**
+ * Immutable class representing a single benchmark, i.e. a named operation whose average running time is measured by a
+ * BenchmarkRunner. The state the operation works on must be prepared before the benchmark is created, so that only the
+ * operation itself is measured.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class Benchmark {
+
+    /**
+     * Functional interface representing the operation measured by a benchmark.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Runs the operation once.
+         * @return (Object): the result of the operation, which is consumed by the runner so that the computation
+         * leading to it cannot be optimized away.
+         * @throws Exception if the operation fails, which aborts the benchmark.
+         */
+        Object run() throws Exception;
+    }
+
+    /**
+     * (String): the name of the benchmark, made of dot-separated components, the last of which may hold parameters.
+     */
+    private final String name;
+
+    /**
+     * (Operation): the operation measured.
+     */
+    private final Operation operation;
+
+    /**
+     * Default Benchmark constructor.
+     * @param name (String): the name of the benchmark.
+     * @param operation (Operation): the operation measured.
+     * @throws NullPointerException if name or operation is null.
+     */
+    public Benchmark(String name, Operation operation) {
+        this.name = Objects.requireNonNull(name);
+        this.operation = Objects.requireNonNull(operation);
+    }
+
+    /**
+     * Returns the name of the benchmark.
+     * @return (String): the name of the benchmark.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the operation measured by the benchmark.
+     * @return (Operation): the operation measured by the benchmark.
+     */
+    public Operation operation() {
+        return operation;
+    }
+}
@@ -0,0 +1,235 @@
+package ch.epfl.tchu.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * Class measuring the average running time of benchmarks, in the manner of JMH's average time mode: each benchmark is
+ * first run for a few warmup iterations, so that the JIT compiler reaches a steady state, and then for a few measurement
+ * iterations of fixed duration, each of which gives an average time per operation. The mean and standard deviation of
+ * these averages are reported.
+ * Operations are run in batches, whose size is chosen during warmup so that a batch lasts long enough for the clock to be
+ * read only rarely. The result of every operation is compared to a volatile field, which forces it to be computed.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * (long): the minimal duration of a batch of operations, in nanoseconds.
+     */
+    private static final long MIN_BATCH_NANOS = 100_000;
+
+    /**
+     * (int): the number of warmup iterations.
+     */
+    private final int warmupIterations;
+
+    /**
+     * (int): the number of measurement iterations.
+     */
+    private final int measurementIterations;
+
+    /**
+     * (long): the duration of an iteration, in nanoseconds.
+     */
+    private final long iterationNanos;
+
+    /**
+     * (Object): an object no operation ever returns, to which their results are compared.
+     */
+    private volatile Object marker = new Object();
+
+    /**
+     * (long): the number of results identical to the marker, which is always 0.
+     */
+    private long hits;
+
+    /**
+     * Default BenchmarkRunner constructor.
+     * @param warmupIterations (int): the number of warmup iterations.
+     * @param measurementIterations (int): the number of measurement iterations.
+     * @param iterationMillis (int): the duration of an iteration, in milliseconds.
+     * @throws IllegalArgumentException if warmupIterations is strictly negative, or if measurementIterations or
+     * iterationMillis is not strictly positive.
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, int iterationMillis) {
+        Preconditions.checkArgument(warmupIterations >= 0 && measurementIterations > 0 && iterationMillis > 0);
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /**
+     * Immutable class representing the measured average running time of a benchmark.
+     */
+    public static final class Result {
+        private final String name;
+        private final double mean;
+        private final double deviation;
+        private final int iterations;
+
+        /**
+         * Private Result constructor.
+         * @param name (String): the name of the benchmark.
+         * @param mean (double): the mean of the average times per operation of the iterations, in nanoseconds.
+         * @param deviation (double): the standard deviation of these averages, in nanoseconds.
+         * @param iterations (int): the number of measurement iterations.
+         */
+        private Result(String name, double mean, double deviation, int iterations) {
+            this.name = name;
+            this.mean = mean;
+            this.deviation = deviation;
+            this.iterations = iterations;
+        }
+
+        /**
+         * Returns the name of the benchmark.
+         * @return (String): the name of the benchmark.
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the average running time of an operation.
+         * @return (double): the mean of the average times per operation of the iterations, in nanoseconds.
+         */
+        public double nanosPerOperation() {
+            return mean;
+        }
+
+        /**
+         * Returns the standard deviation of the average running times of the iterations.
+         * @return (double): the standard deviation of the average times per operation, in nanoseconds.
+         */
+        public double deviation() {
+            return deviation;
+        }
+
+        /**
+         * Returns the number of measurement iterations.
+         * @return (int): the number of measurement iterations.
+         */
+        public int iterations() {
+            return iterations;
+        }
+    }
+
+    /**
+     * Runs the given benchmark and returns its result.
+     * @param benchmark (Benchmark): the benchmark to be run.
+     * @return (Result): the measured average running time of the benchmark.
+     * @throws Exception if the operation of the benchmark fails.
+     */
+    public Result run(Benchmark benchmark) throws Exception {
+        Benchmark.Operation operation = benchmark.operation();
+        int batch = 1;
+        for(int i = 0; i < warmupIterations; i++) {
+            long start = System.nanoTime();
+            while(System.nanoTime() - start < iterationNanos) {
+                if(runBatch(operation, batch) < MIN_BATCH_NANOS) {
+                    batch *= 2;
+                }
+            }
+        }
+
+        double[] averages = new double[measurementIterations];
+        for(int i = 0; i < measurementIterations; i++) {
+            long elapsed = 0;
+            long operations = 0;
+            while(elapsed < iterationNanos) {
+                elapsed += runBatch(operation, batch);
+                operations += batch;
+            }
+            averages[i] = (double) elapsed / operations;
+        }
+
+        double mean = 0;
+        for(double a : averages) {
+            mean += a;
+        }
+        mean /= averages.length;
+        double variance = 0;
+        for(double a : averages) {
+            variance += (a - mean) * (a - mean);
+        }
+        double deviation = averages.length > 1 ? Math.sqrt(variance / (averages.length - 1)) : 0;
+        return new Result(benchmark.name(), mean, deviation, averages.length);
+    }
+
+    /**
+     * Runs the given benchmarks whose name matches the filter, printing each result as soon as it is known.
+     * @param benchmarks (List<Benchmark>): the benchmarks to be run.
+     * @param filter (Pattern): the pattern a part of the name of a benchmark must match for it to be run.
+     * @param out (PrintStream): the stream the results are printed to.
+     * @return (List<Result>): the results of the benchmarks run, in the given order.
+     * @throws Exception if the operation of a benchmark fails.
+     */
+    public List<Result> runAll(List<Benchmark> benchmarks, Pattern filter, PrintStream out) throws Exception {
+        int width = "Benchmark".length();
+        for(Benchmark b : benchmarks) {
+            width = Math.max(width, b.name().length());
+        }
+        String format = "%-" + width + "s  %4s  %14s  %12s  %s%n";
+        out.printf(Locale.ROOT, format, "Benchmark", "Cnt", "Score", "Error", "Units");
+
+        List<Result> results = new ArrayList<>();
+        for(Benchmark b : benchmarks) {
+            if(filter.matcher(b.name()).find()) {
+                Result r = run(b);
+                results.add(r);
+                out.printf(Locale.ROOT, format, r.name(), r.iterations(), String.format(Locale.ROOT, "%.3f", r.mean),
+                        String.format(Locale.ROOT, "+- %.3f", r.deviation), "ns/op");
+            }
+        }
+        if(hits != 0) {
+            out.println(hits);
+        }
+        return results;
+    }
+
+    /**
+     * Writes the given results to the given file, as comma-separated values, so that they can be compared with the ones
+     * of a later run.
+     * @param results (List<Result>): the results to be written.
+     * @param file (Path): the file to be written.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeCsv(List<Result> results, Path file) throws IOException {
+        try(Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("benchmark,iterations,ns_per_op,deviation\n");
+            for(Result r : results) {
+                w.write(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f%n", r.name(), r.iterations(), r.mean, r.deviation));
+            }
+        }
+    }
+
+    /**
+     * Runs the given operation the given number of times, and returns the time it took.
+     * @param operation (Benchmark.Operation): the operation to be run.
+     * @param count (int): the number of times the operation is run.
+     * @return (long): the time it took to run the operation the given number of times, in nanoseconds.
+     * @throws Exception if the operation fails.
+     */
+    private long runBatch(Benchmark.Operation operation, int count) throws Exception {
+        Object m = marker;
+        long start = System.nanoTime();
+        for(int i = 0; i < count; i++) {
+            if(operation.run() == m) {
+                hits++;
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
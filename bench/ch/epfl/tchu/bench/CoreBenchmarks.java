@@ -0,0 +1,429 @@
+package ch.epfl.tchu.bench;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.Deck;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameConfig;
+import ch.epfl.tchu.game.GameSimulator.PlayerFactory;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.GreedyPlayer;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trail;
+import ch.epfl.tchu.gui.Info;
+import ch.epfl.tchu.net.Serde;
+import ch.epfl.tchu.net.Serdes;
+import ch.epfl.tchu.net.WireProtocol;
+
+/**
+ * Final and non-instanciable class holding the benchmarks of the core of the game: the longest trail, the bags and the deck
+ * of cards, the transitions of the game and player states, full games between random and greedy players, and every serde
+ * in both wire protocols. Its main method runs them and prints their average running times, which are meant to be compared before and
+ * after any change made to improve performance.
+ * <p>
+ * Usage: CoreBenchmarks [-wi warmupIterations] [-i iterations] [-t iterationMillis] [-csv file] [filter], where filter is a
+ * regular expression that a part of the name of a benchmark must match for it to be run.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class CoreBenchmarks {
+
+    /**
+     * (long): the seed of all the random generators used to prepare the benchmarks, so that all runs measure the same work.
+     */
+    private static final long SEED = 2021;
+
+    /**
+     * (int): the size of the buffers used by the benchmarks of the binary protocol.
+     */
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * (SortedBag<Card>): a hand of cards with which many routes can be claimed in many ways.
+     */
+    private static final SortedBag<Card> RICH_HAND = SortedBag.of(4, Card.RED, 3, Card.LOCOMOTIVE)
+            .union(SortedBag.of(4, Card.BLUE, 2, Card.YELLOW));
+
+    /**
+     * Private constructor existing for the sole purpose of not allowing this class to be instanciated.
+     */
+    private CoreBenchmarks() {}
+
+    /**
+     * Runs the benchmarks selected by the arguments and prints their results.
+     * @param args (String[]): the arguments, as described in the documentation of the class.
+     * @throws Exception if a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int warmupIterations = 5;
+        int iterations = 5;
+        int iterationMillis = 500;
+        Path csv = null;
+        Pattern filter = Pattern.compile("");
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+            case "-wi":
+                warmupIterations = Integer.parseInt(args[++i]);
+                break;
+            case "-i":
+                iterations = Integer.parseInt(args[++i]);
+                break;
+            case "-t":
+                iterationMillis = Integer.parseInt(args[++i]);
+                break;
+            case "-csv":
+                csv = Path.of(args[++i]);
+                break;
+            default:
+                filter = Pattern.compile(args[i]);
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmupIterations, iterations, iterationMillis);
+        List<BenchmarkRunner.Result> results = runner.runAll(all(), filter, System.out);
+        if(csv != null) {
+            BenchmarkRunner.writeCsv(results, csv);
+        }
+    }
+
+    /**
+     * Returns all the benchmarks of the core of the game.
+     * @return (List<Benchmark>): all the benchmarks of the core of the game.
+     */
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        addTrailBenchmarks(benchmarks);
+        addSortedBagBenchmarks(benchmarks);
+        addDeckBenchmarks(benchmarks);
+        addStateBenchmarks(benchmarks);
+        addGameBenchmarks(benchmarks);
+        addSerdeBenchmarks(benchmarks);
+        addInfoBenchmarks(benchmarks);
+        return benchmarks;
+    }
+
+    /**
+     * Adds the benchmarks of the computation of the longest trail, from scratch and incrementally, for networks of
+     * increasing sizes.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     */
+    private static void addTrailBenchmarks(List<Benchmark> benchmarks) {
+        for(int count : List.of(5, 10, 20, 40)) {
+            List<Route> routes = randomRoutes(count, new Random(SEED));
+            List<Route> previous = routes.subList(0, count - 1);
+            Route added = routes.get(count - 1);
+            Trail previousLongest = Trail.longest(previous);
+            benchmarks.add(new Benchmark("trail.longest.routes=" + count, () -> Trail.longest(routes)));
+            benchmarks.add(new Benchmark("trail.longestIncremental.routes=" + count,
+                    () -> Trail.longest(previousLongest, routes, added)));
+        }
+    }
+
+    /**
+     * Adds the benchmarks of the main operations of sorted bags.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     */
+    private static void addSortedBagBenchmarks(List<Benchmark> benchmarks) {
+        SortedBag<Card> hand = SortedBag.of(2, Card.RED, 3, Card.BLUE)
+                .union(SortedBag.of(2, Card.LOCOMOTIVE, 1, Card.GREEN))
+                .union(SortedBag.of(2, Card.BLACK));
+        SortedBag<Card> drawn = SortedBag.of(1, Card.RED, 2, Card.LOCOMOTIVE);
+        SortedBag<Card> played = SortedBag.of(2, Card.BLUE, 1, Card.LOCOMOTIVE);
+        benchmarks.add(new Benchmark("sortedBag.union", () -> hand.union(drawn)));
+        benchmarks.add(new Benchmark("sortedBag.difference", () -> hand.difference(played)));
+        benchmarks.add(new Benchmark("sortedBag.contains", () -> hand.contains(played)));
+        for(int size : List.of(2, 3, 5)) {
+            benchmarks.add(new Benchmark("sortedBag.subsetsOfSize.size=" + size, () -> hand.subsetsOfSize(size)));
+        }
+    }
+
+    /**
+     * Adds the benchmarks of the creation of decks and of the drawing of cards from them.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     */
+    private static void addDeckBenchmarks(List<Benchmark> benchmarks) {
+        Random rng = new Random(SEED);
+        Deck<Card> deck = Deck.of(Constants.ALL_CARDS, new Random(SEED));
+        benchmarks.add(new Benchmark("deck.of", () -> Deck.of(Constants.ALL_CARDS, rng)));
+        benchmarks.add(new Benchmark("deck.withoutTopCard", () -> deck.withoutTopCard()));
+        benchmarks.add(new Benchmark("deck.topCards.count=5", () -> deck.topCards(Constants.FACE_UP_CARDS_COUNT)));
+        benchmarks.add(new Benchmark("deck.drawAll", () -> {
+            Deck<Card> d = deck;
+            while(!d.isEmpty()) {
+                d = d.withoutTopCard();
+            }
+            return d;
+        }));
+    }
+
+    /**
+     * Adds the benchmarks of the transitions of the game state and of the queries of the player state made every turn.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     */
+    private static void addStateBenchmarks(List<Benchmark> benchmarks) {
+        GameState gameState = midGameState(GameConfig.TWO_PLAYERS);
+        Route freeRoute = freeRoute(gameState);
+        benchmarks.add(new Benchmark("gameState.initial", () -> GameState.initial(
+                SortedBag.of(GameConfig.TWO_PLAYERS.tickets()), new Random(SEED), GameConfig.TWO_PLAYERS)));
+        benchmarks.add(new Benchmark("gameState.withBlindlyDrawnCard", () -> gameState.withBlindlyDrawnCard()));
+        benchmarks.add(new Benchmark("gameState.withDrawnFaceUpCard", () -> gameState.withDrawnFaceUpCard(0)));
+        benchmarks.add(new Benchmark("gameState.withClaimedRoute",
+                () -> gameState.withClaimedRoute(freeRoute, SortedBag.of())));
+        benchmarks.add(new Benchmark("gameState.forNextTurn", () -> gameState.forNextTurn()));
+
+        PlayerState playerState = new PlayerState(SortedBag.of(), RICH_HAND, List.of());
+        Route greyTunnel = longestGreyRoute(Route.Level.UNDERGROUND);
+        Route greyRoute = longestGreyRoute(Route.Level.OVERGROUND);
+        benchmarks.add(new Benchmark("playerState.canClaimRoute", () -> playerState.canClaimRoute(greyTunnel)));
+        benchmarks.add(new Benchmark("playerState.possibleClaimCards.tunnel",
+                () -> playerState.possibleClaimCards(greyTunnel)));
+        benchmarks.add(new Benchmark("playerState.possibleClaimCards.overground",
+                () -> playerState.possibleClaimCards(greyRoute)));
+        benchmarks.add(new Benchmark("playerState.possibleAdditionalCards", () -> playerState.possibleAdditionalCards(2,
+                SortedBag.of(2, Card.RED), SortedBag.of(1, Card.RED, 2, Card.LOCOMOTIVE))));
+        PlayerState current = gameState.currentPlayerState();
+        benchmarks.add(new Benchmark("playerState.finalPoints", () -> current.finalPoints()));
+    }
+
+    /**
+     * Adds the benchmarks of full games between random players, and between greedy players.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     */
+    private static void addGameBenchmarks(List<Benchmark> benchmarks) {
+        for(GameConfig config : List.of(GameConfig.TWO_PLAYERS, GameConfig.THREE_PLAYERS)) {
+            addGameBenchmark(benchmarks, "game.play.players=" + config.playerCount(), config,
+                    (id, rng) -> new RandomPlayer(rng));
+            addGameBenchmark(benchmarks, "game.play.greedy.players=" + config.playerCount(), config,
+                    (id, rng) -> new GreedyPlayer(rng));
+        }
+    }
+
+    /**
+     * Adds the benchmark of full games between the players created by the given factory.
+     * @param benchmarks (List<Benchmark>): the list the benchmark is added to.
+     * @param name (String): the name of the benchmark.
+     * @param config (GameConfig): the configuration of the games.
+     * @param factory (PlayerFactory): the factory creating the players of each game.
+     */
+    private static void addGameBenchmark(List<Benchmark> benchmarks, String name, GameConfig config,
+            PlayerFactory factory) {
+        Random seeds = new Random(SEED);
+        benchmarks.add(new Benchmark(name, () -> {
+            Random rng = new Random(seeds.nextLong());
+            Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+            Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+            for(PlayerId id : config.playerIds()) {
+                players.put(id, factory.newPlayer(id, new Random(rng.nextLong())));
+                names.put(id, id.name());
+            }
+            return Game.play(players, names, SortedBag.of(config.tickets()), rng, config);
+        }));
+    }
+
+    /**
+     * Adds the benchmarks of the round trip of a typical value through every serde, in both wire protocols.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     */
+    private static void addSerdeBenchmarks(List<Benchmark> benchmarks) {
+        GameState gameState = midGameState(GameConfig.THREE_PLAYERS);
+        PlayerState playerState = gameState.currentPlayerState();
+        PlayerState richPlayerState = new PlayerState(playerState.tickets(), RICH_HAND, playerState.routes());
+        addSerdeBenchmarks(benchmarks, "int", Serdes.intSerde, 1234);
+        addSerdeBenchmarks(benchmarks, "string", Serdes.stringSerde, "Genève");
+        addSerdeBenchmarks(benchmarks, "playerId", Serdes.playerIdSerde, PlayerId.PLAYER_2);
+        addSerdeBenchmarks(benchmarks, "wireProtocol", Serdes.wireProtocolSerde, WireProtocol.BINARY);
+        addSerdeBenchmarks(benchmarks, "turnKind", Serdes.turnKindSerde, Player.TurnKind.CLAIM_ROUTE);
+        addSerdeBenchmarks(benchmarks, "card", Serdes.cardSerde, Card.LOCOMOTIVE);
+        addSerdeBenchmarks(benchmarks, "route", Serdes.routeSerde, ChMap.routes().get(42));
+        addSerdeBenchmarks(benchmarks, "ticket", Serdes.ticketSerde, ChMap.tickets().get(42));
+        addSerdeBenchmarks(benchmarks, "stringList", Serdes.stringListSerde, List.of("Ada", "Charles", "Grace"));
+        addSerdeBenchmarks(benchmarks, "cardList", Serdes.cardListSerde, gameState.cardState().faceUpCards());
+        addSerdeBenchmarks(benchmarks, "routeList", Serdes.routeListSerde, gameState.claimedRoutes());
+        addSerdeBenchmarks(benchmarks, "cardBag", Serdes.cardBagSerde, playerState.cards());
+        addSerdeBenchmarks(benchmarks, "ticketBag", Serdes.ticketBagSerde, playerState.tickets());
+        addSerdeBenchmarks(benchmarks, "cardListBag", Serdes.cardListBagSerde,
+                richPlayerState.possibleClaimCards(longestGreyRoute(Route.Level.UNDERGROUND)));
+        addSerdeBenchmarks(benchmarks, "publicCardState", Serdes.publicCardStateSerde, gameState.cardState());
+        addSerdeBenchmarks(benchmarks, "publicPlayerState", Serdes.publicPlayerStateSerde, gameState.playerState(PlayerId.PLAYER_1));
+        addSerdeBenchmarks(benchmarks, "playerState", Serdes.playerStateSerde, playerState);
+        addSerdeBenchmarks(benchmarks, "publicGameState", Serdes.publicGameStateSerde, gameState);
+    }
+
+    /**
+     * Adds the benchmarks of the round trip of the given value through the given serde, in both wire protocols.
+     * @param <T> the type of the value.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     * @param name (String): the name of the serde.
+     * @param serde (Serde<T>): the serde.
+     * @param value (T): the value sent through the serde.
+     */
+    private static <T> void addSerdeBenchmarks(List<Benchmark> benchmarks, String name, Serde<T> serde, T value) {
+        String serialized = serde.serialize(value);
+        ByteBuffer written = ByteBuffer.allocate(BUFFER_SIZE);
+        serde.write(value, written);
+        written.flip();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        benchmarks.add(new Benchmark("serdes." + name + ".serialize", () -> serde.serialize(value)));
+        benchmarks.add(new Benchmark("serdes." + name + ".deserialize", () -> serde.deserialize(serialized)));
+        benchmarks.add(new Benchmark("serdes." + name + ".write", () -> {
+            buffer.clear();
+            serde.write(value, buffer);
+            return buffer;
+        }));
+        benchmarks.add(new Benchmark("serdes." + name + ".read", () -> serde.read(written.duplicate())));
+    }
+
+    /**
+     * Returns a game state typical of the middle of a game, in which each player has claimed a few routes and holds a few
+     * tickets and cards. Is always the same for a given configuration.
+     * @param config (GameConfig): the configuration of the game.
+     * @return (GameState): a game state typical of the middle of a game.
+     */
+    private static GameState midGameState(GameConfig config) {
+        Random rng = new Random(SEED);
+        GameState gameState = GameState.initial(SortedBag.of(config.tickets()), rng, config);
+        for(PlayerId id : config.playerIds()) {
+            SortedBag<Ticket> tickets = gameState.topTickets(Constants.IN_GAME_TICKETS_COUNT);
+            gameState = gameState.withoutTopTickets(Constants.IN_GAME_TICKETS_COUNT).withInitiallyChosenTickets(id, tickets);
+        }
+        for(int turn = 0; turn < 8 * config.playerCount(); turn++) {
+            if(turn % 2 == 0) {
+                gameState = gameState.withClaimedRoute(freeRoute(gameState, rng), SortedBag.of());
+            } else {
+                for(int i = 0; i < 2; i++) {
+                    gameState = gameState.withCardsDeckRecreatedIfNeeded(rng).withBlindlyDrawnCard();
+                }
+            }
+            gameState = gameState.forNextTurn();
+        }
+        return gameState;
+    }
+
+    /**
+     * Returns the first route of the map that nobody has claimed in the given game state.
+     * @param gameState (GameState): the game state.
+     * @return (Route): the first route that nobody has claimed.
+     */
+    private static Route freeRoute(GameState gameState) {
+        Set<Route> claimed = new HashSet<>(gameState.claimedRoutes());
+        for(Route r : ChMap.routes()) {
+            if(!claimed.contains(r)) {
+                return r;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Returns a random route of the map that nobody has claimed in the given game state.
+     * @param gameState (GameState): the game state.
+     * @param rng (Random): the random generator used to choose the route.
+     * @return (Route): a random route that nobody has claimed.
+     */
+    private static Route freeRoute(GameState gameState, Random rng) {
+        Set<Route> claimed = new HashSet<>(gameState.claimedRoutes());
+        List<Route> free = new ArrayList<>();
+        for(Route r : ChMap.routes()) {
+            if(!claimed.contains(r)) {
+                free.add(r);
+            }
+        }
+        return free.get(rng.nextInt(free.size()));
+    }
+
+    /**
+     * Returns the longest grey route of the map of the given level, which offers the most combinations of claim cards.
+     * @param level (Route.Level): the level of the route.
+     * @return (Route): the first of the longest grey routes of the given level.
+     */
+    private static Route longestGreyRoute(Route.Level level) {
+        Route longest = null;
+        for(Route r : ChMap.routes()) {
+            if(r.level() == level && r.color() == null && (longest == null || r.length() > longest.length())) {
+                longest = r;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Returns the given number of distinct random routes of the map. Routes sharing a station are favoured, so that the
+     * networks have the long connected components of real games.
+     * @param count (int): the number of routes.
+     * @param rng (Random): the random generator used to choose the routes.
+     * @return (List<Route>): the given number of distinct random routes.
+     */
+    private static List<Route> randomRoutes(int count, Random rng) {
+        List<Route> routes = new ArrayList<>();
+        Set<Route> chosen = new HashSet<>();
+        while(routes.size() < count) {
+            List<Route> candidates = new ArrayList<>();
+            for(Route r : ChMap.routes()) {
+                if(!chosen.contains(r) && (routes.isEmpty() || touches(routes, r))) {
+                    candidates.add(r);
+                }
+            }
+            if(candidates.isEmpty() || rng.nextInt(4) == 0) {
+                candidates.clear();
+                for(Route r : ChMap.routes()) {
+                    if(!chosen.contains(r)) {
+                        candidates.add(r);
+                    }
+                }
+            }
+            Route r = candidates.get(rng.nextInt(candidates.size()));
+            routes.add(r);
+            chosen.add(r);
+        }
+        return routes;
+    }
+
+    /**
+     * Returns true if the given route shares a station with one of the given routes.
+     * @param routes (List<Route>): the routes.
+     * @param route (Route): the route.
+     * @return (boolean): true if the route shares a station with one of the routes, false otherwise.
+     */
+    private static boolean touches(List<Route> routes, Route route) {
+        for(Route r : routes) {
+            if(r.stations().contains(route.station1()) || r.stations().contains(route.station2())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the benchmarks of the generation of the messages describing the course of a game, which the server sends to
+     * every player after each action.
+     * @param benchmarks (List<Benchmark>): the list the benchmarks are added to.
+     */
+    private static void addInfoBenchmarks(List<Benchmark> benchmarks) {
+        Info info = new Info("Ada");
+        Route route = ChMap.routes().get(0);
+        SortedBag<Card> cards = SortedBag.of(2, Card.RED, 1, Card.LOCOMOTIVE);
+        SortedBag<Card> drawn = SortedBag.of(1, Card.BLUE, 2, Card.LOCOMOTIVE);
+        benchmarks.add(new Benchmark("info.claimedRoute", () -> info.claimedRoute(route, cards)));
+        benchmarks.add(new Benchmark("info.drewAdditionalCards", () -> info.drewAdditionalCards(drawn, 2)));
+        benchmarks.add(new Benchmark("info.drewVisibleCard", () -> info.drewVisibleCard(Card.GREEN)));
+        benchmarks.add(new Benchmark("info.keptTickets", () -> info.keptTickets(3)));
+    }
+}
@@ -0,0 +1,140 @@
+package ch.epfl.tchu.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ch.epfl.tchu.game.GameConfig;
+import ch.epfl.tchu.game.GreedyPlayer;
+import ch.epfl.tchu.net.GameServer;
+import ch.epfl.tchu.net.RemotePlayerClient;
+import ch.epfl.tchu.net.WireProtocol;
+
+/**
+ * Final and non-instanciable class loading a game server with many clients played by greedy players, which connect again as
+ * soon as their game ends. Its main method reports the number of games which ended within the duration of the test per minute,
+ * which measures the throughput of the server and of the network protocol rather than the one of the players, along with the
+ * number of client games which failed.
+ * <p>
+ * Usage: LoadTest [-players count] [-clients count] [-s seconds] [-protocol TEXT|BINARY] [-host host -port port], where
+ * the server is started in the same process, offering the binary protocol by default, unless a host and a port are given.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class LoadTest {
+
+    /**
+     * (int): the time, in milliseconds, the games still running at the end of the test are given to end.
+     */
+    private static final int GRACE_MILLIS = 10_000;
+
+    /**
+     * Private constructor existing for the sole purpose of not allowing this class to be instanciated.
+     */
+    private LoadTest() {}
+
+    /**
+     * Runs the load test described by the arguments and prints its results.
+     * @param args (String[]): the arguments, as described in the documentation of the class.
+     * @throws InterruptedException if the thread is interrupted while the test runs.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int playerCount = 2;
+        int clientCount = 64;
+        int seconds = 30;
+        String host = null;
+        int port = 0;
+        WireProtocol protocol = WireProtocol.BINARY;
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+            case "-players":
+                playerCount = Integer.parseInt(args[++i]);
+                break;
+            case "-clients":
+                clientCount = Integer.parseInt(args[++i]);
+                break;
+            case "-s":
+                seconds = Integer.parseInt(args[++i]);
+                break;
+            case "-protocol":
+                protocol = WireProtocol.valueOf(args[++i]);
+                break;
+            case "-host":
+                host = args[++i];
+                break;
+            case "-port":
+                port = Integer.parseInt(args[++i]);
+                break;
+            default:
+                throw new IllegalArgumentException(args[i]);
+            }
+        }
+
+        GameServer server = null;
+        if(host == null) {
+            server = new GameServer(0, GameConfig.forPlayerCount(playerCount), clientCount, new Random(2021), null, protocol);
+            server.start();
+            host = "localhost";
+            port = server.port();
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        AtomicInteger games = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+        List<Thread> clients = new ArrayList<>(clientCount);
+        for(int i = 0; i < clientCount; i++) {
+            String clientHost = host;
+            int clientPort = port;
+            Random rng = new Random(i);
+            String name = "bot" + i;
+            Thread t = new Thread(() -> {
+                while(System.nanoTime() < deadline) {
+                    try {
+                        new RemotePlayerClient(new GreedyPlayer(rng), clientHost, clientPort, name).run();
+                    } catch(RuntimeException e) {
+                        failures.incrementAndGet();
+                        firstFailure.compareAndSet(null, e);
+                        continue;
+                    }
+                    // Only the games which ended within the duration of the test are counted.
+                    if(System.nanoTime() <= deadline) {
+                        games.incrementAndGet();
+                    }
+                }
+            }, "tchu-load-" + i);
+            t.setDaemon(true);
+            clients.add(t);
+            t.start();
+        }
+
+        // The throughput is measured over the duration of the test only, without the time given to the last games.
+        for(long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            Thread.sleep(Math.max(1, remaining / 1_000_000));
+        }
+        double minutes = seconds / 60.0;
+        int serverGames = server == null ? 0 : server.finishedTableCount();
+        System.out.printf(Locale.ROOT, "%d clients, %d players per game: %.1f client games per minute%n",
+                clientCount, playerCount, games.get() / minutes);
+        if(server != null) {
+            System.out.printf(Locale.ROOT, "server: %.1f games per minute%n", serverGames / minutes);
+        }
+
+        // A client that connected just before the deadline may never find the other players of its table.
+        long graceEnd = System.nanoTime() + GRACE_MILLIS * 1_000_000L;
+        for(Thread t : clients) {
+            t.join(Math.max(1, (graceEnd - System.nanoTime()) / 1_000_000));
+        }
+        System.out.printf(Locale.ROOT, "%d failed client games%n", failures.get());
+        if(firstFailure.get() != null) {
+            System.out.println("first failure: " + firstFailure.get());
+        }
+        if(server != null) {
+            server.close();
+        }
+    }
+}
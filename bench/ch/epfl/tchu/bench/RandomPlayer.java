@@ -0,0 +1,122 @@
+package ch.epfl.tchu.bench;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * Player making random decisions among the legal ones, used to play full games in the benchmarks. Claims a random claimable
+ * route whenever it can, and otherwise draws cards, or tickets when no card can be drawn.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class RandomPlayer implements Player {
+
+    /**
+     * (Random): the random generator the decisions are made with.
+     */
+    private final Random rng;
+
+    private SortedBag<Ticket> initialTickets;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private Route route;
+    private SortedBag<Card> claimCards;
+
+    /**
+     * Default RandomPlayer constructor.
+     * @param rng (Random): the random generator the decisions are made with.
+     */
+    RandomPlayer(Random rng) {
+        this.rng = rng;
+    }
+
+    @Override
+    public String setPlayerName() {
+        return "";
+    }
+
+    @Override
+    public void setPlayerNumber(int playerNum) {}
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {}
+
+    @Override
+    public void receiveInfo(String info) {}
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {}
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return initialTickets;
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        Set<Route> claimed = new HashSet<>(gameState.claimedRoutes());
+        List<Route> claimable = new ArrayList<>();
+        for(Route r : ChMap.routes()) {
+            if(!claimed.contains(r) && ownState.canClaimRoute(r)) {
+                claimable.add(r);
+            }
+        }
+        if(claimable.isEmpty()) {
+            return gameState.canDrawCards() ? TurnKind.DRAW_CARDS : TurnKind.DRAW_TICKETS;
+        }
+        route = claimable.get(rng.nextInt(claimable.size()));
+        claimCards = ownState.possibleClaimCards(route).get(0);
+        return TurnKind.CLAIM_ROUTE;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return SortedBag.of(options.get(0));
+    }
+
+    @Override
+    public int drawSlot() {
+        return rng.nextInt(6) - 1;
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return route;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return claimCards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return options.get(0);
+    }
+}
@@ -12,6 +12,8 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
     // Table associant sa multiplicité à chaque élément de l'ensemble.
     // Invariant : toutes les multiplicités sont strictement positives (> 0).
     private final SortedMap<E, Integer> elements;
+    // Nombre total d'éléments, calculé une seule fois à la construction.
+    private final int size;
 
     /**
      * Crée un multiensemble vide.
@@ -82,6 +84,9 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
     private SortedBag(SortedMap<E, Integer> elements) {
         assert elements.values().stream().allMatch(n -> n > 0);
         this.elements = Collections.unmodifiableSortedMap(elements);
+        var size = 0;
+        for (var n : elements.values()) size += n;
+        this.size = size;
     }
 
     /**
@@ -97,9 +102,7 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
      * @return le nombre d'éléments dans le multiensemble.
      */
     public int size() {
-        return elements.values().stream()
-                .mapToInt(Integer::intValue)
-                .sum();
+        return size;
     }
 
     /**
@@ -126,8 +129,11 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
      * @return vrai ssi <code>that</code> est un sous-ensemble de <code>this</code>
      */
     public boolean contains(SortedBag<E> that) {
-        return that.elements.entrySet().stream()
-                .allMatch(e -> e.getValue() <= countOf(e.getKey()));
+        if (that.size > size) return false;
+        for (var e : that.elements.entrySet()) {
+            if (e.getValue() > countOf(e.getKey())) return false;
+        }
+        return true;
     }
 
     /**
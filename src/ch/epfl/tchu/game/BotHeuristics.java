@@ -0,0 +1,75 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Final and non-instanciable class gathering the heuristics shared by the computer players, for the decisions they do not
+ * search: which tickets to keep, and how valuable a ticket is.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class BotHeuristics {
+
+    /**
+     * Private constructor existing for the sole purpose of not allowing this class to be instanciated.
+     */
+    private BotHeuristics() {}
+
+    /**
+     * Chooses the tickets to keep among the given ones: the most valuable ones, relatively to the length of the routes still
+     * to be claimed to complete them, as long as the player has enough cars left to complete them, and at least the given
+     * number of them.
+     * @param gameState (PublicGameState): the public state of the game, or null if it is not known yet.
+     * @param ownState (PlayerState): the complete state of the player, or null if it is not known yet.
+     * @param options (SortedBag<Ticket>): the tickets to choose from.
+     * @param minCount (int): the minimal number of tickets to keep.
+     * @return (SortedBag<Ticket>): the tickets to keep.
+     */
+    static SortedBag<Ticket> chooseTickets(PublicGameState gameState, PlayerState ownState, SortedBag<Ticket> options,
+            int minCount) {
+        List<Ticket> candidates = new ArrayList<>(options.toList());
+        if(gameState == null || ownState == null) {
+            return SortedBag.of(candidates.subList(0, minCount));
+        }
+        TicketProgress progress = TicketProgress.of(gameState, ownState.withAddedTickets(options));
+        int cars = ownState.carCount();
+        for(Ticket t : ownState.tickets().toSet()) {
+            int remaining = progress.remainingLength(t);
+            if(remaining != TicketProgress.UNREACHABLE) {
+                cars -= remaining;
+            }
+        }
+        candidates.sort(Comparator.comparingDouble((Ticket t) -> ticketValue(t, progress)).reversed());
+
+        SortedBag.Builder<Ticket> kept = new SortedBag.Builder<>();
+        for(Ticket t : candidates) {
+            int remaining = progress.remainingLength(t);
+            if(kept.size() < minCount || remaining <= cars) {
+                kept.add(t);
+                if(remaining != TicketProgress.UNREACHABLE) {
+                    cars -= remaining;
+                }
+            }
+        }
+        return kept.build();
+    }
+
+    /**
+     * Returns the value of the given ticket: the points it gives per car still needed to complete it.
+     * @param ticket (Ticket): the ticket.
+     * @param progress (TicketProgress): the progress of the player towards completing the ticket.
+     * @return (double): the value of the ticket, negative if it cannot be completed anymore.
+     */
+    static double ticketValue(Ticket ticket, TicketProgress progress) {
+        int points = 0;
+        for(Trip trip : ticket.trips()) {
+            points = Math.max(points, trip.points());
+        }
+        int remaining = progress.remainingLength(ticket);
+        return remaining == TicketProgress.UNREACHABLE ? -points : (double) points / (1 + remaining);
+    }
+}
@@ -0,0 +1,233 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Immutable multiset of cards backed by a fixed vector of counts indexed by card ordinal.
+ * Is a specialization of SortedBag<Card> for the hot paths of the game (player hands, discards,
+ * claim cards), as it never boxes its counts and caches its size.
+ * Can be converted to and from a SortedBag<Card> at any time.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class CardBag {
+
+    /**
+     * (CardBag): the empty bag of cards.
+     */
+    private static final CardBag EMPTY = new CardBag(new int[Card.COUNT], 0);
+
+    /**
+     * (int[]): the number of occurrences of each card, indexed by the ordinal of the card.
+     * Is never modified once the bag has been built.
+     */
+    private final int[] counts;
+
+    /**
+     * (int): the total number of cards in the bag.
+     */
+    private final int size;
+
+    /**
+     * Private CardBag constructor. Initializes a CardBag using a vector of counts that must never be modified afterwards.
+     * @param counts (int[]): the number of occurrences of each card, indexed by the ordinal of the card.
+     * @param size (int): the sum of all the counts.
+     */
+    private CardBag(int[] counts, int size) {
+        this.counts = counts;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty bag of cards.
+     * @return (CardBag): the empty bag of cards.
+     */
+    public static CardBag of() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a bag containing the given number of occurrences of the given card.
+     * @param n (int): the number of occurrences of the card.
+     * @param card (Card): the card in question.
+     * @return (CardBag): a bag containing n occurrences of card.
+     * @throws IllegalArgumentException if n is strictly negative.
+     */
+    public static CardBag of(int n, Card card) {
+        Preconditions.checkArgument(n >= 0);
+        if(n == 0) {
+            return EMPTY;
+        }
+        int[] counts = new int[Card.COUNT];
+        counts[card.ordinal()] = n;
+        return new CardBag(counts, n);
+    }
+
+    /**
+     * Returns a bag containing exactly the same cards as the given SortedBag.
+     * @param cards (SortedBag<Card>): the cards to be contained in the bag.
+     * @return (CardBag): a bag containing exactly the same cards as the given SortedBag.
+     */
+    public static CardBag of(SortedBag<Card> cards) {
+        if(cards.isEmpty()) {
+            return EMPTY;
+        }
+        int[] counts = new int[Card.COUNT];
+        for(Card c : Card.ALL) {
+            counts[c.ordinal()] = cards.countOf(c);
+        }
+        return new CardBag(counts, cards.size());
+    }
+
+    /**
+     * Returns true if the bag is empty.
+     * @return (boolean): true if the bag is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of cards in the bag.
+     * @return (int): the number of cards in the bag.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of occurrences of the given card in the bag.
+     * @param card (Card): the card in question.
+     * @return (int): the number of occurrences of card in the bag, 0 if it does not belong to it.
+     */
+    public int countOf(Card card) {
+        return counts[card.ordinal()];
+    }
+
+    /**
+     * Returns true if the given card belongs to the bag (at least once).
+     * @param card (Card): the card in question.
+     * @return (boolean): true if card belongs to the bag, false otherwise.
+     */
+    public boolean contains(Card card) {
+        return counts[card.ordinal()] > 0;
+    }
+
+    /**
+     * Returns true if the given bag is a subset of this one. Does not allocate.
+     * @param that (CardBag): the bag that may be a subset of this one.
+     * @return (boolean): true if that is a subset of this, false otherwise.
+     */
+    public boolean contains(CardBag that) {
+        if(that.size > size) {
+            return false;
+        }
+        for(int i = 0; i < Card.COUNT; i++) {
+            if(that.counts[i] > counts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the given SortedBag is a subset of this bag. Does not allocate, as the count of each card is looked
+     * up in the SortedBag instead of going through its map representation.
+     * @param that (SortedBag<Card>): the bag that may be a subset of this one.
+     * @return (boolean): true if that is a subset of this, false otherwise.
+     */
+    public boolean contains(SortedBag<Card> that) {
+        if(that.size() > size) {
+            return false;
+        }
+        for(int i = 0; i < Card.COUNT; i++) {
+            if(that.countOf(Card.ALL.get(i)) > counts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the union of this bag and the given one.
+     * @param that (CardBag): the bag to be combined with this one.
+     * @return (CardBag): the union of this and that.
+     */
+    public CardBag union(CardBag that) {
+        if(that.isEmpty()) {
+            return this;
+        }
+        if(isEmpty()) {
+            return that;
+        }
+        int[] newCounts = new int[Card.COUNT];
+        for(int i = 0; i < Card.COUNT; i++) {
+            newCounts[i] = counts[i] + that.counts[i];
+        }
+        return new CardBag(newCounts, size + that.size);
+    }
+
+    /**
+     * Returns the difference between this bag and the given one.
+     * @param that (CardBag): the bag whose cards are to be removed from this one.
+     * @return (CardBag): the difference between this and that.
+     */
+    public CardBag difference(CardBag that) {
+        if(that.isEmpty()) {
+            return this;
+        }
+        int[] newCounts = new int[Card.COUNT];
+        int newSize = 0;
+        for(int i = 0; i < Card.COUNT; i++) {
+            newCounts[i] = Math.max(0, counts[i] - that.counts[i]);
+            newSize += newCounts[i];
+        }
+        return newSize == 0 ? EMPTY : new CardBag(newCounts, newSize);
+    }
+
+    /**
+     * Returns a list of the cards in the bag, in the order of the Card enumeration.
+     * @return (List<Card>): a list of the cards in the bag.
+     */
+    public List<Card> toList() {
+        List<Card> list = new ArrayList<>(size);
+        for(Card c : Card.ALL) {
+            for(int i = 0; i < counts[c.ordinal()]; i++) {
+                list.add(c);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns a SortedBag containing exactly the same cards as this bag.
+     * @return (SortedBag<Card>): a SortedBag containing exactly the same cards as this bag.
+     */
+    public SortedBag<Card> toSortedBag() {
+        SortedBag.Builder<Card> builder = new SortedBag.Builder<>();
+        for(Card c : Card.ALL) {
+            builder.add(counts[c.ordinal()], c);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof CardBag && Arrays.equals(counts, ((CardBag) that).counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return toSortedBag().toString();
+    }
+}
@@ -23,9 +23,9 @@ public final class CardState extends PublicCardState{
 	private final Deck<Card> deckCards;
 	
 	/**
-	 * (SortedBag<Card>): is the pile of discarded cards.
+	 * (CardBag): is the pile of discarded cards.
 	 */
-	private final SortedBag<Card> discardedCards;
+	private final CardBag discardedCards;
 	
 	/**
 	 * Private CardState constructor. Initializes the CardState using a starting deck (named deck).
@@ -37,17 +37,17 @@ public final class CardState extends PublicCardState{
 	private CardState(Deck<Card> deck) {
 		super(deck.topCards(FACE_UP_CARD_COUNT).toList(), deck.size()-FACE_UP_CARD_COUNT, 0);
 		deckCards = deck.withoutTopCards(FACE_UP_CARD_COUNT);
-		this.discardedCards = SortedBag.of();
+		this.discardedCards = CardBag.of();
 	}
 	
 	/**
-	 * Private CardState constructor. Initialized the CardState using a List of faceUpCards, a Deck of deckCards and a SortedBag of discardedCards.
+	 * Private CardState constructor. Initialized the CardState using a List of faceUpCards, a Deck of deckCards and a CardBag of discardedCards.
 	 * @param faceUpCards (List<Card>): the list of face-up cards.
 	 * @param deckCards (Deck<Card>): the deck of cards.
-	 * @param discardedCards (SortedBag<Card>): the pile of discarded cards.
+	 * @param discardedCards (CardBag): the pile of discarded cards.
 	 * @throws IllegalArgumentException if the size of faceUpCards is not 5.
 	 */
-	private CardState(List<Card> faceUpCards, Deck<Card> deckCards, SortedBag<Card> discardedCards) {
+	private CardState(List<Card> faceUpCards, Deck<Card> deckCards, CardBag discardedCards) {
 		super(faceUpCards, deckCards.size(), discardedCards.size());
 		this.deckCards = deckCards;
 		this.discardedCards = discardedCards;
@@ -64,6 +64,19 @@ public final class CardState extends PublicCardState{
 		return new CardState(deck);
 	}
 	
+	/**
+	 * Creates a CardState made of the given face-up cards, deck and discarded cards, used by the bots to build the states
+	 * they play out from what they know of the game.
+	 * @param faceUpCards (List<Card>): the list of face-up cards.
+	 * @param deckCards (Deck<Card>): the deck of cards.
+	 * @param discardedCards (CardBag): the pile of discarded cards.
+	 * @return (CardState): the CardState made of the given cards.
+	 * @throws IllegalArgumentException if the size of faceUpCards is not 5.
+	 */
+	static CardState of(List<Card> faceUpCards, Deck<Card> deckCards, CardBag discardedCards) {
+		return new CardState(faceUpCards, deckCards, discardedCards);
+	}
+	
 	/**
 	 * Returns an identical CardState to the caller, except that the face-up index slot card has been replaced by the card at 
 	 * the top of the drawer, which is removed at the same time.
@@ -77,7 +90,7 @@ public final class CardState extends PublicCardState{
 		Preconditions.checkArgument(!isDeckEmpty());
 		List<Card> newFaceUpCards = new ArrayList<>(super.faceUpCards());
 		newFaceUpCards.set(Objects.checkIndex(slot, newFaceUpCards.size()), this.deckCards.topCard());
-		return new CardState(newFaceUpCards, deckCards.withoutTopCard(), SortedBag.of(this.discardedCards));
+		return new CardState(newFaceUpCards, deckCards.withoutTopCard(), discardedCards);
 	}
 	
 	/**
@@ -98,7 +111,7 @@ public final class CardState extends PublicCardState{
 	 */
 	public CardState withoutTopDeckCard() {
 		Preconditions.checkArgument(!deckCards.isEmpty());
-		return new CardState(super.faceUpCards(), deckCards.withoutTopCard(), SortedBag.of(discardedCards));
+		return new CardState(super.faceUpCards(), deckCards.withoutTopCard(), discardedCards);
 	}
 	
 	/**
@@ -111,7 +124,7 @@ public final class CardState extends PublicCardState{
 	 */
 	public CardState withDeckRecreatedFromDiscards(Random rng){
 		Preconditions.checkArgument(deckCards.isEmpty());
-		return new CardState(super.faceUpCards(), Deck.of(discardedCards, rng), SortedBag.of());
+		return new CardState(super.faceUpCards(), Deck.of(discardedCards.toSortedBag(), rng), CardBag.of());
 	}
 	
 	/**
@@ -120,6 +133,6 @@ public final class CardState extends PublicCardState{
 	 * @return (CardState): an identical CardState to the caller, but with the given cards added to the pile of discarded cards.
 	 */
 	public CardState withMoreDiscardedCards(SortedBag<Card> additionalDiscards) {
-		return new CardState(super.faceUpCards(), deckCards, discardedCards.union(additionalDiscards));
+		return new CardState(super.faceUpCards(), deckCards, discardedCards.union(CardBag.of(additionalDiscards)));
 	}
 }
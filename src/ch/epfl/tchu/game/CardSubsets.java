@@ -0,0 +1,117 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Final and non-instanciable class enumerating the subsets of a given size of a bag of cards. The subsets are generated
+ * directly from the vector of counts of the bag, without building any intermediate bag, and are memoized, as the same
+ * few hands are enumerated over and over when tunnels are claimed.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class CardSubsets {
+
+    /**
+     * (Map<Key, List<SortedBag<Card>>>): the subsets already enumerated, by bag and size.
+     */
+    private static final Map<Key, List<SortedBag<Card>>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor existing for the sole purpose of not allowing this class to be instanciated.
+     */
+    private CardSubsets() {}
+
+    /**
+     * Returns all the distinct subsets of the given size of the given bag, sorted by increasing number of locomotives.
+     * @param cards (CardBag): the bag whose subsets are enumerated.
+     * @param size (int): the size of the subsets.
+     * @return (List<SortedBag<Card>>): an immutable list of all the distinct subsets of cards of the given size, sorted
+     * by increasing number of locomotives.
+     * @throws IllegalArgumentException if size is not between 0 and the size of the bag (both inclusive).
+     */
+    static List<SortedBag<Card>> ofSize(CardBag cards, int size) {
+        Preconditions.checkArgument(0 <= size && size <= cards.size());
+        return CACHE.computeIfAbsent(new Key(cards, size), k -> enumerate(k.cards, k.size));
+    }
+
+    /**
+     * Enumerates the subsets of the given size of the given bag, by increasing number of locomotives.
+     * @param cards (CardBag): the bag whose subsets are enumerated.
+     * @param size (int): the size of the subsets.
+     * @return (List<SortedBag<Card>>): an immutable list of the subsets.
+     */
+    private static List<SortedBag<Card>> enumerate(CardBag cards, int size) {
+        List<SortedBag<Card>> subsets = new ArrayList<>();
+        int[] counts = new int[Card.COUNT];
+        int maxLocomotives = Math.min(size, cards.countOf(Card.LOCOMOTIVE));
+        for(int locomotives = 0; locomotives <= maxLocomotives; locomotives++) {
+            counts[Card.LOCOMOTIVE.ordinal()] = locomotives;
+            enumerateCars(cards, 0, size - locomotives, counts, subsets);
+        }
+        return List.copyOf(subsets);
+    }
+
+    /**
+     * Distributes the given number of cards among the car cards from the given one onwards, in all the possible ways,
+     * and adds each resulting subset to the list.
+     * @param cards (CardBag): the bag whose subsets are enumerated.
+     * @param from (int): the index in Card.CARS of the first car card that can still be chosen.
+     * @param remaining (int): the number of cards still to be chosen.
+     * @param counts (int[]): the counts of the subset being built, indexed by card ordinal.
+     * @param subsets (List<SortedBag<Card>>): the list the subsets are added to.
+     */
+    private static void enumerateCars(CardBag cards, int from, int remaining, int[] counts,
+            List<SortedBag<Card>> subsets) {
+        if(remaining == 0) {
+            SortedBag.Builder<Card> builder = new SortedBag.Builder<>();
+            for(Card c : Card.ALL) {
+                builder.add(counts[c.ordinal()], c);
+            }
+            subsets.add(builder.build());
+            return;
+        }
+        if(from == Card.CARS.size()) {
+            return;
+        }
+        Card car = Card.CARS.get(from);
+        for(int n = Math.min(remaining, cards.countOf(car)); n >= 0; n--) {
+            counts[car.ordinal()] = n;
+            enumerateCars(cards, from + 1, remaining - n, counts, subsets);
+        }
+        counts[car.ordinal()] = 0;
+    }
+
+    /**
+     * Class representing the key under which the subsets of a given size of a given bag are memoized.
+     */
+    private static final class Key {
+        private final CardBag cards;
+        private final int size;
+
+        /**
+         * Private Key constructor.
+         * @param cards (CardBag): the bag whose subsets are enumerated.
+         * @param size (int): the size of the subsets.
+         */
+        private Key(CardBag cards, int size) {
+            this.cards = cards;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            return that instanceof Key && ((Key) that).size == size && ((Key) that).cards.equals(cards);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cards.hashCode() + size;
+        }
+    }
+}
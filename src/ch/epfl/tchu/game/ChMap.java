@@ -3,10 +3,16 @@ package ch.epfl.tchu.game;
 import ch.epfl.tchu.game.Route.Level;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import ch.epfl.tchu.Preconditions;
+
 public final class ChMap {
     private ChMap() { }
 
@@ -18,8 +24,32 @@ public final class ChMap {
         return ALL_ROUTES;
     }
 
+    /**
+     * Returns the position of the given route in routes(), which can be used to index tables built once
+     * for all the routes of the map.
+     * @param route (Route): a route of the map.
+     * @return (int): the position of the route in routes().
+     * @throws IllegalArgumentException if the route is not a route of the map.
+     */
+    public static int routeIndex(Route route) {
+        Integer index = ROUTE_INDICES.get(route);
+        Preconditions.checkArgument(index != null);
+        return index;
+    }
+
+    /**
+     * Returns the position in routes() of the sibling of the route at the given position, i.e. of the other route joining
+     * the same two stations, which cannot be claimed once one of them has been.
+     * @param routeIndex (int): the position of a route in routes().
+     * @return (int): the position of the sibling of the route in routes(), or -1 if the route has none.
+     * @throws IndexOutOfBoundsException if routeIndex is not the position of a route in routes().
+     */
+    public static int siblingIndex(int routeIndex) {
+        return SIBLING_INDICES[routeIndex];
+    }
+
     public static List<Ticket> tickets() {
-        return ALL_TICKETS;
+        return TWO_PLAYER_TICKETS;
     }
 
     // Stations - cities
@@ -179,6 +209,26 @@ public final class ChMap {
             new Route("ZOU_ZUR_1", ZOU, ZUR, 1, Level.OVERGROUND, Color.GREEN),
             new Route("ZOU_ZUR_2", ZOU, ZUR, 1, Level.OVERGROUND, Color.RED));
 
+    private static final Map<Route, Integer> ROUTE_INDICES = IntStream.range(0, ALL_ROUTES.size())
+            .boxed()
+            .collect(Collectors.toUnmodifiableMap(ALL_ROUTES::get, Function.identity()));
+
+    private static final int[] SIBLING_INDICES = computeSiblingIndices();
+
+    private static int[] computeSiblingIndices() {
+        int[] siblings = new int[ALL_ROUTES.size()];
+        Arrays.fill(siblings, -1);
+        for (int i = 0; i < siblings.length; i++) {
+            for (int j = i + 1; j < siblings.length; j++) {
+                if (ALL_ROUTES.get(i).stations().equals(ALL_ROUTES.get(j).stations())) {
+                    siblings[i] = j;
+                    siblings[j] = i;
+                }
+            }
+        }
+        return siblings;
+    }
+
     // Tickets
     private static final Ticket deToNeighbors = ticketToNeighbors(DE, 0, 5, 13, 5);
     private static final Ticket atToNeighbors = ticketToNeighbors(AT, 5, 0, 6, 14);
@@ -238,10 +288,7 @@ public final class ChMap {
     public static final List<Ticket> THREE_PLAYER_TICKETS = Stream.concat(
             TWO_PLAYER_TICKETS.stream(), 
             List.of(new Ticket(BAL, WAS, 8), new Ticket(KRE, DAV, 7)).stream())
-            .collect(Collectors.toList());
-    
-    
-    private static final List<Ticket> ALL_TICKETS = Constants.THREE_PLAYER ? THREE_PLAYER_TICKETS : TWO_PLAYER_TICKETS;
+            .collect(Collectors.toUnmodifiableList());
 
     private static Ticket ticketToNeighbors(List<Station> from, int de, int at, int it, int fr) {
         var trips = new ArrayList<Trip>();
@@ -7,11 +7,6 @@ import java.util.List;
 public final class Constants {
     private Constants() {}
 
-    /**
-     * boolean determining whether there will be 3 player. 
-     */
-    public static boolean THREE_PLAYER;
-    
     /**
      * Nombre de cartes wagon de chaque couleur.
      */
@@ -11,6 +11,8 @@ import ch.epfl.tchu.SortedBag;
  * Immutable class representing a deck of cards in the game.
  * Is a generic class as the types of cards contained are not decided in advance.
  * Is used to represent a deck of tickets or a deck of cards in the game.
+ * The cards are stored in an array shared by all the decks obtained from the same shuffled deck, each of which only knows
+ * the position of its top card in the array, so that drawing cards takes constant time however many have been drawn before.
  * @author Shrey Mittal (312275)
  * @author David Chernis (310298)
  * @param <C extends Comparable<C>> represents what type of object the deck will consist of.
@@ -18,16 +20,24 @@ import ch.epfl.tchu.SortedBag;
 public final class Deck<C extends Comparable<C>> {
 
     /**
-     * (List<C>): The List containing all the cards of the deck.
+     * (Object[]): the array containing the cards of the deck, from its top card at index top onwards. Is shared with the
+     * decks this deck was drawn from, and is never modified.
      */
-    private final List<C> cards;
+    private final Object[] cards;
 
     /**
-     * Private Deck constructor. Initializes a Deck constructor by giving it a SortedBag of generic type C.
-     * @param cards (SortedBag<C>): the SortedBag of cards of the deck.
+     * (int): the index in cards of the top card of the deck.
      */
-    private Deck(List<C> cards) {
+    private final int top;
+
+    /**
+     * Private Deck constructor. Initializes a Deck with the cards of the given array, from the given index onwards.
+     * @param cards (Object[]): the array containing the cards of the deck, which must never be modified afterwards.
+     * @param top (int): the index in cards of the top card of the deck.
+     */
+    private Deck(Object[] cards, int top) {
         this.cards = cards;
+        this.top = top;
     }
 
     /**
@@ -40,7 +50,7 @@ public final class Deck<C extends Comparable<C>> {
     public static <C extends Comparable<C>> Deck<C> of(SortedBag<C> cards, Random rng){
         List<C> cardList = cards.toList();
         Collections.shuffle(cardList, rng);
-        return new Deck<C>(cardList);
+        return new Deck<C>(cardList.toArray(), 0);
     }
 
     /**
@@ -48,7 +58,7 @@ public final class Deck<C extends Comparable<C>> {
      * @return (int): the number of cards in the deck.
      */
     public int size() {
-        return cards.size();
+        return cards.length - top;
     }
 
     /**
@@ -56,7 +66,7 @@ public final class Deck<C extends Comparable<C>> {
      * @return (boolean): true if the deck is empty, false otherwise.
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return top == cards.length;
     }
 
     /**
@@ -66,7 +76,7 @@ public final class Deck<C extends Comparable<C>> {
      */
     public C topCard() {
         Preconditions.checkArgument(!isEmpty());
-        return topCards(1).get(0);
+        return card(top);
     }
 
     /**
@@ -76,7 +86,7 @@ public final class Deck<C extends Comparable<C>> {
      */
     public Deck<C> withoutTopCard(){
         Preconditions.checkArgument(!isEmpty());
-        return withoutTopCards(1);
+        return new Deck<C>(cards, top + 1);
     }
 
     /**
@@ -87,7 +97,11 @@ public final class Deck<C extends Comparable<C>> {
      */
     public SortedBag<C> topCards(int count){
         Preconditions.checkArgument(0 <= count && count <= size());
-        return SortedBag.of(cards.subList(0, count));
+        SortedBag.Builder<C> builder = new SortedBag.Builder<>();
+        for(int i = top; i < top + count; i++) {
+            builder.add(card(i));
+        }
+        return builder.build();
     }
 
     /**
@@ -98,6 +112,16 @@ public final class Deck<C extends Comparable<C>> {
      */
     public Deck<C> withoutTopCards(int count){
         Preconditions.checkArgument(0 <= count && count <= size());
-        return new Deck<C>(cards.subList(count, cards.size()));
+        return new Deck<C>(cards, top + count);
+    }
+
+    /**
+     * Returns the card at the given index of the array of the deck.
+     * @param index (int): the index of the card in the array.
+     * @return (C): the card at the given index.
+     */
+    @SuppressWarnings("unchecked")
+    private C card(int index) {
+        return (C) cards[index];
     }
 }
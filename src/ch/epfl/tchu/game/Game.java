@@ -1,16 +1,16 @@
 package ch.epfl.tchu.game;
 
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.Consumer;
 
 import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Player.TurnKind;
 import ch.epfl.tchu.game.Route.Level;
-import ch.epfl.tchu.gui.Info;
 
 /**
  * Final and non-instanciable class that represents a part of the game.
@@ -19,7 +19,6 @@ import ch.epfl.tchu.gui.Info;
  */
 public final class Game {
 	
-    private static GameState gameState;
 	/**
 	 * Private constructor existing for the sole purpose of not allowing this class to not
 	 * be instanciating (at least outside of this class).
@@ -32,19 +31,38 @@ public final class Game {
 	 * @param playerNames (Map<PlayerId, String>): A map linking the player IDs with the player names they represent.
 	 * @param tickets (SortedBag<Ticket>): The tickets available for this game.
 	 * @param rng (Random): A random variable used to randomize certain aspects of the game.
+	 * @param config (GameConfig): the configuration of the game, giving the number of players taking part in it.
+	 * @return (Map<PlayerId, Integer>): the final points of each player, longest trail bonus included.
+	 * @throws IllegalArgumentException if the number of players or of player names differs from the one of the configuration.
 	 */
-	public static void play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, SortedBag<Ticket> tickets, Random rng, int playerNum){
-	    Preconditions.checkArgument(players.size() == PlayerId.COUNT && playerNames.size() == PlayerId.COUNT);
-	    //playerInfoMap to more efficiently handle Info objects.
-        Map<PlayerId, Info> playerInfoMap = new HashMap<>();
-        players.forEach((playerId, player) -> playerInfoMap.put(playerId, new Info(playerNames.get(playerId))));
-        players.forEach((playerId, player) -> player.setPlayerNumber(playerNum)); 
+	public static Map<PlayerId, Integer> play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, SortedBag<Ticket> tickets, Random rng, GameConfig config){
+	    return play(players, playerNames, tickets, rng, config, gameState -> {});
+	}
+
+	/**
+	 * Makes a game of tCHu be played with the characteristics passed as parameters, giving the complete state of the game to
+	 * the given observer once the initial tickets have been chosen, and then after every turn.
+	 * @param players (Map<PlayerId, Player>): A map linking the player IDs with the players they represent.
+	 * @param playerNames (Map<PlayerId, String>): A map linking the player IDs with the player names they represent.
+	 * @param tickets (SortedBag<Ticket>): The tickets available for this game.
+	 * @param rng (Random): A random variable used to randomize certain aspects of the game.
+	 * @param config (GameConfig): the configuration of the game, giving the number of players taking part in it.
+	 * @param observer (Consumer<GameState>): the observer of the states of the game.
+	 * @return (Map<PlayerId, Integer>): the final points of each player, longest trail bonus included.
+	 * @throws IllegalArgumentException if the number of players or of player names differs from the one of the configuration.
+	 */
+	static Map<PlayerId, Integer> play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, SortedBag<Ticket> tickets, Random rng, GameConfig config,
+	        Consumer<GameState> observer){
+	    Preconditions.checkArgument(players.size() == config.playerCount() && playerNames.size() == config.playerCount());
+        players.forEach((playerId, player) -> player.setPlayerNumber(config.playerCount())); 
 	    
-        GameState gameState = initializeGame(players,  playerNames, playerInfoMap, tickets, rng);
+        GameState gameState = initializeGame(players,  playerNames, tickets, rng, config);
+        observer.accept(gameState);
         
         // loop that plays the game.
         while(true) {
-            gameState = playTurn(playerInfoMap, gameState, players, rng);
+            gameState = playTurn(playerNames, gameState, players, rng);
+            observer.accept(gameState);
             updateState(players, gameState);
             if(gameState.lastTurnBegins()) {
                 gameState = gameState.forNextTurn();
@@ -55,67 +73,68 @@ public final class Game {
         
         // Plays out final turns.
         for(int i = 0; i < players.size(); i++) {
-            gameState = playTurn(playerInfoMap, gameState, players, rng);
+            gameState = playTurn(playerNames, gameState, players, rng);
+            observer.accept(gameState);
             updateState(players, gameState);
             if(gameState.currentPlayerId() != gameState.lastPlayer()) {
                 gameState = gameState.forNextTurn();        
             }
         }
         updateState(players, gameState);
-        calculatePoints(gameState, players,  playerNames, playerInfoMap);
+        return calculatePoints(gameState, players,  playerNames);
 	}
 	 
     /**
      * Initializes a game performing all the tasks needed to be performed at the start of a game.
      * @param players (Map<PlayerId, Player>): A map linking the player IDs with the players they represent.
      * @param playerNames (Map<PlayerId, String>): A map linking the player IDs with the player names they represent.
-     * @param playerInfoMap (Map<PlayerId, Info>): A map linking the Info objects of player to their Player ID.
      * @param tickets (SortedBag<Ticket>): The tickets available for this game.
      * @param rng (Random): A random variable used to randomize certain aspects of the game.
+     * @param config (GameConfig): the configuration of the game.
      * @return (GameState): a GameState initialized with all the steps needed to be performed at the start of a game.
      */
-	private static GameState initializeGame(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, Map<PlayerId,Info> playerInfoMap, SortedBag<Ticket> tickets, Random rng) {
-	    gameState = GameState.initial(tickets, rng);
+	private static GameState initializeGame(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, SortedBag<Ticket> tickets, Random rng, GameConfig config) {
+	    GameState gameState = GameState.initial(tickets, rng, config);
 	    players.forEach((playerId, player) -> player.initPlayers(playerId, playerNames));
-	    receiveInfoForAll(playerInfoMap.get(gameState.currentPlayerId()).willPlayFirst(), players);
+	    receiveEventForAll(GameEvent.willPlayFirst(gameState.currentPlayerId()), players, playerNames);
 	    
-	    for(int i = 0; i < players.size(); i++) {
-	        players.get(PlayerId.ALL.get(i)).setInitialTicketChoice(gameState.topTickets(Constants.INITIAL_TICKETS_COUNT));
+	    for(PlayerId playerId : config.playerIds()) {
+	        players.get(playerId).setInitialTicketChoice(gameState.topTickets(Constants.INITIAL_TICKETS_COUNT));
 	        gameState = gameState.withoutTopTickets(Constants.INITIAL_TICKETS_COUNT);
-	        players.get(PlayerId.ALL.get(i)).updateState(gameState, gameState.playerState(PlayerId.ALL.get(i)));
+	        players.get(playerId).updateState(gameState, gameState.playerState(playerId));
 	    }
         updateState(players, gameState);
         
-        players.forEach(((playerId, player) -> gameState = gameState.withInitiallyChosenTickets(playerId, player.chooseInitialTickets())));
-        playerInfoMap.forEach((playerId, info) -> info.keptTickets(gameState.playerState(playerId).ticketCount()));
+        for(PlayerId playerId : config.playerIds()) {
+            gameState = gameState.withInitiallyChosenTickets(playerId, players.get(playerId).chooseInitialTickets());
+        }
         return gameState;
 	}
 	
 	
     /**
      * Private static method that is called at the end of the game to calculate the points of both players and declare the victor. 
+     * The longest trails and points of the players are maintained incrementally by their states during the game, so that reading
+     * them here takes constant time.
      * @param gameState (GameState): the given game state at the end of the game.
      * @param players (Map<PlayerId, Player>): A map linking each player id to the player it refers to.
      * @param playerNames (Map<PlayerId, String>): A map linking the player IDs with the player names they represent.
-     * @param playerInfoMap (Map<PlayerId, Info>): A map linking the Info objects of player to their Player ID.
+     * @return (Map<PlayerId, Integer>): the final points of each player, longest trail bonus included.
      */
-	private static void calculatePoints(GameState gameState, Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, Map<PlayerId, Info> playerInfoMap) {
+	private static Map<PlayerId, Integer> calculatePoints(GameState gameState, Map<PlayerId, Player> players, Map<PlayerId, String> playerNames) {
 	    Map<PlayerId, Trail> longestMap = new HashMap<PlayerId, Trail>();
 	    
-	    players.forEach((playerId, player) -> longestMap.put(playerId, Trail.longest(gameState.playerState(playerId).routes())));
+	    players.forEach((playerId, player) -> longestMap.put(playerId, gameState.playerState(playerId).longestTrail()));
         
 	    // Auxiliary variables to increase efficiency
 	    int[] bonus = new int[players.size()];
 	    int[] length = new int[players.size()];
 	    int[] finalPoints = new int[players.size()];
-	    Info[] playerInfo = new Info[players.size()];
 	    Trail[] trail = new Trail[players.size()];
-	    String longestInfo = "";
 	    int maxLength = 0;
 	    for(int i = 0; i < players.size(); i++) {
 	    	bonus[i] = 0;
 	    	length[i] = longestMap.get(PlayerId.ALL.get(i)).length();
-	    	playerInfo[i] = playerInfoMap.get(PlayerId.ALL.get(i));
 	    	trail[i] = longestMap.get(PlayerId.ALL.get(i));
 	    	if(maxLength < length[i]) {
 	    		maxLength = length[i];
@@ -125,15 +144,16 @@ public final class Game {
 	    for(int i = 0; i < players.size(); i++) {
 	    	if(length[i] == maxLength) {
 	    		bonus[i] = 10;
-	    		longestInfo += playerInfo[i].getsLongestTrailBonus(trail[i]);
+	    		receiveEventForAll(GameEvent.getsLongestTrailBonus(PlayerId.ALL.get(i), trail[i]), players, playerNames);
 	    	}
 	    }
-	    receiveInfoForAll(longestInfo, players);
 	    
 	    int winningPoints = Integer.MIN_VALUE;
 	    int losingPoints = Integer.MAX_VALUE;
+	    Map<PlayerId, Integer> pointsMap = new EnumMap<>(PlayerId.class);
 	    for(int i = 0; i < players.size(); i++) {
 	    	finalPoints[i] = gameState.playerState(PlayerId.ALL.get(i)).finalPoints() + bonus[i];
+	    	pointsMap.put(PlayerId.ALL.get(i), finalPoints[i]);
 	    	if(finalPoints[i] > winningPoints) {
 	    		winningPoints = finalPoints[i];
 	    	}
@@ -143,54 +163,48 @@ public final class Game {
 	    }
 	    
 	    if(winningPoints == losingPoints) {
-	    	List<String> playerNameList = new ArrayList<>();
-	    	for(int i = 0; i < players.size(); i++) {
-	    		playerNameList.add(playerNames.get((PlayerId.ALL.get(i))));
-	    	}
-	    	receiveInfoForAll(Info.draw(playerNameList, winningPoints), players);
+	    	receiveEventForAll(GameEvent.draw(winningPoints), players, playerNames);
 	    }
 	    else {
-	    	String finalText = "";
 	    	for(int i = 0; i < players.size(); i++) {
 	    		if(winningPoints == finalPoints[i]) {
-	    			finalText += playerInfo[i].won(winningPoints, losingPoints);
+	    			receiveEventForAll(GameEvent.won(PlayerId.ALL.get(i), winningPoints, losingPoints), players, playerNames);
 	    		}
 	    	}
-	    	receiveInfoForAll(finalText, players);
 	    }
+	    return pointsMap;
 	}
 	
 	/**
      * Method that Plays out a turn of a certain player with the given game state, which then returns a modified gameState at the end of the turn.
-     * @param playerInfoMap (Map<PlayerId, Info>): Allows the access of the Info object of both players.
+     * @param playerNames (Map<PlayerId, String>): A map linking the player IDs with the player names they represent.
      * @param gameState (GameState): the given game state used to play out a turn.
      * @param players (Map<PlayerId, Player>): A map linking each player id to the player it refers to.
      * @param rng (Random): A random variable used to randomize certain aspects of the game.
      * @return (GameState): an updated game state after the turn of the given player has been played.
      */
-	private static GameState playTurn(Map<PlayerId, Info> playerInfoMap, GameState gameState, Map<PlayerId, Player> players, Random rng) {
+	private static GameState playTurn(Map<PlayerId, String> playerNames, GameState gameState, Map<PlayerId, Player> players, Random rng) {
 	    //Start of turn and Choosing Type of Turn
 	    PlayerId currentId = gameState.currentPlayerId();
-	    Info currentInfo =  playerInfoMap.get(currentId);
 	    Player currentPlayer = players.get(currentId);
 	    
-        receiveInfoForAll(currentInfo.canPlay(), players);
+        receiveEventForAll(GameEvent.canPlay(currentId), players, playerNames);
         updateState(players, gameState);
         TurnKind chosenTurnKind = currentPlayer.nextTurn();
         
         // Turn type: Choose Tickets
         switch(chosenTurnKind) {
-        case DRAW_TICKETS:  gameState = drawTicketTurn(gameState, players, playerInfoMap);
+        case DRAW_TICKETS:  gameState = drawTicketTurn(gameState, players, playerNames);
                             break;
-        case DRAW_CARDS:    gameState = drawCardsTurn(gameState, players, playerInfoMap, rng);
+        case DRAW_CARDS:    gameState = drawCardsTurn(gameState, players, playerNames, rng);
                             break;
-        case CLAIM_ROUTE:   gameState = claimRouteTurn(gameState, players, playerInfoMap, rng);
+        case CLAIM_ROUTE:   gameState = claimRouteTurn(gameState, players, playerNames, rng);
                             break;
         }
         
         //informs the player that the last turn has begun
         if(gameState.lastTurnBegins()) {
-            receiveInfoForAll(currentInfo.lastTurnBegins(gameState.currentPlayerState().carCount()), players);  
+            receiveEventForAll(GameEvent.lastTurnBegins(currentId, gameState.currentPlayerState().carCount()), players, playerNames);  
         }
         
         return gameState;
@@ -200,17 +214,16 @@ public final class Game {
 	 * Method that plays out a turn of the player where he chooses to draw tickets. 
 	 * @param gameState (GameState) : the current gameState fed into the method to update it.
 	 * @param players (Map<PlayerId, Player>) : Map of the players mapped to their respective playerIds
-	 * @param playerInfoMap (Map<playerId, Info>) : Map of the player info objects mapped to their respective playerIds
+	 * @param playerNames (Map<PlayerId, String>) : Map of the player names mapped to their respective playerIds
 	 * @return (GameState) : the new updated gameState
 	 */
-	private static GameState drawTicketTurn(GameState gameState , Map<PlayerId, Player> players , Map<PlayerId, Info> playerInfoMap) {
+	private static GameState drawTicketTurn(GameState gameState , Map<PlayerId, Player> players , Map<PlayerId, String> playerNames) {
 	    PlayerId currentId = gameState.currentPlayerId();
-	    Info currentInfo = playerInfoMap.get(currentId);
 	    
-	    receiveInfoForAll(currentInfo.drewTickets(3), players);
+	    receiveEventForAll(GameEvent.drewTickets(currentId, 3), players, playerNames);
         SortedBag<Ticket> chosenTickets = players.get(currentId).chooseTickets(gameState.topTickets(3));
         gameState = gameState.withChosenAdditionalTickets(gameState.topTickets(3), chosenTickets);
-        receiveInfoForAll(currentInfo.keptTickets(chosenTickets.size()), players);
+        receiveEventForAll(GameEvent.keptTickets(currentId, chosenTickets.size()), players, playerNames);
         return gameState;
 	}
 	
@@ -218,22 +231,22 @@ public final class Game {
 	 * Method that plays out a turn of the player where he chooses to draw tickets. 
      * @param gameState (GameState) : the current gameState fed into the method to update it.
      * @param players (Map<PlayerId, Player>) : Map of the players mapped to their respective playerIds
-     * @param playerInfoMap (Map<playerId, Info>) : Map of the player info objects mapped to their respective playerIds
+     * @param playerNames (Map<PlayerId, String>) : Map of the player names mapped to their respective playerIds
 	 * @param rng (Random) : Random variable for randomizing the recreation of the Deck
 	 * @return (GameState) : the new updated gameState
 	 */
-	private static GameState drawCardsTurn(GameState gameState , Map<PlayerId, Player> players , Map<PlayerId, Info> playerInfoMap, Random rng) {
+	private static GameState drawCardsTurn(GameState gameState , Map<PlayerId, Player> players , Map<PlayerId, String> playerNames, Random rng) {
 	    for(int i = 0; i < 2; i++) {
             if(i == 1) {
                 updateState(players, gameState);
             }
             int drawSlot = players.get(gameState.currentPlayerId()).drawSlot();
             if(Constants.FACE_UP_CARD_SLOTS.contains(drawSlot)) {
-                receiveInfoForAll(playerInfoMap.get(gameState.currentPlayerId()).drewVisibleCard(gameState.cardState().faceUpCard(drawSlot)), players);
+                receiveEventForAll(GameEvent.drewVisibleCard(gameState.currentPlayerId(), gameState.cardState().faceUpCard(drawSlot)), players, playerNames);
                 gameState = gameState.withCardsDeckRecreatedIfNeeded(rng);
                 gameState = gameState.withDrawnFaceUpCard(drawSlot);
             } else if(drawSlot == Constants.DECK_SLOT) {
-                receiveInfoForAll(playerInfoMap.get(gameState.currentPlayerId()).drewBlindCard(), players);
+                receiveEventForAll(GameEvent.drewBlindCard(gameState.currentPlayerId()), players, playerNames);
                 gameState = gameState.withCardsDeckRecreatedIfNeeded(rng);
                 gameState = gameState.withBlindlyDrawnCard();
             }
@@ -246,31 +259,30 @@ public final class Game {
 	 * Method that plays out a turn of the player where he chooses to draw tickets. 
      * @param gameState (GameState) : the current gameState fed into the method to update it.
      * @param players (Map<PlayerId, Player>) : Map of the players mapped to their respective playerIds
-     * @param playerInfoMap (Map<playerId, Info>) : Map of the player info objects mapped to their respective playerIds
+     * @param playerNames (Map<PlayerId, String>) : Map of the player names mapped to their respective playerIds
      * @param rng (Random) : Random variable for randomizing the recreation of the Deck
 	 * @return (GameState) : the new updated gameState
 	 */
-	private static GameState claimRouteTurn(GameState gameState , Map<PlayerId, Player> players , Map<PlayerId, Info> playerInfoMap, Random rng) {
+	private static GameState claimRouteTurn(GameState gameState , Map<PlayerId, Player> players , Map<PlayerId, String> playerNames, Random rng) {
 	    Route currentRoute = players.get(gameState.currentPlayerId()).claimedRoute();
         SortedBag<Card> initialClaimCards = players.get(gameState.currentPlayerId()).initialClaimCards();
         PlayerId currentId = gameState.currentPlayerId();
         PlayerState currentPlayerState = gameState.currentPlayerState();
-        Info currentInfo = playerInfoMap.get(currentId);
         
         
         if(currentRoute.level() == Level.OVERGROUND) {
             if(!initialClaimCards.isEmpty()  && currentPlayerState.canClaimRoute(currentRoute) ) {
-                receiveInfoForAll(currentInfo.claimedRoute(currentRoute, initialClaimCards), players);
+                receiveEventForAll(GameEvent.claimedRoute(currentId, currentRoute, initialClaimCards), players, playerNames);
                 gameState = gameState.withClaimedRoute(currentRoute, initialClaimCards);
                 
             } else {
-                receiveInfoForAll(currentInfo.didNotClaimRoute(currentRoute), players);
+                receiveEventForAll(GameEvent.didNotClaimRoute(currentId, currentRoute), players, playerNames);
             }
         }
         
         else if(currentRoute.level() == Level.UNDERGROUND) {
             if(!initialClaimCards.isEmpty()  && currentPlayerState.canClaimRoute(currentRoute) ) {
-                receiveInfoForAll(currentInfo.attemptsTunnelClaim(currentRoute, initialClaimCards), players);
+                receiveEventForAll(GameEvent.attemptsTunnelClaim(currentId, currentRoute, initialClaimCards), players, playerNames);
                 
                 // Additional Cards Being Drawn
                 SortedBag<Card> drawnCards;
@@ -286,7 +298,7 @@ public final class Game {
                 
                 //Building of Possible Additional Cards + Informing player of drawn Additional Cards
                 int additionalCardCount = currentRoute.additionalClaimCardsCount(initialClaimCards, drawnCards);
-                receiveInfoForAll(currentInfo.drewAdditionalCards(drawnCards, additionalCardCount), players);
+                receiveEventForAll(GameEvent.drewAdditionalCards(currentId, drawnCards, additionalCardCount), players, playerNames);
                 
                 List<SortedBag<Card>> possibleAdditionalCards = additionalCardCount >= 1 ? 
                         currentPlayerState.possibleAdditionalCards(additionalCardCount, initialClaimCards, drawnCards) 
@@ -296,33 +308,34 @@ public final class Game {
                 if( additionalCardCount >= 1 && !possibleAdditionalCards.isEmpty()){ 
                     additionalCards = players.get(currentId).chooseAdditionalCards(possibleAdditionalCards);
                     if(!additionalCards.isEmpty()) {
-                        receiveInfoForAll(currentInfo.claimedRoute(currentRoute, additionalCards.union(initialClaimCards)), players);
+                        receiveEventForAll(GameEvent.claimedRoute(currentId, currentRoute, additionalCards.union(initialClaimCards)), players, playerNames);
                         gameState = gameState.withClaimedRoute(currentRoute, additionalCards.union(initialClaimCards));
                     } else {
-                        receiveInfoForAll(currentInfo.didNotClaimRoute(currentRoute), players);
+                        receiveEventForAll(GameEvent.didNotClaimRoute(currentId, currentRoute), players, playerNames);
                     }
                 // Management of the claiming of the route if there is no additional Cost.
                 } else if(additionalCardCount == 0) {
-                    receiveInfoForAll(currentInfo.claimedRoute(currentRoute, initialClaimCards), players);
+                    receiveEventForAll(GameEvent.claimedRoute(currentId, currentRoute, initialClaimCards), players, playerNames);
                     gameState = gameState.withClaimedRoute(currentRoute, initialClaimCards);
                 } else {
-                    receiveInfoForAll(currentInfo.didNotClaimRoute(currentRoute), players);
+                    receiveEventForAll(GameEvent.didNotClaimRoute(currentId, currentRoute), players, playerNames);
                 }
             } else {
-                receiveInfoForAll(currentInfo.didNotClaimRoute(currentRoute), players);
+                receiveEventForAll(GameEvent.didNotClaimRoute(currentId, currentRoute), players, playerNames);
             }
         }
         return gameState;
 	}
 	
 	/**
-     * A private method that essentially calls the receiveInfo method for both players in the game specified
+     * A private method that essentially calls the receiveEvent method for all the players in the game specified
      * by the players Map.
-     * @param info (String): the info to be sent to both players.
-     * @param players (Map<PlayerId, Player>) the map specifying the players to whom the message must be sent.
+     * @param event (GameEvent): the event to be sent to all the players.
+     * @param players (Map<PlayerId, Player>) the map specifying the players to whom the event must be sent.
+     * @param playerNames (Map<PlayerId, String>): A map linking the player IDs with the player names they represent.
      */
-    private static void receiveInfoForAll(String info, Map<PlayerId, Player> players) {
-        players.forEach((playerId, player) -> player.receiveInfo(info));
+    private static void receiveEventForAll(GameEvent event, Map<PlayerId, Player> players, Map<PlayerId, String> playerNames) {
+        players.forEach((playerId, player) -> player.receiveEvent(event, playerNames));
     }
     
     /**
@@ -0,0 +1,419 @@
+package ch.epfl.tchu.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.Player.TurnKind;
+
+/**
+ * Class giving random access to an archive of many game logs (see GameLog), packed in a single file which is mapped in
+ * memory. Its index gives the position of the log of every game, by game id, and of every turn in the log, so that a game or
+ * a turn can be found without reading the others, and that a game can be replayed up to a given turn only.
+ * <p>
+ * An archive starts with a header made of the magic number, the version of the format, the number of games and the
+ * position of the table of games. It is followed by the logs of the games, as they were written, then by the positions of
+ * the turns of each log, and finally by the table of games, which gives the id of each game, the position and length of its
+ * log, and the position and number of its turns. The entries of the table are sorted by game id, so that a game is found by
+ * binary search. As a mapping is limited to 2 GiB, larger collections of games must be split into several archives.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class GameArchive implements Closeable {
+
+    /**
+     * (int): the magic number every archive starts with, "tCHA" in ASCII.
+     */
+    private static final int MAGIC = 0x74434841;
+
+    /**
+     * (int): the version of the format of the archives.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * (int): the size of the header of an archive, in bytes.
+     */
+    private static final int HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES;
+
+    /**
+     * (int): the size of an entry of the table of games, in bytes.
+     */
+    private static final int ENTRY_SIZE = 3 * Long.BYTES + 2 * Integer.BYTES;
+
+    /**
+     * (FileChannel): the channel of the file of the archive.
+     */
+    private final FileChannel channel;
+
+    /**
+     * (ByteBuffer): the content of the archive, mapped in memory. Is only read with absolute methods, so that it can be
+     * shared by several threads.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * (int): the number of games in the archive.
+     */
+    private final int gameCount;
+
+    /**
+     * (int): the position of the table of games.
+     */
+    private final int tableOffset;
+
+    /**
+     * Private GameArchive constructor.
+     * @param channel (FileChannel): the channel of the file of the archive.
+     * @param data (ByteBuffer): the content of the archive, mapped in memory.
+     * @throws IllegalArgumentException if the file does not contain an archive.
+     */
+    private GameArchive(FileChannel channel, ByteBuffer data) {
+        Preconditions.checkArgument(data.capacity() >= HEADER_SIZE && data.getInt(0) == MAGIC
+                && data.getInt(Integer.BYTES) == VERSION);
+        this.channel = channel;
+        this.data = data;
+        this.gameCount = data.getInt(2 * Integer.BYTES);
+        long table = data.getLong(3 * Integer.BYTES);
+        Preconditions.checkArgument(gameCount >= 0 && HEADER_SIZE <= table
+                && table + (long) gameCount * ENTRY_SIZE <= data.capacity());
+        this.tableOffset = (int) table;
+    }
+
+    /**
+     * Opens the archive contained in the given file, and maps it in memory.
+     * @param file (Path): the file containing the archive.
+     * @return (GameArchive): the archive contained in the file.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file does not contain an archive, or if it is larger than 2 GiB.
+     */
+    public static GameArchive open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            Preconditions.checkArgument(channel.size() <= Integer.MAX_VALUE);
+            return new GameArchive(channel, channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of games in the archive.
+     * @return (int): the number of games in the archive.
+     */
+    public int gameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Returns the id of the game at the given index of the archive, the games being sorted by increasing id.
+     * @param index (int): the index of the game.
+     * @return (long): the id of the game.
+     * @throws IndexOutOfBoundsException if index is not between 0 (inclusive) and the number of games (exclusive).
+     */
+    public long gameId(int index) {
+        return data.getLong(entry(index));
+    }
+
+    /**
+     * Returns true if the archive contains the game with the given id.
+     * @param gameId (long): the id of the game.
+     * @return (boolean): true if the archive contains the game.
+     */
+    public boolean contains(long gameId) {
+        return find(gameId) >= 0;
+    }
+
+    /**
+     * Returns the log of the game with the given id, without copying it.
+     * @param gameId (long): the id of the game.
+     * @return (ByteBuffer): a read-only buffer whose remaining bytes are the log of the game.
+     * @throws IllegalArgumentException if the archive does not contain the game.
+     */
+    public ByteBuffer log(long gameId) {
+        int entry = entryOf(gameId);
+        return slice((int) data.getLong(entry + Long.BYTES), data.getInt(entry + 2 * Long.BYTES));
+    }
+
+    /**
+     * Returns the number of turns recorded in the log of the game with the given id.
+     * @param gameId (long): the id of the game.
+     * @return (int): the number of turns of the game.
+     * @throws IllegalArgumentException if the archive does not contain the game.
+     */
+    public int turnCount(long gameId) {
+        return data.getInt(entryOf(gameId) + 2 * Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Returns the kind of the given turn of the game with the given id, read directly from its log.
+     * @param gameId (long): the id of the game.
+     * @param turn (int): the index of the turn, starting at 0.
+     * @return (TurnKind): the kind of the turn.
+     * @throws IllegalArgumentException if the archive does not contain the game, or if turn is not between 0 (inclusive)
+     * and the number of turns of the game (exclusive).
+     */
+    public TurnKind turnKind(long gameId, int turn) {
+        int entry = entryOf(gameId);
+        int logOffset = (int) data.getLong(entry + Long.BYTES);
+        // The record of the kind of a turn is made of its tag and of the ordinal of the kind.
+        return TurnKind.ALL.get(data.get(logOffset + turnOffset(entry, turn) + 1));
+    }
+
+    /**
+     * Replays the whole game with the given id.
+     * @param gameId (long): the id of the game.
+     * @return (GameLog.Replay): the replayed game.
+     * @throws IllegalArgumentException if the archive does not contain the game.
+     */
+    public GameLog.Replay replay(long gameId) {
+        return GameLog.replay(log(gameId));
+    }
+
+    /**
+     * Returns the state of the game with the given id at the start of the given turn, i.e. once all the previous turns have
+     * been played, by replaying the game up to this turn only.
+     * @param gameId (long): the id of the game.
+     * @param turn (int): the index of the turn, starting at 0.
+     * @return (GameState): the state of the game at the end of the previous turn, or once the initial tickets were chosen
+     * for the first turn.
+     * @throws IllegalArgumentException if the archive does not contain the game, or if turn is not between 0 (inclusive)
+     * and the number of turns of the game (exclusive).
+     */
+    public GameState stateBeforeTurn(long gameId, int turn) {
+        int entry = entryOf(gameId);
+        int logOffset = (int) data.getLong(entry + Long.BYTES);
+        List<GameState> states = GameLog.replay(slice(logOffset, turnOffset(entry, turn))).states();
+        return states.get(turn);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns the position of the record of the kind of the given turn in the log of the game at the given entry.
+     * @param entry (int): the position of the entry of the game in the table.
+     * @param turn (int): the index of the turn.
+     * @return (int): the position of the record of the kind of the turn, relative to the start of the log.
+     * @throws IllegalArgumentException if turn is not between 0 (inclusive) and the number of turns (exclusive).
+     */
+    private int turnOffset(int entry, int turn) {
+        int turnCount = data.getInt(entry + 2 * Long.BYTES + Integer.BYTES);
+        Preconditions.checkArgument(0 <= turn && turn < turnCount);
+        int turnsOffset = (int) data.getLong(entry + 2 * Long.BYTES + 2 * Integer.BYTES);
+        return data.getInt(turnsOffset + turn * Integer.BYTES);
+    }
+
+    /**
+     * Returns the position in the table of the entry of the game at the given index.
+     * @param index (int): the index of the game.
+     * @return (int): the position of the entry of the game.
+     * @throws IndexOutOfBoundsException if index is not between 0 (inclusive) and the number of games (exclusive).
+     */
+    private int entry(int index) {
+        if(index < 0 || index >= gameCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        return tableOffset + index * ENTRY_SIZE;
+    }
+
+    /**
+     * Returns the position in the table of the entry of the game with the given id.
+     * @param gameId (long): the id of the game.
+     * @return (int): the position of the entry of the game.
+     * @throws IllegalArgumentException if the archive does not contain the game.
+     */
+    private int entryOf(long gameId) {
+        int index = find(gameId);
+        Preconditions.checkArgument(index >= 0);
+        return entry(index);
+    }
+
+    /**
+     * Returns the index of the game with the given id, using a binary search of the table.
+     * @param gameId (long): the id of the game.
+     * @return (int): the index of the game, or -1 if the archive does not contain it.
+     */
+    private int find(long gameId) {
+        int low = 0;
+        int high = gameCount - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            long id = gameId(middle);
+            if(id < gameId) {
+                low = middle + 1;
+            } else if(id > gameId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a read-only view of the given part of the archive.
+     * @param offset (int): the position of the part.
+     * @param length (int): the length of the part.
+     * @return (ByteBuffer): a read-only buffer whose remaining bytes are the given part of the archive.
+     */
+    private ByteBuffer slice(int offset, int length) {
+        ByteBuffer view = data.asReadOnlyBuffer();
+        view.position(offset).limit(offset + length);
+        return view.slice();
+    }
+
+    /**
+     * Class writing an archive into a file, one game log after the other. The index is written when the writer is closed,
+     * which must be done for the archive to be readable.
+     */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final List<Entry> entries = new ArrayList<>();
+        private final Set<Long> gameIds = new HashSet<>();
+        private long position = HEADER_SIZE;
+        private long turnCount;
+
+        /**
+         * Public Writer constructor. Creates the given file, which must not exist.
+         * @param file (Path): the file into which the archive is written.
+         * @throws IOException if the file cannot be created.
+         */
+        public Writer(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            channel.position(HEADER_SIZE);
+        }
+
+        /**
+         * Adds the given game log to the archive.
+         * @param gameId (long): the id of the game, for example the seed of its random generator.
+         * @param log (ByteBuffer): the log of the game, in its remaining bytes, which are consumed.
+         * @throws IllegalArgumentException if the archive already contains a game with this id, if the buffer does not
+         * contain the log of a game, or if the archive would become larger than 2 GiB.
+         * @throws IOException if the archive cannot be written.
+         */
+        public void add(long gameId, ByteBuffer log) throws IOException {
+            Preconditions.checkArgument(!gameIds.contains(gameId));
+            int[] turnOffsets = GameLog.turnOffsets(log);
+            int length = log.remaining();
+            // The index takes 4 bytes per turn and ENTRY_SIZE bytes per game.
+            Preconditions.checkArgument(position + length + (long) (entries.size() + 1) * ENTRY_SIZE
+                    + 4L * (turnCount + turnOffsets.length) <= Integer.MAX_VALUE);
+            while(log.hasRemaining()) {
+                channel.write(log);
+            }
+            gameIds.add(gameId);
+            turnCount += turnOffsets.length;
+            entries.add(new Entry(gameId, position, length, turnOffsets));
+            position += length;
+        }
+
+        /**
+         * Adds the game log contained in the given file to the archive.
+         * @param gameId (long): the id of the game, for example the seed of its random generator.
+         * @param logFile (Path): the file containing the log of the game.
+         * @throws IllegalArgumentException if the archive already contains a game with this id, or if the file does not
+         * contain the log of a game.
+         * @throws IOException if the file cannot be read, or if the archive cannot be written.
+         */
+        public void add(long gameId, Path logFile) throws IOException {
+            add(gameId, ByteBuffer.wrap(Files.readAllBytes(logFile)));
+        }
+
+        /**
+         * Writes the index of the archive, and closes its file.
+         * @throws IOException if the archive cannot be written.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                entries.sort(Comparator.comparingLong(e -> e.gameId));
+                long[] turnsOffsets = new long[entries.size()];
+                for(int i = 0; i < entries.size(); i++) {
+                    int[] turns = entries.get(i).turnOffsets;
+                    ByteBuffer buffer = ByteBuffer.allocate(turns.length * Integer.BYTES);
+                    // The int view writes into the buffer without moving its position.
+                    buffer.asIntBuffer().put(turns);
+                    turnsOffsets[i] = position;
+                    position += write(buffer, position);
+                }
+
+                long tableOffset = position;
+                ByteBuffer table = ByteBuffer.allocate(entries.size() * ENTRY_SIZE);
+                for(int i = 0; i < entries.size(); i++) {
+                    Entry e = entries.get(i);
+                    table.putLong(e.gameId)
+                            .putLong(e.offset)
+                            .putInt(e.length)
+                            .putInt(e.turnOffsets.length)
+                            .putLong(turnsOffsets[i]);
+                }
+                table.flip();
+                position += write(table, position);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(entries.size())
+                        .putLong(tableOffset);
+                header.flip();
+                write(header, 0);
+            } finally {
+                channel.close();
+            }
+        }
+
+        /**
+         * Writes the remaining bytes of the given buffer at the given position of the file.
+         * @param buffer (ByteBuffer): the bytes to be written.
+         * @param at (long): the position in the file at which they are written.
+         * @return (int): the number of bytes written.
+         * @throws IOException if the file cannot be written.
+         */
+        private int write(ByteBuffer buffer, long at) throws IOException {
+            int length = buffer.remaining();
+            while(buffer.hasRemaining()) {
+                at += channel.write(buffer, at);
+            }
+            return length;
+        }
+
+        /**
+         * Class representing the entry of a game in the table of the archive.
+         */
+        private static final class Entry {
+            private final long gameId;
+            private final long offset;
+            private final int length;
+            private final int[] turnOffsets;
+
+            /**
+             * Private Entry constructor.
+             * @param gameId (long): the id of the game.
+             * @param offset (long): the position of the log of the game in the archive.
+             * @param length (int): the length of the log of the game.
+             * @param turnOffsets (int[]): the position of each turn in the log.
+             */
+            private Entry(long gameId, long offset, int length, int[] turnOffsets) {
+                this.gameId = gameId;
+                this.offset = offset;
+                this.length = length;
+                this.turnOffsets = turnOffsets;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ch.epfl.tchu.game;
+
+import java.util.List;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * Immutable class representing the configuration of a single game of tCHu: the players taking part in it,
+ * the tickets it is played with and the map it is played on. Is passed explicitly to every part of a game
+ * that depends on it, so that games with different configurations can be played at the same time.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class GameConfig {
+
+    /**
+     * (GameConfig): the configuration of a game played by 2 players.
+     */
+    public static final GameConfig TWO_PLAYERS = new GameConfig(2, ChMap.TWO_PLAYER_TICKETS);
+
+    /**
+     * (GameConfig): the configuration of a game played by 3 players.
+     */
+    public static final GameConfig THREE_PLAYERS = new GameConfig(3, ChMap.THREE_PLAYER_TICKETS);
+
+    /**
+     * (List<PlayerId>): the identities of the players taking part in the game, in playing order.
+     */
+    private final List<PlayerId> playerIds;
+
+    /**
+     * (List<Ticket>): the tickets the game is played with.
+     */
+    private final List<Ticket> tickets;
+
+    /**
+     * Private GameConfig constructor. Initializes a configuration using a number of players and a list of tickets.
+     * @param playerCount (int): the number of players taking part in the game.
+     * @param tickets (List<Ticket>): the tickets the game is played with.
+     */
+    private GameConfig(int playerCount, List<Ticket> tickets) {
+        this.playerIds = PlayerId.ALL.subList(0, playerCount);
+        this.tickets = tickets;
+    }
+
+    /**
+     * Returns the configuration of a game played by the given number of players.
+     * @param playerCount (int): the number of players taking part in the game.
+     * @return (GameConfig): the configuration of a game played by playerCount players.
+     * @throws IllegalArgumentException if playerCount is neither 2 nor 3.
+     */
+    public static GameConfig forPlayerCount(int playerCount) {
+        Preconditions.checkArgument(playerCount == 2 || playerCount == 3);
+        return playerCount == 2 ? TWO_PLAYERS : THREE_PLAYERS;
+    }
+
+    /**
+     * Returns the number of players taking part in the game.
+     * @return (int): the number of players taking part in the game.
+     */
+    public int playerCount() {
+        return playerIds.size();
+    }
+
+    /**
+     * Returns the identities of the players taking part in the game, in playing order.
+     * @return (List<PlayerId>): the identities of the players taking part in the game.
+     */
+    public List<PlayerId> playerIds() {
+        return playerIds;
+    }
+
+    /**
+     * Returns the tickets the game is played with.
+     * @return (List<Ticket>): the tickets the game is played with.
+     */
+    public List<Ticket> tickets() {
+        return tickets;
+    }
+
+    /**
+     * Returns the stations of the map the game is played on.
+     * @return (List<Station>): the stations of the map.
+     */
+    public List<Station> stations() {
+        return ChMap.stations();
+    }
+
+    /**
+     * Returns the routes of the map the game is played on.
+     * @return (List<Route>): the routes of the map.
+     */
+    public List<Route> routes() {
+        return ChMap.routes();
+    }
+}
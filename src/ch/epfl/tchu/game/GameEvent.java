@@ -0,0 +1,392 @@
+package ch.epfl.tchu.game;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Immutable class representing an event of the course of a game, such as a route being claimed, which is communicated
+ * to all the players. Unlike the messages of Info, which describe the events in French, events only contain the data
+ * describing them: the kind of the event and its fields, the ones of each kind being given by Kind.fields(). The
+ * fields an event of a given kind does not have are null, or 0 for the counts.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class GameEvent {
+
+    /**
+     * The enumerable type Field represents the different fields an event may have.
+     */
+    public enum Field {
+        PLAYER, ROUTE, CARDS, CARD, TRAIL, COUNT, OTHER_COUNT;
+
+        /**
+         * (List<Field>): list of all the different types of Field.
+         */
+        public static final List<Field> ALL = List.of(Field.values());
+    }
+
+    /**
+     * The enumerable type Kind represents the different kinds of events, each with the fields describing it.
+     */
+    public enum Kind {
+        /**
+         * The player will play first.
+         */
+        WILL_PLAY_FIRST(Field.PLAYER),
+        /**
+         * The player can play.
+         */
+        CAN_PLAY(Field.PLAYER),
+        /**
+         * The player drew the given count of tickets.
+         */
+        DREW_TICKETS(Field.PLAYER, Field.COUNT),
+        /**
+         * The player kept the given count of tickets.
+         */
+        KEPT_TICKETS(Field.PLAYER, Field.COUNT),
+        /**
+         * The player drew a card from the deck.
+         */
+        DREW_BLIND_CARD(Field.PLAYER),
+        /**
+         * The player drew the given face-up card.
+         */
+        DREW_VISIBLE_CARD(Field.PLAYER, Field.CARD),
+        /**
+         * The player claimed the given route using the given cards.
+         */
+        CLAIMED_ROUTE(Field.PLAYER, Field.ROUTE, Field.CARDS),
+        /**
+         * The player attempts to claim the given tunnel using the given cards.
+         */
+        ATTEMPTS_TUNNEL_CLAIM(Field.PLAYER, Field.ROUTE, Field.CARDS),
+        /**
+         * The player drew the given additional cards, which imply an additional cost of the given count of cards.
+         */
+        DREW_ADDITIONAL_CARDS(Field.PLAYER, Field.CARDS, Field.COUNT),
+        /**
+         * The player did not claim the given route.
+         */
+        DID_NOT_CLAIM_ROUTE(Field.PLAYER, Field.ROUTE),
+        /**
+         * The player has the given count of cars left, and the last turn begins.
+         */
+        LAST_TURN_BEGINS(Field.PLAYER, Field.COUNT),
+        /**
+         * The player gets the bonus of the longest trail, which is the given one.
+         */
+        GETS_LONGEST_TRAIL_BONUS(Field.PLAYER, Field.TRAIL),
+        /**
+         * The player won with the given count of points, against the other count of points.
+         */
+        WON(Field.PLAYER, Field.COUNT, Field.OTHER_COUNT),
+        /**
+         * All the players finished the game in a tie, with the given count of points.
+         */
+        DRAW(Field.COUNT);
+
+        /**
+         * (List<Kind>): list of all the different types of Kind.
+         */
+        public static final List<Kind> ALL = List.of(Kind.values());
+
+        private final Set<Field> fields;
+
+        /**
+         * Private Kind constructor.
+         * @param first (Field): the first field of the kind.
+         * @param others (Field...): the other fields of the kind.
+         */
+        private Kind(Field first, Field... others) {
+            this.fields = EnumSet.of(first, others);
+        }
+
+        /**
+         * Returns the fields of the events of this kind.
+         * @return (Set<Field>): the fields of the events of this kind.
+         */
+        public Set<Field> fields() {
+            return EnumSet.copyOf(fields);
+        }
+
+        /**
+         * Determines whether the events of this kind have the given field.
+         * @param field (Field): the field.
+         * @return (boolean): true if the events of this kind have the field, false otherwise.
+         */
+        public boolean has(Field field) {
+            return fields.contains(field);
+        }
+    }
+
+    private final Kind kind;
+    private final PlayerId playerId;
+    private final Route route;
+    private final SortedBag<Card> cards;
+    private final Card card;
+    private final Trail trail;
+    private final int count;
+    private final int otherCount;
+
+    /**
+     * Private GameEvent constructor.
+     * @param kind (Kind): the kind of the event.
+     * @param playerId (PlayerId): the player of the event.
+     * @param route (Route): the route of the event.
+     * @param cards (SortedBag<Card>): the cards of the event.
+     * @param card (Card): the card of the event.
+     * @param trail (Trail): the trail of the event.
+     * @param count (int): the count of the event.
+     * @param otherCount (int): the other count of the event.
+     */
+    private GameEvent(Kind kind, PlayerId playerId, Route route, SortedBag<Card> cards, Card card, Trail trail,
+            int count, int otherCount) {
+        this.kind = kind;
+        this.playerId = playerId;
+        this.route = route;
+        this.cards = cards;
+        this.card = card;
+        this.trail = trail;
+        this.count = count;
+        this.otherCount = otherCount;
+    }
+
+    /**
+     * Returns the event of the given kind with the given fields, which is mostly useful to rebuild an event from its
+     * fields, the other methods of this class being easier to use otherwise.
+     * @param kind (Kind): the kind of the event.
+     * @param playerId (PlayerId): the player of the event, or null if the kind has no such field.
+     * @param route (Route): the route of the event, or null if the kind has no such field.
+     * @param cards (SortedBag<Card>): the cards of the event, or null if the kind has no such field.
+     * @param card (Card): the card of the event, or null if the kind has no such field.
+     * @param trail (Trail): the trail of the event, or null if the kind has no such field.
+     * @param count (int): the count of the event, or 0 if the kind has no such field.
+     * @param otherCount (int): the other count of the event, or 0 if the kind has no such field.
+     * @return (GameEvent): the event of the given kind with the given fields.
+     * @throws IllegalArgumentException if a field which the kind has is null, or if a field which the kind does not have
+     * is not null (or not 0 for the counts).
+     * @throws NullPointerException if the kind is null.
+     */
+    public static GameEvent of(Kind kind, PlayerId playerId, Route route, SortedBag<Card> cards, Card card, Trail trail,
+            int count, int otherCount) {
+        Objects.requireNonNull(kind);
+        Preconditions.checkArgument(kind.has(Field.PLAYER) == (playerId != null));
+        Preconditions.checkArgument(kind.has(Field.ROUTE) == (route != null));
+        Preconditions.checkArgument(kind.has(Field.CARDS) == (cards != null));
+        Preconditions.checkArgument(kind.has(Field.CARD) == (card != null));
+        Preconditions.checkArgument(kind.has(Field.TRAIL) == (trail != null));
+        Preconditions.checkArgument(kind.has(Field.COUNT) || count == 0);
+        Preconditions.checkArgument(kind.has(Field.OTHER_COUNT) || otherCount == 0);
+        return new GameEvent(kind, playerId, route, cards, card, trail, count, otherCount);
+    }
+
+    /**
+     * Returns the event of the given player playing first.
+     * @param playerId (PlayerId): the player.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent willPlayFirst(PlayerId playerId) {
+        return of(Kind.WILL_PLAY_FIRST, playerId, null, null, null, null, 0, 0);
+    }
+
+    /**
+     * Returns the event of the given player being able to play.
+     * @param playerId (PlayerId): the player.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent canPlay(PlayerId playerId) {
+        return of(Kind.CAN_PLAY, playerId, null, null, null, null, 0, 0);
+    }
+
+    /**
+     * Returns the event of the given player drawing the given number of tickets.
+     * @param playerId (PlayerId): the player.
+     * @param count (int): the number of tickets drawn.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent drewTickets(PlayerId playerId, int count) {
+        return of(Kind.DREW_TICKETS, playerId, null, null, null, null, count, 0);
+    }
+
+    /**
+     * Returns the event of the given player keeping the given number of tickets.
+     * @param playerId (PlayerId): the player.
+     * @param count (int): the number of tickets kept.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent keptTickets(PlayerId playerId, int count) {
+        return of(Kind.KEPT_TICKETS, playerId, null, null, null, null, count, 0);
+    }
+
+    /**
+     * Returns the event of the given player drawing a card from the deck.
+     * @param playerId (PlayerId): the player.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent drewBlindCard(PlayerId playerId) {
+        return of(Kind.DREW_BLIND_CARD, playerId, null, null, null, null, 0, 0);
+    }
+
+    /**
+     * Returns the event of the given player drawing the given face-up card.
+     * @param playerId (PlayerId): the player.
+     * @param card (Card): the card drawn.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent drewVisibleCard(PlayerId playerId, Card card) {
+        return of(Kind.DREW_VISIBLE_CARD, playerId, null, null, card, null, 0, 0);
+    }
+
+    /**
+     * Returns the event of the given player claiming the given route using the given cards.
+     * @param playerId (PlayerId): the player.
+     * @param route (Route): the route claimed.
+     * @param cards (SortedBag<Card>): the cards used to claim the route.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent claimedRoute(PlayerId playerId, Route route, SortedBag<Card> cards) {
+        return of(Kind.CLAIMED_ROUTE, playerId, route, cards, null, null, 0, 0);
+    }
+
+    /**
+     * Returns the event of the given player attempting to claim the given tunnel using the given cards initially.
+     * @param playerId (PlayerId): the player.
+     * @param route (Route): the tunnel.
+     * @param initialCards (SortedBag<Card>): the cards initially used to claim the tunnel.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent attemptsTunnelClaim(PlayerId playerId, Route route, SortedBag<Card> initialCards) {
+        return of(Kind.ATTEMPTS_TUNNEL_CLAIM, playerId, route, initialCards, null, null, 0, 0);
+    }
+
+    /**
+     * Returns the event of the given player drawing the given additional cards, which imply the given additional cost.
+     * @param playerId (PlayerId): the player.
+     * @param drawnCards (SortedBag<Card>): the additional cards drawn.
+     * @param additionalCost (int): the number of cards the player must play in addition.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent drewAdditionalCards(PlayerId playerId, SortedBag<Card> drawnCards, int additionalCost) {
+        return of(Kind.DREW_ADDITIONAL_CARDS, playerId, null, drawnCards, null, null, additionalCost, 0);
+    }
+
+    /**
+     * Returns the event of the given player not claiming the given route.
+     * @param playerId (PlayerId): the player.
+     * @param route (Route): the route which was not claimed.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent didNotClaimRoute(PlayerId playerId, Route route) {
+        return of(Kind.DID_NOT_CLAIM_ROUTE, playerId, route, null, null, null, 0, 0);
+    }
+
+    /**
+     * Returns the event of the last turn beginning, the given player having the given number of cars left.
+     * @param playerId (PlayerId): the player.
+     * @param carCount (int): the number of cars the player has left.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent lastTurnBegins(PlayerId playerId, int carCount) {
+        return of(Kind.LAST_TURN_BEGINS, playerId, null, null, null, null, carCount, 0);
+    }
+
+    /**
+     * Returns the event of the given player getting the bonus of the longest trail, which is the given one.
+     * @param playerId (PlayerId): the player.
+     * @param longestTrail (Trail): the longest trail of the player.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent getsLongestTrailBonus(PlayerId playerId, Trail longestTrail) {
+        return of(Kind.GETS_LONGEST_TRAIL_BONUS, playerId, null, null, null, longestTrail, 0, 0);
+    }
+
+    /**
+     * Returns the event of the given player winning with the given points, against the given points of the loser.
+     * @param playerId (PlayerId): the player.
+     * @param points (int): the points of the player.
+     * @param loserPoints (int): the points of the loser.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent won(PlayerId playerId, int points, int loserPoints) {
+        return of(Kind.WON, playerId, null, null, null, null, points, loserPoints);
+    }
+
+    /**
+     * Returns the event of all the players finishing the game in a tie, with the given points.
+     * @param points (int): the points of each player.
+     * @return (GameEvent): the event.
+     */
+    public static GameEvent draw(int points) {
+        return of(Kind.DRAW, null, null, null, null, null, points, 0);
+    }
+
+    /**
+     * Returns the kind of the event.
+     * @return (Kind): the kind of the event.
+     */
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * Returns the player of the event.
+     * @return (PlayerId): the player of the event, or null if its kind has no such field.
+     */
+    public PlayerId playerId() {
+        return playerId;
+    }
+
+    /**
+     * Returns the route of the event.
+     * @return (Route): the route of the event, or null if its kind has no such field.
+     */
+    public Route route() {
+        return route;
+    }
+
+    /**
+     * Returns the cards of the event.
+     * @return (SortedBag<Card>): the cards of the event, or null if its kind has no such field.
+     */
+    public SortedBag<Card> cards() {
+        return cards;
+    }
+
+    /**
+     * Returns the card of the event.
+     * @return (Card): the card of the event, or null if its kind has no such field.
+     */
+    public Card card() {
+        return card;
+    }
+
+    /**
+     * Returns the trail of the event.
+     * @return (Trail): the trail of the event, or null if its kind has no such field.
+     */
+    public Trail trail() {
+        return trail;
+    }
+
+    /**
+     * Returns the count of the event, i.e. a number of tickets, cards, cars or points depending on its kind.
+     * @return (int): the count of the event, or 0 if its kind has no such field.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the other count of the event, i.e. the points of the loser for WON.
+     * @return (int): the other count of the event, or 0 if its kind has no such field.
+     */
+    public int otherCount() {
+        return otherCount;
+    }
+}
@@ -0,0 +1,680 @@
+package ch.epfl.tchu.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Final and non-instanciable class recording games of tCHu in a compact binary log as they are played, and replaying them.
+ * As all the randomness of a game comes from a random generator created from a seed, a game is entirely determined by this
+ * seed and by the decisions of its players, which are the only things recorded: the log of a whole game takes a few hundred
+ * bytes. Replaying a log plays the game again with players repeating the recorded decisions, which rebuilds every
+ * intermediate state of the game exactly.
+ * <p>
+ * A log starts with a header made of the magic number, the version of the format, the seed, the number of players and their
+ * names. It is followed by one record per decision, in the order in which the game asked for them, each made of a tag byte
+ * and of its value: a byte giving the slot, the kind of turn, the index of the route in ChMap.routes() or the mask of the
+ * kept tickets among the ones offered, or a list of cards, made of its size and of the ordinals of its cards. A final tag
+ * marks the end of the game. The records are appended through a buffer which is written into the channel at the start of
+ * every turn, so that the log of a game that failed, even along with the whole process, still tells what happened up to
+ * the turn being played.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class GameLog {
+
+    /**
+     * (int): the magic number every log starts with, "tCHu" in ASCII.
+     */
+    private static final int MAGIC = 0x74434875;
+
+    /**
+     * (byte): the version of the format of the logs.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * (int): the size of the buffer through which the logs are written, in bytes.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * (int): the maximal length of a recorded name, in bytes; longer names are truncated before the character that does
+     * not fit entirely.
+     */
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private static final byte INITIAL_TICKETS = 1;
+    private static final byte TURN = 2;
+    private static final byte TICKETS = 3;
+    private static final byte SLOT = 4;
+    private static final byte ROUTE = 5;
+    private static final byte CLAIM_CARDS = 6;
+    private static final byte ADDITIONAL_CARDS = 7;
+    private static final byte END = 8;
+
+    /**
+     * Private constructor existing for the sole purpose of not allowing this class to be instanciated.
+     */
+    private GameLog() {}
+
+    /**
+     * Makes a game of tCHu be played with the given characteristics and the tickets of the configuration, using a random
+     * generator created from the given seed, and writes its log into the given channel. The channel is not closed.
+     * @param players (Map<PlayerId, Player>): the players of the game.
+     * @param playerNames (Map<PlayerId, String>): the names of the players of the game.
+     * @param seed (long): the seed of the random generator of the game.
+     * @param config (GameConfig): the configuration of the game.
+     * @param log (WritableByteChannel): the channel into which the log is written.
+     * @return (Map<PlayerId, Integer>): the final points of each player, longest trail bonus included.
+     * @throws IllegalArgumentException if the number of players or of player names differs from the one of the configuration.
+     * @throws UncheckedIOException if the log cannot be written.
+     */
+    public static Map<PlayerId, Integer> play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, long seed,
+            GameConfig config, WritableByteChannel log) {
+        Preconditions.checkArgument(players.size() == config.playerCount() && playerNames.size() == config.playerCount());
+        Output out = new Output(log);
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.putLong(seed);
+        out.put(config.playerCount());
+        Map<PlayerId, Player> recorders = new EnumMap<>(PlayerId.class);
+        for(PlayerId id : config.playerIds()) {
+            out.putString(playerNames.get(id));
+            recorders.put(id, new Recorder(players.get(id), out));
+        }
+
+        try {
+            Map<PlayerId, Integer> points = Game.play(recorders, playerNames, SortedBag.of(config.tickets()),
+                    new Random(seed), config);
+            out.put(END);
+            return points;
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Replays the game recorded in the given file.
+     * @param file (Path): the file containing the log of the game.
+     * @return (Replay): the replayed game.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file does not contain the log of a game.
+     */
+    public static Replay replay(Path file) throws IOException {
+        return replay(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    /**
+     * Replays the game recorded in the remaining bytes of the given buffer, whose position is left unchanged. A log which
+     * ends before the game does is replayed up to its end.
+     * @param log (ByteBuffer): the log of the game.
+     * @return (Replay): the replayed game.
+     * @throws IllegalArgumentException if the buffer does not contain the log of a game.
+     */
+    public static Replay replay(ByteBuffer log) {
+        Input in = new Input(log.slice());
+        long seed;
+        GameConfig config;
+        Map<PlayerId, Player> replayers = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> playerNames = new EnumMap<>(PlayerId.class);
+        try {
+            Preconditions.checkArgument(in.getInt() == MAGIC && in.get() == VERSION);
+            seed = in.getLong();
+            config = GameConfig.forPlayerCount(in.get());
+            for(PlayerId id : config.playerIds()) {
+                playerNames.put(id, in.getString());
+                replayers.put(id, new Replayer(in));
+            }
+        } catch(EndOfLog e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        List<GameState> states = new ArrayList<>();
+        boolean complete;
+        try {
+            Game.play(replayers, playerNames, SortedBag.of(config.tickets()), new Random(seed), config, states::add);
+            complete = in.get() == END;
+        } catch(EndOfLog e) {
+            complete = false;
+        }
+        return new Replay(seed, config, playerNames, states, complete);
+    }
+
+    /**
+     * Returns the position of the record of the kind of each turn of the game recorded in the remaining bytes of the given
+     * buffer, by scanning its records without replaying the game. Truncating the log at the position of a turn gives the
+     * log of the game up to the start of that turn. The position of the buffer is left unchanged.
+     * @param log (ByteBuffer): the log of the game.
+     * @return (int[]): the position of the record of the kind of each turn, relative to the start of the log.
+     * @throws IllegalArgumentException if the buffer does not contain the log of a game.
+     */
+    static int[] turnOffsets(ByteBuffer log) {
+        ByteBuffer buffer = log.slice();
+        Input in = new Input(buffer);
+        List<Integer> offsets = new ArrayList<>();
+        try {
+            Preconditions.checkArgument(in.getInt() == MAGIC && in.get() == VERSION);
+            in.getLong();
+            int playerCount = in.get();
+            for(int i = 0; i < playerCount; i++) {
+                in.getString();
+            }
+        } catch(EndOfLog e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        try {
+            while(true) {
+                int offset = buffer.position();
+                byte tag = in.get();
+                if(tag == END) {
+                    break;
+                }
+                switch(tag) {
+                case TURN:
+                    in.get();
+                    offsets.add(offset);
+                    break;
+                case CLAIM_CARDS:
+                case ADDITIONAL_CARDS:
+                    in.getCards();
+                    break;
+                case INITIAL_TICKETS:
+                case TICKETS:
+                case SLOT:
+                case ROUTE:
+                    in.get();
+                    break;
+                default:
+                    throw new IllegalArgumentException();
+                }
+            }
+        } catch(EndOfLog e) {
+            // The log ends before the game does: its last turns are missing.
+        }
+        return offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Immutable class representing a replayed game.
+     */
+    public static final class Replay {
+        private final long seed;
+        private final GameConfig config;
+        private final Map<PlayerId, String> playerNames;
+        private final List<GameState> states;
+        private final boolean complete;
+
+        /**
+         * Private Replay constructor.
+         * @param seed (long): the seed of the random generator of the game.
+         * @param config (GameConfig): the configuration of the game.
+         * @param playerNames (Map<PlayerId, String>): the names of the players.
+         * @param states (List<GameState>): the states of the game, once the initial tickets were chosen and after every
+         * turn replayed.
+         * @param complete (boolean): true if the log records the game up to its end.
+         */
+        private Replay(long seed, GameConfig config, Map<PlayerId, String> playerNames, List<GameState> states,
+                boolean complete) {
+            this.seed = seed;
+            this.config = config;
+            this.playerNames = Collections.unmodifiableMap(playerNames);
+            this.states = Collections.unmodifiableList(states);
+            this.complete = complete;
+        }
+
+        /**
+         * Returns the seed of the random generator of the game.
+         * @return (long): the seed of the random generator of the game.
+         */
+        public long seed() {
+            return seed;
+        }
+
+        /**
+         * Returns the configuration of the game.
+         * @return (GameConfig): the configuration of the game.
+         */
+        public GameConfig config() {
+            return config;
+        }
+
+        /**
+         * Returns the names of the players.
+         * @return (Map<PlayerId, String>): the names of the players.
+         */
+        public Map<PlayerId, String> playerNames() {
+            return playerNames;
+        }
+
+        /**
+         * Returns the states of the game: the state once the initial tickets were chosen, followed by the state at the end
+         * of every turn replayed, before the next player starts playing.
+         * @return (List<GameState>): the states of the game.
+         */
+        public List<GameState> states() {
+            return states;
+        }
+
+        /**
+         * Returns true if the log records the game up to its end, and false if it ends before, for example because the game
+         * failed or because it is still being played.
+         * @return (boolean): true if the log records the game up to its end.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    /**
+     * Returns the mask of the given tickets among the given options.
+     * @param options (SortedBag<Ticket>): the tickets offered to the player.
+     * @param kept (SortedBag<Ticket>): the tickets kept by the player, among the options.
+     * @return (int): the mask of the kept tickets, whose bit i is set if the ticket at index i of the options is kept.
+     */
+    private static int mask(SortedBag<Ticket> options, SortedBag<Ticket> kept) {
+        List<Ticket> remaining = new ArrayList<>(kept.toList());
+        int mask = 0;
+        for(int i = 0; i < options.size(); i++) {
+            if(remaining.remove(options.get(i))) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the tickets of the given options selected by the given mask.
+     * @param options (SortedBag<Ticket>): the tickets offered to the player.
+     * @param mask (int): the mask of the kept tickets.
+     * @return (SortedBag<Ticket>): the tickets kept by the player.
+     */
+    private static SortedBag<Ticket> unmask(SortedBag<Ticket> options, int mask) {
+        SortedBag.Builder<Ticket> kept = new SortedBag.Builder<>();
+        for(int i = 0; i < options.size(); i++) {
+            if((mask & (1 << i)) != 0) {
+                kept.add(options.get(i));
+            }
+        }
+        return kept.build();
+    }
+
+    /**
+     * Player recording the decisions of another player in a log.
+     */
+    private static final class Recorder implements Player {
+        private final Player player;
+        private final Output out;
+        private SortedBag<Ticket> initialTickets;
+
+        /**
+         * Private Recorder constructor.
+         * @param player (Player): the player whose decisions are recorded.
+         * @param out (Output): the log the decisions are recorded in.
+         */
+        private Recorder(Player player, Output out) {
+            this.player = player;
+            this.out = out;
+        }
+
+        @Override
+        public String setPlayerName() {
+            return player.setPlayerName();
+        }
+
+        @Override
+        public void setPlayerNumber(int playerNum) {
+            player.setPlayerNumber(playerNum);
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            player.receiveEvent(event, playerNames);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            initialTickets = tickets;
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            SortedBag<Ticket> kept = player.chooseInitialTickets();
+            out.put(INITIAL_TICKETS);
+            out.put(mask(initialTickets, kept));
+            return kept;
+        }
+
+        /**
+         * Writes the records of the previous turns into the channel, so that the log is written as the game goes on
+         * rather than at its end, then records the kind of the new turn.
+         */
+        @Override
+        public TurnKind nextTurn() {
+            out.flush();
+            TurnKind kind = player.nextTurn();
+            out.put(TURN);
+            out.put(kind.ordinal());
+            return kind;
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            SortedBag<Ticket> kept = player.chooseTickets(options);
+            out.put(TICKETS);
+            out.put(mask(options, kept));
+            return kept;
+        }
+
+        @Override
+        public int drawSlot() {
+            int slot = player.drawSlot();
+            out.put(SLOT);
+            out.put(slot);
+            return slot;
+        }
+
+        @Override
+        public Route claimedRoute() {
+            Route route = player.claimedRoute();
+            out.put(ROUTE);
+            out.put(ChMap.routeIndex(route));
+            return route;
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            SortedBag<Card> cards = player.initialClaimCards();
+            out.put(CLAIM_CARDS);
+            out.putCards(cards);
+            return cards;
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            SortedBag<Card> cards = player.chooseAdditionalCards(options);
+            out.put(ADDITIONAL_CARDS);
+            out.putCards(cards);
+            return cards;
+        }
+    }
+
+    /**
+     * Player repeating the decisions recorded in a log.
+     */
+    private static final class Replayer implements Player {
+        private final Input in;
+        private SortedBag<Ticket> initialTickets;
+
+        /**
+         * Private Replayer constructor.
+         * @param in (Input): the log the decisions are read from.
+         */
+        private Replayer(Input in) {
+            this.in = in;
+        }
+
+        @Override
+        public String setPlayerName() {
+            return "";
+        }
+
+        @Override
+        public void setPlayerNumber(int playerNum) {}
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {}
+
+        @Override
+        public void receiveInfo(String info) {}
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {}
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {}
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            initialTickets = tickets;
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            in.expect(INITIAL_TICKETS);
+            return unmask(initialTickets, in.get());
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            in.expect(TURN);
+            return TurnKind.ALL.get(in.getIndex(TurnKind.ALL.size()));
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            in.expect(TICKETS);
+            return unmask(options, in.get());
+        }
+
+        @Override
+        public int drawSlot() {
+            in.expect(SLOT);
+            int slot = in.get();
+            Preconditions.checkArgument(slot == Constants.DECK_SLOT || Constants.FACE_UP_CARD_SLOTS.contains(slot));
+            return slot;
+        }
+
+        @Override
+        public Route claimedRoute() {
+            in.expect(ROUTE);
+            return ChMap.routes().get(in.getIndex(ChMap.routes().size()));
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            in.expect(CLAIM_CARDS);
+            return in.getCards();
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            in.expect(ADDITIONAL_CARDS);
+            return in.getCards();
+        }
+    }
+
+    /**
+     * Class writing a log into a channel, through a buffer.
+     */
+    private static final class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Private Output constructor.
+         * @param channel (WritableByteChannel): the channel into which the log is written.
+         */
+        private Output(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        private void put(int value) {
+            ensureRemaining(Byte.BYTES);
+            buffer.put((byte) value);
+        }
+
+        private void putInt(int value) {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        private void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, MAX_NAME_LENGTH);
+            // The continuation bytes of UTF-8, 10xxxxxx, are never the first byte of a character.
+            while(length < bytes.length && (bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+            put(length);
+            for(int i = 0; i < length; i++) {
+                put(bytes[i]);
+            }
+        }
+
+        private void putCards(SortedBag<Card> cards) {
+            put(cards.size());
+            for(Card c : cards) {
+                put(c.ordinal());
+            }
+        }
+
+        /**
+         * Writes the content of the buffer into the channel, if there is any.
+         * @throws UncheckedIOException if the channel cannot be written.
+         */
+        private void flush() {
+            if(buffer.position() == 0) {
+                return;
+            }
+            buffer.flip();
+            try {
+                while(buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRemaining(int count) {
+            if(buffer.remaining() < count) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Class reading a log from a buffer.
+     */
+    private static final class Input {
+        private final ByteBuffer buffer;
+
+        /**
+         * Private Input constructor.
+         * @param buffer (ByteBuffer): the buffer containing the log, from its position.
+         */
+        private Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Reads the next byte of the log.
+         * @return (byte): the next byte of the log.
+         * @throws EndOfLog if the log has no more byte.
+         */
+        private byte get() {
+            if(!buffer.hasRemaining()) {
+                throw new EndOfLog();
+            }
+            return buffer.get();
+        }
+
+        private int getInt() {
+            if(buffer.remaining() < Integer.BYTES) {
+                throw new EndOfLog();
+            }
+            return buffer.getInt();
+        }
+
+        private long getLong() {
+            if(buffer.remaining() < Long.BYTES) {
+                throw new EndOfLog();
+            }
+            return buffer.getLong();
+        }
+
+        private String getString() {
+            byte[] bytes = new byte[Byte.toUnsignedInt(get())];
+            for(int i = 0; i < bytes.length; i++) {
+                bytes[i] = get();
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads the next byte of the log as an index in a list of the given size.
+         * @param size (int): the size of the list.
+         * @return (int): the index read.
+         * @throws EndOfLog if the log has no more byte.
+         * @throws IllegalArgumentException if the index read is not an index of the list.
+         */
+        private int getIndex(int size) {
+            int index = Byte.toUnsignedInt(get());
+            Preconditions.checkArgument(index < size);
+            return index;
+        }
+
+        private SortedBag<Card> getCards() {
+            int size = Byte.toUnsignedInt(get());
+            SortedBag.Builder<Card> cards = new SortedBag.Builder<>();
+            for(int i = 0; i < size; i++) {
+                cards.add(Card.ALL.get(getIndex(Card.COUNT)));
+            }
+            return cards.build();
+        }
+
+        /**
+         * Reads the tag of the next record, and checks that it is the given one.
+         * @param tag (byte): the expected tag.
+         * @throws IllegalArgumentException if the tag read is not the expected one, which means that the log is not the
+         * one of the game being replayed.
+         */
+        private void expect(byte tag) {
+            Preconditions.checkArgument(get() == tag);
+        }
+    }
+
+    /**
+     * Exception thrown when a log ends before the game it records.
+     */
+    private static final class EndOfLog extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
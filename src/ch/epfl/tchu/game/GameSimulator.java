@@ -0,0 +1,299 @@
+package ch.epfl.tchu.game;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Final and non-instanciable class that plays batches of headless games of tCHu between bots, in parallel on all the available
+ * cores, and reports aggregate statistics about them. Each game is fully isolated: it has its own players, created by a
+ * PlayerFactory, and its own random generator, seeded deterministically from the seed of the batch.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class GameSimulator {
+
+    /**
+     * Private constructor existing for the sole purpose of not allowing this class to be instanciated.
+     */
+    private GameSimulator() {}
+
+    /**
+     * Functional interface used to create the bot playing a given seat of a simulated game.
+     */
+    @FunctionalInterface
+    public interface PlayerFactory {
+        /**
+         * Creates a new player for a single game.
+         * @param id (PlayerId): the identity of the player in the game.
+         * @param rng (Random): a random generator dedicated to this player in this game.
+         * @return (Player): a new player, used for a single game only.
+         */
+        Player newPlayer(PlayerId id, Random rng);
+    }
+
+    /**
+     * Plays the given number of games in parallel on the common fork-join pool, and returns their statistics.
+     * @param gameCount (int): the number of games to be played.
+     * @param seed (long): the seed from which the seed of each game is derived.
+     * @param factory (PlayerFactory): the factory creating the players of each game.
+     * @param config (GameConfig): the configuration of every game played.
+     * @return (Statistics): the aggregate statistics of the games played.
+     * @throws IllegalArgumentException if gameCount is strictly negative.
+     */
+    public static Statistics run(int gameCount, long seed, PlayerFactory factory, GameConfig config) {
+        return run(gameCount, seed, factory, config, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays the given number of games in parallel on the given fork-join pool, and returns their statistics.
+     * @param gameCount (int): the number of games to be played.
+     * @param seed (long): the seed from which the seed of each game is derived.
+     * @param factory (PlayerFactory): the factory creating the players of each game.
+     * @param config (GameConfig): the configuration of every game played.
+     * @param pool (ForkJoinPool): the pool on which the games are played.
+     * @return (Statistics): the aggregate statistics of the games played.
+     * @throws IllegalArgumentException if gameCount is strictly negative.
+     */
+    public static Statistics run(int gameCount, long seed, PlayerFactory factory, GameConfig config, ForkJoinPool pool) {
+        Preconditions.checkArgument(gameCount >= 0);
+        Random seeds = new Random(seed);
+        long[] gameSeeds = new long[gameCount];
+        for(int i = 0; i < gameCount; i++) {
+            gameSeeds[i] = seeds.nextLong();
+        }
+
+        long start = System.nanoTime();
+        List<Outcome> outcomes = pool.submit(() -> IntStream.range(0, gameCount)
+                .parallel()
+                .mapToObj(i -> playOne(gameSeeds[i], factory, config))
+                .collect(Collectors.toList()))
+                .join();
+        return new Statistics(outcomes, config, System.nanoTime() - start);
+    }
+
+    /**
+     * Plays a single game with the given seed, and returns its outcome.
+     * @param gameSeed (long): the seed of the game.
+     * @param factory (PlayerFactory): the factory creating the players of the game.
+     * @param config (GameConfig): the configuration of the game.
+     * @return (Outcome): the final points of each player, or the exception that made the game fail.
+     */
+    private static Outcome playOne(long gameSeed, PlayerFactory factory, GameConfig config) {
+        Random rng = new Random(gameSeed);
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> playerNames = new EnumMap<>(PlayerId.class);
+        try {
+            for(PlayerId id : config.playerIds()) {
+                players.put(id, factory.newPlayer(id, new Random(rng.nextLong())));
+                playerNames.put(id, id.name());
+            }
+            return new Outcome(Game.play(players, playerNames, SortedBag.of(config.tickets()), rng, config), null);
+        } catch(RuntimeException e) {
+            return new Outcome(null, e);
+        }
+    }
+
+    /**
+     * Immutable class representing the outcome of a single simulated game.
+     */
+    private static final class Outcome {
+
+        /**
+         * (Map<PlayerId, Integer>): the final points of each player, null if the game failed.
+         */
+        private final Map<PlayerId, Integer> points;
+
+        /**
+         * (RuntimeException): the exception that made the game fail, null if it was completed.
+         */
+        private final RuntimeException failure;
+
+        /**
+         * Private Outcome constructor.
+         * @param points (Map<PlayerId, Integer>): the final points of each player, null if the game failed.
+         * @param failure (RuntimeException): the exception that made the game fail, null if it was completed.
+         */
+        private Outcome(Map<PlayerId, Integer> points, RuntimeException failure) {
+            this.points = points;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Immutable class representing the aggregate outcome of a batch of simulated games.
+     */
+    public static final class Statistics {
+
+        /**
+         * (int): the number of games played, failed ones included.
+         */
+        private final int gameCount;
+
+        /**
+         * (int): the number of games that failed with an exception.
+         */
+        private final int failedCount;
+
+        /**
+         * (RuntimeException): the exception that made the first failed game of the batch fail, null if none failed.
+         */
+        private final RuntimeException firstFailure;
+
+        /**
+         * (int): the number of completed games that ended in a draw.
+         */
+        private final int drawCount;
+
+        /**
+         * (Map<PlayerId, Integer>): the number of games won by each player, draws excluded.
+         */
+        private final Map<PlayerId, Integer> wins;
+
+        /**
+         * (Map<PlayerId, Long>): the sum of the final points of each player over the completed games.
+         */
+        private final Map<PlayerId, Long> totalPoints;
+
+        /**
+         * (GameConfig): the configuration of the games played.
+         */
+        private final GameConfig config;
+
+        /**
+         * (long): the time taken to play the whole batch, in nanoseconds.
+         */
+        private final long elapsedNanos;
+
+        /**
+         * Private Statistics constructor. Aggregates the given outcomes.
+         * @param outcomes (List<Outcome>): the outcome of each game, in the order of their seeds.
+         * @param config (GameConfig): the configuration of the games played.
+         * @param elapsedNanos (long): the time taken to play the whole batch, in nanoseconds.
+         */
+        private Statistics(List<Outcome> outcomes, GameConfig config, long elapsedNanos) {
+            Map<PlayerId, Integer> wins = new EnumMap<>(PlayerId.class);
+            Map<PlayerId, Long> totalPoints = new EnumMap<>(PlayerId.class);
+            RuntimeException firstFailure = null;
+            int failed = 0;
+            int draws = 0;
+            for(Outcome o : outcomes) {
+                if(o.failure != null) {
+                    if(firstFailure == null) {
+                        firstFailure = o.failure;
+                    }
+                    failed++;
+                    continue;
+                }
+                Map<PlayerId, Integer> outcome = o.points;
+                int max = outcome.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+                List<PlayerId> winners = outcome.keySet().stream()
+                        .filter(id -> outcome.get(id) == max)
+                        .collect(Collectors.toList());
+                if(winners.size() == 1) {
+                    wins.merge(winners.get(0), 1, Integer::sum);
+                } else {
+                    draws++;
+                }
+                outcome.forEach((id, points) -> totalPoints.merge(id, (long) points, Long::sum));
+            }
+            this.gameCount = outcomes.size();
+            this.failedCount = failed;
+            this.firstFailure = firstFailure;
+            this.drawCount = draws;
+            this.wins = Map.copyOf(wins);
+            this.totalPoints = Map.copyOf(totalPoints);
+            this.config = config;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the number of games played, failed ones included.
+         * @return (int): the number of games played, failed ones included.
+         */
+        public int gameCount() {
+            return gameCount;
+        }
+
+        /**
+         * Returns the number of games that failed with an exception.
+         * @return (int): the number of games that failed with an exception.
+         */
+        public int failedCount() {
+            return failedCount;
+        }
+
+        /**
+         * Returns the exception that made the first failed game of the batch fail, so that bugs of the bots or of the game
+         * do not go unnoticed.
+         * @return (RuntimeException): the exception of the first failed game, null if no game failed.
+         */
+        public RuntimeException firstFailure() {
+            return firstFailure;
+        }
+
+        /**
+         * Returns the number of completed games that ended in a draw.
+         * @return (int): the number of completed games that ended in a draw.
+         */
+        public int drawCount() {
+            return drawCount;
+        }
+
+        /**
+         * Returns the number of games won by the given player, draws excluded.
+         * @param id (PlayerId): the player in question.
+         * @return (int): the number of games won by the given player.
+         */
+        public int wins(PlayerId id) {
+            return wins.getOrDefault(id, 0);
+        }
+
+        /**
+         * Returns the average final points of the given player over the completed games.
+         * @param id (PlayerId): the player in question.
+         * @return (double): the average final points of the given player, 0 if no game was completed.
+         */
+        public double averagePoints(PlayerId id) {
+            int completed = gameCount - failedCount;
+            return completed == 0 ? 0 : totalPoints.getOrDefault(id, 0L) / (double) completed;
+        }
+
+        /**
+         * Returns the time taken to play the whole batch, in nanoseconds.
+         * @return (long): the time taken to play the whole batch, in nanoseconds.
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the number of games played per second.
+         * @return (double): the number of games played per second.
+         */
+        public double gamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : gameCount * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("%d games (%d failed, %d draws) in %.2f s, %.1f games/s",
+                    gameCount, failedCount, drawCount, elapsedNanos / 1e9, gamesPerSecond()));
+            for(PlayerId id : config.playerIds()) {
+                builder.append(String.format("%n%s: %d wins, %.1f points on average", id, wins(id), averagePoints(id)));
+            }
+            if(firstFailure != null) {
+                builder.append(String.format("%nfirst failure: %s", firstFailure));
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ch.epfl.tchu.game;
 
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Random;
@@ -26,8 +27,9 @@ public final class GameState extends PublicGameState{
     private final CardState cardState;
 
     /**
-     * (Map<PlayerId, PlayerState>): represents the public player states of the 2 players
-     * in the game.
+     * (Map<PlayerId, PlayerState>): represents the player states of the players in the game.
+     * Is unmodifiable and shared with the public part of the state, as well as with every
+     * following state in which no player state changes.
      */
     private final Map<PlayerId, PlayerState> playerState;
 
@@ -36,37 +38,68 @@ public final class GameState extends PublicGameState{
      * card state and a map with keys as PlayerIDs and values as PlayerStates.
      * @param tickets (SortedBag<Ticket>): the deck of tickets in the game.
      * @param cardState (CardState): the card state of the game.
-     * @param playerState (Map<PlayerId, PlayerState>): the public player states of the 2
+     * @param playerState (Map<PlayerId, PlayerState>): the unmodifiable player states of the
      * players in the game.
      */
     private GameState(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId, 
             Map<PlayerId, PlayerState> playerState, PlayerId lastPlayer) {
-        super(tickets.size(), cardState, currentPlayerId, GameState.privateToPublicPlayerState(playerState), lastPlayer);
+        super(tickets.size(), cardState, currentPlayerId, playerState, lastPlayer);
         this.tickets = tickets;
         this.cardState = cardState;
         this.playerState = playerState;
     }
 
     /**
-     * Returns the initial state of a game of tCHu in which the ticket deck contains the given tickets
-     * and the card deck contains the Constants.ALL_CARDS cards, without the top 8 (2×4), dealt to the
-     * players; these decks are shuffled using the given random generator, which is also used to
-     * randomly choose the identity of the first player.
+     * Returns the initial state of a game of tCHu played by 2 players, in which the ticket deck contains
+     * the given tickets and the card deck contains the Constants.ALL_CARDS cards, without the top 8 (2×4),
+     * dealt to the players; these decks are shuffled using the given random generator, which is also used
+     * to randomly choose the identity of the first player.
      * @param tickets (SortedBag<Ticket>): the initial set of tickets given.
      * @param rng (Random): a random variable used to randomize results.
      * @return (GameState): a GameState in an "initial" phase.
      */
     public static GameState initial(SortedBag<Ticket> tickets, Random rng) {
-        Deck<Card> cardDeck = Deck.of(SortedBag.of(Constants.ALL_CARDS), rng);
+        return initial(tickets, rng, GameConfig.TWO_PLAYERS);
+    }
+
+    /**
+     * Returns the initial state of a game of tCHu played with the given configuration, in which the ticket
+     * deck contains the given tickets and the card deck contains the Constants.ALL_CARDS cards, without the
+     * top 4 dealt to each player; these decks are shuffled using the given random generator, which is also
+     * used to randomly choose the identity of the first player.
+     * @param tickets (SortedBag<Ticket>): the initial set of tickets given.
+     * @param rng (Random): a random variable used to randomize results.
+     * @param config (GameConfig): the configuration of the game.
+     * @return (GameState): a GameState in an "initial" phase.
+     */
+    public static GameState initial(SortedBag<Ticket> tickets, Random rng, GameConfig config) {
+        Deck<Card> cardDeck = Deck.of(Constants.ALL_CARDS, rng);
         Map<PlayerId, PlayerState> playerStateStore = new EnumMap<>(PlayerId.class);
         
-        for(PlayerId id : PlayerId.ALL) {
+        for(PlayerId id : config.playerIds()) {
             PlayerState ps = PlayerState.initial(cardDeck.topCards(Constants.INITIAL_CARDS_COUNT));
             cardDeck = cardDeck.withoutTopCards(Constants.INITIAL_CARDS_COUNT);
             playerStateStore.put(id, ps);
         }
         
-        return new GameState(Deck.of(tickets, rng), CardState.of(cardDeck), PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT)), playerStateStore, null);
+        return new GameState(Deck.of(tickets, rng), CardState.of(cardDeck), config.playerIds().get(rng.nextInt(config.playerCount())), 
+                Collections.unmodifiableMap(playerStateStore), null);
+    }
+    
+    /**
+     * Returns the game state made of the given parts, used by the bots to build the states they play out from what they
+     * know of the game.
+     * @param tickets (Deck<Ticket>): the deck of tickets in the game.
+     * @param cardState (CardState): the card state of the game.
+     * @param currentPlayerId (PlayerId): the identity of the current player.
+     * @param playerState (Map<PlayerId, PlayerState>): the player states of the players in the game.
+     * @param lastPlayer (PlayerId): the identity of the last player, or null if it is not known yet.
+     * @return (GameState): the game state made of the given parts.
+     */
+    static GameState of(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId,
+            Map<PlayerId, PlayerState> playerState, PlayerId lastPlayer) {
+        return new GameState(tickets, cardState, currentPlayerId,
+                Collections.unmodifiableMap(new EnumMap<>(playerState)), lastPlayer);
     }
     
     /**
@@ -181,7 +214,7 @@ public final class GameState extends PublicGameState{
      * @throws IllegalArgumentException if the chosenTickets is not a subset of drawnTickets.
      */
     public GameState withChosenAdditionalTickets(SortedBag<Ticket> drawnTickets, SortedBag<Ticket> chosenTickets) {
-        Preconditions.checkArgument(drawnTickets.subsetsOfSize(chosenTickets.size()).contains(chosenTickets));
+        Preconditions.checkArgument(drawnTickets.contains(chosenTickets));
         
         PlayerState ps = playerState.get(currentPlayerId()).withAddedTickets(chosenTickets);
         Deck<Ticket> newTickets = tickets.withoutTopCards(drawnTickets.size());
@@ -249,36 +282,22 @@ public final class GameState extends PublicGameState{
      */
     public GameState forNextTurn() {
         return lastTurnBegins() 
-                ? new GameState(tickets, cardState, currentPlayerId().next(), playerState, currentPlayerId())
-                : new GameState(tickets, cardState, currentPlayerId().next(), playerState, this.lastPlayer());
+                ? new GameState(tickets, cardState, currentPlayerId().next(playerState.size()), playerState, currentPlayerId())
+                : new GameState(tickets, cardState, currentPlayerId().next(playerState.size()), playerState, this.lastPlayer());
     }
 
-    /**
-     * Private and static method returning a Map that returns the public part of the
-     * privatePlayerState's values (while keeping the same keys).
-     * @param privatePlayerState (Map<PlayerId, PlayerState>): the map in question.
-     * @return (Map<PlayerId, PublicPlayerState>): returns the public part of the
-     * privatePlayerState's values (while keeping the same keys).
-     */
-    private static Map<PlayerId, PublicPlayerState> privateToPublicPlayerState(Map<PlayerId, PlayerState> privatePlayerState) {
-        Map<PlayerId, PublicPlayerState> playerStateStore = new EnumMap<PlayerId, PublicPlayerState>(PlayerId.class);
-        for(PlayerId id : PlayerId.ALL) {
-        	playerStateStore.put(id, privatePlayerState.get(id));
-        }
-        return playerStateStore;
-    }
-    
     /**
      * private method that updates the playerState map by replacing the given playerState at the given playerStateId.
      * We made this method to modularize the code as 5 of the methods required updating the playerState map through 
      * the creation of an EnumMap and then replacing the playerState at the given playerId
      * @param Id (PlayerId) : the given playerId used to identify which of the elements in the map we want to update.
      * @param playerState (PlayerState) : the new playerState that we want to change the old playerState to. 
-     * @return (Map<PlayerId, PlayerState>) : the new updated playerState map which we often use in the updated gameState.
+     * The other player states are shared with the receiver, not copied.
+     * @return (Map<PlayerId, PlayerState>) : the new updated (unmodifiable) playerState map which we often use in the updated gameState.
      */
     private Map<PlayerId, PlayerState> updatePlayerStateMap(PlayerId Id, PlayerState playerState){
         Map<PlayerId, PlayerState> newMap = new EnumMap<PlayerId, PlayerState>(this.playerState);
         newMap.replace(Id, playerState);
-        return newMap;
+        return Collections.unmodifiableMap(newMap);
     }
 }
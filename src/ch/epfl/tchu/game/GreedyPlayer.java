@@ -0,0 +1,233 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * Player taking every decision with cheap heuristics, in a few microseconds, so that many games can be played at once, for
+ * example to load a server. It aims at its tickets: it claims the routes still missing on the shortest paths to complete
+ * them, longest first, and otherwise draws cards of the colors of these routes. Once all its tickets are completed or out
+ * of reach, it draws new tickets while it has enough cars left, and otherwise claims the longest routes it can.
+ * The shortest paths are maintained incrementally by TicketProgress as the game goes on.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class GreedyPlayer implements Player {
+
+    /**
+     * (int): the minimal number of cars a player must have left to draw new tickets.
+     */
+    private static final int MIN_CARS_FOR_TICKETS = 15;
+
+    /**
+     * (Random): the random generator used to break the ties between equally good decisions.
+     */
+    private final Random rng;
+
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private TicketProgress progress;
+    private SortedBag<Ticket> initialTickets;
+    private Route route;
+    private SortedBag<Card> claimCards;
+
+    /**
+     * (Set<Color>): the colors of the cards needed to claim the routes missing to complete the tickets.
+     */
+    private final Set<Color> neededColors = EnumSet.noneOf(Color.class);
+
+    /**
+     * Public GreedyPlayer constructor.
+     * @param rng (Random): the random generator used to break the ties between equally good decisions.
+     */
+    public GreedyPlayer(Random rng) {
+        this.rng = Objects.requireNonNull(rng);
+    }
+
+    @Override
+    public String setPlayerName() {
+        return "Greedy";
+    }
+
+    @Override
+    public void setPlayerNumber(int playerNum) {}
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {}
+
+    @Override
+    public void receiveInfo(String info) {}
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {}
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+        this.progress = progress == null ? TicketProgress.of(newState, ownState) : progress.updated(newState, ownState);
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return BotHeuristics.chooseTickets(gameState, ownState, initialTickets,
+                initialTickets.size() - Constants.DISCARDABLE_TICKETS_COUNT);
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        List<Route> missing = missingRoutes();
+        neededColors.clear();
+        Route best = null;
+        for(Route r : missing) {
+            if(r.color() == null) {
+                neededColors.addAll(Color.ALL);
+            } else {
+                neededColors.add(r.color());
+            }
+            if(ownState.canClaimRoute(r) && (best == null || r.length() > best.length())) {
+                best = r;
+            }
+        }
+        if(best != null) {
+            return claim(best);
+        }
+
+        boolean canDrawTickets = gameState.ticketsCount() >= Constants.IN_GAME_TICKETS_COUNT;
+        if(missing.isEmpty()) {
+            if(canDrawTickets && gameState.lastPlayer() == null && ownState.carCount() >= MIN_CARS_FOR_TICKETS) {
+                return TurnKind.DRAW_TICKETS;
+            }
+            neededColors.addAll(Color.ALL);
+            Route longest = longestClaimableRoute();
+            if(longest != null) {
+                return claim(longest);
+            }
+        }
+
+        if(gameState.canDrawCards()) {
+            return TurnKind.DRAW_CARDS;
+        }
+        Route longest = longestClaimableRoute();
+        if(longest != null) {
+            return claim(longest);
+        }
+        if(canDrawTickets) {
+            return TurnKind.DRAW_TICKETS;
+        }
+        // Nothing can be done: attempting to claim a route without any card lets the turn pass.
+        route = ChMap.routes().get(0);
+        claimCards = SortedBag.of();
+        return TurnKind.CLAIM_ROUTE;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return BotHeuristics.chooseTickets(gameState, ownState, options, 1);
+    }
+
+    @Override
+    public int drawSlot() {
+        List<Card> faceUpCards = gameState.cardState().faceUpCards();
+        int locomotiveSlot = Constants.DECK_SLOT;
+        for(int slot : Constants.FACE_UP_CARD_SLOTS) {
+            Card card = faceUpCards.get(slot);
+            if(card == Card.LOCOMOTIVE) {
+                locomotiveSlot = slot;
+            } else if(neededColors.contains(card.color())) {
+                return slot;
+            }
+        }
+        return locomotiveSlot;
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return route;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return claimCards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        // The options are sorted by increasing number of locomotives, which are the most useful cards to keep.
+        return options.get(0);
+    }
+
+    /**
+     * Prepares the claim of the given route, with the cards using the fewest locomotives.
+     * @param r (Route): the route to be claimed, which the player can claim.
+     * @return (TurnKind): the kind of turn claiming a route.
+     */
+    private TurnKind claim(Route r) {
+        route = r;
+        claimCards = ownState.possibleClaimCards(r).get(0);
+        return TurnKind.CLAIM_ROUTE;
+    }
+
+    /**
+     * Returns the routes missing to complete the tickets that can still be completed, the most valuable tickets first.
+     * @return (List<Route>): the routes missing to complete the tickets, possibly with duplicates.
+     */
+    private List<Route> missingRoutes() {
+        List<Ticket> tickets = progress.tickets();
+        tickets.sort(Comparator.comparingDouble((Ticket t) -> BotHeuristics.ticketValue(t, progress)).reversed());
+        List<Route> missing = new ArrayList<>();
+        for(Ticket t : tickets) {
+            missing.addAll(progress.missingRoutes(t));
+        }
+        return missing;
+    }
+
+    /**
+     * Returns the longest route the player can claim, a random one among them if there are several. A route whose sibling
+     * is claimed cannot be claimed in a two-player game, and in a three-player game only if the sibling was claimed by
+     * another player.
+     * @return (Route): the longest route the player can claim, or null if there is none.
+     */
+    private Route longestClaimableRoute() {
+        boolean[] taken = new boolean[ChMap.routes().size()];
+        for(Route r : gameState.claimedRoutes()) {
+            taken[ChMap.routeIndex(r)] = true;
+        }
+        List<Route> siblingsTaken = gameState.playerIds().size() == 2 ? gameState.claimedRoutes() : ownState.routes();
+        for(Route r : siblingsTaken) {
+            int sibling = ChMap.siblingIndex(ChMap.routeIndex(r));
+            if(sibling >= 0) {
+                taken[sibling] = true;
+            }
+        }
+
+        Route longest = null;
+        int ties = 0;
+        for(int i = 0; i < taken.length; i++) {
+            Route r = ChMap.routes().get(i);
+            if(taken[i] || !ownState.canClaimRoute(r)) {
+                continue;
+            }
+            if(longest == null || r.length() > longest.length()) {
+                longest = r;
+                ties = 1;
+            } else if(r.length() == longest.length() && rng.nextInt(++ties) == 0) {
+                longest = r;
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,739 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Route.Level;
+
+/**
+ * Player choosing its turns by Monte Carlo tree search. Before each turn, it samples many determinizations of the game, i.e.
+ * complete game states consistent with what it knows, in which the hands and tickets of the other players and the order of
+ * the decks are drawn at random, and plays each of them out: down a search tree shared by all determinizations (in which the
+ * moves that are not possible in the current one are ignored), and then to the end of the game with a fast random policy.
+ * The turn whose subtree was explored the most is played.
+ * The search is split between several trees searched in parallel, whose statistics are merged at the root, and stops when
+ * the budget of iterations or of time per decision is exhausted, whichever comes first. The secondary decisions (which
+ * tickets to keep, which card to draw second, which additional cards to play) are made by simple heuristics.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class MctsPlayer implements Player {
+
+    /**
+     * (int): the default number of iterations of the search per decision, for all the trees together.
+     */
+    public static final int DEFAULT_ITERATIONS = 4_000;
+
+    /**
+     * (int): the default maximal duration of the search per decision, in milliseconds.
+     */
+    public static final int DEFAULT_MAX_MILLIS = 1_000;
+
+    /**
+     * (double): the weight of exploration in the choice of the move to explore in the tree.
+     */
+    private static final double EXPLORATION = 0.7;
+
+    /**
+     * (int): the number of turns after which a playout is stopped and evaluated as if the game had ended, which only
+     * happens when the players can no longer do anything useful.
+     */
+    private static final int MAX_PLAYOUT_TURNS = 400;
+
+    /**
+     * (Random): the random generator from which the ones of the searches are seeded.
+     */
+    private final Random rng;
+
+    /**
+     * (int): the number of iterations of the search per decision, for all the trees together.
+     */
+    private final int iterations;
+
+    /**
+     * (long): the maximal duration of the search per decision, in nanoseconds.
+     */
+    private final long maxNanos;
+
+    /**
+     * (int): the number of trees searched in parallel.
+     */
+    private final int threads;
+
+    private PlayerId ownId;
+    private GameConfig config;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private SortedBag<Ticket> initialTickets;
+
+    /**
+     * (Action): the action chosen for the current turn.
+     */
+    private Action action;
+
+    /**
+     * (int): the number of cards already drawn during the current turn.
+     */
+    private int drawnCards;
+
+    /**
+     * Public MctsPlayer constructor, using the default budget and searching one tree per available processor.
+     * @param rng (Random): the random generator from which the ones of the searches are seeded.
+     */
+    public MctsPlayer(Random rng) {
+        this(rng, DEFAULT_ITERATIONS, DEFAULT_MAX_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Public MctsPlayer constructor.
+     * @param rng (Random): the random generator from which the ones of the searches are seeded.
+     * @param iterations (int): the number of iterations of the search per decision, for all the trees together.
+     * @param maxMillis (int): the maximal duration of the search per decision, in milliseconds.
+     * @param threads (int): the number of trees searched in parallel; with a single one, the search is run on the thread
+     * of the game, and its result only depends on rng as long as it is not stopped by maxMillis.
+     * @throws IllegalArgumentException if iterations, maxMillis or threads is not strictly positive.
+     */
+    public MctsPlayer(Random rng, int iterations, int maxMillis, int threads) {
+        Preconditions.checkArgument(iterations > 0 && maxMillis > 0 && threads > 0);
+        this.rng = Objects.requireNonNull(rng);
+        this.iterations = iterations;
+        this.maxNanos = maxMillis * 1_000_000L;
+        this.threads = threads;
+    }
+
+    @Override
+    public String setPlayerName() {
+        return "MCTS";
+    }
+
+    @Override
+    public void setPlayerNumber(int playerNum) {
+        config = GameConfig.forPlayerCount(playerNum);
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        this.ownId = ownId;
+        if(config == null) {
+            config = GameConfig.forPlayerCount(playerNames.size());
+        }
+    }
+
+    @Override
+    public void receiveInfo(String info) {}
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {}
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return BotHeuristics.chooseTickets(gameState, ownState, initialTickets,
+                initialTickets.size() - Constants.DISCARDABLE_TICKETS_COUNT);
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        action = search();
+        drawnCards = 0;
+        return action.kind;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return BotHeuristics.chooseTickets(gameState, ownState, options, 1);
+    }
+
+    @Override
+    public int drawSlot() {
+        return drawnCards++ == 0 && action.kind == TurnKind.DRAW_CARDS
+                ? action.slot
+                : secondDrawSlot(gameState, ownState);
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return action.route;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return action.cards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        // The options are sorted by increasing number of locomotives, which are the most useful cards to keep.
+        return options.get(0);
+    }
+
+    /**
+     * Searches the best action for the current turn, in parallel on several trees if required.
+     * @return (Action): the action of the root which was explored the most.
+     */
+    private Action search() {
+        long deadline = System.nanoTime() + maxNanos;
+        List<Callable<Map<Action, Node>>> searches = new ArrayList<>(threads);
+        for(int i = 0; i < threads; i++) {
+            int treeIterations = iterations / threads + (i < iterations % threads ? 1 : 0);
+            Random treeRng = new Random(rng.nextLong());
+            searches.add(() -> searchTree(Math.max(1, treeIterations), deadline, treeRng));
+        }
+
+        List<Map<Action, Node>> roots = new ArrayList<>(threads);
+        if(threads == 1) {
+            try {
+                roots.add(searches.get(0).call());
+            } catch(Exception e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            try {
+                for(Future<Map<Action, Node>> f : Workers.POOL.invokeAll(searches)) {
+                    roots.add(f.get());
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch(ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        Map<Action, double[]> merged = new HashMap<>();
+        for(Map<Action, Node> root : roots) {
+            root.forEach((a, n) -> {
+                double[] stats = merged.computeIfAbsent(a, k -> new double[2]);
+                stats[0] += n.visits;
+                stats[1] += n.reward;
+            });
+        }
+        return merged.entrySet().stream()
+                .max(Comparator.<Map.Entry<Action, double[]>>comparingDouble(e -> e.getValue()[0])
+                        .thenComparingDouble(e -> e.getValue()[1] / e.getValue()[0]))
+                .map(Map.Entry::getKey)
+                .orElse(Action.PASS);
+    }
+
+    /**
+     * Searches a single tree, for the given number of iterations or until the given deadline.
+     * @param treeIterations (int): the number of iterations of the search.
+     * @param deadline (long): the value of System.nanoTime() at which the search stops, after at least one iteration.
+     * @param treeRng (Random): the random generator of the search.
+     * @return (Map<Action, Node>): the children of the root of the tree, by action.
+     */
+    private Map<Action, Node> searchTree(int treeIterations, long deadline, Random treeRng) {
+        Node root = new Node(null, null, null);
+        for(int i = 0; i < treeIterations && (i == 0 || System.nanoTime() < deadline); i++) {
+            Simulation simulation = new Simulation(
+                    determinize(gameState, ownId, ownState, config, treeRng), treeRng);
+            Node node = root;
+            List<Action> legal = new ArrayList<>();
+            while(!simulation.isOver()) {
+                legal.clear();
+                simulation.legalActions(legal);
+                Node next = node.select(legal, simulation.currentPlayerId(), treeRng);
+                simulation.apply(next.action);
+                if(next.visits == 0) {
+                    node = next;
+                    break;
+                }
+                node = next;
+            }
+            simulation.playOut();
+            double[] rewards = simulation.rewards();
+            for(Node n = node; n != null; n = n.parent) {
+                n.visits++;
+                if(n.mover != null) {
+                    n.reward += rewards[n.mover.ordinal()];
+                }
+            }
+        }
+        return root.children;
+    }
+
+    /**
+     * Returns a complete game state consistent with what the given player knows of the game: the cards the player cannot
+     * see are dealt at random to the hands of the other players, to the pile of discarded cards and to the deck, and the
+     * tickets the player does not hold are dealt at random to the other players and to the deck of tickets, each of them
+     * receiving as many as in the game.
+     * @param gameState (PublicGameState): the public state of the game.
+     * @param ownId (PlayerId): the identity of the player.
+     * @param ownState (PlayerState): the complete state of the player.
+     * @param config (GameConfig): the configuration of the game.
+     * @param rng (Random): the random generator used to deal the unknown cards and tickets.
+     * @return (GameState): a complete game state consistent with what the player knows of the game.
+     * @throws IllegalArgumentException if the given states are not consistent with each other.
+     */
+    static GameState determinize(PublicGameState gameState, PlayerId ownId, PlayerState ownState, GameConfig config,
+            Random rng) {
+        PublicCardState cardState = gameState.cardState();
+        CardBag unknownCards = CardBag.of(Constants.ALL_CARDS)
+                .difference(CardBag.of(ownState.cards()))
+                .difference(CardBag.of(SortedBag.of(cardState.faceUpCards())));
+        List<Card> cards = unknownCards.toList();
+        Collections.shuffle(cards, rng);
+        List<Ticket> tickets = new ArrayList<>(SortedBag.of(config.tickets()).difference(ownState.tickets()).toList());
+        Collections.shuffle(tickets, rng);
+
+        int cardCount = cardState.deckSize() + cardState.discardsSize();
+        int ticketCount = gameState.ticketsCount();
+        for(PlayerId id : gameState.playerIds()) {
+            if(id != ownId) {
+                cardCount += gameState.playerState(id).cardCount();
+                ticketCount += gameState.playerState(id).ticketCount();
+            }
+        }
+        Preconditions.checkArgument(cardCount == cards.size() && ticketCount <= tickets.size());
+
+        int nextCard = 0;
+        int nextTicket = 0;
+        Map<PlayerId, PlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for(PlayerId id : gameState.playerIds()) {
+            PublicPlayerState state = gameState.playerState(id);
+            if(id == ownId) {
+                playerStates.put(id, ownState);
+            } else {
+                SortedBag<Card> hand = SortedBag.of(cards.subList(nextCard, nextCard + state.cardCount()));
+                SortedBag<Ticket> held = SortedBag.of(tickets.subList(nextTicket, nextTicket + state.ticketCount()));
+                nextCard += state.cardCount();
+                nextTicket += state.ticketCount();
+                playerStates.put(id, new PlayerState(held, hand, state.routes()));
+            }
+        }
+        SortedBag<Card> discards = SortedBag.of(cards.subList(nextCard, nextCard + cardState.discardsSize()));
+        nextCard += cardState.discardsSize();
+        Deck<Card> deck = Deck.of(SortedBag.of(cards.subList(nextCard, cards.size())), rng);
+        Deck<Ticket> ticketDeck = Deck.of(
+                SortedBag.of(tickets.subList(nextTicket, nextTicket + gameState.ticketsCount())), rng);
+
+        return GameState.of(ticketDeck, CardState.of(cardState.faceUpCards(), deck, CardBag.of(discards)),
+                gameState.currentPlayerId(), playerStates, gameState.lastPlayer());
+    }
+
+    /**
+     * Chooses the slot of the second card drawn during a turn: a face-up locomotive, or else a face-up card of a color the
+     * player already holds at least two cards of, or else the top card of the deck.
+     * @param gameState (PublicGameState): the public state of the game.
+     * @param ownState (PlayerState): the complete state of the player.
+     * @return (int): the slot of the card to be drawn.
+     */
+    private static int secondDrawSlot(PublicGameState gameState, PlayerState ownState) {
+        int best = Constants.DECK_SLOT;
+        for(int slot : Constants.FACE_UP_CARD_SLOTS) {
+            Card card = gameState.cardState().faceUpCard(slot);
+            if(card == Card.LOCOMOTIVE) {
+                return slot;
+            }
+            if(best == Constants.DECK_SLOT && ownState.cards().countOf(card) >= 2) {
+                best = slot;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Immutable class representing the action a player can take during a turn, as seen by the search: drawing tickets,
+     * drawing cards starting with the one in a given slot, claiming a route with given cards, or doing nothing when nothing
+     * else is possible (by attempting to claim a route without any card, which fails).
+     */
+    private static final class Action {
+        private static final Action PASS = new Action(TurnKind.CLAIM_ROUTE, ChMap.routes().get(0), SortedBag.of(), 0);
+        private static final Action DRAW_TICKETS = new Action(TurnKind.DRAW_TICKETS, null, null, 0);
+
+        private final TurnKind kind;
+        private final Route route;
+        private final SortedBag<Card> cards;
+        private final int slot;
+
+        /**
+         * Private Action constructor.
+         * @param kind (TurnKind): the kind of the turn.
+         * @param route (Route): the route claimed, or null if none is.
+         * @param cards (SortedBag<Card>): the cards initially played to claim the route, or null if no route is claimed.
+         * @param slot (int): the slot of the first card drawn, if cards are drawn.
+         */
+        private Action(TurnKind kind, Route route, SortedBag<Card> cards, int slot) {
+            this.kind = kind;
+            this.route = route;
+            this.cards = cards;
+            this.slot = slot;
+        }
+
+        private static Action drawCards(int slot) {
+            return new Action(TurnKind.DRAW_CARDS, null, null, slot);
+        }
+
+        private static Action claimRoute(Route route, SortedBag<Card> cards) {
+            return new Action(TurnKind.CLAIM_ROUTE, route, cards, 0);
+        }
+
+        private boolean isPass() {
+            return kind == TurnKind.CLAIM_ROUTE && cards.isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if(!(that instanceof Action)) {
+                return false;
+            }
+            Action a = (Action) that;
+            return kind == a.kind && route == a.route && Objects.equals(cards, a.cards) && slot == a.slot;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, route, cards, slot);
+        }
+    }
+
+    /**
+     * Class representing a node of the search tree, i.e. the action leading to it, along with the statistics of the
+     * playouts that went through it.
+     */
+    private static final class Node {
+        private final Action action;
+        private final PlayerId mover;
+        private final Node parent;
+        private final Map<Action, Node> children = new HashMap<>();
+        private int visits;
+        private int availability;
+        private double reward;
+
+        /**
+         * Private Node constructor.
+         * @param action (Action): the action leading to the node, or null for the root.
+         * @param mover (PlayerId): the player who took the action, or null for the root.
+         * @param parent (Node): the parent of the node, or null for the root.
+         */
+        private Node(Action action, PlayerId mover, Node parent) {
+            this.action = action;
+            this.mover = mover;
+            this.parent = parent;
+        }
+
+        /**
+         * Returns the child to explore among the ones of the given legal actions: a new child for an action never tried
+         * before if there is one, or else the child with the best upper confidence bound, relatively to the number of
+         * times it was available.
+         * @param legal (List<Action>): the actions legal in the current determinization.
+         * @param mover (PlayerId): the player taking the action.
+         * @param rng (Random): the random generator used to choose among the actions never tried before.
+         * @return (Node): the child to explore.
+         */
+        private Node select(List<Action> legal, PlayerId mover, Random rng) {
+            List<Action> untried = new ArrayList<>();
+            for(Action a : legal) {
+                Node child = children.get(a);
+                if(child == null) {
+                    untried.add(a);
+                } else {
+                    child.availability++;
+                }
+            }
+            if(!untried.isEmpty()) {
+                Action a = untried.get(rng.nextInt(untried.size()));
+                Node child = new Node(a, mover, this);
+                child.availability = 1;
+                children.put(a, child);
+                return child;
+            }
+
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for(Action a : legal) {
+                Node child = children.get(a);
+                double value = child.reward / child.visits
+                        + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+                if(value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Mutable class playing a determinized game forward, following the rules applied by Game. Keeps track of the owner of
+     * each route in an array, so that the legal actions can be listed without building any set.
+     */
+    private static final class Simulation {
+        private final Random rng;
+        private final PlayerId[] owners;
+        private final boolean twoPlayers;
+        private GameState state;
+        private boolean over;
+        private int turns;
+
+        /**
+         * Private Simulation constructor.
+         * @param state (GameState): the state from which the game is played forward, at the start of a turn.
+         * @param rng (Random): the random generator used to recreate the deck and to choose the moves of the playout.
+         */
+        private Simulation(GameState state, Random rng) {
+            this.state = state;
+            this.rng = rng;
+            this.owners = new PlayerId[ChMap.routes().size()];
+            this.twoPlayers = state.playerIds().size() == 2;
+            for(PlayerId id : state.playerIds()) {
+                for(Route r : state.playerState(id).routes()) {
+                    owners[ChMap.routeIndex(r)] = id;
+                }
+            }
+        }
+
+        private boolean isOver() {
+            return over;
+        }
+
+        private PlayerId currentPlayerId() {
+            return state.currentPlayerId();
+        }
+
+        /**
+         * Adds the legal actions of the current player to the given list: claiming each claimable route with each of the
+         * combinations of cards using the fewest locomotives, drawing cards starting with the deck or with each distinct
+         * face-up card, and drawing tickets, or doing nothing if none of them is possible.
+         * @param actions (List<Action>): the list the actions are added to.
+         */
+        private void legalActions(List<Action> actions) {
+            PlayerState ps = state.currentPlayerState();
+            for(int i = 0; i < owners.length; i++) {
+                Route r = ChMap.routes().get(i);
+                if(isFree(i) && ps.canClaimRoute(r)) {
+                    List<SortedBag<Card>> options = ps.possibleClaimCards(r);
+                    int locomotives = options.get(0).countOf(Card.LOCOMOTIVE);
+                    for(SortedBag<Card> o : options) {
+                        if(o.countOf(Card.LOCOMOTIVE) == locomotives) {
+                            actions.add(Action.claimRoute(r, o));
+                        }
+                    }
+                }
+            }
+            if(state.canDrawCards()) {
+                actions.add(Action.drawCards(Constants.DECK_SLOT));
+                List<Card> faceUpCards = state.cardState().faceUpCards();
+                for(int slot : Constants.FACE_UP_CARD_SLOTS) {
+                    if(faceUpCards.indexOf(faceUpCards.get(slot)) == slot) {
+                        actions.add(Action.drawCards(slot));
+                    }
+                }
+            }
+            if(state.ticketsCount() >= Constants.IN_GAME_TICKETS_COUNT) {
+                actions.add(Action.DRAW_TICKETS);
+            }
+            if(actions.isEmpty()) {
+                actions.add(Action.PASS);
+            }
+        }
+
+        /**
+         * Plays the given action as the turn of the current player, and ends the turn.
+         * @param action (Action): the action to be played.
+         */
+        private void apply(Action action) {
+            switch(action.kind) {
+            case DRAW_TICKETS:
+                SortedBag<Ticket> drawn = state.topTickets(Constants.IN_GAME_TICKETS_COUNT);
+                state = state.withChosenAdditionalTickets(drawn, SortedBag.of(drawn.get(0)));
+                break;
+            case DRAW_CARDS:
+                drawCard(action.slot);
+                drawCard(Constants.DECK_SLOT);
+                break;
+            case CLAIM_ROUTE:
+                if(!action.isPass()) {
+                    claimRoute(action.route, action.cards);
+                }
+                break;
+            }
+            turns++;
+            if(state.lastPlayer() == state.currentPlayerId()) {
+                over = true;
+            } else {
+                state = state.forNextTurn();
+            }
+        }
+
+        /**
+         * Plays the game to its end with a fast random policy: claiming a route whenever possible, the longest one half of
+         * the time, and otherwise drawing cards, or tickets when no card can be drawn.
+         */
+        private void playOut() {
+            List<Route> claimable = new ArrayList<>();
+            while(!over && turns < MAX_PLAYOUT_TURNS) {
+                PlayerState ps = state.currentPlayerState();
+                claimable.clear();
+                Route longest = null;
+                for(int i = 0; i < owners.length; i++) {
+                    Route r = ChMap.routes().get(i);
+                    if(isFree(i) && ps.canClaimRoute(r)) {
+                        claimable.add(r);
+                        if(longest == null || r.length() > longest.length()) {
+                            longest = r;
+                        }
+                    }
+                }
+
+                if(!claimable.isEmpty() && (rng.nextInt(5) != 0 || !state.canDrawCards())) {
+                    Route r = rng.nextBoolean() ? longest : claimable.get(rng.nextInt(claimable.size()));
+                    apply(Action.claimRoute(r, ps.possibleClaimCards(r).get(0)));
+                } else if(state.canDrawCards()) {
+                    int slot = rng.nextInt(Constants.FACE_UP_CARDS_COUNT + 1) - 1;
+                    apply(Action.drawCards(slot));
+                } else if(state.ticketsCount() >= Constants.IN_GAME_TICKETS_COUNT && rng.nextInt(10) == 0) {
+                    apply(Action.DRAW_TICKETS);
+                } else {
+                    apply(Action.PASS);
+                }
+            }
+        }
+
+        /**
+         * Returns the reward of each player at the end of the game: mostly whether they won, and a bit by how much, so
+         * that the search still prefers the better moves in games that are already decided.
+         * @return (double[]): the reward of each player, between 0 and 1, indexed by the ordinal of their identity.
+         */
+        private double[] rewards() {
+            List<PlayerId> ids = state.playerIds();
+            int[] points = new int[PlayerId.COUNT];
+            int maxLength = 0;
+            for(PlayerId id : ids) {
+                maxLength = Math.max(maxLength, state.playerState(id).longestTrail().length());
+            }
+            int best = Integer.MIN_VALUE;
+            int winners = 0;
+            for(PlayerId id : ids) {
+                PlayerState ps = state.playerState(id);
+                int p = ps.finalPoints() + (ps.longestTrail().length() == maxLength ? Constants.LONGEST_TRAIL_BONUS_POINTS : 0);
+                points[id.ordinal()] = p;
+                if(p > best) {
+                    best = p;
+                    winners = 1;
+                } else if(p == best) {
+                    winners++;
+                }
+            }
+
+            double[] rewards = new double[PlayerId.COUNT];
+            for(PlayerId id : ids) {
+                int p = points[id.ordinal()];
+                int bestOther = Integer.MIN_VALUE;
+                for(PlayerId other : ids) {
+                    if(other != id) {
+                        bestOther = Math.max(bestOther, points[other.ordinal()]);
+                    }
+                }
+                double win = p == best ? 1.0 / winners : 0;
+                double margin = Math.max(0, Math.min(1, 0.5 + (p - bestOther) / 100.0));
+                rewards[id.ordinal()] = 0.8 * win + 0.2 * margin;
+            }
+            return rewards;
+        }
+
+        /**
+         * Draws a card for the current player from the given slot, recreating the deck first if needed, as Game does.
+         * @param slot (int): the slot of the card to be drawn.
+         */
+        private void drawCard(int slot) {
+            state = state.withCardsDeckRecreatedIfNeeded(rng);
+            if(state.cardState().isDeckEmpty()) {
+                return;
+            }
+            state = slot == Constants.DECK_SLOT ? state.withBlindlyDrawnCard() : state.withDrawnFaceUpCard(slot);
+        }
+
+        /**
+         * Attempts to claim the given route with the given cards for the current player, drawing the additional cards of
+         * tunnels and paying the cheapest additional cards when they are required, as Game does.
+         * @param route (Route): the route to be claimed.
+         * @param cards (SortedBag<Card>): the cards initially played.
+         */
+        private void claimRoute(Route route, SortedBag<Card> cards) {
+            PlayerState ps = state.currentPlayerState();
+            SortedBag<Card> claimCards = cards;
+            if(route.level() == Level.UNDERGROUND) {
+                SortedBag.Builder<Card> drawnBuilder = new SortedBag.Builder<>();
+                for(int i = 0; i < Constants.ADDITIONAL_TUNNEL_CARDS; i++) {
+                    state = state.withCardsDeckRecreatedIfNeeded(rng);
+                    if(state.cardState().isDeckEmpty()) {
+                        break;
+                    }
+                    drawnBuilder.add(state.topCard());
+                    state = state.withoutTopCard();
+                }
+                SortedBag<Card> drawn = drawnBuilder.build();
+                state = state.withMoreDiscardedCards(drawn);
+                if(drawn.size() < Constants.ADDITIONAL_TUNNEL_CARDS) {
+                    return;
+                }
+                int additional = route.additionalClaimCardsCount(cards, drawn);
+                if(additional > 0) {
+                    List<SortedBag<Card>> options = ps.possibleAdditionalCards(additional, cards, drawn);
+                    if(options.isEmpty()) {
+                        return;
+                    }
+                    claimCards = cards.union(options.get(0));
+                }
+            }
+            owners[ChMap.routeIndex(route)] = state.currentPlayerId();
+            state = state.withClaimedRoute(route, claimCards);
+        }
+
+        /**
+         * Returns true if the current player may claim the route at the given position as far as its owner and the owner
+         * of its sibling are concerned: a route whose sibling is claimed cannot be claimed in a two-player game, and in a
+         * three-player game only if the sibling was claimed by another player.
+         * @param routeIndex (int): the position of the route in ChMap.routes().
+         * @return (boolean): true if neither the route nor its sibling prevent the current player from claiming it.
+         */
+        private boolean isFree(int routeIndex) {
+            if(owners[routeIndex] != null) {
+                return false;
+            }
+            int sibling = ChMap.siblingIndex(routeIndex);
+            if(sibling < 0 || owners[sibling] == null) {
+                return true;
+            }
+            return !twoPlayers && owners[sibling] != state.currentPlayerId();
+        }
+    }
+
+    /**
+     * Holder of the threads on which the trees are searched in parallel, shared by all the players and only created when
+     * a player first searches several trees.
+     */
+    private static final class Workers {
+        private static final ExecutorService POOL = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), r -> {
+                    Thread t = new Thread(r, "tchu-mcts");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+}
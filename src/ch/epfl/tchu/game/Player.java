@@ -22,7 +22,13 @@ public interface Player {
     
     String setPlayerName();
     
+    /**
+     * Method which is called at the very start of the game to communicate to the player the number of players
+     * taking part in it, from which the configuration of the game can be deduced (see GameConfig.forPlayerCount).
+     * @param playerNum (int): the number of players taking part in the game.
+     */
     void setPlayerNumber(int playerNum);
+    
     /**
      * Method which is called at the start of the game to communicate to the player his own ownId identity, 
      * as well as the names of the different players, his own included, which can be found in playerNames.
@@ -38,6 +44,15 @@ public interface Player {
      */
     void receiveInfo(String info);
     
+    /**
+     * Method that is called whenever an event of the game needs to be communicated to the player; the event only
+     * contains data, so that players which show it to a person describe it themselves, e.g. with Info.describe, while
+     * players which do not need any message, such as bots, can simply ignore it.
+     * @param event (GameEvent): the event communicated to the player
+     * @param playerNames (Map<PlayerId, String>): the names of all of the players
+     */
+    void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames);
+    
     /**
      * Method that is called whenever the state of the game has changed, to inform the player of the 
      * public component of this new state, newState, as well as of its own state, ownState
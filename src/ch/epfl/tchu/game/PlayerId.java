@@ -3,7 +3,7 @@ package ch.epfl.tchu.game;
 import java.util.List;
 
 /**
- * The enumerable type PlayerID represents the 2 different players' IDs playing the game.
+ * The enumerable type PlayerID represents the different players' IDs that can play the game.
  * @author Shrey Mittal (312275)
  * @author David Chernis (310298)
  */
@@ -11,20 +11,23 @@ public enum PlayerId {
 	PLAYER_1, PLAYER_2, PLAYER_3;
 	
 	/**
-	 * (List<PlayerID>): list of all the different types of PlayerID.
+	 * (List<PlayerID>): list of all the different types of PlayerID. The players of a game of n players
+	 * are the n first ones of this list (see GameConfig).
 	 */
-    public static List<PlayerId> ALL = Constants.THREE_PLAYER ? List.of(PlayerId.values()) : List.of(PLAYER_1, PLAYER_2);
+    public static final List<PlayerId> ALL = List.of(PlayerId.values());
     
     /**
      * (int): number of types of PlayerID.
      */
-    public static int COUNT = ALL.size();
+    public static final int COUNT = ALL.size();
     
     /**
-     * Returns the identity of the player who follows the one to whom this method is applied.
+     * Returns the identity of the player who follows the one to whom this method is applied,
+     * in a game played by the given number of players.
+     * @param playerCount (int): the number of players taking part in the game.
      * @return (PlayerId): the identity of the player who follows the one to whom this method is applied.
      */
-    public PlayerId next() {
-        return ALL.get((ALL.indexOf(this)+1)%COUNT);
+    public PlayerId next(int playerCount) {
+        return ALL.get((ordinal() + 1) % playerCount);
     }
 }
@@ -1,10 +1,7 @@
 package ch.epfl.tchu.game;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
@@ -27,6 +24,24 @@ public final class PlayerState extends PublicPlayerState{
 	 */
 	private final SortedBag<Card> cards;
 	
+	/**
+	 * (CardBag): the same cards as cards, as a vector of counts used for the fast subset checks.
+	 */
+	private final CardBag cardCounts;
+	
+	/**
+	 * (StationPartition): the connectivity of the player's network. Is computed lazily if it was not provided at construction,
+	 * and then maintained incrementally as routes are claimed.
+	 */
+	private StationPartition connectivity;
+	
+	/**
+	 * (Integer): the points (possibly negative) obtained by the player because of their tickets, or null if they are not known yet.
+	 * Is maintained as a running total as tickets are added and routes are claimed, so that final scoring does not have to go
+	 * through the tickets again.
+	 */
+	private Integer ticketPoints;
+	
 	/**
 	 * Default PlayerState constructor. Initializes a PlayerState by giving it a SortedBag of tickets and cards, along
 	 * with a List of routes.
@@ -35,9 +50,26 @@ public final class PlayerState extends PublicPlayerState{
 	 * @param routes (List<Route>): is the list of all the routes the player controls.
 	 */
 	public PlayerState(SortedBag<Ticket> tickets, SortedBag<Card> cards, List<Route> routes) {
-		super(tickets.size(), cards.size(), routes);
-		this.tickets = SortedBag.of(tickets);
-		this.cards = SortedBag.of(cards);
+		this(tickets, cards, routes, null, null, null);
+	}
+	
+	/**
+	 * Private PlayerState constructor, used when the longest trail of the player's network is already known.
+	 * @param tickets (SortedBag<Ticket>): is the set of all the tickets the player possesses.
+	 * @param cards (SortedBag<Card>): is the list of all cards the player possesses.
+	 * @param routes (List<Route>): is the list of all the routes the player controls.
+	 * @param longestTrail (Trail): the longest trail of the network made up of routes, or null if it is not known yet.
+	 * @param connectivity (StationPartition): the connectivity of the network made up of routes, or null if it is not known yet.
+	 * @param ticketPoints (Integer): the points obtained because of the tickets, or null if they are not known yet.
+	 */
+	private PlayerState(SortedBag<Ticket> tickets, SortedBag<Card> cards, List<Route> routes, Trail longestTrail,
+	        StationPartition connectivity, Integer ticketPoints) {
+		super(tickets.size(), cards.size(), routes, longestTrail);
+		this.tickets = tickets;
+		this.cards = cards;
+		this.cardCounts = CardBag.of(cards);
+		this.connectivity = connectivity;
+		this.ticketPoints = ticketPoints;
 	}
 	
 	/**
@@ -50,7 +82,7 @@ public final class PlayerState extends PublicPlayerState{
 	public static PlayerState initial(SortedBag<Card> initialCards) {
 		Preconditions.checkArgument(initialCards.size() == 4);
 		
-		return new PlayerState(SortedBag.of(), initialCards, new ArrayList<Route>());
+		return new PlayerState(SortedBag.of(), initialCards, new ArrayList<Route>(), null, new StationPartition.Builder(0).build(), 0);
 	}
 	
 	/**
@@ -58,7 +90,7 @@ public final class PlayerState extends PublicPlayerState{
 	 * @return (SortedBag<Ticket>): the set of all the tickets the player possesses.
 	 */
 	public SortedBag<Ticket> tickets(){
-		return SortedBag.of(tickets);
+		return tickets;
 	}
 	
 	/**
@@ -66,7 +98,8 @@ public final class PlayerState extends PublicPlayerState{
      * @return (PlayerState): a state identical to the receiver, except that the player also has the given tickets.
      */
     public PlayerState withAddedTickets(SortedBag<Ticket> newTickets) {
-        return new PlayerState(newTickets.union(tickets()), cards(), routes());
+        Integer points = ticketPoints == null ? null : ticketPoints + pointsOf(newTickets, partition());
+        return new PlayerState(newTickets.union(tickets), cards, routes(), longestTrail(), connectivity, points);
     }
 	
 	/**
@@ -74,7 +107,7 @@ public final class PlayerState extends PublicPlayerState{
 	 * @return (SortedBag<Card>): the list of all cards the player possesses.
 	 */
 	public SortedBag<Card> cards(){
-		return SortedBag.of(cards);
+		return cards;
 	}
 	
 	/**
@@ -83,7 +116,7 @@ public final class PlayerState extends PublicPlayerState{
 	 * @return (PlayerState): an identical state to the receiver, except that the player also has the given card.
 	 */
 	public PlayerState withAddedCard(Card card) {
-		return new PlayerState(tickets, SortedBag.of(card).union(cards()), routes());
+		return new PlayerState(tickets, SortedBag.of(card).union(cards), routes(), longestTrail(), connectivity, ticketPoints);
 	}
 	
 	/**
@@ -93,9 +126,7 @@ public final class PlayerState extends PublicPlayerState{
 	 * necessary cards.
 	 */
 	public boolean canClaimRoute(Route route) {
-        boolean hasCars = carCount() >= route.length();
-        boolean hasCorrectCards = hasCars && !possibleClaimCards(route).isEmpty();
-        return hasCars && hasCorrectCards;
+        return carCount() >= route.length() && route.canBeClaimedWith(cardCounts);
 	}
 	
 	/**
@@ -107,12 +138,13 @@ public final class PlayerState extends PublicPlayerState{
      */
 	public List<SortedBag<Card>> possibleClaimCards(Route route){
         Preconditions.checkArgument(carCount() >= route.length());
-        List<SortedBag<Card>> possibleClaimCards = route.possibleClaimCards();
+        List<SortedBag<Card>> allClaimCards = route.possibleClaimCards();
+        List<CardBag> allClaimCardBags = route.possibleClaimCardBags();
+        List<SortedBag<Card>> possibleClaimCards = new ArrayList<SortedBag<Card>>();
         
-        for(int i = 0; i < possibleClaimCards.size(); i++) {
-            if(!cards.contains(possibleClaimCards.get(i))) {
-                possibleClaimCards.remove(i);
-                i--;
+        for(int i = 0; i < allClaimCards.size(); i++) {
+            if(cardCounts.contains(allClaimCardBags.get(i))) {
+                possibleClaimCards.add(allClaimCards.get(i));
             }
         }
         
@@ -125,8 +157,8 @@ public final class PlayerState extends PublicPlayerState{
 	 * @param additionalCardsCount (int): the number of extra cards the player needs to use to claim the tunnel.
 	 * @param initialCards (SortedBag<Card>): the cards initially used by the player to try claim the tunnel.
 	 * @param drawnCards (SortedBag<Card>): the 3 cards drawn by the player upon the attempt to claim the tunnel.
-	 * @return (List<SortedBag<Card>>): a list of all sets of additional cards the player could use to take over a tunnel, sorted
-	 * in ascending order by the number of locomotive cards.
+	 * @return (List<SortedBag<Card>>): an immutable list of all sets of additional cards the player could use to take over a tunnel,
+	 * sorted in ascending order by the number of locomotive cards.
 	 * @throws IllegalArgumentException if additionalCardsCount is not between 1 and 3 (both inclusive), if initialCards contains
 	 * more than 2 different types of cards, or if drawnCards doesn't contain exactly 3 cards.
 	 */
@@ -135,51 +167,59 @@ public final class PlayerState extends PublicPlayerState{
 	    boolean rightInitial = !initialCards.isEmpty() && initialCards.toSet().size() <= 2;
 		Preconditions.checkArgument(rightCsCounts  && rightInitial);
 		
-		SortedBag<Card> relevantCsLeft = SortedBag.of(computeRelevantCardsLeft(initialCards));
-		
-		Set<SortedBag<Card>> relevantCardSet = additionalCardsCount <= relevantCsLeft.size() 
-		        ? relevantCsLeft.subsetsOfSize(additionalCardsCount) 
-		        : new HashSet<SortedBag<Card>>();
-		
-        List<SortedBag<Card>> relevantCardList = new ArrayList<SortedBag<Card>>(relevantCardSet);
-		relevantCardList.sort(Comparator.comparingInt(cs -> cs.countOf(Card.LOCOMOTIVE)));
-		return relevantCardList;
+		CardBag relevantCsLeft = computeRelevantCardsLeft(initialCards);
+		return additionalCardsCount <= relevantCsLeft.size()
+		        ? CardSubsets.ofSize(relevantCsLeft, additionalCardsCount)
+		        : List.of();
 	}
 	
 	/**
 	 * Private method used to facilitate the calculation of the cards relevent to the calculation of the possible additional cards.
 	 * @param initialCards (SortedBag<Card>): the intial cards that the player used to claim the route
-	 * @return (List<Card>): list of the cards that the player has left that he can use for the additional drawn cards.
+	 * @return (CardBag): the cards that the player has left that he can use for the additional drawn cards.
 	 */
-	private List<Card> computeRelevantCardsLeft(SortedBag<Card> initialCards){
-	    List<Card> csList = new ArrayList<Card>();
-        SortedBag<Card> csBag = cards.difference(initialCards);
-        
-        for(Card card: csBag) {
-            if(initialCards.contains(card) || card == Card.LOCOMOTIVE) {
-                csList.add(card);
-            }
-        }
-        return csList;
+	private CardBag computeRelevantCardsLeft(SortedBag<Card> initialCards){
+	    CardBag relevantCards = CardBag.of(cardsLeft(Card.LOCOMOTIVE, initialCards), Card.LOCOMOTIVE);
+	    for(Card card : initialCards.toSet()) {
+	        if(card != Card.LOCOMOTIVE) {
+	            relevantCards = relevantCards.union(CardBag.of(cardsLeft(card, initialCards), card));
+	        }
+	    }
+        return relevantCards;
+	}
+	
+	/**
+	 * Private method returning the number of cards of the given type the player has left once the initial cards have been laid.
+	 * @param card (Card): the type of card in question.
+	 * @param initialCards (SortedBag<Card>): the intial cards that the player used to claim the route
+	 * @return (int): the number of cards of the given type the player has left, at least 0.
+	 */
+	private int cardsLeft(Card card, SortedBag<Card> initialCards) {
+	    return Math.max(0, cardCounts.countOf(card) - initialCards.countOf(card));
 	}
 	
 	/**
 	 * Returns an identical state to the receiver, except that the player has additionally claimed the given route with the given
-	 * cards.
+	 * cards. The longest trail, the connectivity and the ticket points of the new state are computed incrementally from the ones
+	 * of the receiver; in particular, the ticket points only have to be computed again if the route connects two stations that
+	 * were not connected yet.
 	 * @param route (Route): the route in question.
 	 * @param claimCards (SortedBag<Card>): the cards used to claim the given route.
 	 * @return (PlayerState): an identical state to the receiver, just with the additionally claimed route by recipient player.
 	 */
 	public PlayerState withClaimedRoute(Route route, SortedBag<Card> claimCards) {
 	    
-		List<Route> routes = new ArrayList<Route>();
-		for(int i = 0; i < routes().size(); i++) {
-		    routes.add(routes().get(i));
-		}
+		List<Route> routes = new ArrayList<Route>(routes().size() + 1);
+		routes.addAll(routes());
 		routes.add(route);
 		
-		SortedBag<Card> cards = cards().difference(claimCards);
-		return new PlayerState(this.tickets(), SortedBag.of(cards), routes);
+		StationPartition oldPartition = partition();
+		StationPartition newPartition = oldPartition.withConnected(route.station1(), route.station2());
+		Integer points = ticketPoints == null ? null
+		        : newPartition == oldPartition ? ticketPoints : Integer.valueOf(pointsOf(tickets, newPartition));
+		
+		return new PlayerState(tickets, cards.difference(claimCards), routes, Trail.longest(longestTrail(), routes, route),
+		        newPartition, points);
 	}
 	
 	/**
@@ -187,21 +227,52 @@ public final class PlayerState extends PublicPlayerState{
 	 * @return (int): the number of points (possibly negative) obtained by the player because of their tickets.
 	 */
 	public int ticketPoints() {
-	    StationPartition.Builder builder = new StationPartition.Builder(computeMaxId() + 1);
-	    int points = 0;
-	    
-	    for(Route r: routes()) {
-	        builder.connect(r.station1(), r.station2());
+	    if(ticketPoints == null) {
+	        ticketPoints = pointsOf(tickets, partition());
 	    }
-	    StationPartition partition = builder.build();
-		
+	    return ticketPoints;
+	}
+	
+	/**
+	 * Private method returning the number of points (possibly negative) obtained because of the given tickets.
+	 * @param tickets (SortedBag<Ticket>): the tickets whose points are computed.
+	 * @param connectivity (StationConnectivity): the connectivity of the player's network.
+	 * @return (int): the number of points (possibly negative) obtained because of the tickets.
+	 */
+	private static int pointsOf(SortedBag<Ticket> tickets, StationConnectivity connectivity) {
+	    int points = 0;
 	    
 	    for(int i = 0; i < tickets.size(); i++) {
-		    points += tickets.get(i).points(partition);
+		    points += tickets.get(i).points(connectivity);
 		}
 	    return points;
 	}
 	
+	/**
+	 * Returns the connectivity of the network of routes the player controls. Is maintained incrementally as routes are claimed,
+	 * so that it can be queried every turn without being rebuilt.
+	 * @return (StationConnectivity): the connectivity of the network of routes the player controls.
+	 */
+	public StationConnectivity connectivity() {
+	    return partition();
+	}
+	
+	/**
+	 * Private method returning the partition of stations representing the connectivity of the player's network, computing it
+	 * from the routes the player controls if it is not known yet.
+	 * @return (StationPartition): the partition of stations representing the connectivity of the player's network.
+	 */
+	private StationPartition partition() {
+	    if(connectivity == null) {
+	        StationPartition.Builder builder = new StationPartition.Builder(computeMaxId() + 1);
+	        for(Route r: routes()) {
+	            builder.connect(r.station1(), r.station2());
+	        }
+	        connectivity = builder.build();
+	    }
+	    return connectivity;
+	}
+	
 	/**
 	 * private method that helps facilitate the computation of the largest station Id owned by the player 
 	 * @return (int): the maximum station Id of all the stations owned by said player.
@@ -31,10 +31,10 @@ public class PublicGameState {
 	private final PlayerId currentPlayerId;
 	
 	/**
-	 * (Map<PlayerId, PublicPlayerState>): represents the public player states of the 2 players
-	 * in the game.
+	 * (Map<PlayerId, ? extends PublicPlayerState>): represents the public player states of the 2 players
+	 * in the game. Is never modified, so that it can be shared between successive states.
 	 */
-	private final Map<PlayerId, PublicPlayerState> publicPlayerStates;
+	private final Map<PlayerId, ? extends PublicPlayerState> publicPlayerStates;
 	
 	/**
 	 * (PlayerId): represents the PlayerId of the player who will take the last turn.
@@ -49,8 +49,8 @@ public class PublicGameState {
 	 * @param ticketsCount (int): represents the number of tickets in the deck of tickets.
 	 * @param cardState (PublicCardState): represents the public card state of the game.
 	 * @param currentPlayerId (PlayerId): represents the PlayerId of the player who's turn it is.
-	 * @param playerState (Map<PlayerId, PublicPlayerState>): represents the public player states of
-	 * the 2 players in the game.
+	 * @param playerState (Map<PlayerId, ? extends PublicPlayerState>): represents the public player states of
+	 * the 2 players in the game. Must not be modified afterwards, as it is not copied.
 	 * @param lastPlayer (PlayerId): represents the PlayerId of the player who will take the last
 	 * turn.
 	 * @throws IllegalArgumentException if the size of the deck is strictly negative or if
@@ -58,7 +58,7 @@ public class PublicGameState {
 	 * @throws NullPointerException if one of the other arguments (except lastPlayer!) is null.
 	 */
 	public PublicGameState(int ticketsCount, PublicCardState cardState, PlayerId currentPlayerId,
-			Map<PlayerId, PublicPlayerState> playerState, PlayerId lastPlayer) {
+			Map<PlayerId, ? extends PublicPlayerState> playerState, PlayerId lastPlayer) {
 		Preconditions.checkArgument(ticketsCount >= 0 && (playerState.size() == 2 || playerState.size() == 3));
 		if(cardState.equals(null) || currentPlayerId.equals(null) || playerState.equals(null)) {
 			throw new NullPointerException();
@@ -119,6 +119,14 @@ public class PublicGameState {
 		return publicPlayerStates.get(playerId);
 	}
 	
+	/**
+	 * Returns the identities of the players taking part in the game, in playing order.
+	 * @return (List<PlayerId>): the identities of the players taking part in the game.
+	 */
+	public List<PlayerId> playerIds() {
+		return PlayerId.ALL.subList(0, publicPlayerStates.size());
+	}
+	
 	/**
 	 * Returns the public player state of the current player.
 	 * @return (PublicPlayerState): the public player state of the current player.
@@ -133,8 +141,8 @@ public class PublicGameState {
 	 */
 	public List<Route> claimedRoutes(){
 		List<Route> currentPlayerRoutes = new ArrayList<Route>();
-		for(int i = 0; i < publicPlayerStates.size(); i++) {
-			currentPlayerRoutes.addAll(publicPlayerStates.get(PlayerId.ALL.get(i)).routes());
+		for(PlayerId id : playerIds()) {
+			currentPlayerRoutes.addAll(publicPlayerStates.get(id).routes());
 		}
 		return currentPlayerRoutes;
 	}
@@ -37,6 +37,11 @@ public class PublicPlayerState {
 	 */
 	private final int claimPoints;
 	
+	/**
+	 * (Trail): the longest trail of the player's network. Is computed lazily if it was not provided at construction.
+	 */
+	private Trail longestTrail;
+	
 	/**
 	 * Default public constructor of PublicCardState. Initializes the PublicPlayerState by initializing
 	 * the number of cards and tickets in possession of the player, along with a list of all the routes
@@ -47,6 +52,18 @@ public class PublicPlayerState {
 	 * @throws IllegalArgumentException if either ticketCount or cardCount are strictly negative.
 	 */
 	public PublicPlayerState(int ticketCount, int cardCount, List<Route> routes) {
+		this(ticketCount, cardCount, routes, null);
+	}
+	
+	/**
+	 * Package-private constructor of PublicPlayerState, used when the longest trail of the player's network is already known.
+	 * @param ticketCount (int): represents the number of tickets possessed by the player.
+	 * @param cardCount (int): represents the number of cards possessed by the player.
+	 * @param routes (List<Route>): a list of all the routes the player controls.
+	 * @param longestTrail (Trail): the longest trail of the network made up of routes, or null if it is not known yet.
+	 * @throws IllegalArgumentException if either ticketCount or cardCount are strictly negative.
+	 */
+	PublicPlayerState(int ticketCount, int cardCount, List<Route> routes, Trail longestTrail) {
 		Preconditions.checkArgument(ticketCount >= 0 && cardCount >= 0);
 		this.ticketCount = ticketCount;
 		this.cardCount = cardCount;
@@ -62,6 +79,7 @@ public class PublicPlayerState {
             points += r.claimPoints();
         }
 		claimPoints = points;
+		this.longestTrail = longestTrail;
 	}
 	
 	/**
@@ -85,7 +103,7 @@ public class PublicPlayerState {
 	 * @return (List<Route>): a list of all the routes the player controls.
 	 */
 	public List<Route> routes(){
-		return List.copyOf(routes);
+		return routes;
 	}
 	
 	/**
@@ -104,4 +122,15 @@ public class PublicPlayerState {
 	    return claimPoints;
 	    
 	}
+	
+	/**
+	 * Returns the longest trail of the network of routes the player controls.
+	 * @return (Trail): the longest trail of the network of routes the player controls.
+	 */
+	public Trail longestTrail() {
+	    if(longestTrail == null) {
+	        longestTrail = Trail.longest(routes);
+	    }
+	    return longestTrail;
+	}
 }
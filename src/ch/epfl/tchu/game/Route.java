@@ -3,6 +3,7 @@ package ch.epfl.tchu.game;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
@@ -47,6 +48,17 @@ public final class Route {
      */
     private final Color color;
     
+    /**
+     * (List<SortedBag<Card>>): all the combinations of cards which can be used to claim the route, computed once
+     * when the route is created, sorted by increasing number of locomotives.
+     */
+    private final List<SortedBag<Card>> possibleClaimCards;
+    
+    /**
+     * (List<CardBag>): the same combinations as possibleClaimCards, in the same order, as vectors of counts.
+     */
+    private final List<CardBag> possibleClaimCardBags;
+    
     /**
      * Default Route constructor. Initializes a Route initializing its field using the parameters of the constructors.
      * @param id (String): the unique ID of the route.
@@ -67,6 +79,10 @@ public final class Route {
         this.station2 = station2;
         this.level = level;
         this.length = length;
+        this.possibleClaimCards = computePossibleClaimCards(length, level, color);
+        this.possibleClaimCardBags = possibleClaimCards.stream()
+                .map(CardBag::of)
+                .collect(Collectors.toUnmodifiableList());
     }   
     
     /**
@@ -146,25 +162,62 @@ public final class Route {
     
     /**
      * Returns a List of a SortedBag (itself a SortedBag of Cards) containing all the possible combinations of cards which can be used to claim the route.
-     * The returned list is also sorted by increasing order of locomotives simply be method of adding the combinations in an increasing order. 
-     * @return (List<SortedBag<Card>>): a List containing all the possible combinations of cards which can be used to claim the route.
+     * The returned list is sorted by increasing order of locomotives, and is computed once when the route is created. 
+     * @return (List<SortedBag<Card>>): an immutable List containing all the possible combinations of cards which can be used to claim the route.
      */
     public List<SortedBag<Card>> possibleClaimCards() {
-        ArrayList<SortedBag<Card>> claimCardsList = new ArrayList<SortedBag<Card>>();
+        return possibleClaimCards;
+    }
+    
+    /**
+     * Returns the same combinations as possibleClaimCards, in the same order, as vectors of counts.
+     * @return (List<CardBag>): an immutable List containing all the possible combinations of cards which can be used to claim the route.
+     */
+    List<CardBag> possibleClaimCardBags() {
+        return possibleClaimCardBags;
+    }
+    
+    /**
+     * Returns true if at least one of the combinations of cards which can be used to claim the route is contained in the
+     * given cards. Only reads a few counts, without going through the combinations.
+     * @param cards (CardBag): the cards that may be used to claim the route.
+     * @return (boolean): true if the route can be claimed with some of the given cards, false otherwise.
+     */
+    public boolean canBeClaimedWith(CardBag cards) {
+        int locomotives = level == Level.UNDERGROUND ? cards.countOf(Card.LOCOMOTIVE) : 0;
+        if(color != null) {
+            return cards.countOf(Card.of(color)) + locomotives >= length;
+        }
+        for(Color c : Color.ALL) {
+            if(cards.countOf(Card.of(c)) + locomotives >= length) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Private method computing all the combinations of cards which can be used to claim a route, by increasing number of
+     * locomotives. The combination made of locomotives only, which tunnels of any color accept, is added once.
+     * @param length (int): the length of the route.
+     * @param level (Level): the level of the route.
+     * @param color (Color): the color of the route, null if it is grey.
+     * @return (List<SortedBag<Card>>): an immutable List containing all the combinations of cards which can be used to claim the route.
+     */
+    private static List<SortedBag<Card>> computePossibleClaimCards(int length, Level level, Color color) {
+        List<SortedBag<Card>> claimCardsList = new ArrayList<SortedBag<Card>>();
+        List<Color> possibleColors = color != null ? List.of(color) : Color.ALL;
         int possibleLocomotives = level == Level.UNDERGROUND ? length : 0;
         
-        for(int i = 0; i <= possibleLocomotives ; i++) {
-            
-            List<Color> possibleColors = color != null ? List.of(color) : Color.ALL;
-            for(Color C : possibleColors) {
-                
-                SortedBag<Card> possibleCombination = SortedBag.of(length-i, Card.of(C), i, Card.LOCOMOTIVE);        
-                if(!claimCardsList.contains(possibleCombination)) {
-                    claimCardsList.add(possibleCombination);
-                }
+        for(int i = 0; i <= possibleLocomotives && i < length; i++) {
+            for(Color c : possibleColors) {
+                claimCardsList.add(SortedBag.of(length - i, Card.of(c), i, Card.LOCOMOTIVE));
             }
         }
-        return claimCardsList;
+        if(possibleLocomotives == length) {
+            claimCardsList.add(SortedBag.of(length, Card.LOCOMOTIVE));
+        }
+        return List.copyOf(claimCardsList);
     }
     
     /**
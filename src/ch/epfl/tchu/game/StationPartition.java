@@ -1,11 +1,15 @@
 package ch.epfl.tchu.game;
 
+import java.util.Arrays;
+
 import ch.epfl.tchu.Preconditions;
 
 /**
  * Immutable class representing a flat station partition in the game.
  * Implements the StationConnectivity interface, as it allows its instances to be passed as arguments in the points method of Ticket.
  * Keeps track of the connectivity of stations.
+ * Since every station is directly mapped to the representative of its subset, connected only compares two integers.
+ * A partition can either be built at once with a Builder, or be derived incrementally from a previous one with withConnected.
  * @author Shrey Mittal (312275)
  * @author David Chernis (310298)
  */
@@ -34,8 +38,37 @@ public final class StationPartition implements StationConnectivity{
                || s1.id() == s2.id();
     }
 
+    /**
+     * Returns a partition identical to this one, except that the subsets containing the two given stations have been joined.
+     * The partition grows to include the given stations if they are beyond its current stations. Only copies the array of
+     * representatives, whose size is the number of stations, and returns this partition if the stations are already connected.
+     * @param s1 (Station): the first Station in question.
+     * @param s2 (Station): the second Station in question.
+     * @return (StationPartition): a partition in which s1 and s2, and all the stations connected to either of them, are connected.
+     */
+    public StationPartition withConnected(Station s1, Station s2) {
+        int size = Math.max(stationsConnections.length, Math.max(s1.id(), s2.id()) + 1);
+        if(size == stationsConnections.length && stationsConnections[s1.id()] == stationsConnections[s2.id()]) {
+            return this;
+        }
+        int[] newConnections = Arrays.copyOf(stationsConnections, size);
+        for(int i = stationsConnections.length; i < size; i++) {
+            newConnections[i] = i;
+        }
+        int newRepresentative = newConnections[s1.id()];
+        int oldRepresentative = newConnections[s2.id()];
+        for(int i = 0; i < size; i++) {
+            if(newConnections[i] == oldRepresentative) {
+                newConnections[i] = newRepresentative;
+            }
+        }
+        return new StationPartition(newConnections);
+    }
+
     /**
      * Builder class that builds a StationPartition.
+     * Is a union-find structure: subsets are joined by rank, and the paths to the representatives are halved as they are walked,
+     * so that every operation takes an almost constant amortized time.
      */
     public static final class Builder{
 
@@ -46,6 +79,12 @@ public final class StationPartition implements StationConnectivity{
          */
         private final int[] stationsConnections;
 
+        /**
+         * (int[]): an upper bound on the height of the tree of each representative station, indexed by station id.
+         * Is only meaningful for representative stations.
+         */
+        private final int[] ranks;
+
         /**
          * Default Builder constructor. Initializes a Builder by giving it an array of station connectivity.
          * @param stations (int[]): an array representing station connectivity.
@@ -54,6 +93,7 @@ public final class StationPartition implements StationConnectivity{
         public Builder(int stationCount) {
             Preconditions.checkArgument(stationCount >= 0);
             stationsConnections = new int[stationCount];
+            ranks = new int[stationCount];
             for(int i = 0; i < stationCount; i++) {
                 stationsConnections[i] = i;
             }
@@ -67,7 +107,19 @@ public final class StationPartition implements StationConnectivity{
          * @return (Builder): this.
          */
         public Builder connect(Station s1, Station s2) {
-            stationsConnections[representative(s2.id())] = representative(s1.id());
+            int rep1 = representative(s1.id());
+            int rep2 = representative(s2.id());
+            if(rep1 == rep2) {
+                return this;
+            }
+            if(ranks[rep1] < ranks[rep2]) {
+                stationsConnections[rep1] = rep2;
+            } else {
+                stationsConnections[rep2] = rep1;
+                if(ranks[rep1] == ranks[rep2]) {
+                    ranks[rep1]++;
+                }
+            }
             return this;
         }
 
@@ -79,6 +131,8 @@ public final class StationPartition implements StationConnectivity{
         private int representative(int indexStation) {
             int indexOfRep = indexStation;
             while(indexOfRep != stationsConnections[indexOfRep]) {
+                // Path halving: every other station on the path is linked to its grandparent.
+                stationsConnections[indexOfRep] = stationsConnections[stationsConnections[indexOfRep]];
                 indexOfRep = stationsConnections[indexOfRep];
             }
             return indexOfRep;
@@ -59,7 +59,15 @@ public final class Ticket implements Comparable<Ticket> {
     public String text() {
         return text;
     }
-    
+
+    /**
+     * Returns the trips listed on the ticket.
+     * @return (List<Trip>): an immutable list of the trips listed on the ticket.
+     */
+    public List<Trip> trips() {
+        return trips;
+    }
+
     /**
      * Computes the text of the ticket based on the trips provided
      * @param trips (List<Trip>): the list of trips for which the ticket text is to be computed.
@@ -0,0 +1,330 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable class representing the progress of a player towards completing each of their tickets, during the game.
+ * For each ticket, it tells whether the ticket is already completed and, if it is not, the minimal total length of the
+ * routes that the player still has to claim to complete it, i.e. the length of the shortest path between the stations of
+ * the ticket in which the routes of the player are free and the routes claimed by the other players cannot be used, nor, in
+ * a two-player game, their siblings.
+ * A new progress is derived from the previous one after every update of the state of the game: completed tickets are never
+ * evaluated again, and the other ones only if the player claimed a route, which may shorten any path, or if another player
+ * claimed a route on their shortest path.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class TicketProgress {
+
+    /**
+     * (int): the remaining length of a ticket that cannot be completed anymore.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * (byte): the status of a route claimed by the player.
+     */
+    private static final byte OWNED = 1;
+
+    /**
+     * (byte): the status of a route claimed by another player, or whose sibling has been claimed in a two-player game.
+     */
+    private static final byte BLOCKED = 2;
+
+    /**
+     * (int): the number of stations of the map.
+     */
+    private static final int STATION_COUNT = ChMap.stations().size();
+
+    /**
+     * (int[][]): the indices in ChMap.routes() of the routes reaching each station, indexed by station id.
+     */
+    private static final int[][] ROUTES_BY_STATION = computeRoutesByStation();
+
+    /**
+     * (TicketProgress): the progress of a player holding no ticket, before anybody has claimed any route.
+     */
+    private static final TicketProgress EMPTY = new TicketProgress(new byte[ChMap.routes().size()], Map.of());
+
+    /**
+     * (byte[]): the status of each route of the map, indexed by its position in ChMap.routes(), 0 for a route that nobody
+     * has claimed. Is never modified.
+     */
+    private final byte[] statuses;
+
+    /**
+     * (Map<Ticket, Entry>): the progress towards completing each ticket held by the player.
+     */
+    private final Map<Ticket, Entry> entries;
+
+    /**
+     * Private TicketProgress constructor.
+     * @param statuses (byte[]): the status of each route of the map, which must never be modified afterwards.
+     * @param entries (Map<Ticket, Entry>): the progress towards completing each ticket held by the player.
+     */
+    private TicketProgress(byte[] statuses, Map<Ticket, Entry> entries) {
+        this.statuses = statuses;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the progress of the player whose own state is given, in the given game.
+     * @param gameState (PublicGameState): the public state of the game.
+     * @param playerState (PlayerState): the complete state of the player.
+     * @return (TicketProgress): the progress of the player towards completing each of their tickets.
+     */
+    public static TicketProgress of(PublicGameState gameState, PlayerState playerState) {
+        return EMPTY.updated(gameState, playerState);
+    }
+
+    /**
+     * Returns the progress of the same player in the given new state of the game, reusing the evaluation of the tickets that
+     * cannot have changed since this progress was computed.
+     * @param gameState (PublicGameState): the new public state of the game.
+     * @param playerState (PlayerState): the new complete state of the player.
+     * @return (TicketProgress): the progress of the player towards completing each of their tickets.
+     */
+    public TicketProgress updated(PublicGameState gameState, PlayerState playerState) {
+        byte[] newStatuses = computeStatuses(gameState, playerState);
+        boolean ownClaim = false;
+        BitSet newlyBlocked = new BitSet(newStatuses.length);
+        for(int i = 0; i < newStatuses.length; i++) {
+            if(newStatuses[i] != statuses[i]) {
+                if(newStatuses[i] == OWNED) {
+                    ownClaim = true;
+                } else if(newStatuses[i] == BLOCKED) {
+                    newlyBlocked.set(i);
+                }
+            }
+        }
+
+        Map<Ticket, Entry> newEntries = new HashMap<>();
+        StationConnectivity connectivity = playerState.connectivity();
+        for(Ticket t : playerState.tickets().toSet()) {
+            Entry entry = entries.get(t);
+            if(entry == null || (entry.remainingLength > 0 && (ownClaim || entry.path.intersects(newlyBlocked)))) {
+                entry = evaluate(t, connectivity, newStatuses);
+            }
+            newEntries.put(t, entry);
+        }
+        return new TicketProgress(newStatuses, Map.copyOf(newEntries));
+    }
+
+    /**
+     * Returns the tickets whose progress is known, i.e. the distinct tickets held by the player.
+     * @return (List<Ticket>): the distinct tickets held by the player, in their natural order.
+     */
+    public List<Ticket> tickets() {
+        List<Ticket> tickets = new ArrayList<>(entries.keySet());
+        tickets.sort(null);
+        return tickets;
+    }
+
+    /**
+     * Returns true if the player has already completed the given ticket.
+     * @param ticket (Ticket): a ticket held by the player.
+     * @return (boolean): true if the ticket is completed, false otherwise.
+     * @throws IllegalArgumentException if the player does not hold the ticket.
+     */
+    public boolean isCompleted(Ticket ticket) {
+        return entry(ticket).remainingLength == 0;
+    }
+
+    /**
+     * Returns the minimal total length of the routes the player still has to claim to complete the given ticket.
+     * @param ticket (Ticket): a ticket held by the player.
+     * @return (int): 0 if the ticket is completed, UNREACHABLE if it cannot be completed anymore, or else the minimal
+     * total length of the routes still to be claimed.
+     * @throws IllegalArgumentException if the player does not hold the ticket.
+     */
+    public int remainingLength(Ticket ticket) {
+        return entry(ticket).remainingLength;
+    }
+
+    /**
+     * Returns the routes the player still has to claim to complete the given ticket along one of the shortest paths, i.e.
+     * the routes of this path that the player has not claimed yet.
+     * @param ticket (Ticket): a ticket held by the player.
+     * @return (List<Route>): the routes still to be claimed along a shortest path, empty if the ticket is completed or
+     * cannot be completed anymore.
+     * @throws IllegalArgumentException if the player does not hold the ticket.
+     */
+    public List<Route> missingRoutes(Ticket ticket) {
+        int[] missing = entry(ticket).missingRoutes;
+        List<Route> routes = new ArrayList<>(missing.length);
+        for(int routeIndex : missing) {
+            routes.add(ChMap.routes().get(routeIndex));
+        }
+        return routes;
+    }
+
+    /**
+     * Returns the progress towards completing the given ticket.
+     * @param ticket (Ticket): a ticket held by the player.
+     * @return (Entry): the progress towards completing the ticket.
+     * @throws IllegalArgumentException if the player does not hold the ticket.
+     */
+    private Entry entry(Ticket ticket) {
+        Entry entry = entries.get(ticket);
+        if(entry == null) {
+            throw new IllegalArgumentException();
+        }
+        return entry;
+    }
+
+    /**
+     * Evaluates the progress towards completing the given ticket, using a shortest path search from the stations its trips
+     * start from to the nearest of the stations they end at. As the trips of a ticket join all its departure stations to all
+     * its arrival stations, the shortest of these paths is the shortest path of any trip.
+     * @param ticket (Ticket): the ticket to be evaluated.
+     * @param connectivity (StationConnectivity): the connectivity of the network of the player.
+     * @param statuses (byte[]): the status of each route of the map.
+     * @return (Entry): the progress towards completing the ticket.
+     */
+    private static Entry evaluate(Ticket ticket, StationConnectivity connectivity, byte[] statuses) {
+        List<Trip> trips = ticket.trips();
+        for(Trip trip : trips) {
+            if(connectivity.connected(trip.from(), trip.to())) {
+                return Entry.COMPLETED;
+            }
+        }
+
+        int[] distances = new int[STATION_COUNT];
+        int[] previousRoutes = new int[STATION_COUNT];
+        boolean[] visited = new boolean[STATION_COUNT];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(previousRoutes, -1);
+        for(Trip trip : trips) {
+            distances[trip.from().id()] = 0;
+        }
+        // The map is small enough for a linear search of the closest station to be faster than a priority queue.
+        for(int step = 0; step < STATION_COUNT; step++) {
+            int station = -1;
+            for(int s = 0; s < STATION_COUNT; s++) {
+                if(!visited[s] && distances[s] != UNREACHABLE && (station < 0 || distances[s] < distances[station])) {
+                    station = s;
+                }
+            }
+            if(station < 0) {
+                break;
+            }
+            visited[station] = true;
+            for(int routeIndex : ROUTES_BY_STATION[station]) {
+                if(statuses[routeIndex] == BLOCKED) {
+                    continue;
+                }
+                Route route = ChMap.routes().get(routeIndex);
+                int other = route.station1().id() == station ? route.station2().id() : route.station1().id();
+                int distance = distances[station] + (statuses[routeIndex] == OWNED ? 0 : route.length());
+                if(distance < distances[other]) {
+                    distances[other] = distance;
+                    previousRoutes[other] = routeIndex;
+                }
+            }
+        }
+
+        int target = -1;
+        for(Trip trip : trips) {
+            int s = trip.to().id();
+            if(distances[s] != UNREACHABLE && (target < 0 || distances[s] < distances[target])) {
+                target = s;
+            }
+        }
+        if(target < 0) {
+            return Entry.UNREACHABLE_ENTRY;
+        }
+
+        BitSet path = new BitSet(statuses.length);
+        List<Integer> missingRoutes = new ArrayList<>();
+        for(int s = target; previousRoutes[s] >= 0; ) {
+            int routeIndex = previousRoutes[s];
+            path.set(routeIndex);
+            if(statuses[routeIndex] != OWNED) {
+                missingRoutes.add(routeIndex);
+            }
+            int sibling = ChMap.siblingIndex(routeIndex);
+            if(sibling >= 0) {
+                path.set(sibling);
+            }
+            Route route = ChMap.routes().get(routeIndex);
+            s = route.station1().id() == s ? route.station2().id() : route.station1().id();
+        }
+        return new Entry(distances[target], path, missingRoutes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Computes the status of each route of the map, from the point of view of the player. A route whose sibling is claimed
+     * cannot be claimed in a two-player game, and in a three-player game only if the sibling was claimed by another player.
+     * @param gameState (PublicGameState): the public state of the game.
+     * @param playerState (PlayerState): the complete state of the player.
+     * @return (byte[]): the status of each route of the map, indexed by its position in ChMap.routes().
+     */
+    private static byte[] computeStatuses(PublicGameState gameState, PlayerState playerState) {
+        byte[] statuses = new byte[ChMap.routes().size()];
+        List<Route> siblingsBlocked = gameState.playerIds().size() == 2 ? gameState.claimedRoutes() : playerState.routes();
+        for(Route r : siblingsBlocked) {
+            int sibling = ChMap.siblingIndex(ChMap.routeIndex(r));
+            if(sibling >= 0) {
+                statuses[sibling] = BLOCKED;
+            }
+        }
+        for(Route r : gameState.claimedRoutes()) {
+            statuses[ChMap.routeIndex(r)] = BLOCKED;
+        }
+        for(Route r : playerState.routes()) {
+            statuses[ChMap.routeIndex(r)] = OWNED;
+        }
+        return statuses;
+    }
+
+    /**
+     * Computes the indices of the routes reaching each station.
+     * @return (int[][]): the indices in ChMap.routes() of the routes reaching each station, indexed by station id.
+     */
+    private static int[][] computeRoutesByStation() {
+        List<List<Integer>> routesByStation = new ArrayList<>();
+        for(int s = 0; s < STATION_COUNT; s++) {
+            routesByStation.add(new ArrayList<>());
+        }
+        for(int i = 0; i < ChMap.routes().size(); i++) {
+            Route r = ChMap.routes().get(i);
+            routesByStation.get(r.station1().id()).add(i);
+            routesByStation.get(r.station2().id()).add(i);
+        }
+        int[][] result = new int[STATION_COUNT][];
+        for(int s = 0; s < STATION_COUNT; s++) {
+            result[s] = routesByStation.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+
+    /**
+     * Class representing the progress towards completing a single ticket.
+     */
+    private static final class Entry {
+        private static final Entry COMPLETED = new Entry(0, new BitSet(), new int[0]);
+        private static final Entry UNREACHABLE_ENTRY = new Entry(UNREACHABLE, new BitSet(), new int[0]);
+
+        private final int remainingLength;
+        private final BitSet path;
+        private final int[] missingRoutes;
+
+        /**
+         * Private Entry constructor.
+         * @param remainingLength (int): the minimal total length of the routes still to be claimed.
+         * @param path (BitSet): the routes of the shortest path and their siblings, which must never be modified afterwards.
+         * @param missingRoutes (int[]): the indices of the routes of the shortest path the player has not claimed, which
+         * must never be modified afterwards.
+         */
+        private Entry(int remainingLength, BitSet path, int[] missingRoutes) {
+            this.remainingLength = remainingLength;
+            this.path = path;
+            this.missingRoutes = missingRoutes;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package ch.epfl.tchu.game;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.gui.StringsFr;
 
 /**
@@ -29,6 +32,11 @@ public final class Trail {
     
     private final int length;
     
+    /**
+     * (Trail): the trail of length 0, whose stations are both null.
+     */
+    private static final Trail EMPTY = new Trail(List.of(), null, null);
+    
     /**
      * Private Trail constructor. Initializes a Trail by giving it a length and a unique Starting (station1) and Ending (station2) Station.
      * @param routes (List<Route>): the List of routes of the trail.
@@ -55,107 +63,260 @@ public final class Trail {
      * @return (Trail): the longest (or joint-longest) possible trail possible using the provided paths.
      */
     public static Trail longest(List<Route> routes) {
-        if(routes.isEmpty()) {
-            return new Trail(new ArrayList<Route>(), null, null);
+        TrailSearch search = new TrailSearch(routes, EMPTY);
+        for(int component = 0; component < search.componentCount(); component++) {
+            search.searchComponent(component);
         }
+        return search.best();
+    }
+
+    /**
+     * Returns the longest path in the network made up of the routes in the parameter, knowing the longest path of the same network
+     * without the route added. Only the trails going through the connected component of added are explored, and only those
+     * strictly longer than previousLongest are kept, which makes this method much cheaper than longest(List<Route>) when a single
+     * route is claimed.
+     * @param previousLongest (Trail): the longest trail of the network made up of routes, without added.
+     * @param routes (List<Route>): a List of all the routes using which paths can be constructed, added included.
+     * @param added (Route): the route that was just added to the network.
+     * @return (Trail): the longest (or joint-longest) possible trail possible using the provided paths.
+     * @throws IllegalArgumentException if added is not one of the given routes.
+     */
+    public static Trail longest(Trail previousLongest, List<Route> routes, Route added) {
+        int addedIndex = routes.indexOf(added);
+        Preconditions.checkArgument(addedIndex >= 0);
+        
+        TrailSearch search = new TrailSearch(routes, previousLongest);
+        search.searchComponent(search.componentOf(addedIndex));
+        return search.best();
+    }
+
+    /**
+     * Mutable helper performing a depth-first search of the longest trail in a network of routes. Routes are indexed by their
+     * position in the list and stations by their id, the routes already used by the trail being explored are kept in a bitmask,
+     * and any branch whose length cannot exceed the best trail found so far (even using all the remaining routes of its
+     * connected component) is pruned.
+     */
+    private static final class TrailSearch {
+        
+        /**
+         * (List<Route>): the routes of the network, indexed by their position.
+         */
+        private final List<Route> routes;
         
-        List<Trail> trails = new ArrayList<>();
-        List<Trail> trailsNew = new ArrayList<>();
-        List<Trail> allTrails = new ArrayList<>();
-        List<Route> extensibleRoutes = new ArrayList<>();
+        /**
+         * (int[][]): for each station id, the indices of the routes touching that station.
+         */
+        private final int[][] adjacency;
         
-        trails = doubleAllRoutes(trails, routes);
+        /**
+         * (int[]): for each route index, the index of the connected component the route belongs to.
+         */
+        private final int[] routeComponent;
         
-        while(!trails.isEmpty()) {
-            trailsNew = new ArrayList<>();
+        /**
+         * (int[]): for each connected component, the sum of the lengths of its routes.
+         */
+        private final int[] componentLength;
+        
+        /**
+         * (long[]): bitmask of the routes used by the trail being explored.
+         */
+        private final long[] used;
+        
+        /**
+         * (int[]): the indices of the routes of the trail being explored, in order.
+         */
+        private final int[] path;
+        
+        private int remainingLength;
+        private int bestLength;
+        private Trail best;
+        
+        /**
+         * Default TrailSearch constructor. Indexes the stations and connected components of the given network.
+         * @param routes (List<Route>): the routes of the network.
+         * @param initialBest (Trail): a trail of the network that the search must strictly beat to return another one.
+         */
+        private TrailSearch(List<Route> routes, Trail initialBest) {
+            this.routes = routes;
+            this.best = initialBest;
+            this.bestLength = initialBest.length();
+            this.used = new long[(routes.size() + Long.SIZE - 1) / Long.SIZE];
+            this.path = new int[routes.size()];
             
-            for(Trail c: trails) {
-                
-                extensibleRoutes = computeExtensibleRoutes(routes, c);
-                if(extensibleRoutes.isEmpty()) {
-                    allTrails.addAll(trails);
+            int maxId = -1;
+            for(Route r : routes) {
+                maxId = Math.max(maxId, Math.max(r.station1().id(), r.station2().id()));
+            }
+            int[] degree = new int[maxId + 1];
+            for(Route r : routes) {
+                degree[r.station1().id()]++;
+                degree[r.station2().id()]++;
+            }
+            adjacency = new int[maxId + 1][];
+            for(int id = 0; id <= maxId; id++) {
+                adjacency[id] = new int[degree[id]];
+                degree[id] = 0;
+            }
+            for(int i = 0; i < routes.size(); i++) {
+                int id1 = routes.get(i).station1().id();
+                int id2 = routes.get(i).station2().id();
+                adjacency[id1][degree[id1]++] = i;
+                adjacency[id2][degree[id2]++] = i;
+            }
+            
+            routeComponent = new int[routes.size()];
+            Arrays.fill(routeComponent, -1);
+            int components = 0;
+            int[] stack = new int[routes.size()];
+            int[] lengths = new int[routes.size()];
+            for(int i = 0; i < routes.size(); i++) {
+                if(routeComponent[i] != -1) {
+                    continue;
                 }
-                
-                for(Route r : extensibleRoutes){  
-                    if(r.stations().contains(c.station2())) {
-                        trailsNew.add(new Trail(computeExtendedRoutes(r ,c) , c.station1(), r.stationOpposite(c.station2())));
+                int top = 0;
+                stack[top++] = i;
+                routeComponent[i] = components;
+                while(top > 0) {
+                    Route r = routes.get(stack[--top]);
+                    lengths[components] += r.length();
+                    for(Station s : r.stations()) {
+                        for(int j : adjacency[s.id()]) {
+                            if(routeComponent[j] == -1) {
+                                routeComponent[j] = components;
+                                stack[top++] = j;
+                            }
+                        }
                     }
                 }
+                components++;
             }
-            allTrails.addAll(trailsNew);
-            trails = List.copyOf(trailsNew);
+            componentLength = Arrays.copyOf(lengths, components);
         }
-        return computeLongestTrail(allTrails);
-    }
-
-    /**
-     * Doubles all the routes (with the duplicate having the starting and departing stations
-     * inverted).
-     * @param trails (List<Trail>): Represents the list of all length 1 trails.
-     * @param routes (List<Route>): Represents all the routes in the network in question.
-     * @return (List<Trail>): a list of all the routes duplicated (with the duplicate having
-     * the starting and departing stations inverted).
-     */
-    private static List<Trail> doubleAllRoutes(List<Trail> trails, List<Route> routes){
-        for(int i = 0; i < routes.size(); i++) {
-            trails.add(new Trail(List.of(routes.get(i)), routes.get(i).station1(), routes.get(i).station2()));
-            trails.add(new Trail(List.of(routes.get(i)), routes.get(i).station2(), routes.get(i).station1()));
+        
+        /**
+         * Returns the number of connected components of the network.
+         * @return (int): the number of connected components of the network.
+         */
+        private int componentCount() {
+            return componentLength.length;
         }
-        return trails;
-    }
-    
-    /**
-     * Returns a list of all the routes in the network in question that can extend a
-     * given trail.
-     * @param routes (List<Route>): the list of all the routes in the network in question.
-     * @param trail (Trail): the trail to be extended.
-     * @return (List<Routes>): a list of all the routes in the network in question that
-     * can extend a given trail.
-     */
-    private static List<Route> computeExtensibleRoutes(List<Route> routes, Trail trail){
-        List<Route> rs = new ArrayList<>();
-        for(Route r: routes) {
-            if(trail.routes.contains(r)) {
-                continue;
+        
+        /**
+         * Returns the connected component the route of given index belongs to.
+         * @param routeIndex (int): the index of the route in question.
+         * @return (int): the connected component the route belongs to.
+         */
+        private int componentOf(int routeIndex) {
+            return routeComponent[routeIndex];
+        }
+        
+        /**
+         * Explores all the trails of the given connected component, starting from each of its stations.
+         * @param component (int): the connected component to be explored.
+         */
+        private void searchComponent(int component) {
+            for(int id = 0; id < adjacency.length; id++) {
+                if(componentLength[component] <= bestLength) {
+                    return;
+                }
+                if(adjacency[id].length == 0 || routeComponent[adjacency[id][0]] != component) {
+                    continue;
+                }
+                remainingLength = componentLength[component];
+                explore(id, id, 0, 0);
             }
-            else if(r.stations().contains(trail.station2())) {
-                rs.add(r);
+        }
+        
+        /**
+         * Extends the trail being explored, which starts at the station of id startId and currently ends at the station of id
+         * endId, with every unused route touching its end.
+         * @param startId (int): the id of the first station of the trail.
+         * @param endId (int): the id of the last station of the trail.
+         * @param depth (int): the number of routes of the trail.
+         * @param length (int): the length of the trail.
+         */
+        private void explore(int startId, int endId, int depth, int length) {
+            if(length > bestLength) {
+                bestLength = length;
+                best = toTrail(startId, depth);
+            }
+            if(length + remainingLength <= bestLength) {
+                return;
             }
+            for(int i : adjacency[endId]) {
+                long bit = 1L << i;
+                if((used[i / Long.SIZE] & bit) != 0) {
+                    continue;
+                }
+                Route r = routes.get(i);
+                used[i / Long.SIZE] |= bit;
+                remainingLength -= r.length();
+                path[depth] = i;
+                
+                int nextId = r.station1().id() == endId ? r.station2().id() : r.station1().id();
+                explore(startId, nextId, depth + 1, length + r.length());
+                
+                remainingLength += r.length();
+                used[i / Long.SIZE] &= ~bit;
+            }
+        }
+        
+        /**
+         * Builds the trail currently held in the path, starting at the station of id startId.
+         * @param startId (int): the id of the first station of the trail.
+         * @param depth (int): the number of routes of the trail.
+         * @return (Trail): the trail currently held in the path.
+         */
+        private Trail toTrail(int startId, int depth) {
+            List<Route> trailRoutes = new ArrayList<>(depth);
+            Route first = routes.get(path[0]);
+            Station start = first.station1().id() == startId ? first.station1() : first.station2();
+            Station end = start;
+            for(int d = 0; d < depth; d++) {
+                Route r = routes.get(path[d]);
+                trailRoutes.add(r);
+                end = r.stationOpposite(end);
+            }
+            return new Trail(trailRoutes, start, end);
+        }
+        
+        /**
+         * Returns the longest trail found by the search.
+         * @return (Trail): the longest trail found by the search.
+         */
+        private Trail best() {
+            return best;
         }
-        return rs;
     }
     
     /**
-     * Returns a list of all the routes in a trail, with another route (passed as parameter)
-     * added to that list (essentially extending the trail by that route).
-     * @param route (Route): the route to be added to the list.
-     * @param trail (Trail): the trail to be extended.
-     * @return (List<Routes>): a list of all the routes in a trail, with another route (passed
-     * as parameter) added to that list (essentially extending the trail by that route).
+     * Returns the trail starting at the given station and going through the given routes, in order.
+     * @param station1 (Station): the starting station of the trail.
+     * @param routes (List<Route>): the routes of the trail, in order, each of which must join the station where the
+     * previous one ends, or station1 for the first one.
+     * @return (Trail): the trail starting at station1 and going through the routes, or the trail of length 0 if there are
+     * no routes.
+     * @throws IllegalArgumentException if the routes do not form a trail starting at station1.
      */
-    private static List<Route> computeExtendedRoutes(Route route, Trail trail){
-        List<Route> newRoutes = new ArrayList<>();
-        newRoutes.addAll(trail.routes);
-        newRoutes.add(route);
-        return newRoutes;
+    public static Trail of(Station station1, List<Route> routes) {
+        if(routes.isEmpty()) {
+            return EMPTY;
+        }
+        Station station = station1;
+        for(Route route : routes) {
+            Preconditions.checkArgument(route.stations().contains(station));
+            station = route.stationOpposite(station);
+        }
+        return new Trail(List.copyOf(routes), station1, station);
     }
     
     /**
-     * Returns the longest trail in the list of given trails.
-     * @param allTrails (List<Trail>): the list of trails from which the longest trail is to
-     * be selected.
-     * @return (Trail): the longest trail in the list of given trails.
+     * Returns the routes of the path, in the order in which they are followed from station1.
+     * @return (List<Route>): the routes of the path.
      */
-    private static Trail computeLongestTrail(List<Trail> allTrails) {
-        int max = 0; 
-        Trail longestTrail = null;
-        for(Trail t: allTrails) {
-            if(t.length() > max) {
-                max = t.length();
-                longestTrail = t;
-            }
-        }
-        return longestTrail;
+    public List<Route> routes() {
+        return Collections.unmodifiableList(routes);
     }
     
     /**
@@ -3,6 +3,7 @@ package ch.epfl.tchu.gui;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.Constants;
 import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.TicketProgress;
 import ch.epfl.tchu.gui.ActionHandlers.DrawCardHandler;
 import ch.epfl.tchu.gui.ActionHandlers.DrawTicketsHandler;
 import javafx.beans.binding.Bindings;
@@ -12,6 +13,7 @@ import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.Group;
 import javafx.scene.control.Button;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
@@ -71,6 +73,9 @@ final class DecksViewCreator {
 		});
 		
 		billets.setId("tickets");
+		billets.setCellFactory(l -> new TicketCell(ogs));
+		// The progress changes when routes are claimed even if the tickets do not, so that the cells must be updated too.
+		ogs.ticketProgress().addListener((o, oV, nV) -> billets.refresh());
 		
 		//The cards part of the player's hand
 		for(Card c : Card.ALL) {
@@ -203,4 +208,37 @@ final class DecksViewCreator {
 		return pioche;
 		
 	}
+	
+	/**
+	 * Class representing a cell of the list of tickets, showing the text of the ticket followed
+	 * by a check mark if it is completed, or by the number of cars still needed to complete it.
+	 */
+	private static final class TicketCell extends ListCell<Ticket> {
+	    private final ObservableGameState ogs;
+	    
+	    /**
+	     * Private TicketCell constructor.
+	     * @param ogs (ObservableGameState): the observable game state of the game.
+	     */
+	    private TicketCell(ObservableGameState ogs) {
+	        this.ogs = ogs;
+	    }
+	    
+	    @Override
+	    protected void updateItem(Ticket ticket, boolean empty) {
+	        super.updateItem(ticket, empty);
+	        TicketProgress progress = ogs.ticketProgress().get();
+	        if(empty || ticket == null) {
+	            setText(null);
+	        } else if(progress == null) {
+	            setText(ticket.toString());
+	        } else if(progress.isCompleted(ticket)) {
+	            setText(ticket + " \u2713");
+	        } else if(progress.remainingLength(ticket) == TicketProgress.UNREACHABLE) {
+	            setText(ticket + " \u2717");
+	        } else {
+	            setText(ticket + " (" + progress.remainingLength(ticket) + ")");
+	        }
+	    }
+	}
 }
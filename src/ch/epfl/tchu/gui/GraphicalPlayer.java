@@ -1,11 +1,13 @@
 package ch.epfl.tchu.gui;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.GameConfig;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
 import ch.epfl.tchu.game.PublicGameState;
@@ -45,6 +47,8 @@ import static javafx.collections.FXCollections.observableArrayList;
  * @author David Chernis (310298)
  */
 public final class GraphicalPlayer {
+    private static final int MAX_INFO_COUNT = 5;
+
     private final ObservableGameState gameState;
     private final ObservableList<Text> infos;
     private final ObjectProperty<DrawTicketsHandler> drawTicketProperty;
@@ -62,19 +66,21 @@ public final class GraphicalPlayer {
      *            (PlayerId): ID of the player whose GUI this instance of
      *            Graphical Player will represent.
      * @param playerNames
-     *            (Map<PlayerId, String>): a map of the names of the 2 players
+     *            (Map<PlayerId, String>): a map of the names of the players
      *            (accessible using their player IDs).
+     * @param config
+     *            (GameConfig): the configuration of the game.
      */
-    public GraphicalPlayer(PlayerId id, Map<PlayerId, String> playerNames) {
+    public GraphicalPlayer(PlayerId id, Map<PlayerId, String> playerNames, GameConfig config) {
         // Initializing the handler Properties and ObservableGameState
         infos = observableArrayList();
-        gameState = new ObservableGameState(id);
+        gameState = new ObservableGameState(id, config);
         drawTicketProperty = new SimpleObjectProperty<>();
         drawCardProperty = new SimpleObjectProperty<>();
         claimRouteProperty = new SimpleObjectProperty<>();
 
         // Creation of the four main sections of the game
-        mapView = MapViewCreator.createMapView(gameState, claimRouteProperty, this::chooseClaimCards);
+        mapView = MapViewCreator.createCachedMapView(gameState, claimRouteProperty, this::chooseClaimCards);
         Node cardsView = DecksViewCreator.createCardsView(gameState, drawTicketProperty, drawCardProperty);
         Node handView = DecksViewCreator.createHandView(gameState);
         Node infoView = InfoViewCreator.createInfoView(id, playerNames, gameState, infos);
@@ -113,11 +119,30 @@ public final class GraphicalPlayer {
      *            (String): the message to be added to the bottom of the GUI.
      */
     public void receiveInfo(String message) {
+        receiveInfos(List.of(message));
+    }
+
+    /**
+     * Takes several messages about events, in the order they happened, and
+     * adds them to the bottom of the Info View of the GUI at once. Only the
+     * messages which remain visible are turned into nodes.
+     * 
+     * @param messages
+     *            (List<String>): the messages to be added to the bottom of the
+     *            GUI.
+     */
+    public void receiveInfos(List<String> messages) {
         assert Platform.isFxApplicationThread();
-        infos.add(new Text(message));
-        if (infos.size() > 5) {
-            infos.remove(0);
+        List<Text> texts = new ArrayList<>();
+        for (String message : messages.subList(
+                Math.max(0, messages.size() - MAX_INFO_COUNT), messages.size())) {
+            texts.add(new Text(message));
+        }
+        int removed = Math.max(0, infos.size() + texts.size() - MAX_INFO_COUNT);
+        if (removed > 0) {
+            infos.remove(0, removed);
         }
+        infos.addAll(texts);
     }
 
     /**
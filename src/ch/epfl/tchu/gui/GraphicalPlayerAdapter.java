@@ -9,16 +9,14 @@ import static javafx.application.Platform.runLater;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
-import ch.epfl.tchu.game.ChMap;
-import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameConfig;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
 import ch.epfl.tchu.game.PublicGameState;
 import ch.epfl.tchu.game.Route;
 import ch.epfl.tchu.game.Ticket;
-import ch.epfl.tchu.net.Serde;
-import ch.epfl.tchu.net.Serdes;
 
 /**
  * Class that adapts an instance of GraphicalPlayer into a variable of type Player. Also makes
@@ -35,9 +33,11 @@ public final class GraphicalPlayerAdapter implements Player{
     private final BlockingQueue<Integer> drawSlotQ;
     private final BlockingQueue<Route> routeQ;
     private final BlockingQueue<SortedBag<Card>> cardBagQ;
+    private final StateCoalescer updates;
 
 
     private GraphicalPlayer graphicalPlayer;
+    private GameConfig config;
 
     /**
      * Default GraphicalPlayerAdapter Constructor. Initializes all the blocking queues needed for
@@ -49,21 +49,33 @@ public final class GraphicalPlayerAdapter implements Player{
         drawSlotQ = new ArrayBlockingQueue<>(QUEUE_SIZE);
         routeQ = new ArrayBlockingQueue<>(QUEUE_SIZE);
         cardBagQ = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        // The bursts of updates sent during a turn are applied together, in a single task of the JavaFX thread.
+        updates = new StateCoalescer(r -> runLater(r),
+                (newState, ownState) -> graphicalPlayer.setState(newState, ownState),
+                (infos) -> graphicalPlayer.receiveInfos(infos));
     }
     
     @Override
     public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
-        runLater(() -> graphicalPlayer = new GraphicalPlayer(ownId, playerNames));
+        runLater(() -> graphicalPlayer = new GraphicalPlayer(ownId, playerNames, config));
     }
 
     @Override
     public void receiveInfo(String info) {
-        runLater(() -> graphicalPlayer.receiveInfo(info));
+        updates.postInfo(info);
+    }
+
+    /**
+     * Describes the event with the corresponding message of Info, which is then shown like any other information.
+     */
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+        receiveInfo(Info.describe(event, playerNames));
     }
 
     @Override
     public void updateState(PublicGameState newState, PlayerState ownState) {
-        runLater(() -> graphicalPlayer.setState(newState, ownState));
+        updates.postState(newState, ownState);
     }
 
     @Override
@@ -176,11 +188,7 @@ public final class GraphicalPlayerAdapter implements Player{
 
     @Override
     public void setPlayerNumber(int playerNum) {
-        Constants.THREE_PLAYER = playerNum == 1 ? true : false;
-        PlayerId.ALL = Constants.THREE_PLAYER ? List.of(PlayerId.values()) : List.of(PlayerId.PLAYER_1, PlayerId.PLAYER_2);
-        PlayerId.COUNT = PlayerId.ALL.size();
-        Serdes.ticketSerde = Serde.oneOf(Constants.THREE_PLAYER ? ChMap.THREE_PLAYER_TICKETS : ChMap.TWO_PLAYER_TICKETS);
-        Serdes.ticketBagSerde = Serde.bagOf(Serdes.ticketSerde, ',');
+        config = GameConfig.forPlayerCount(playerNum);
     }
 
     @Override
@@ -1,20 +1,49 @@
 package ch.epfl.tchu.gui;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.Route;
 import ch.epfl.tchu.game.Trail;
 
 /**
  * Immutable class that generates texts describing the course of the game. Most of these messages describe the actions of a given player.
  * These texts will be used to communicate the state of the game between the two players playing on different computers.
+ * The patterns of StringsFr are compiled once into templates, and the names of the cards are computed once for all.
  * @author Shrey Mittal (312275)
  * @author David Chernis (310298)
  */
 public final class Info {
 	
+	private static final MessageTemplate DRAW = MessageTemplate.of(StringsFr.DRAW);
+	private static final MessageTemplate WILL_PLAY_FIRST = MessageTemplate.of(StringsFr.WILL_PLAY_FIRST);
+	private static final MessageTemplate KEPT_N_TICKETS = MessageTemplate.of(StringsFr.KEPT_N_TICKETS);
+	private static final MessageTemplate CAN_PLAY = MessageTemplate.of(StringsFr.CAN_PLAY);
+	private static final MessageTemplate DREW_TICKETS = MessageTemplate.of(StringsFr.DREW_TICKETS);
+	private static final MessageTemplate DREW_BLIND_CARD = MessageTemplate.of(StringsFr.DREW_BLIND_CARD);
+	private static final MessageTemplate DREW_VISIBLE_CARD = MessageTemplate.of(StringsFr.DREW_VISIBLE_CARD);
+	private static final MessageTemplate CLAIMED_ROUTE = MessageTemplate.of(StringsFr.CLAIMED_ROUTE);
+	private static final MessageTemplate ATTEMPTS_TUNNEL_CLAIM = MessageTemplate.of(StringsFr.ATTEMPTS_TUNNEL_CLAIM);
+	private static final MessageTemplate NO_ADDITIONAL_COST =
+	        MessageTemplate.of(StringsFr.ADDITIONAL_CARDS_ARE + StringsFr.NO_ADDITIONAL_COST);
+	private static final MessageTemplate SOME_ADDITIONAL_COST =
+	        MessageTemplate.of(StringsFr.ADDITIONAL_CARDS_ARE + StringsFr.SOME_ADDITIONAL_COST);
+	private static final MessageTemplate DID_NOT_CLAIM_ROUTE = MessageTemplate.of(StringsFr.DID_NOT_CLAIM_ROUTE);
+	private static final MessageTemplate LAST_TURN_BEGINS = MessageTemplate.of(StringsFr.LAST_TURN_BEGINS);
+	private static final MessageTemplate GETS_BONUS = MessageTemplate.of(StringsFr.GETS_BONUS);
+	private static final MessageTemplate WINS = MessageTemplate.of(StringsFr.WINS);
+	
+	/**
+	 * (String[][]): the names of the cards, indexed by their ordinal and then by 0 for the singular and 1 for the plural.
+	 */
+	private static final String[][] CARD_NAMES = computeCardNames();
+	
 	/**
 	 * Returns the message declaring that the players, whose names are those given, have finished the game in a tie, each having won the
 	 * given points (uses DRAW).
@@ -36,49 +65,70 @@ public final class Info {
 	 * @return (String): the (French) name of the given card, in the singular if the absolute value of the second argument is 1, in plural otherwise.
 	 */
 	public static String cardName(Card card, int count) {
-	    
-		String cardName = "";
-		switch(card) {
-    		case BLACK      : 
-    		    cardName += StringsFr.BLACK_CARD;
-    		    break;
-    		case BLUE       :
-    		    cardName += StringsFr.BLUE_CARD;
-    		    break;
-            case GREEN      :
-                cardName += StringsFr.GREEN_CARD;
-                break;
-            case ORANGE     :
-                cardName += StringsFr.ORANGE_CARD;
-                break;
-            case RED        :
-                cardName += StringsFr.RED_CARD;
-                break;
-            case VIOLET     :
-                cardName += StringsFr.VIOLET_CARD;
-                break;
-            case WHITE      :
-                cardName += StringsFr.WHITE_CARD;
-                break;
-            case YELLOW     :
-                cardName += StringsFr.YELLOW_CARD;
-                break;
-            case LOCOMOTIVE :
-                cardName += StringsFr.LOCOMOTIVE_CARD;
-                break;
+		return CARD_NAMES[card.ordinal()][StringsFr.plural(count).isEmpty() ? 0 : 1];
+	}
+	
+	/**
+	 * Computes the table of the names of the cards, in the singular and in the plural.
+	 * @return (String[][]): the names of the cards, indexed by their ordinal and then by 0 for the singular and 1 for
+	 * the plural.
+	 */
+	private static String[][] computeCardNames() {
+		String[][] names = new String[Card.COUNT][];
+		for(Card card : Card.ALL) {
+			String name = "";
+			switch(card) {
+	    		case BLACK      : 
+	    		    name = StringsFr.BLACK_CARD;
+	    		    break;
+	    		case BLUE       :
+	    		    name = StringsFr.BLUE_CARD;
+	    		    break;
+	            case GREEN      :
+	                name = StringsFr.GREEN_CARD;
+	                break;
+	            case ORANGE     :
+	                name = StringsFr.ORANGE_CARD;
+	                break;
+	            case RED        :
+	                name = StringsFr.RED_CARD;
+	                break;
+	            case VIOLET     :
+	                name = StringsFr.VIOLET_CARD;
+	                break;
+	            case WHITE      :
+	                name = StringsFr.WHITE_CARD;
+	                break;
+	            case YELLOW     :
+	                name = StringsFr.YELLOW_CARD;
+	                break;
+	            case LOCOMOTIVE :
+	                name = StringsFr.LOCOMOTIVE_CARD;
+	                break;
+			}
+			names[card.ordinal()] = new String[] {name + StringsFr.plural(1), name + StringsFr.plural(2)};
 		}
-		cardName += StringsFr.plural(count);
-		return cardName;
+		return names;
 	}
 	
 	/**
 	 * Returns a message declaring that the players, whose names are those given, have finished the game in a tie, each having won the given points.
-	 * @param playerNames (List<String>): the List containing the names of the 2 players.
-	 * @param points (int): the number of points both players have.
-	 * @return (String): a message declaring that both the players have finished the game in a tie, each having won "points" points.
+	 * @param playerNames (List<String>): the List containing the names of the 2 or 3 players.
+	 * @param points (int): the number of points each player has.
+	 * @return (String): a message declaring that the players have finished the game in a tie, each having won "points" points.
 	 */
 	public static String draw(List<String> playerNames, int points) {
-		return String.format(StringsFr.DRAW, playerNames.get(0) + StringsFr.AND_SEPARATOR + playerNames.get(1), points);
+		StringBuilder names = new StringBuilder();
+		for(int i = 0; i < playerNames.size(); i++) {
+			if(i == playerNames.size() - 1 && i > 0) {
+				names.append(StringsFr.AND_SEPARATOR);
+			}
+			else if(i > 0) {
+				names.append(", ");
+			}
+			names.append(playerNames.get(i));
+		}
+		return DRAW.format(names.toString(), points);
 	}
 	
 	/**
@@ -86,7 +136,7 @@ public final class Info {
 	 * @return (String): the message declaring that the player will play first.
 	 */
 	public String willPlayFirst() {
-		return String.format(StringsFr.WILL_PLAY_FIRST, playerName);
+		return WILL_PLAY_FIRST.format(playerName);
 	}
 	
 	/**
@@ -95,7 +145,7 @@ public final class Info {
 	 * @return (String): the message declaring that the player has kept the given number of tickets.
 	 */
 	public String keptTickets(int count) {
-		return String.format(StringsFr.KEPT_N_TICKETS, playerName, count, StringsFr.plural(count));
+		return KEPT_N_TICKETS.format(playerName, count, StringsFr.plural(count));
 	}
 	
 	/**
@@ -103,7 +153,7 @@ public final class Info {
 	 * @return (String): the message declaring that the player can play.
 	 */
 	public String canPlay() {
-		return String.format(StringsFr.CAN_PLAY, playerName);
+		return CAN_PLAY.format(playerName);
 	}
 	
 	/**
@@ -112,7 +162,7 @@ public final class Info {
 	 * @return (String): a message declaring that the player has drawn the given number of tickets.
 	 */
 	public String drewTickets(int count) {
-		return String.format(StringsFr.DREW_TICKETS, playerName, count, StringsFr.plural(count));
+		return DREW_TICKETS.format(playerName, count, StringsFr.plural(count));
 	}
 	
 	/**
@@ -120,7 +170,7 @@ public final class Info {
 	 * @return (String): a message declaring that the player has drawn a "blind" card, i.e. from the top of the deck.
 	 */
 	public String drewBlindCard() {
-		return String.format(StringsFr.DREW_BLIND_CARD, playerName);
+		return DREW_BLIND_CARD.format(playerName);
 	}
 	
 	/**
@@ -129,7 +179,7 @@ public final class Info {
 	 * @return (String): a message declaring that the player has drawn the given face up card.
 	 */
 	public String drewVisibleCard(Card card) {
-		return String.format(StringsFr.DREW_VISIBLE_CARD, playerName, cardName(card, 1));
+		return DREW_VISIBLE_CARD.format(playerName, cardName(card, 1));
 	}
 	
 	/**
@@ -139,8 +189,10 @@ public final class Info {
 	 * @return (String): a message declaring that the player has taken the given route using the given cards.
 	 */
 	public String claimedRoute(Route route, SortedBag<Card> cards) {
-		return String.format(StringsFr.CLAIMED_ROUTE, playerName, Info.routeRepresentation(route),
-				Info.cardsRepresentation(cards));
+		StringBuilder builder = CLAIMED_ROUTE.appendPart(MessageTemplate.builder(), 0).append(playerName);
+		appendRoute(CLAIMED_ROUTE.appendPart(builder, 1), route);
+		appendCards(CLAIMED_ROUTE.appendPart(builder, 2), cards);
+		return CLAIMED_ROUTE.appendPart(builder, 3).toString();
 	}
 	
 	/**
@@ -151,8 +203,10 @@ public final class Info {
 	 * initially.
 	 */
 	public String attemptsTunnelClaim(Route route, SortedBag<Card> initialCards) {
-		return String.format(StringsFr.ATTEMPTS_TUNNEL_CLAIM, playerName, Info.routeRepresentation(route),
-				Info.cardsRepresentation(initialCards));
+		StringBuilder builder = ATTEMPTS_TUNNEL_CLAIM.appendPart(MessageTemplate.builder(), 0).append(playerName);
+		appendRoute(ATTEMPTS_TUNNEL_CLAIM.appendPart(builder, 1), route);
+		appendCards(ATTEMPTS_TUNNEL_CLAIM.appendPart(builder, 2), initialCards);
+		return ATTEMPTS_TUNNEL_CLAIM.appendPart(builder, 3).toString();
 	}
 	
 	/**
@@ -164,8 +218,13 @@ public final class Info {
 	 * involve an additional cost of the given number of cards.
 	 */
 	public String drewAdditionalCards(SortedBag<Card> drawnCards, int additionalCost) {
-	    return additionalCost == 0 ? String.format(StringsFr.ADDITIONAL_CARDS_ARE + StringsFr.NO_ADDITIONAL_COST, Info.cardsRepresentation(drawnCards)) : 
-	        String.format(StringsFr.ADDITIONAL_CARDS_ARE +  StringsFr.SOME_ADDITIONAL_COST, Info.cardsRepresentation(drawnCards), additionalCost, StringsFr.plural(additionalCost));
+	    MessageTemplate template = additionalCost == 0 ? NO_ADDITIONAL_COST : SOME_ADDITIONAL_COST;
+	    StringBuilder builder = appendCards(template.appendPart(MessageTemplate.builder(), 0), drawnCards);
+	    if(additionalCost != 0) {
+	        template.appendPart(builder, 1).append(additionalCost);
+	        template.appendPart(builder, 2).append(StringsFr.plural(additionalCost));
+	    }
+	    return template.appendPart(builder, template.argumentCount()).toString();
 	}
 	
 	/**
@@ -176,7 +235,9 @@ public final class Info {
 	 * of wagons left, and that the last round therefore begins.
 	 */
 	public String didNotClaimRoute(Route route) {
-		return String.format(StringsFr.DID_NOT_CLAIM_ROUTE, playerName, Info.routeRepresentation(route));
+		StringBuilder builder = DID_NOT_CLAIM_ROUTE.appendPart(MessageTemplate.builder(), 0).append(playerName);
+		appendRoute(DID_NOT_CLAIM_ROUTE.appendPart(builder, 1), route);
+		return DID_NOT_CLAIM_ROUTE.appendPart(builder, 2).toString();
 	}
 	
 	/**
@@ -187,7 +248,7 @@ public final class Info {
 	 * left, making this turn their last turn of the game.
 	 */
 	public String lastTurnBegins(int carCount) {
-		return String.format(StringsFr.LAST_TURN_BEGINS, playerName, carCount, StringsFr.plural(carCount));
+		return LAST_TURN_BEGINS.format(playerName, carCount, StringsFr.plural(carCount));
 	}
 	
 	/**
@@ -198,7 +259,7 @@ public final class Info {
 	 * longest, or one of the longest.
 	 */
 	public String getsLongestTrailBonus(Trail longestTrail) {
-		return String.format(StringsFr.GETS_BONUS, playerName, longestTrail);
+		return GETS_BONUS.format(playerName, longestTrail);
 	}
 	
 	/**
@@ -210,7 +271,57 @@ public final class Info {
 	 * having obtained only loserPoints amount of points.
 	 */
 	public String won(int points, int loserPoints) {
-		return String.format(StringsFr.WINS, playerName, points, StringsFr.plural(points), loserPoints, StringsFr.plural(loserPoints));
+		return WINS.format(playerName, points, StringsFr.plural(points), loserPoints, StringsFr.plural(loserPoints));
+	}
+	
+	/**
+	 * Returns the message describing the given event, the players being named as given.
+	 * @param event (GameEvent): the event.
+	 * @param playerNames (Map<PlayerId, String>): the names of all the players.
+	 * @return (String): the message describing the event.
+	 */
+	public static String describe(GameEvent event, Map<PlayerId, String> playerNames) {
+		if(event.kind() == GameEvent.Kind.DRAW) {
+			List<String> names = new ArrayList<>();
+			for(PlayerId playerId : PlayerId.ALL) {
+				if(playerNames.containsKey(playerId)) {
+					names.add(playerNames.get(playerId));
+				}
+			}
+			return draw(names, event.count());
+		}
+		
+		Info info = new Info(playerNames.get(event.playerId()));
+		switch(event.kind()) {
+		case WILL_PLAY_FIRST:
+			return info.willPlayFirst();
+		case CAN_PLAY:
+			return info.canPlay();
+		case DREW_TICKETS:
+			return info.drewTickets(event.count());
+		case KEPT_TICKETS:
+			return info.keptTickets(event.count());
+		case DREW_BLIND_CARD:
+			return info.drewBlindCard();
+		case DREW_VISIBLE_CARD:
+			return info.drewVisibleCard(event.card());
+		case CLAIMED_ROUTE:
+			return info.claimedRoute(event.route(), event.cards());
+		case ATTEMPTS_TUNNEL_CLAIM:
+			return info.attemptsTunnelClaim(event.route(), event.cards());
+		case DREW_ADDITIONAL_CARDS:
+			return info.drewAdditionalCards(event.cards(), event.count());
+		case DID_NOT_CLAIM_ROUTE:
+			return info.didNotClaimRoute(event.route());
+		case LAST_TURN_BEGINS:
+			return info.lastTurnBegins(event.count());
+		case GETS_LONGEST_TRAIL_BONUS:
+			return info.getsLongestTrailBonus(event.trail());
+		case WON:
+			return info.won(event.count(), event.otherCount());
+		default:
+			throw new Error();
+		}
 	}
 	
 	/**
@@ -219,28 +330,40 @@ public final class Info {
 	 * @return (String): a String representation of the given set of cards in the correct format.
 	 */
 	public static String cardsRepresentation(SortedBag<Card> cards) {
-		String cardsString = "";
-		int counter = 0;
-		for(Card c : cards.toSet()) {
+		return appendCards(new StringBuilder(), cards).toString();
+	}
+	
+	/**
+	 * Appends the String representation of the given set of cards, in the format of cardsRepresentation, to the given
+	 * builder.
+	 * @param builder (StringBuilder): the builder the representation is appended to.
+	 * @param cards (SortedBag<Card>): the set of cards that need a String representation.
+	 * @return (StringBuilder): the builder.
+	 */
+	private static StringBuilder appendCards(StringBuilder builder, SortedBag<Card> cards) {
+		Set<Card> types = cards.toSet();
+		int remaining = types.size();
+		for(Card c : types) {
 			int n = cards.countOf(c);
-			cardsString += n + " " + Info.cardName(c, n);
-			if(counter == cards.toSet().size()-2 ) {
-				cardsString += StringsFr.AND_SEPARATOR;
+			builder.append(n).append(' ').append(cardName(c, n));
+			remaining--;
+			if(remaining == 1) {
+				builder.append(StringsFr.AND_SEPARATOR);
 			}
-			else if(counter < cards.toSet().size()-2) {
-				cardsString += ", ";
+			else if(remaining > 1) {
+				builder.append(", ");
 			}
-			counter++;
 		}
-		return cardsString;
+		return builder;
 	}
 	
 	/**
-	 * Method used to return a String representation of the given route in the correct format.
+	 * Appends the String representation of the given route in the correct format to the given builder.
+	 * @param builder (StringBuilder): the builder the representation is appended to.
 	 * @param route (Route): the route that need a String representation.
-	 * @return (String): a String representation of the given route in the correct format.
+	 * @return (StringBuilder): the builder.
 	 */
-	private static String routeRepresentation(Route route) {
-		return route.station1() + StringsFr.EN_DASH_SEPARATOR + route.station2();
+	private static StringBuilder appendRoute(StringBuilder builder, Route route) {
+		return builder.append(route.station1()).append(StringsFr.EN_DASH_SEPARATOR).append(route.station2());
 	}
 }
@@ -14,8 +14,7 @@ import java.util.Map;
 import java.util.Random;
 
 import ch.epfl.tchu.SortedBag;
-import ch.epfl.tchu.game.ChMap;
-import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameConfig;
 import ch.epfl.tchu.game.Game;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
@@ -186,12 +185,10 @@ public final class MainMenu extends Application{
             });
             
             twoPlayerButton.setOnMouseClicked((event) -> {
-                Constants.THREE_PLAYER = false;
                 newPane.setVisible(false);
                 initializeMenu(false, twoPlayerButton, newScene, mainMenuStage, newPane, nameField.textProperty().get());
             });
             threePlayerButton.setOnMouseClicked((event) -> {
-                Constants.THREE_PLAYER = true;
                 newPane.setVisible(false);
                 initializeMenu(true, threePlayerButton, newScene, mainMenuStage, newPane, nameField.textProperty().get());
             });
@@ -231,7 +228,7 @@ public final class MainMenu extends Application{
         
         startServerButton.setOnMouseClicked((e) -> {
             try {
-                initializeServer( name);
+                initializeServer(name, isThreePlayer ? GameConfig.THREE_PLAYERS : GameConfig.TWO_PLAYERS);
             } catch (Exception e1) {
                 throw new Error();
             }
@@ -253,10 +250,10 @@ public final class MainMenu extends Application{
         stage.setScene(new Scene(anotherOne));
     }
     
-    private void initializeServer(String name1) throws Exception{
+    private void initializeServer(String name1, GameConfig config) throws Exception{
         
         
-        if(Constants.THREE_PLAYER) {
+        if(config.playerCount() == 3) {
             // Setting up Server
             RemotePlayerProxy playerProxy1 = null;
             RemotePlayerProxy playerProxy2 = null;
@@ -293,7 +290,7 @@ public final class MainMenu extends Application{
                     PLAYER_2, playerProxy1,
                     PLAYER_3, playerProxy2);
             
-            new Thread(() -> Game.play(players, playerNames, SortedBag.of(ChMap.tickets()), rand, 1)).start();
+            new Thread(() -> Game.play(players, playerNames, SortedBag.of(config.tickets()), rand, config)).start();
         }
         else {
 
@@ -323,7 +320,7 @@ public final class MainMenu extends Application{
                     PLAYER_1, gpa,
                     PLAYER_2, playerProxy);
             
-            new Thread(() -> Game.play(players, playerNames, SortedBag.of(ChMap.tickets()), rand, 0)).start();
+            new Thread(() -> Game.play(players, playerNames, SortedBag.of(config.tickets()), rand, config)).start();
         }
     }
 
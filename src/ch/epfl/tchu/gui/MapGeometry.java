@@ -0,0 +1,410 @@
+package ch.epfl.tchu.gui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Route;
+
+/**
+ * Package-private class representing the position of the track segments of the routes of the map, as given in map.css,
+ * along with a spatial index of these segments allowing to find the route at a given point of the map quickly.
+ * <p>
+ * Each segment is a rectangle of SEGMENT_WIDTH by SEGMENT_HEIGHT whose top left corner is translated to a given point,
+ * and which is then rotated by a given angle, in degrees and clockwise, around its center. Routes and segments are
+ * identified by their position, routes in ChMap.routes() and segments in the order of the routes and then of their
+ * position in the route.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class MapGeometry {
+
+    /**
+     * (int): the width, in pixels, of a track segment.
+     */
+    static final int SEGMENT_WIDTH = 36;
+
+    /**
+     * (int): the height, in pixels, of a track segment.
+     */
+    static final int SEGMENT_HEIGHT = 12;
+
+    /**
+     * (int): the side, in pixels, of the square cells of the spatial index.
+     */
+    private static final int CELL_SIZE = 32;
+
+    /**
+     * (double): the distance, in pixels, under which the bounds of two segments are considered to overlap, which leaves
+     * room for the enlargement of the segments of the route under the mouse.
+     */
+    static final double OVERLAP_MARGIN = 3;
+
+    /**
+     * (Pattern): the pattern of the rule of map.css giving the position of a segment, capturing the id of its route, its
+     * position in the route, its translations and its rotation.
+     */
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile(
+            "#(\\w+)_(\\d+)\\s*\\{\\s*-fx-translate-x:\\s*(-?[\\d.]+);\\s*-fx-translate-y:\\s*(-?[\\d.]+);"
+            + "\\s*-fx-rotate:\\s*(-?[\\d.]+)");
+
+    /**
+     * (MapGeometry): the geometry of the routes of ChMap, null until it is first needed.
+     */
+    private static MapGeometry chMap;
+
+    /**
+     * (int[]): for each route, the index of its first segment, followed by the total number of segments.
+     */
+    private final int[] firstSegments;
+
+    /**
+     * (double[]): the horizontal translations of the segments.
+     */
+    private final double[] xs;
+
+    /**
+     * (double[]): the vertical translations of the segments.
+     */
+    private final double[] ys;
+
+    /**
+     * (double[]): the rotations of the segments, in degrees.
+     */
+    private final double[] angles;
+
+    /**
+     * (double[][]): the axis-aligned bounds of each segment, as computed by computeBounds.
+     */
+    private final double[][] bounds;
+
+    /**
+     * (int): the number of columns of the spatial index.
+     */
+    private final int columns;
+
+    /**
+     * (int): the number of rows of the spatial index.
+     */
+    private final int rows;
+
+    /**
+     * (int[][]): the indices of the segments whose bounds intersect each cell of the spatial index, in increasing order,
+     * indexed by row and then by column.
+     */
+    private final int[][] cells;
+
+    /**
+     * (int[][]): the indices of the routes overlapping each route, as returned by overlappingRoutes.
+     */
+    private final int[][] overlappingRoutes;
+
+    /**
+     * Private MapGeometry constructor, computing the bounds of the segments and the spatial index.
+     * @param firstSegments (int[]): for each route, the index of its first segment, followed by the total number of segments.
+     * @param xs (double[]): the horizontal translations of the segments.
+     * @param ys (double[]): the vertical translations of the segments.
+     * @param angles (double[]): the rotations of the segments, in degrees.
+     */
+    private MapGeometry(int[] firstSegments, double[] xs, double[] ys, double[] angles) {
+        this.firstSegments = firstSegments;
+        this.xs = xs;
+        this.ys = ys;
+        this.angles = angles;
+
+        bounds = new double[xs.length][];
+        double maxX = 0;
+        double maxY = 0;
+        for(int s = 0; s < xs.length; s++) {
+            bounds[s] = computeBounds(s);
+            maxX = Math.max(maxX, bounds[s][2]);
+            maxY = Math.max(maxY, bounds[s][3]);
+        }
+        columns = (int) (maxX / CELL_SIZE) + 1;
+        rows = (int) (maxY / CELL_SIZE) + 1;
+
+        List<List<Integer>> cellLists = new ArrayList<>(columns * rows);
+        for(int c = 0; c < columns * rows; c++) {
+            cellLists.add(new ArrayList<>());
+        }
+        for(int s = 0; s < xs.length; s++) {
+            for(int row = cell(bounds[s][1]); row <= Math.min(rows - 1, cell(bounds[s][3])); row++) {
+                for(int column = cell(bounds[s][0]); column <= Math.min(columns - 1, cell(bounds[s][2])); column++) {
+                    cellLists.get(row * columns + column).add(s);
+                }
+            }
+        }
+        cells = new int[columns * rows][];
+        for(int c = 0; c < cells.length; c++) {
+            cells[c] = cellLists.get(c).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        overlappingRoutes = new int[routeCount()][];
+        for(int r = 0; r < overlappingRoutes.length; r++) {
+            overlappingRoutes[r] = computeOverlappingRoutes(r);
+        }
+    }
+
+    /**
+     * Returns the geometry of the routes of ChMap, read from map.css the first time it is needed.
+     * @return (MapGeometry): the geometry of the routes of ChMap.
+     * @throws UncheckedIOException if map.css cannot be read.
+     */
+    static synchronized MapGeometry chMap() {
+        if(chMap == null) {
+            try(InputStream in = MapGeometry.class.getResourceAsStream("/map.css")) {
+                if(in == null) {
+                    throw new UncheckedIOException(new IOException("map.css not found"));
+                }
+                chMap = parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return chMap;
+    }
+
+    /**
+     * Builds the geometry of the routes of ChMap from the positions of their segments, given in the format of map.css.
+     * @param css (CharSequence): the style sheet giving the positions of the segments.
+     * @return (MapGeometry): the geometry of the routes of ChMap.
+     * @throws IllegalArgumentException if the position of a segment of a route of ChMap is missing.
+     */
+    static MapGeometry parse(CharSequence css) {
+        Map<String, double[]> positions = new HashMap<>();
+        Matcher matcher = SEGMENT_PATTERN.matcher(css);
+        while(matcher.find()) {
+            positions.put(matcher.group(1) + "_" + matcher.group(2), new double[] {
+                    Double.parseDouble(matcher.group(3)),
+                    Double.parseDouble(matcher.group(4)),
+                    Double.parseDouble(matcher.group(5)) });
+        }
+
+        List<Route> routes = ChMap.routes();
+        int[] firstSegments = new int[routes.size() + 1];
+        for(int r = 0; r < routes.size(); r++) {
+            firstSegments[r + 1] = firstSegments[r] + routes.get(r).length();
+        }
+        double[] xs = new double[firstSegments[routes.size()]];
+        double[] ys = new double[xs.length];
+        double[] angles = new double[xs.length];
+        for(int r = 0; r < routes.size(); r++) {
+            for(int j = 0; j < routes.get(r).length(); j++) {
+                double[] position = positions.get(routes.get(r).id() + "_" + (j + 1));
+                Preconditions.checkArgument(position != null);
+                int s = firstSegments[r] + j;
+                xs[s] = position[0];
+                ys[s] = position[1];
+                angles[s] = position[2];
+            }
+        }
+        return new MapGeometry(firstSegments, xs, ys, angles);
+    }
+
+    /**
+     * Returns the number of routes.
+     * @return (int): the number of routes.
+     */
+    int routeCount() {
+        return firstSegments.length - 1;
+    }
+
+    /**
+     * Returns the index of the first segment of the given route.
+     * @param routeIndex (int): the index of the route.
+     * @return (int): the index of the first segment of the route.
+     */
+    int firstSegment(int routeIndex) {
+        return firstSegments[routeIndex];
+    }
+
+    /**
+     * Returns the index following the one of the last segment of the given route.
+     * @param routeIndex (int): the index of the route.
+     * @return (int): the index following the one of the last segment of the route.
+     */
+    int endSegment(int routeIndex) {
+        return firstSegments[routeIndex + 1];
+    }
+
+    /**
+     * Returns the horizontal translation of the given segment.
+     * @param segment (int): the index of the segment.
+     * @return (double): the horizontal translation of the segment.
+     */
+    double x(int segment) {
+        return xs[segment];
+    }
+
+    /**
+     * Returns the vertical translation of the given segment.
+     * @param segment (int): the index of the segment.
+     * @return (double): the vertical translation of the segment.
+     */
+    double y(int segment) {
+        return ys[segment];
+    }
+
+    /**
+     * Returns the rotation of the given segment, in degrees and clockwise.
+     * @param segment (int): the index of the segment.
+     * @return (double): the rotation of the segment.
+     */
+    double angle(int segment) {
+        return angles[segment];
+    }
+
+    /**
+     * Returns the indices of the routes, other than the given one, having a segment whose bounds intersect the ones of a
+     * segment of the given route, i.e. of the routes which may be drawn over the same pixels.
+     * @param routeIndex (int): the index of the route.
+     * @return (int[]): the indices of the routes overlapping the route, in increasing order. The array must not be
+     * modified.
+     */
+    int[] overlappingRoutes(int routeIndex) {
+        return overlappingRoutes[routeIndex];
+    }
+
+    /**
+     * Returns the corners of the given segment, enlarged on each side by the given margin.
+     * @param segment (int): the index of the segment.
+     * @param margin (double): the margin by which the segment is enlarged.
+     * @return (double[]): the horizontal and vertical coordinates of the four corners of the segment, in turn.
+     */
+    double[] corners(int segment, double margin) {
+        double radians = Math.toRadians(angles[segment]);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double halfWidth = SEGMENT_WIDTH / 2.0 + margin;
+        double halfHeight = SEGMENT_HEIGHT / 2.0 + margin;
+        double centerX = xs[segment] + SEGMENT_WIDTH / 2.0;
+        double centerY = ys[segment] + SEGMENT_HEIGHT / 2.0;
+        double[] corners = new double[8];
+        int i = 0;
+        for(double[] corner : new double[][] {
+                { -halfWidth, -halfHeight }, { halfWidth, -halfHeight }, { halfWidth, halfHeight }, { -halfWidth, halfHeight } }) {
+            corners[i++] = centerX + cos * corner[0] - sin * corner[1];
+            corners[i++] = centerY + sin * corner[0] + cos * corner[1];
+        }
+        return corners;
+    }
+
+    /**
+     * Determines whether the given point lies in the given segment.
+     * @param segment (int): the index of the segment.
+     * @param x (double): the horizontal coordinate of the point.
+     * @param y (double): the vertical coordinate of the point.
+     * @return (boolean): true if the point lies in the segment, false otherwise.
+     */
+    boolean contains(int segment, double x, double y) {
+        double radians = Math.toRadians(angles[segment]);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double dx = x - xs[segment] - SEGMENT_WIDTH / 2.0;
+        double dy = y - ys[segment] - SEGMENT_HEIGHT / 2.0;
+        double localX = cos * dx + sin * dy + SEGMENT_WIDTH / 2.0;
+        double localY = -sin * dx + cos * dy + SEGMENT_HEIGHT / 2.0;
+        return 0 <= localX && localX <= SEGMENT_WIDTH && 0 <= localY && localY <= SEGMENT_HEIGHT;
+    }
+
+    /**
+     * Returns the index of the route having a segment at the given point. If several routes do, the one drawn last, i.e.
+     * the one with the greatest index, is returned.
+     * @param x (double): the horizontal coordinate of the point.
+     * @param y (double): the vertical coordinate of the point.
+     * @return (int): the index of the route at the point, or -1 if there is none.
+     */
+    int routeAt(double x, double y) {
+        if(x < 0 || y < 0 || cell(x) >= columns || cell(y) >= rows) {
+            return -1;
+        }
+        int[] segments = cells[cell(y) * columns + cell(x)];
+        for(int i = segments.length - 1; i >= 0; i--) {
+            if(contains(segments[i], x, y)) {
+                return routeOf(segments[i]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the route the given segment belongs to.
+     * @param segment (int): the index of the segment.
+     * @return (int): the index of the route of the segment.
+     */
+    private int routeOf(int segment) {
+        int index = Arrays.binarySearch(firstSegments, segment);
+        if(index < 0) {
+            return -index - 2;
+        }
+        // Routes have at least one segment, so that no two routes start at the same segment.
+        return index;
+    }
+
+    /**
+     * Returns the index of the cell of the spatial index containing the given coordinate.
+     * @param coordinate (double): a coordinate, not negative.
+     * @return (int): the index of the row or column of the coordinate.
+     */
+    private static int cell(double coordinate) {
+        return (int) (Math.max(0, coordinate) / CELL_SIZE);
+    }
+
+    /**
+     * Computes the axis-aligned bounds of the given segment.
+     * @param segment (int): the index of the segment.
+     * @return (double[]): the minimal and maximal horizontal and vertical coordinates of the segment, in this order.
+     */
+    private double[] computeBounds(int segment) {
+        double radians = Math.toRadians(angles[segment]);
+        double halfWidth = (Math.abs(Math.cos(radians)) * SEGMENT_WIDTH + Math.abs(Math.sin(radians)) * SEGMENT_HEIGHT) / 2;
+        double halfHeight = (Math.abs(Math.sin(radians)) * SEGMENT_WIDTH + Math.abs(Math.cos(radians)) * SEGMENT_HEIGHT) / 2;
+        double centerX = xs[segment] + SEGMENT_WIDTH / 2.0;
+        double centerY = ys[segment] + SEGMENT_HEIGHT / 2.0;
+        return new double[] { centerX - halfWidth, centerY - halfHeight, centerX + halfWidth, centerY + halfHeight };
+    }
+
+    /**
+     * Computes the indices of the routes overlapping the given one, using the spatial index.
+     * @param routeIndex (int): the index of the route.
+     * @return (int[]): the indices of the routes overlapping the route, in increasing order.
+     */
+    private int[] computeOverlappingRoutes(int routeIndex) {
+        BitSet overlapping = new BitSet(routeCount());
+        for(int s = firstSegment(routeIndex); s < endSegment(routeIndex); s++) {
+            for(int row = cell(bounds[s][1]); row <= Math.min(rows - 1, cell(bounds[s][3])); row++) {
+                for(int column = cell(bounds[s][0]); column <= Math.min(columns - 1, cell(bounds[s][2])); column++) {
+                    for(int other : cells[row * columns + column]) {
+                        if(intersect(bounds[s], bounds[other])) {
+                            overlapping.set(routeOf(other));
+                        }
+                    }
+                }
+            }
+        }
+        overlapping.clear(routeIndex);
+        return overlapping.stream().toArray();
+    }
+
+    /**
+     * Determines whether the given bounds intersect, once enlarged by OVERLAP_MARGIN.
+     * @param a (double[]): the first bounds.
+     * @param b (double[]): the second bounds.
+     * @return (boolean): true if the enlarged bounds intersect, false otherwise.
+     */
+    private static boolean intersect(double[] a, double[] b) {
+        double margin = 2 * OVERLAP_MARGIN;
+        return a[0] - margin <= b[2] && b[0] - margin <= a[2] && a[1] - margin <= b[3] && b[1] - margin <= a[3];
+    }
+}
@@ -1,20 +1,28 @@
 package ch.epfl.tchu.gui;
 
 import java.util.List;
+import java.util.Map;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Color;
+import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.Route;
 import ch.epfl.tchu.gui.ActionHandlers.ChooseCardsHandler;
 import ch.epfl.tchu.gui.ActionHandlers.ClaimRouteHandler;
 import javafx.beans.property.ObjectProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
+import javafx.scene.paint.Paint;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.StrokeLineCap;
 
 /**
  * Class that allows for the creation of the graphical elements needed to display the map of the game.
@@ -22,12 +30,38 @@ import javafx.scene.shape.Rectangle;
  * @author David Chernis (310298)
  */
 final class MapViewCreator {
-	private static final int WAGON_WIDTH = 36;
-	private static final int WAGON_HEIGHT = 12;
+	private static final int WAGON_WIDTH = MapGeometry.SEGMENT_WIDTH;
+	private static final int WAGON_HEIGHT = MapGeometry.SEGMENT_HEIGHT;
     private static final int STATION_X = 12;
     private static final int STATION_Y = 6;
     private static final int STATION_RADIUS = 3;
     private static final int AUTO_CLAIM_SIZE = 1;
+    private static final double HOVER_SCALE = 1.1;
+    
+    // Paints of the cached view, which are the ones given in map.css and colors.css.
+    private static final Paint TRACK_STROKE = paint("dimgray");
+    private static final Paint BLACK_TRACK_STROKE = paint("grey");
+    private static final Paint CAR_STROKE = paint("dimgrey");
+    private static final Paint CAR_CIRCLE = paint("white");
+    private static final Paint NEUTRAL_FILL = paint("#d3d3d3");
+    private static final Map<Color, Paint> COLOR_FILLS = Map.of(
+            Color.BLACK, paint("#7f7f7f"),
+            Color.VIOLET, paint("#eb93db"),
+            Color.BLUE, paint("#86aaff"),
+            Color.GREEN, paint("#92db98"),
+            Color.YELLOW, paint("#eae853"),
+            Color.ORANGE, paint("#e1a84f"),
+            Color.RED, paint("#e9787d"),
+            Color.WHITE, paint("#f5f5f5"));
+    private static final Map<PlayerId, Paint> PLAYER_FILLS = Map.of(
+            PlayerId.PLAYER_1, paint("lightblue"),
+            PlayerId.PLAYER_2, paint("lightpink"),
+            PlayerId.PLAYER_3, paint("lightgreen"));
+    
+    /**
+     * (Image): the image of the map with the tracks of all the routes, shared by all the cached views.
+     */
+    private static Image cachedMap;
     
     
 	/**
@@ -63,17 +97,7 @@ final class MapViewCreator {
 	                route.level().name(),  
 	                route.color() == null ? "NEUTRAL" : route.color().name());
 	        
-	        routeGroup.setOnMouseClicked((e) -> {
-	            List<SortedBag<Card>> possibleClaimCards = gameState.possibleClaimCards(route);
-	            
-	            if(possibleClaimCards.size() == AUTO_CLAIM_SIZE) {
-	                claimRouteHP.get().onClaimRoute(route, possibleClaimCards.get(0));
-	            } else if(possibleClaimCards.size() > AUTO_CLAIM_SIZE){
-	                ClaimRouteHandler claimRouteH = claimRouteHP.get();
-	                ChooseCardsHandler chooseCardsH = chosenCards -> claimRouteH.onClaimRoute(route, chosenCards);
-	                cardChooser.chooseCards(possibleClaimCards, chooseCardsH);
-	            }
-	        });
+	        routeGroup.setOnMouseClicked((e) -> claimRoute(gameState, route, claimRouteHP, cardChooser));
 	        
 	        for(int j = 0; j < route.length(); j++) {
 	            
@@ -104,6 +128,276 @@ final class MapViewCreator {
         return Carte;
 	}
 	
+	/**
+	 * Creates a view of the map of the game which, unlike the one of createMapView, does not contain any node per route.
+	 * The map and the tracks of the routes are drawn once into an image shared by all the views, while the cars of the
+	 * claimed routes and the enlarged tracks of the route under the mouse are drawn on a canvas laid over it, where only
+	 * the routes whose owner or claimability changed are drawn again. The route under the mouse is found using the
+	 * spatial index of MapGeometry. Must be called on the JavaFX thread.
+	 * @param gameState (ObservableGameState): the observable game state of the game.
+	 * @param claimRouteHP (ObjectProperty<ClaimRouteHandler>): the property containing the handler used to claim a route.
+	 * @param cardChooser (CardChooser): the card chooser of the game.
+	 * @return (Pane): the view of the map.
+	 */
+	public static Pane createCachedMapView(ObservableGameState gameState, ObjectProperty<ClaimRouteHandler> claimRouteHP, CardChooser cardChooser) {
+		MapGeometry geometry = MapGeometry.chMap();
+		Image map = cachedMap();
+		Canvas canvas = new Canvas(map.getWidth(), map.getHeight());
+		CarLayer cars = new CarLayer(geometry, gameState, claimRouteHP, canvas.getGraphicsContext2D());
+		
+		List<Route> routes = ChMap.routes();
+		for(int i = 0; i < routes.size(); i++) {
+		    int index = i;
+		    gameState.routeId(routes.get(i)).addListener((o, oV, nV) -> cars.redraw(index));
+		    gameState.claimable(routes.get(i)).addListener((o, oV, nV) -> cars.redrawIfHovered(index));
+		    if(gameState.routeId(routes.get(i)).get() != null) {
+		        cars.redraw(index);
+		    }
+		}
+		claimRouteHP.addListener((o, oV, nV) -> cars.redrawIfHovered(cars.hovered));
+		
+		canvas.setOnMouseMoved((e) -> cars.hover(geometry.routeAt(e.getX(), e.getY())));
+		canvas.setOnMouseExited((e) -> cars.hover(-1));
+		canvas.setOnMouseClicked((e) -> {
+		    int index = geometry.routeAt(e.getX(), e.getY());
+		    if(index != -1 && cars.isEnabled(index)) {
+		        claimRoute(gameState, routes.get(index), claimRouteHP, cardChooser);
+		    }
+		});
+		
+		return new Pane(new ImageView(map), canvas);
+	}
+	
+	/**
+	 * Claims the given route using the handler of the given property, after letting the player choose the cards used to
+	 * do so if there are several possibilities.
+	 * @param gameState (ObservableGameState): the observable game state of the game.
+	 * @param route (Route): the route to be claimed.
+	 * @param claimRouteHP (ObjectProperty<ClaimRouteHandler>): the property containing the handler used to claim a route.
+	 * @param cardChooser (CardChooser): the card chooser of the game.
+	 */
+	private static void claimRoute(ObservableGameState gameState, Route route, ObjectProperty<ClaimRouteHandler> claimRouteHP, CardChooser cardChooser) {
+	    List<SortedBag<Card>> possibleClaimCards = gameState.possibleClaimCards(route);
+	    
+	    if(possibleClaimCards.size() == AUTO_CLAIM_SIZE) {
+	        claimRouteHP.get().onClaimRoute(route, possibleClaimCards.get(0));
+	    } else if(possibleClaimCards.size() > AUTO_CLAIM_SIZE){
+	        ClaimRouteHandler claimRouteH = claimRouteHP.get();
+	        ChooseCardsHandler chooseCardsH = chosenCards -> claimRouteH.onClaimRoute(route, chosenCards);
+	        cardChooser.chooseCards(possibleClaimCards, chooseCardsH);
+	    }
+	}
+	
+	/**
+	 * Returns the image of the map with the tracks of all the routes, which is drawn the first time it is needed.
+	 * @return (Image): the image of the map with the tracks of all the routes.
+	 */
+	private static Image cachedMap() {
+	    if(cachedMap == null) {
+	        Image background = new Image("map.png");
+	        Canvas canvas = new Canvas(background.getWidth(), background.getHeight());
+	        GraphicsContext gc = canvas.getGraphicsContext2D();
+	        gc.drawImage(background, 0, 0);
+	        MapGeometry geometry = MapGeometry.chMap();
+	        List<Route> routes = ChMap.routes();
+	        for(int i = 0; i < routes.size(); i++) {
+	            for(int s = geometry.firstSegment(i); s < geometry.endSegment(i); s++) {
+	                drawTrack(gc, geometry, routes.get(i), s, 1);
+	            }
+	        }
+	        cachedMap = canvas.snapshot(null, null);
+	    }
+	    return cachedMap;
+	}
+	
+	/**
+	 * Draws the track of the given segment of the given route, as styled by map.css and colors.css.
+	 * @param gc (GraphicsContext): the graphics context to draw on.
+	 * @param geometry (MapGeometry): the geometry of the routes.
+	 * @param route (Route): the route of the segment.
+	 * @param segment (int): the index of the segment.
+	 * @param scale (double): the factor by which the track is enlarged around its center.
+	 */
+	private static void drawTrack(GraphicsContext gc, MapGeometry geometry, Route route, int segment, double scale) {
+	    gc.save();
+	    transformToSegment(gc, geometry, segment, scale);
+	    gc.setFill(route.color() == null ? NEUTRAL_FILL : COLOR_FILLS.get(route.color()));
+	    gc.fillRect(0, 0, WAGON_WIDTH, WAGON_HEIGHT);
+	    gc.setStroke(route.color() == Color.BLACK ? BLACK_TRACK_STROKE : TRACK_STROKE);
+	    gc.setLineWidth(1);
+	    if(route.level() == Route.Level.UNDERGROUND) {
+	        gc.setLineDashes(8, 4);
+	        gc.setLineDashOffset(4);
+	        gc.setLineCap(StrokeLineCap.BUTT);
+	    }
+	    // The stroke of the tracks lies outside of their rectangle.
+	    gc.strokeRect(-0.5, -0.5, WAGON_WIDTH + 1, WAGON_HEIGHT + 1);
+	    gc.restore();
+	}
+	
+	/**
+	 * Draws the car of the given segment, as styled by map.css and colors.css.
+	 * @param gc (GraphicsContext): the graphics context to draw on.
+	 * @param geometry (MapGeometry): the geometry of the routes.
+	 * @param owner (PlayerId): the player who owns the route of the segment.
+	 * @param segment (int): the index of the segment.
+	 */
+	private static void drawCar(GraphicsContext gc, MapGeometry geometry, PlayerId owner, int segment) {
+	    gc.save();
+	    transformToSegment(gc, geometry, segment, 1);
+	    gc.setFill(PLAYER_FILLS.get(owner));
+	    gc.fillRect(0, 0, WAGON_WIDTH, WAGON_HEIGHT);
+	    gc.setStroke(CAR_STROKE);
+	    gc.setLineWidth(2);
+	    gc.strokeRect(0, 0, WAGON_WIDTH, WAGON_HEIGHT);
+	    gc.setFill(CAR_CIRCLE);
+	    gc.setLineWidth(1);
+	    for(int x : new int[] {STATION_X, 2*STATION_X}) {
+	        gc.fillOval(x - STATION_RADIUS, STATION_Y - STATION_RADIUS, 2*STATION_RADIUS, 2*STATION_RADIUS);
+	        gc.strokeOval(x - STATION_RADIUS, STATION_Y - STATION_RADIUS, 2*STATION_RADIUS, 2*STATION_RADIUS);
+	    }
+	    gc.restore();
+	}
+	
+	/**
+	 * Applies to the given graphics context the transformation of the given segment, so that it can be drawn as a
+	 * rectangle whose top left corner is at the origin.
+	 * @param gc (GraphicsContext): the graphics context to transform.
+	 * @param geometry (MapGeometry): the geometry of the routes.
+	 * @param segment (int): the index of the segment.
+	 * @param scale (double): the factor by which the segment is enlarged around its center.
+	 */
+	private static void transformToSegment(GraphicsContext gc, MapGeometry geometry, int segment, double scale) {
+	    gc.translate(geometry.x(segment) + WAGON_WIDTH / 2.0, geometry.y(segment) + WAGON_HEIGHT / 2.0);
+	    gc.rotate(geometry.angle(segment));
+	    gc.scale(scale, scale);
+	    gc.translate(-WAGON_WIDTH / 2.0, -WAGON_HEIGHT / 2.0);
+	}
+	
+	/**
+	 * Returns the paint described by the given CSS color.
+	 * @param color (String): a color, in the syntax of CSS.
+	 * @return (Paint): the paint of the color.
+	 */
+	private static Paint paint(String color) {
+	    return javafx.scene.paint.Color.web(color);
+	}
+	
+	/**
+	 * Class representing the canvas of a cached view of the map, on which the cars of the claimed routes and the enlarged
+	 * tracks of the route under the mouse are drawn.
+	 * @author Shrey Mittal (312275)
+	 * @author David Chernis (310298)
+	 */
+	private static final class CarLayer {
+	    private final MapGeometry geometry;
+	    private final ObservableGameState gameState;
+	    private final ObjectProperty<ClaimRouteHandler> claimRouteHP;
+	    private final GraphicsContext gc;
+	    private final List<Route> routes = ChMap.routes();
+	    private int hovered = -1;
+	    
+	    /**
+	     * Private CarLayer constructor.
+	     * @param geometry (MapGeometry): the geometry of the routes.
+	     * @param gameState (ObservableGameState): the observable game state of the game.
+	     * @param claimRouteHP (ObjectProperty<ClaimRouteHandler>): the property containing the handler used to claim a route.
+	     * @param gc (GraphicsContext): the graphics context of the canvas.
+	     */
+	    private CarLayer(MapGeometry geometry, ObservableGameState gameState, ObjectProperty<ClaimRouteHandler> claimRouteHP, GraphicsContext gc) {
+	        this.geometry = geometry;
+	        this.gameState = gameState;
+	        this.claimRouteHP = claimRouteHP;
+	        this.gc = gc;
+	    }
+	    
+	    /**
+	     * Determines whether the given route can currently be claimed by clicking on it.
+	     * @param index (int): the index of the route.
+	     * @return (boolean): true if the route can be claimed, false otherwise.
+	     */
+	    private boolean isEnabled(int index) {
+	        return claimRouteHP.get() != null && gameState.claimable(routes.get(index)).get();
+	    }
+	    
+	    /**
+	     * Changes the route under the mouse, drawing again the previous and the new one if they differ.
+	     * @param index (int): the index of the route under the mouse, or -1 if there is none.
+	     */
+	    private void hover(int index) {
+	        int previous = hovered;
+	        if(index != previous) {
+	            hovered = index;
+	            if(previous != -1) {
+	                redraw(previous);
+	            }
+	            if(index != -1) {
+	                redraw(index);
+	            }
+	        }
+	    }
+	    
+	    /**
+	     * Draws the given route again if it is the one under the mouse, whose appearance depends on whether it can be
+	     * claimed.
+	     * @param index (int): the index of a route, or -1.
+	     */
+	    private void redrawIfHovered(int index) {
+	        if(index != -1 && index == hovered) {
+	            redraw(index);
+	        }
+	    }
+	    
+	    /**
+	     * Draws the given route again, along with the parts of the routes overlapping it which lie on the same pixels.
+	     * @param index (int): the index of the route.
+	     */
+	    private void redraw(int index) {
+	        gc.save();
+	        gc.beginPath();
+	        for(int s = geometry.firstSegment(index); s < geometry.endSegment(index); s++) {
+	            double[] corners = geometry.corners(s, MapGeometry.OVERLAP_MARGIN);
+	            gc.moveTo(corners[0], corners[1]);
+	            for(int c = 2; c < corners.length; c += 2) {
+	                gc.lineTo(corners[c], corners[c + 1]);
+	            }
+	            gc.closePath();
+	        }
+	        gc.clip();
+	        gc.clearRect(0, 0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
+	        
+	        // The routes are drawn in the order of their indices, like the nodes of createMapView.
+	        boolean drawn = false;
+	        for(int other : geometry.overlappingRoutes(index)) {
+	            if(!drawn && other > index) {
+	                draw(index);
+	                drawn = true;
+	            }
+	            draw(other);
+	        }
+	        if(!drawn) {
+	            draw(index);
+	        }
+	        gc.restore();
+	    }
+	    
+	    /**
+	     * Draws the car of each segment of the given route if it is claimed, or its enlarged tracks if it is under the
+	     * mouse and can be claimed.
+	     * @param index (int): the index of the route.
+	     */
+	    private void draw(int index) {
+	        PlayerId owner = gameState.routeId(routes.get(index)).get();
+	        for(int s = geometry.firstSegment(index); s < geometry.endSegment(index); s++) {
+	            if(owner != null) {
+	                drawCar(gc, geometry, owner, s);
+	            } else if(index == hovered && isEnabled(index)) {
+	                drawTrack(gc, geometry, routes.get(index), s, HOVER_SCALE);
+	            }
+	        }
+	    }
+	}
+	
 	/**
 	 * Functional interface which is embedded into the MapViewCreator class, and whose aim
 	 * is to force implementing classes to define a method which allows it to choose cards.
@@ -0,0 +1,111 @@
+package ch.epfl.tchu.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * Package-private and immutable class representing a message pattern of StringsFr, split once for all at its "%s"
+ * placeholders, so that messages can be produced by appending its parts and the arguments to a builder instead of
+ * parsing the pattern with String.format every time.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class MessageTemplate {
+
+    /**
+     * (String): the only format specifier a pattern may contain.
+     */
+    private static final String PLACEHOLDER = "%s";
+
+    /**
+     * (int): the initial capacity of the builders, large enough for most messages.
+     */
+    private static final int INITIAL_BUILDER_CAPACITY = 128;
+
+    /**
+     * (ThreadLocal<StringBuilder>): the builder of each thread, reused from one message to the next.
+     */
+    private static final ThreadLocal<StringBuilder> BUILDERS =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUILDER_CAPACITY));
+
+    /**
+     * (String[]): the parts of the pattern surrounding its placeholders, one more than the number of arguments.
+     */
+    private final String[] parts;
+
+    /**
+     * Private MessageTemplate constructor.
+     * @param parts (String[]): the parts of the pattern surrounding its placeholders.
+     */
+    private MessageTemplate(String[] parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Compiles the given pattern, whose only format specifiers must be "%s".
+     * @param pattern (String): the pattern, in the syntax of String.format.
+     * @return (MessageTemplate): the template of the pattern.
+     * @throws IllegalArgumentException if the pattern contains a format specifier other than "%s".
+     */
+    static MessageTemplate of(String pattern) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int index;
+        while((index = pattern.indexOf('%', start)) != -1) {
+            Preconditions.checkArgument(pattern.startsWith(PLACEHOLDER, index));
+            parts.add(pattern.substring(start, index));
+            start = index + PLACEHOLDER.length();
+        }
+        parts.add(pattern.substring(start));
+        return new MessageTemplate(parts.toArray(new String[0]));
+    }
+
+    /**
+     * Returns the number of arguments of the template.
+     * @return (int): the number of arguments of the template.
+     */
+    int argumentCount() {
+        return parts.length - 1;
+    }
+
+    /**
+     * Returns the builder of the current thread, emptied, which the appending methods can use to produce a message
+     * without allocating a new builder every time.
+     * @return (StringBuilder): the empty builder of the current thread.
+     */
+    static StringBuilder builder() {
+        StringBuilder builder = BUILDERS.get();
+        builder.setLength(0);
+        return builder;
+    }
+
+    /**
+     * Appends to the given builder the part of the template preceding the argument of the given index, or following the
+     * last argument if the index is the number of arguments.
+     * @param builder (StringBuilder): the builder the part is appended to.
+     * @param argumentIndex (int): the index of the argument.
+     * @return (StringBuilder): the builder.
+     * @throws IndexOutOfBoundsException if the index is negative or greater than the number of arguments.
+     */
+    StringBuilder appendPart(StringBuilder builder, int argumentIndex) {
+        return builder.append(parts[argumentIndex]);
+    }
+
+    /**
+     * Returns the message obtained by replacing the placeholders of the template by the given arguments, like
+     * String.format would.
+     * @param arguments (Object...): the arguments, which are turned into strings using String.valueOf.
+     * @return (String): the message.
+     * @throws IllegalArgumentException if the number of arguments is not the one of the template.
+     */
+    String format(Object... arguments) {
+        Preconditions.checkArgument(arguments.length == argumentCount());
+        StringBuilder builder = builder();
+        for(int i = 0; i < arguments.length; i++) {
+            builder.append(parts[i]).append(arguments[i]);
+        }
+        return builder.append(parts[arguments.length]).toString();
+    }
+}
@@ -1,22 +1,20 @@
 package ch.epfl.tchu.gui;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
 import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameConfig;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
 import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
 import ch.epfl.tchu.game.Route;
-import ch.epfl.tchu.game.Station;
 import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.TicketProgress;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -24,7 +22,9 @@ import javafx.collections.ObservableList;
 import static ch.epfl.tchu.game.Constants.FACE_UP_CARD_SLOTS;
 
 /**
- * Class that represents an observable game state.
+ * Class that represents an observable game state. Each new state is compared to the previous one, so that only the
+ * properties whose values changed are updated; the properties of the routes are indexed by the position of the routes
+ * in ChMap.routes().
  * @author Shrey Mittal (312275)
  * @author David Chernis (310298)
  */
@@ -33,14 +33,14 @@ public final class ObservableGameState {
     private PublicGameState publicgs;
     private PlayerState publicps;
     private final PlayerId id; 
-    private static final int TOTAL_TICKETS = ChMap.tickets().size();
+    private final GameConfig config;
     private static final int DIFFERENT_CARD_COUNT = 9;
-    private static final int NUMBER_OF_PLAYERS = PlayerId.COUNT;
     // Group 1
     private final IntegerProperty ticketPercentage; 
     private final IntegerProperty cardPercentage;
     private final List<ObjectProperty<Card>> faceUpCards;
-    private final Map<Route, ObjectProperty<PlayerId>> routes;
+    private final List<ObjectProperty<PlayerId>> routes;
+    private final int[] claimedRouteCounts;
     
     // Group 2
     private final List<IntegerProperty> playerTicketsNum;
@@ -50,25 +50,30 @@ public final class ObservableGameState {
     
     // Group 3
     private final ObservableList<Ticket> playerTickets;
+    private final ObjectProperty<TicketProgress> ticketProgress;
     private final List<IntegerProperty> playerCards;
-    private final Map<Route, BooleanProperty> claimableRoutes;
+    private final List<BooleanProperty> claimableRoutes;
     
     /**
      * Public ObservableGameState constructor. Initializes an ObservableGameState using its id parameter.
      * @param id (PlayerId): the id of the player whose player state is shown in this instance of
      * ObservableGameState.
+     * @param config (GameConfig): the configuration of the game.
      */
-    public ObservableGameState(PlayerId id){
+    public ObservableGameState(PlayerId id, GameConfig config){
         this.id = id;
+        this.config = config;
         faceUpCards = createFaceUpCards();
         routes = createRoutes();
+        claimedRouteCounts = new int[config.playerCount()];
         ticketPercentage = new SimpleIntegerProperty(0);
         cardPercentage = new SimpleIntegerProperty(0);
-        playerTicketsNum = createIntList(NUMBER_OF_PLAYERS);
-        playerTotalCardsNum = createIntList(NUMBER_OF_PLAYERS);
-        playerWagonsNum = createIntList(NUMBER_OF_PLAYERS);
-        playerClaimPoints = createIntList(NUMBER_OF_PLAYERS);
+        playerTicketsNum = createIntList(config.playerCount());
+        playerTotalCardsNum = createIntList(config.playerCount());
+        playerWagonsNum = createIntList(config.playerCount());
+        playerClaimPoints = createIntList(config.playerCount());
         playerTickets = FXCollections.observableArrayList();
+        ticketProgress = new SimpleObjectProperty<>(null);
         playerCards = createIntList(DIFFERENT_CARD_COUNT);
         claimableRoutes = createOwnedRoutes();
     }
@@ -100,104 +105,143 @@ public final class ObservableGameState {
     }
     
     /**
-     * Creates and returns a map of ObjectProperty instances of the generic type PlayerId and with
-     * keys of type Route.
-     * @return (Map<Route, ObjectProperty<PlayerId>>): returns a newly created map of ObjectProperty
-     * instances of the generic type PlayerId and with keys of type Route.
+     * Creates and returns a list of ObjectProperty instances of the generic type PlayerId, one for each route of the
+     * map, at the position of the route in ChMap.routes().
+     * @return (List<ObjectProperty<PlayerId>>): returns a newly created list of ObjectProperty instances of the generic
+     * type PlayerId.
      */
-    private Map<Route, ObjectProperty<PlayerId>> createRoutes(){
-        Map<Route, ObjectProperty<PlayerId>> newRoutes = new HashMap<>();
-        for(Route r : ChMap.routes()) {
-            newRoutes.put(r, new SimpleObjectProperty<>(null));
+    private List<ObjectProperty<PlayerId>> createRoutes(){
+        List<ObjectProperty<PlayerId>> newRoutes = new ArrayList<>(config.routes().size());
+        for(int i = 0; i < config.routes().size(); i++) {
+            newRoutes.add(new SimpleObjectProperty<>(null));
         }
         return newRoutes;
     }
     
     /**
-     * Creates and returns a map of BooleanProperty instances and with keys of type Route.
-     * @return (Map<Route, ObjectProperty<PlayerId>>): returns a newly created map of BooleanProperty
-     * instances and with keys of type Route.
+     * Creates and returns a list of BooleanProperty instances, one for each route of the map, at the position of the
+     * route in ChMap.routes().
+     * @return (List<BooleanProperty>): returns a newly created list of BooleanProperty instances.
      */
-    private Map<Route, BooleanProperty> createOwnedRoutes(){
-        Map<Route, BooleanProperty> newRoutes = new HashMap<>();
-        for(Route r : ChMap.routes()) {
-            newRoutes.put(r, new SimpleBooleanProperty(false));
+    private List<BooleanProperty> createOwnedRoutes(){
+        List<BooleanProperty> newRoutes = new ArrayList<>(config.routes().size());
+        for(int i = 0; i < config.routes().size(); i++) {
+            newRoutes.add(new SimpleBooleanProperty(false));
         }
         return newRoutes;
     }
     
     /**
-     * Updates all the attributes within ObservableGameState using the values provided
-     * in the parameters of the method.
+     * Updates the attributes within ObservableGameState using the values provided in the parameters of the method. Only
+     * what changed since the previous state is computed again, and only the properties whose values changed are set.
      * @param newGameState (PublicGameState): the new public game state.
      * @param newPlayerState (PlayerState): the new player state.
      */
     public void setState(PublicGameState newGameState, PlayerState newPlayerState) {
+       PublicGameState oldGameState = publicgs;
+       PlayerState oldPlayerState = publicps;
        publicgs = newGameState;
        publicps = newPlayerState;
-       Set<List<Station>> doubles = new HashSet<>();
        
-       cardPercentage.set((100 *newGameState.cardState().deckSize()) / Constants.TOTAL_CARDS_COUNT);
-       ticketPercentage.set((100 *newGameState.ticketsCount()) / TOTAL_TICKETS);
-       playerTickets.setAll(newPlayerState.tickets().toList());
-       
-       for(Route r: newGameState.claimedRoutes()) {
-           doubles.add(r.stations());
+       int deckSize = newGameState.cardState().deckSize();
+       if(oldGameState == null || oldGameState.cardState().deckSize() != deckSize) {
+           cardPercentage.set((100 * deckSize) / Constants.TOTAL_CARDS_COUNT);
+       }
+       if(oldGameState == null || oldGameState.ticketsCount() != newGameState.ticketsCount()) {
+           ticketPercentage.set((100 * newGameState.ticketsCount()) / config.tickets().size());
+       }
+       // The progress is updated first, so that the views of the tickets show the new one.
+       TicketProgress progress = ticketProgress.get();
+       ticketProgress.set(progress == null
+               ? TicketProgress.of(newGameState, newPlayerState)
+               : progress.updated(newGameState, newPlayerState));
+       boolean ticketsChanged = oldPlayerState == null || !oldPlayerState.tickets().equals(newPlayerState.tickets());
+       if(ticketsChanged) {
+           playerTickets.setAll(newPlayerState.tickets().toList());
        }
        
        for (int slot : FACE_UP_CARD_SLOTS) {
            Card newCard = newGameState.cardState().faceUpCard(slot);
-           faceUpCards.get(slot).set(newCard);
+           if(oldGameState == null || oldGameState.cardState().faceUpCard(slot) != newCard) {
+               faceUpCards.get(slot).set(newCard);
+           }
        }
 
-       for(PlayerId id : PlayerId.ALL) {
+       boolean routesClaimed = false;
+       for(PlayerId id : config.playerIds()) {
            int ord = id.ordinal();
-           playerTicketsNum.get(ord).set(newGameState.playerState(id).ticketCount());
-           playerTotalCardsNum.get(ord).set(newGameState.playerState(id).cardCount());
-           playerWagonsNum.get(ord).set(newGameState.playerState(id).carCount());
-           playerClaimPoints.get(ord).set(newGameState.playerState(id).claimPoints());
-       }
-       
-       for(Route r : ChMap.routes()) {
-           if(!(newGameState.claimedRoutes().contains(r))) {
-               routes.get(r).set(null);
+           PublicPlayerState newState = newGameState.playerState(id);
+           PublicPlayerState oldState = oldGameState == null ? null : oldGameState.playerState(id);
+           if(oldState == null || oldState.ticketCount() != newState.ticketCount()) {
+               playerTicketsNum.get(ord).set(newState.ticketCount());
+           }
+           if(oldState == null || oldState.cardCount() != newState.cardCount()) {
+               playerTotalCardsNum.get(ord).set(newState.cardCount());
            }
-           else {
-               for(PlayerId id: PlayerId.ALL) {
-                   if(publicgs.playerState(id).routes().contains(r)) {
-                       routes.get(r).set(id);
+           if(oldState == null || oldState.carCount() != newState.carCount()) {
+               playerWagonsNum.get(ord).set(newState.carCount());
+           }
+           if(oldState == null || oldState.claimPoints() != newState.claimPoints()) {
+               playerClaimPoints.get(ord).set(newState.claimPoints());
+           }
+           
+           // A player never loses a route, so that its routes only need to be looked at when their number changes;
+           // their order is not relied upon, since the decoded states list them in the order of ChMap.routes().
+           List<Route> claimed = newState.routes();
+           if(claimed.size() != claimedRouteCounts[ord]) {
+               for(Route r : claimed) {
+                   ObjectProperty<PlayerId> owner = routes.get(ChMap.routeIndex(r));
+                   if(owner.get() != id) {
+                       owner.set(id);
+                       routesClaimed = true;
                    }
                }
+               claimedRouteCounts[ord] = claimed.size();
            }
        }
 
-       for(Route r1: routes.keySet()) {
-           
-           boolean correctPlayer = newGameState.currentPlayerId() == id;
-           boolean routeUnowned = routes.get(r1).get() == null;
-           boolean doubleUnowned = true;
-           boolean playerCanClaimRoute = newPlayerState.canClaimRoute(r1);
-           
-           for(Route r2 : routes.keySet()) {
-               boolean doubleCondition = r2.stations().containsAll(r1.stations()) && !(r2.id() == r1.id());
-               
-               if(doubleCondition) {
-                   doubleUnowned = routes.get(r2).get() == null;
-               } if(Constants.THREE_PLAYER && doubleCondition) {
-                   doubleUnowned = routes.get(r2).get() != id;
-               } 
-           }
-           
-           claimableRoutes.get(r1).set(correctPlayer && routeUnowned && doubleUnowned && playerCanClaimRoute);
+       boolean turnChanged = oldGameState == null
+               || (oldGameState.currentPlayerId() == id) != (newGameState.currentPlayerId() == id);
+       boolean cardsChanged = oldPlayerState == null || !oldPlayerState.cards().equals(newPlayerState.cards());
+       boolean carsChanged = oldPlayerState == null || oldPlayerState.carCount() != newPlayerState.carCount();
+       if(turnChanged || cardsChanged || carsChanged || routesClaimed) {
+           updateClaimableRoutes(newGameState.currentPlayerId() == id, newPlayerState);
        }
        
-       
-       for(Card c : Card.ALL) {
-           playerCards.get(c.ordinal()).set(newPlayerState.cards().countOf(c));
+       if(cardsChanged) {
+           for(Card c : Card.ALL) {
+               int count = newPlayerState.cards().countOf(c);
+               if(oldPlayerState == null || oldPlayerState.cards().countOf(c) != count) {
+                   playerCards.get(c.ordinal()).set(count);
+               }
+           }
        }
        
     }
     
+    /**
+     * Updates the properties telling whether each route can be claimed by the player linked to this instance of
+     * ObservableGameState. A route whose sibling is claimed cannot be claimed in a two-player game, and in a three-player
+     * game only if the sibling was claimed by that same player.
+     * @param correctPlayer (boolean): whether the player linked to this instance of ObservableGameState is the current one.
+     * @param playerState (PlayerState): the new player state.
+     */
+    private void updateClaimableRoutes(boolean correctPlayer, PlayerState playerState) {
+        List<Route> allRoutes = config.routes();
+        for(int i = 0; i < allRoutes.size(); i++) {
+            boolean claimable = false;
+            if(correctPlayer && routes.get(i).get() == null) {
+                int sibling = ChMap.siblingIndex(i);
+                PlayerId siblingOwner = sibling == -1 ? null : routes.get(sibling).get();
+                boolean doubleUnowned = config.playerCount() == 3 ? siblingOwner != id : siblingOwner == null;
+                claimable = doubleUnowned && playerState.canClaimRoute(allRoutes.get(i));
+            }
+            if(claimableRoutes.get(i).get() != claimable) {
+                claimableRoutes.get(i).set(claimable);
+            }
+        }
+    }
+    
     /**
      * Returns the field ticketPercentage.
      * @return (ReadOnlyIntegerProperty): the field ticketPercentage.
@@ -232,7 +276,7 @@ public final class ObservableGameState {
      * the PlayerId who owns the route specified in the parameter r.
      */
     public ReadOnlyObjectProperty<PlayerId> routeId(Route r){
-        return routes.get(r);
+        return routes.get(ChMap.routeIndex(r));
     }
     
     /**
@@ -287,6 +331,16 @@ public final class ObservableGameState {
         return playerTickets;
     }
     
+    /**
+     * Returns the ReadOnlyObjectProperty containing the progress of the player towards completing
+     * each of their tickets, which is null until the first state is set.
+     * @return (ReadOnlyObjectProperty<TicketProgress>): the progress of the player towards completing
+     * each of their tickets.
+     */
+    public ReadOnlyObjectProperty<TicketProgress> ticketProgress(){
+        return ticketProgress;
+    }
+    
     /**
      * Returns the ReadOnlyIntegerProperty containing the amount of cards of a given type
      * owned by the player linked to this instance of ObservableGameState.
@@ -307,7 +361,7 @@ public final class ObservableGameState {
      * of ObservableGameState to claim the given route.
      */
     public ReadOnlyBooleanProperty claimable(Route r) {
-        return claimableRoutes.get(r);
+        return claimableRoutes.get(ChMap.routeIndex(r));
     }
     
     /**
@@ -12,9 +12,8 @@ import java.util.concurrent.BlockingQueue;
 
 import static javafx.application.Platform.runLater;
 import ch.epfl.tchu.SortedBag;
-import ch.epfl.tchu.game.ChMap;
-import ch.epfl.tchu.game.Constants;
 import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameConfig;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.net.RemotePlayerProxy;
@@ -49,8 +48,9 @@ public class ServerMain extends Application{
     @Override
     public void start(Stage primaryStage) throws Exception {
     	//Creates main menu
+    	GameConfig config = getParameters().getRaw().size() == 3 ? GameConfig.THREE_PLAYERS : GameConfig.TWO_PLAYERS;
     	
-    	if(Constants.THREE_PLAYER) {
+    	if(config.playerCount() == 3) {
     		// Setting up Server
 	        RemotePlayerProxy playerProxy1 = null;
 	        RemotePlayerProxy playerProxy2 = null;
@@ -79,7 +79,7 @@ public class ServerMain extends Application{
 	                PLAYER_2, playerProxy1,
 	                PLAYER_3, playerProxy2);
 	        
-	        new Thread(() -> Game.play(players, playerNames, SortedBag.of(ChMap.tickets()), rand, 1)).start();
+	        new Thread(() -> Game.play(players, playerNames, SortedBag.of(config.tickets()), rand, config)).start();
     	}
     	else {
 
@@ -106,7 +106,7 @@ public class ServerMain extends Application{
 	                PLAYER_1, gpa,
 	                PLAYER_2, playerProxy);
 	        
-	        new Thread(() -> Game.play(players, playerNames, SortedBag.of(ChMap.tickets()), rand, 0)).start();
+	        new Thread(() -> Game.play(players, playerNames, SortedBag.of(config.tickets()), rand, config)).start();
     	}
     }
 }
@@ -0,0 +1,136 @@
+package ch.epfl.tchu.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+
+/**
+ * Package-private class passing the states and the information messages received by a player on the game thread to the
+ * JavaFX thread. Instead of one task per call, at most one task is pending at any time: it applies all the messages
+ * received since the previous one, in order, and then only the latest of the states received in the meantime.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class StateCoalescer {
+
+    /**
+     * (Executor): the executor running the tasks on the JavaFX thread.
+     */
+    private final Executor executor;
+
+    /**
+     * (BiConsumer<PublicGameState, PlayerState>): the consumer of the latest state.
+     */
+    private final BiConsumer<PublicGameState, PlayerState> stateConsumer;
+
+    /**
+     * (Consumer<List<String>>): the consumer of the pending messages.
+     */
+    private final Consumer<List<String>> infoConsumer;
+
+    /**
+     * (Object): the lock guarding the pending messages and state, shared by the game thread and the JavaFX thread.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * (PublicGameState): the latest public game state not applied yet, null if there is none.
+     */
+    private PublicGameState pendingGameState;
+
+    /**
+     * (PlayerState): the player state received along with pendingGameState.
+     */
+    private PlayerState pendingPlayerState;
+
+    /**
+     * (List<String>): the messages not applied yet, in the order they were received.
+     */
+    private List<String> pendingInfos = new ArrayList<>();
+
+    /**
+     * (boolean): whether a task applying the pending messages and state has been submitted and has not started yet.
+     */
+    private boolean scheduled;
+
+    /**
+     * Package-private StateCoalescer constructor.
+     * @param executor (Executor): the executor running the tasks on the JavaFX thread, typically Platform::runLater.
+     * @param stateConsumer (BiConsumer<PublicGameState, PlayerState>): the consumer of the latest state, called by the
+     * executor.
+     * @param infoConsumer (Consumer<List<String>>): the consumer of the pending messages, called by the executor before
+     * the state consumer and only if there are some.
+     * @throws NullPointerException if one of the arguments is null.
+     */
+    StateCoalescer(Executor executor, BiConsumer<PublicGameState, PlayerState> stateConsumer,
+            Consumer<List<String>> infoConsumer) {
+        this.executor = Objects.requireNonNull(executor);
+        this.stateConsumer = Objects.requireNonNull(stateConsumer);
+        this.infoConsumer = Objects.requireNonNull(infoConsumer);
+    }
+
+    /**
+     * Records the given state, replacing the one still pending if there is one, and makes sure it will be applied.
+     * @param gameState (PublicGameState): the new public game state.
+     * @param playerState (PlayerState): the new player state.
+     */
+    void postState(PublicGameState gameState, PlayerState playerState) {
+        synchronized(lock) {
+            pendingGameState = gameState;
+            pendingPlayerState = playerState;
+            scheduleIfNeeded();
+        }
+    }
+
+    /**
+     * Records the given information message and makes sure it will be applied.
+     * @param info (String): the information message.
+     */
+    void postInfo(String info) {
+        synchronized(lock) {
+            pendingInfos.add(info);
+            scheduleIfNeeded();
+        }
+    }
+
+    /**
+     * Submits the task applying the pending messages and state to the executor, unless one is already pending. Must be
+     * called with the lock held.
+     */
+    private void scheduleIfNeeded() {
+        if(!scheduled) {
+            scheduled = true;
+            executor.execute(this::applyPending);
+        }
+    }
+
+    /**
+     * Applies the pending messages and state, on the thread of the executor.
+     */
+    private void applyPending() {
+        PublicGameState gameState;
+        PlayerState playerState;
+        List<String> infos;
+        synchronized(lock) {
+            gameState = pendingGameState;
+            playerState = pendingPlayerState;
+            infos = pendingInfos;
+            pendingGameState = null;
+            pendingPlayerState = null;
+            pendingInfos = new ArrayList<>();
+            scheduled = false;
+        }
+        if(!infos.isEmpty()) {
+            infoConsumer.accept(infos);
+        }
+        if(gameState != null) {
+            stateConsumer.accept(gameState, playerState);
+        }
+    }
+}
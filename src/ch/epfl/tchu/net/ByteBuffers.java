@@ -0,0 +1,140 @@
+package ch.epfl.tchu.net;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Final and non-instanciable class containing the primitive encodings of the binary wire protocol.
+ * Integers are written as variable-length quantities, 7 bits per byte, least significant group first,
+ * so that the small values that make most of a game take a single byte.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class ByteBuffers {
+
+    /**
+     * Private constructor existing for the sole purpose of not allowing this class to be instanciated.
+     */
+    private ByteBuffers() {}
+
+    /**
+     * (int): the shift of the last group of 7 bits of a variable-length quantity, which holds the 3 most significant bits
+     * of a positive int.
+     */
+    static final int MAX_SHIFT = 28;
+
+    /**
+     * (int): the largest value of the last group of 7 bits of a variable-length quantity, above which it does not fit
+     * in a positive int.
+     */
+    private static final int MAX_LAST_GROUP = 0x07;
+
+    /**
+     * Writes the given positive integer into the buffer, as a variable-length quantity.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     * @param value (int): the positive integer to be written.
+     * @throws IllegalArgumentException if value is strictly negative.
+     * @throws java.nio.BufferOverflowException if the buffer is too small.
+     */
+    static void putVarInt(ByteBuffer buffer, int value) {
+        if(value < 0) {
+            throw new IllegalArgumentException();
+        }
+        while((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a positive integer written by putVarInt from the buffer.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (int): the integer read.
+     * @throws IllegalArgumentException if the integer read does not fit in a positive int.
+     */
+    static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for(int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if(b >= 0) {
+                if(shift == MAX_SHIFT && b > MAX_LAST_GROUP) {
+                    throw new IllegalArgumentException();
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Reads a number of elements written by putVarInt from the buffer, each of the elements following it in the buffer
+     * taking at least one byte. Lets the elements be stored in a collection of the size read without trusting the peer
+     * that sent it.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (int): the number of elements read.
+     * @throws IllegalArgumentException if the number read is larger than the number of bytes remaining in the buffer.
+     */
+    static int getSize(ByteBuffer buffer) {
+        int size = getVarInt(buffer);
+        if(size > buffer.remaining()) {
+            throw new IllegalArgumentException();
+        }
+        return size;
+    }
+
+    /**
+     * Writes the given integer, which may be negative, into the buffer, as a zigzag-encoded variable-length quantity.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     * @param value (int): the integer to be written.
+     */
+    static void putSignedVarInt(ByteBuffer buffer, int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while((zigzag & ~0x7F) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    /**
+     * Reads an integer written by putSignedVarInt from the buffer.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (int): the integer read.
+     */
+    static int getSignedVarInt(ByteBuffer buffer) {
+        int zigzag = 0;
+        for(int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = buffer.get();
+            zigzag |= (b & 0x7F) << shift;
+            if(b >= 0) {
+                break;
+            }
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Writes the given String into the buffer, as its length in bytes followed by its UTF-8 encoding.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     * @param value (String): the String to be written.
+     */
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarInt(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Reads a String written by putString from the buffer.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (String): the String read.
+     * @throws IllegalArgumentException if its length is larger than the number of bytes remaining in the buffer.
+     */
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[getSize(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,512 @@
+package ch.epfl.tchu.net;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import ch.epfl.tchu.Preconditions;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Class representing one end of the connection between the server and a client, able to exchange messages using
+ * either wire protocol. Starts with the text protocol, which is the only one understood by all clients, and may
+ * switch to the binary one once both ends have agreed on it.
+ * In text, a message is a line made of its MessageId and its arguments, separated by spaces, and a reply is a line
+ * made of a single value. In binary, a message is a frame made of its length, the ordinal of its MessageId and its
+ * arguments, and a reply is a frame made of its length and a single value.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class Connection {
+
+    /**
+     * (int): the initial capacity of the buffer in which binary messages are built, large enough for most of them.
+     */
+    private static final int INITIAL_BUFFER_CAPACITY = 1 << 12;
+
+    /**
+     * (int): the maximal length of a frame that is read, far above the one of the largest message, so that a peer cannot
+     * make the buffer of a connection grow without bound.
+     */
+    private static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    /**
+     * (Socket): the socket connecting the server and the client.
+     */
+    private final Socket socket;
+
+    /**
+     * (InputStream): the buffered stream from which the messages are read.
+     */
+    private final InputStream in;
+
+    /**
+     * (OutputStream): the buffered stream into which the messages are written.
+     */
+    private final OutputStream out;
+
+    /**
+     * (int): the maximal time, in milliseconds, a message that expects no reply may wait in the output buffer
+     * before being sent, or 0 to send every message immediately.
+     */
+    private final int maxFlushDelay;
+
+    /**
+     * (boolean): whether messages are waiting in the output buffer and a flush has been scheduled for them.
+     * Is guarded by the lock of the output stream.
+     */
+    private boolean flushPending;
+
+    /**
+     * (WireProtocol): the protocol currently used.
+     */
+    private WireProtocol protocol;
+
+    /**
+     * (StringBuilder): the text message being built.
+     */
+    private final StringBuilder text;
+
+    /**
+     * (ByteBuffer): the binary message being built or read.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * (List<String>): the arguments of the text message being read.
+     */
+    private List<String> textArguments;
+
+    /**
+     * (int): the index of the next argument of the text message being read.
+     */
+    private int nextTextArgument;
+
+    /**
+     * Package-private Connection constructor. Initializes a connection using the text protocol over the given socket,
+     * which sends every message immediately.
+     * @param socket (Socket): the socket connecting the server and the client.
+     * @throws UncheckedIOException if the streams of the socket cannot be obtained.
+     */
+    Connection(Socket socket) {
+        this(socket, 0);
+    }
+
+    /**
+     * Package-private Connection constructor. Initializes a connection using the text protocol over the given socket,
+     * which pipelines the messages that expect no reply: they are kept in the output buffer until a reply is awaited,
+     * or until they have waited for maxFlushDelay milliseconds.
+     * @param socket (Socket): the socket connecting the server and the client.
+     * @param maxFlushDelay (int): the maximal time, in milliseconds, a message may wait in the output buffer,
+     * or 0 to send every message immediately.
+     * @throws IllegalArgumentException if maxFlushDelay is strictly negative.
+     * @throws UncheckedIOException if the streams of the socket cannot be obtained.
+     */
+    Connection(Socket socket, int maxFlushDelay) {
+        Preconditions.checkArgument(maxFlushDelay >= 0);
+        this.maxFlushDelay = maxFlushDelay;
+        this.socket = socket;
+        try {
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.protocol = WireProtocol.TEXT;
+        this.text = new StringBuilder();
+        this.buffer = ByteBuffer.allocate(INITIAL_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Returns the protocol currently used.
+     * @return (WireProtocol): the protocol currently used.
+     */
+    WireProtocol protocol() {
+        return protocol;
+    }
+
+    /**
+     * Switches to the given protocol for all the following messages.
+     * @param protocol (WireProtocol): the protocol to be used from now on.
+     */
+    void setProtocol(WireProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    /**
+     * Starts building a message of the given type, to which arguments can then be added.
+     * @param id (MessageId): the type of the message.
+     */
+    void beginMessage(MessageId id) {
+        if(protocol == WireProtocol.TEXT) {
+            text.setLength(0);
+            text.append(id.name());
+        } else {
+            buffer.clear();
+            buffer.put((byte) id.ordinal());
+        }
+    }
+
+    /**
+     * Adds an argument to the message being built.
+     * @param <T> the type of the argument.
+     * @param serde (Serde<T>): the Serde used to encode the argument.
+     * @param value (T): the argument.
+     */
+    <T> void add(Serde<T> serde, T value) {
+        if(protocol == WireProtocol.TEXT) {
+            text.append(' ').append(serde.serialize(value));
+        } else {
+            addBinary(b -> serde.write(value, b));
+        }
+    }
+
+    /**
+     * Adds an argument that only exists in the binary protocol to the message being built.
+     * @param writing (Consumer<ByteBuffer>): the function writing the argument, which may be called again with a
+     * larger buffer if the current one is too small.
+     * @throws IllegalStateException if the protocol used is not the binary one.
+     */
+    void addBinary(Consumer<ByteBuffer> writing) {
+        if(protocol != WireProtocol.BINARY) {
+            throw new IllegalStateException();
+        }
+        int start = buffer.position();
+        while(true) {
+            try {
+                writing.accept(buffer);
+                return;
+            } catch(BufferOverflowException e) {
+                grow(start);
+            }
+        }
+    }
+
+    /**
+     * Sends the message that has been built. If the connection pipelines messages, the message is only written
+     * into the output buffer, which is flushed before the next reply is awaited or after maxFlushDelay milliseconds.
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    void send() {
+        try {
+            synchronized(out) {
+                if(protocol == WireProtocol.TEXT) {
+                    text.append('\n');
+                    out.write(text.toString().getBytes(US_ASCII));
+                } else {
+                    writeFrame();
+                }
+                if(maxFlushDelay == 0) {
+                    out.flush();
+                } else if(!flushPending) {
+                    flushPending = true;
+                    Flusher.SCHEDULER.schedule(() -> Flusher.FLUSHES.execute(this::scheduledFlush),
+                            maxFlushDelay, TimeUnit.MILLISECONDS);
+                }
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends all the messages waiting in the output buffer immediately.
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    void flush() {
+        try {
+            synchronized(out) {
+                flushPending = false;
+                out.flush();
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends a reply made of the given value.
+     * @param <T> the type of the reply.
+     * @param serde (Serde<T>): the Serde used to encode the reply.
+     * @param value (T): the reply.
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    <T> void reply(Serde<T> serde, T value) {
+        if(protocol == WireProtocol.TEXT) {
+            text.setLength(0);
+        } else {
+            buffer.clear();
+        }
+        add(serde, value);
+        try {
+            synchronized(out) {
+                if(protocol == WireProtocol.TEXT) {
+                    // The separator added in front of the value is not part of a reply.
+                    text.deleteCharAt(0).append('\n');
+                    out.write(text.toString().getBytes(US_ASCII));
+                } else {
+                    writeFrame();
+                }
+                flushPending = false;
+                out.flush();
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends all the messages waiting in the output buffer, then waits for a reply and returns its value.
+     * @param <T> the type of the reply.
+     * @param serde (Serde<T>): the Serde used to decode the reply.
+     * @return (T): the value of the reply.
+     * @throws UncheckedIOException if an I/O error occurs or if the connection has been closed.
+     */
+    <T> T receive(Serde<T> serde) {
+        flush();
+        try {
+            if(protocol == WireProtocol.TEXT) {
+                String line = readLine();
+                if(line == null) {
+                    throw new EOFException();
+                }
+                return serde.deserialize(line);
+            } else {
+                if(!readFrame()) {
+                    throw new EOFException();
+                }
+                return serde.read(buffer);
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Determines whether the peer, which is not expected to send anything at the moment, is still connected, by waiting
+     * for data during at most the given time. The data received, if any, is kept for the following reads.
+     * @param timeout (int): the time, in milliseconds, waited for data.
+     * @return (boolean): true if no data arrived in time or if some did, false if the peer has closed the connection or
+     * if it cannot be read anymore.
+     */
+    boolean isOpen(int timeout) {
+        try {
+            socket.setSoTimeout(timeout);
+            try {
+                in.mark(1);
+                if(in.read() < 0) {
+                    return false;
+                }
+                in.reset();
+                return true;
+            } finally {
+                socket.setSoTimeout(0);
+            }
+        } catch(SocketTimeoutException e) {
+            return true;
+        } catch(IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits for a message and returns its type. Its arguments can then be read, in order, using argument.
+     * @return (MessageId): the type of the message, or null if the connection has been closed.
+     * @throws UncheckedIOException if an I/O error occurs, or if the binary frame received does not start with the
+     * id of a message.
+     */
+    MessageId receiveMessage() {
+        try {
+            if(protocol == WireProtocol.TEXT) {
+                String line = readLine();
+                if(line == null) {
+                    return null;
+                }
+                textArguments = Arrays.asList(line.split(Pattern.quote(" "), -1));
+                nextTextArgument = 1;
+                return MessageId.valueOf(textArguments.get(0));
+            } else {
+                if(!readFrame()) {
+                    return null;
+                }
+                int id = buffer.hasRemaining() ? Byte.toUnsignedInt(buffer.get()) : -1;
+                if(id < 0 || id >= MessageId.ALL.size()) {
+                    throw new IOException("Unknown message id: " + id);
+                }
+                return MessageId.ALL.get(id);
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the next argument of the message that has been received.
+     * @param <T> the type of the argument.
+     * @param serde (Serde<T>): the Serde used to decode the argument.
+     * @return (T): the next argument of the message.
+     */
+    <T> T argument(Serde<T> serde) {
+        return protocol == WireProtocol.TEXT
+                ? serde.deserialize(textArguments.get(nextTextArgument++))
+                : serde.read(buffer);
+    }
+
+    /**
+     * Reads the next argument of the message that has been received, which only exists in the binary protocol.
+     * @param reading (Consumer<ByteBuffer>): the function reading the argument.
+     * @throws IllegalStateException if the protocol used is not the binary one.
+     */
+    void readBinary(Consumer<ByteBuffer> reading) {
+        if(protocol != WireProtocol.BINARY) {
+            throw new IllegalStateException();
+        }
+        reading.accept(buffer);
+    }
+
+    /**
+     * Flushes the output buffer once the messages written into it have waited for maxFlushDelay milliseconds,
+     * unless it has been flushed in the meantime. Errors are ignored: they will be reported by the next message.
+     * Is run on a thread of its own, as it blocks for as long as the peer does not read.
+     */
+    private void scheduledFlush() {
+        try {
+            synchronized(out) {
+                if(flushPending) {
+                    flushPending = false;
+                    out.flush();
+                }
+            }
+        } catch(IOException e) {
+            // The connection is broken, which the next message sent or received will report.
+        }
+    }
+
+    /**
+     * Replaces the buffer by one twice as large, keeping the content written before the given position.
+     * @param position (int): the position up to which the content of the buffer is kept.
+     */
+    private void grow(int position) {
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+        larger.put(buffer.array(), 0, position);
+        buffer = larger;
+    }
+
+    /**
+     * Writes the content of the buffer as a frame, without flushing it.
+     * @throws IOException if an I/O error occurs.
+     */
+    private void writeFrame() throws IOException {
+        int length = buffer.position();
+        while((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    /**
+     * Reads a frame into the buffer, and prepares the buffer to be read from.
+     * @return (boolean): true if a frame has been read, false if the connection has been closed.
+     * @throws IOException if an I/O error occurs, if the connection is closed in the middle of a frame or if the length
+     * of the frame is malformed or larger than MAX_FRAME_LENGTH.
+     */
+    private boolean readFrame() throws IOException {
+        int length = 0;
+        for(int shift = 0; ; shift += 7) {
+            if(shift > ByteBuffers.MAX_SHIFT) {
+                throw new IOException("Malformed frame length");
+            }
+            int b = in.read();
+            if(b < 0) {
+                if(shift == 0) {
+                    return false;
+                }
+                throw new EOFException();
+            }
+            length |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if(length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Frame too large: " + Integer.toUnsignedString(length));
+        }
+        if(buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        int read = 0;
+        while(read < length) {
+            int n = in.read(buffer.array(), read, length - read);
+            if(n < 0) {
+                throw new EOFException();
+            }
+            read += n;
+        }
+        buffer.limit(length);
+        return true;
+    }
+
+    /**
+     * Reads a line of ASCII text, without its terminating line feed.
+     * @return (String): the line read, or null if the connection has been closed before any character was read.
+     * @throws IOException if an I/O error occurs.
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while((c = in.read()) >= 0) {
+            if(c == '\n') {
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    /**
+     * Holder of the threads flushing the output buffers of all the pipelining connections, which are only started
+     * once a connection needs them. A single thread waits for the delays of all the connections, and hands each flush
+     * to a pool of threads, so that a peer which stops reading only blocks the thread flushing its own connection, at
+     * most one flush being pending per connection.
+     */
+    private static final class Flusher {
+
+        /**
+         * (ScheduledExecutorService): the thread waiting for the delays of the connections, which never blocks.
+         */
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tchu-flush-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        /**
+         * (ExecutorService): the threads flushing the output buffers, which may block on the connection they flush.
+         */
+        private static final ExecutorService FLUSHES = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "tchu-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
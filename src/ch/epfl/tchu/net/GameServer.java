@@ -0,0 +1,443 @@
+package ch.epfl.tchu.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameConfig;
+import ch.epfl.tchu.game.GameLog;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+
+/**
+ * Headless server hosting many games of tCHu at the same time. Accepts the connections of remote clients,
+ * seats them in a lobby until there are enough of them to fill a table of the configured number of players,
+ * and then plays the game of that table on a bounded pool of threads. Tables that cannot be played immediately
+ * wait for a running one to end.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public final class GameServer implements Closeable {
+
+    /**
+     * (Logger): the logger to which the games abandoned because of an error are reported.
+     */
+    private static final Logger LOGGER = Logger.getLogger(GameServer.class.getName());
+
+    /**
+     * (int): the time, in milliseconds, a newly connected client has to send its name before being disconnected.
+     * Is short, as every client waiting for it occupies a handshake thread.
+     */
+    private static final int HANDSHAKE_TIMEOUT = 5_000;
+
+    /**
+     * (int): the maximal number of newly connected clients whose names are awaited at the same time. Further clients are
+     * disconnected immediately, so that connections which never send their name cannot exhaust the threads.
+     */
+    static final int MAX_HANDSHAKES = 64;
+
+    /**
+     * (int): the time, in milliseconds, waited for data from a client of the lobby to check that it is still connected.
+     * Connected clients send nothing while they wait, and disconnected ones are detected as soon as they are read.
+     */
+    private static final int LIVENESS_TIMEOUT = 1;
+
+    /**
+     * (int): the maximal time, in milliseconds, a message that expects no reply waits before being sent to a client.
+     * Lets the many infos and states of a turn be sent together, while keeping the clients that are not playing
+     * up to date.
+     */
+    private static final int MAX_FLUSH_DELAY = 20;
+
+    /**
+     * (ServerSocket): the socket on which the connections of the clients are accepted.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * (GameConfig): the configuration of every game played on this server.
+     */
+    private final GameConfig config;
+
+    /**
+     * (Random): the random generator from which the random generator of each table is seeded.
+     */
+    private final Random rng;
+
+    /**
+     * (Path): the directory into which the log of every game is written, or null if the games are not logged.
+     */
+    private final Path logDirectory;
+
+    /**
+     * (WireProtocol): the protocol offered to the clients.
+     */
+    private final WireProtocol protocol;
+
+    /**
+     * (ExecutorService): the threads waiting for the names of newly connected clients, one per client, so that clients
+     * slow to answer do not prevent the others from being seated. Has at most MAX_HANDSHAKES threads and no queue.
+     */
+    private final ExecutorService handshakes;
+
+    /**
+     * (ExecutorService): the bounded pool of threads on which the games are played.
+     */
+    private final ExecutorService tables;
+
+    /**
+     * (List<Seat>): the clients waiting for their table to be full. Is guarded by the lock of the lobby itself.
+     */
+    private final List<Seat> lobby;
+
+    /**
+     * (AtomicInteger): the number of games being played.
+     */
+    private final AtomicInteger activeTableCount;
+
+    /**
+     * (AtomicInteger): the number of games that have ended, normally or not.
+     */
+    private final AtomicInteger finishedTableCount;
+
+    /**
+     * Public GameServer constructor. Binds the server to the given port, without accepting any connection yet. The binary
+     * protocol is offered to the clients.
+     * @param port (int): the port on which the connections are accepted, 0 for any free port.
+     * @param config (GameConfig): the configuration of every game played on this server.
+     * @param maxTables (int): the maximal number of games played at the same time.
+     * @param rng (Random): the random generator from which the random generator of each table is seeded.
+     * @throws IllegalArgumentException if maxTables is not strictly positive.
+     * @throws UncheckedIOException if the server cannot be bound to the given port.
+     */
+    public GameServer(int port, GameConfig config, int maxTables, Random rng) {
+        this(port, config, maxTables, rng, null);
+    }
+
+    /**
+     * Public GameServer constructor. Binds the server to the given port, without accepting any connection yet. The log of
+     * every game played is written into its own file of the given directory, named after the seed of the game (see
+     * GameLog).
+     * @param port (int): the port on which the connections are accepted, 0 for any free port.
+     * @param config (GameConfig): the configuration of every game played on this server.
+     * @param maxTables (int): the maximal number of games played at the same time.
+     * @param rng (Random): the random generator from which the random generator of each table is seeded.
+     * @param logDirectory (Path): the directory into which the logs of the games are written, or null if the games are
+     * not logged.
+     * @throws IllegalArgumentException if maxTables is not strictly positive.
+     * @throws UncheckedIOException if the server cannot be bound to the given port.
+     */
+    public GameServer(int port, GameConfig config, int maxTables, Random rng, Path logDirectory) {
+        this(port, config, maxTables, rng, logDirectory, WireProtocol.BINARY);
+    }
+
+    /**
+     * Public GameServer constructor. Binds the server to the given port, without accepting any connection yet. The log of
+     * every game played is written like with the previous constructor, and the given protocol is offered to every client.
+     * Clients may always fall back to the text protocol, but clients that do not know about the negotiation of the
+     * protocol only work if the protocol offered is the text one, which must then be given explicitly.
+     * @param port (int): the port on which the connections are accepted, 0 for any free port.
+     * @param config (GameConfig): the configuration of every game played on this server.
+     * @param maxTables (int): the maximal number of games played at the same time.
+     * @param rng (Random): the random generator from which the random generator of each table is seeded.
+     * @param logDirectory (Path): the directory into which the logs of the games are written, or null if the games are
+     * not logged.
+     * @param protocol (WireProtocol): the protocol offered to the clients.
+     * @throws IllegalArgumentException if maxTables is not strictly positive.
+     * @throws UncheckedIOException if the server cannot be bound to the given port.
+     */
+    public GameServer(int port, GameConfig config, int maxTables, Random rng, Path logDirectory, WireProtocol protocol) {
+        Preconditions.checkArgument(maxTables > 0);
+        try {
+            this.serverSocket = new ServerSocket(port);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.config = config;
+        this.rng = rng;
+        this.logDirectory = logDirectory;
+        this.protocol = protocol;
+        this.handshakes = new ThreadPoolExecutor(0, MAX_HANDSHAKES, 60, TimeUnit.SECONDS, new SynchronousQueue<>());
+        this.tables = Executors.newFixedThreadPool(maxTables);
+        this.lobby = new ArrayList<>();
+        this.activeTableCount = new AtomicInteger();
+        this.finishedTableCount = new AtomicInteger();
+    }
+
+    /**
+     * Starts accepting the connections of the clients, on a thread of its own.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::acceptConnections, "tchu-acceptor-" + port());
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port on which the connections are accepted.
+     * @return (int): the port on which the connections are accepted.
+     */
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of games being played.
+     * @return (int): the number of games being played.
+     */
+    public int activeTableCount() {
+        return activeTableCount.get();
+    }
+
+    /**
+     * Returns the number of clients waiting in the lobby for their table to be full, not counting the ones briefly taken
+     * out of it to check that they are still connected.
+     * @return (int): the number of clients waiting in the lobby.
+     */
+    public int waitingClientCount() {
+        synchronized(lobby) {
+            return lobby.size();
+        }
+    }
+
+    /**
+     * Returns the number of games that have ended, normally or because a client disconnected.
+     * @return (int): the number of games that have ended.
+     */
+    public int finishedTableCount() {
+        return finishedTableCount.get();
+    }
+
+    /**
+     * Stops accepting connections, disconnects the clients waiting in the lobby and waits for the games being
+     * played to end.
+     */
+    @Override
+    public void close() {
+        closeQuietly(serverSocket);
+        handshakes.shutdownNow();
+        tables.shutdown();
+        synchronized(lobby) {
+            lobby.forEach(seat -> closeQuietly(seat.socket));
+            lobby.clear();
+        }
+        try {
+            tables.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Accepts the connections of the clients until the server is closed, and hands each of them to a handshake thread.
+     */
+    private void acceptConnections() {
+        while(!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                try {
+                    handshakes.execute(() -> seat(socket));
+                } catch(RejectedExecutionException e) {
+                    // Too many clients are being seated already, or the server has been closed.
+                    closeQuietly(socket);
+                }
+            } catch(IOException e) {
+                // The server socket has been closed, or the connection has been reset before being accepted.
+            }
+        }
+    }
+
+    /**
+     * Asks the name of a newly connected client and seats it in the lobby, from which the clients that have disconnected
+     * while waiting are removed first. Starts the game of the lobby once it is full. The client is disconnected if it does
+     * not answer in time.
+     * @param socket (Socket): the socket of the newly connected client.
+     */
+    private void seat(Socket socket) {
+        Seat newSeat;
+        try {
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT);
+            RemotePlayerProxy proxy = new RemotePlayerProxy(socket, protocol, MAX_FLUSH_DELAY);
+            String name = proxy.setPlayerName();
+            socket.setSoTimeout(0);
+            newSeat = new Seat(socket, proxy, name);
+        } catch(IOException | RuntimeException e) {
+            closeQuietly(socket);
+            return;
+        }
+
+        // The waiting clients are taken out of the lobby to be checked without holding its lock, as this reads from
+        // their sockets; in the meantime, no table can be formed with them.
+        List<Seat> waiting;
+        synchronized(lobby) {
+            waiting = new ArrayList<>(lobby);
+            lobby.clear();
+        }
+        List<Seat> seated = new ArrayList<>();
+        for(Seat seat : waiting) {
+            if(seat.proxy.isConnected(LIVENESS_TIMEOUT)) {
+                seated.add(seat);
+            } else {
+                closeQuietly(seat.socket);
+            }
+        }
+        seated.add(newSeat);
+
+        List<Seat> table = null;
+        synchronized(lobby) {
+            if(serverSocket.isClosed()) {
+                seated.forEach(seat -> closeQuietly(seat.socket));
+                return;
+            }
+            lobby.addAll(seated);
+            // Other clients may have been seated in the meantime, but the lobby never holds a full table on its own.
+            if(lobby.size() >= config.playerCount()) {
+                List<Seat> full = lobby.subList(0, config.playerCount());
+                table = new ArrayList<>(full);
+                full.clear();
+            }
+        }
+
+        if(table != null) {
+            List<Seat> seats = table;
+            long seed;
+            synchronized(rng) {
+                seed = rng.nextLong();
+            }
+            try {
+                tables.execute(() -> play(seats, seed));
+            } catch(RejectedExecutionException e) {
+                // The server has been closed while the table was being filled.
+                seats.forEach(seat -> closeQuietly(seat.socket));
+            }
+        }
+    }
+
+    /**
+     * Plays the game of a full table, and disconnects its clients once it has ended.
+     * @param seats (List<Seat>): the clients seated at the table, in playing order.
+     * @param seed (long): the seed of the random generator of the table.
+     */
+    private void play(List<Seat> seats, long seed) {
+        activeTableCount.incrementAndGet();
+        try {
+            Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+            Map<PlayerId, String> playerNames = new EnumMap<>(PlayerId.class);
+            for(PlayerId id : config.playerIds()) {
+                Seat seat = seats.get(id.ordinal());
+                players.put(id, seat.proxy);
+                playerNames.put(id, seat.name.isEmpty() ? id.name() : seat.name);
+            }
+            if(logDirectory == null) {
+                Game.play(players, playerNames, SortedBag.of(config.tickets()), new Random(seed), config);
+            } else {
+                Path logFile = logDirectory.resolve(String.format("%016x.tchulog", seed));
+                try(FileChannel log = FileChannel.open(logFile, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.APPEND)) {
+                    GameLog.play(players, playerNames, seed, config, log);
+                }
+            }
+        } catch(IOException e) {
+            // The log cannot be opened: the game is abandoned rather than played without a record.
+            LOGGER.log(Level.WARNING, String.format("Table %016x abandoned: its log cannot be written", seed), e);
+        } catch(RuntimeException e) {
+            // A client disconnected or misbehaved: the game is abandoned.
+            LOGGER.log(Level.WARNING, String.format("Table %016x abandoned", seed), e);
+        } finally {
+            for(Seat seat : seats) {
+                try {
+                    seat.proxy.flush();
+                } catch(UncheckedIOException e) {
+                    // The client has already disconnected.
+                }
+                closeQuietly(seat.socket);
+            }
+            activeTableCount.decrementAndGet();
+            finishedTableCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Closes the given resource, ignoring any error.
+     * @param closeable (Closeable): the resource to be closed.
+     */
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch(IOException e) {
+            // Nothing more can be done with a resource that cannot be closed.
+        }
+    }
+
+    /**
+     * Starts a server hosting 2 player games and a server hosting 3 player games, which run until the process ends.
+     * @param args (String[]): the port of the 2 player server, the port of the 3 player server, the maximal
+     * number of games played at the same time by each of them, respectively 5108, 5109 and 64 by default, the
+     * directory into which the logs of the games are written, the games not being logged by default or if it is empty,
+     * and the protocol offered to the clients, BINARY by default, TEXT being only needed by clients which do not
+     * negotiate the protocol.
+     */
+    public static void main(String[] args) {
+        int twoPlayerPort = args.length > 0 ? Integer.parseInt(args[0]) : 5108;
+        int threePlayerPort = args.length > 1 ? Integer.parseInt(args[1]) : 5109;
+        int maxTables = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        Path logDirectory = args.length > 3 && !args[3].isEmpty() ? Path.of(args[3]) : null;
+        WireProtocol protocol = args.length > 4 ? WireProtocol.valueOf(args[4]) : WireProtocol.BINARY;
+        new GameServer(twoPlayerPort, GameConfig.TWO_PLAYERS, maxTables, new Random(), logDirectory, protocol).start();
+        new GameServer(threePlayerPort, GameConfig.THREE_PLAYERS, maxTables, new Random(), logDirectory, protocol).start();
+    }
+
+    /**
+     * Class representing a client seated in the lobby or at a table.
+     */
+    private static final class Seat {
+
+        /**
+         * (Socket): the socket of the client.
+         */
+        private final Socket socket;
+
+        /**
+         * (RemotePlayerProxy): the proxy through which the game communicates with the client.
+         */
+        private final RemotePlayerProxy proxy;
+
+        /**
+         * (String): the name chosen by the client.
+         */
+        private final String name;
+
+        /**
+         * Private Seat constructor.
+         * @param socket (Socket): the socket of the client.
+         * @param proxy (RemotePlayerProxy): the proxy through which the game communicates with the client.
+         * @param name (String): the name chosen by the client.
+         */
+        private Seat(Socket socket, RemotePlayerProxy proxy, String name) {
+            this.socket = socket;
+            this.proxy = proxy;
+            this.name = name;
+        }
+    }
+}
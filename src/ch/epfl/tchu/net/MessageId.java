@@ -9,7 +9,8 @@ import java.util.List;
  */
 public enum MessageId {
     INIT_PLAYERS, RECEIVE_INFO, UPDATE_STATE, SET_INITIAL_TICKETS, CHOOSE_INITIAL_TICKETS,
-    NEXT_TURN, CHOOSE_TICKETS, DRAW_SLOT, ROUTE, CARDS, CHOOSE_ADDITIONAL_CARDS, SET_PLAYER_NUM, SET_PLAYER_NAME;
+    NEXT_TURN, CHOOSE_TICKETS, DRAW_SLOT, ROUTE, CARDS, CHOOSE_ADDITIONAL_CARDS, SET_PLAYER_NUM, SET_PLAYER_NAME, PROTOCOL,
+    UPDATE_STATE_DELTA, RECEIVE_EVENT;
 
     /**
      * (List<MessageId>): list of all the different types of MessageId.
@@ -1,23 +1,14 @@
 package ch.epfl.tchu.net;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
 import java.net.Socket;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
-import static java.nio.charset.StandardCharsets.US_ASCII;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
-import ch.epfl.tchu.game.ChMap;
-import ch.epfl.tchu.game.Constants;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.Player.TurnKind;
 import ch.epfl.tchu.game.PlayerId;
@@ -50,117 +41,137 @@ public final class RemotePlayerClient {
     
     private String playerName;
 
+    /**
+     * (WireProtocol): the most efficient protocol the client accepts to use.
+     */
+    private final WireProtocol maxProtocol;
+
     /**
      * Default RemotePlayerClient constructor. Initializes an instance by using a player, a
-     * socket name and a port provided as a parameter.
+     * socket name and a port provided as a parameter. The client accepts to use any protocol offered by the proxy.
      * @param player (Player): the player to which it must provide remote access.
      * @param name (String): the name of the socket used for communication between itself and the proxy.
      * @param port (int): the port to be used.
      */
     public RemotePlayerClient(Player player, String name, int port, String playerName) {
+        this(player, name, port, playerName, WireProtocol.BINARY);
+    }
+
+    /**
+     * RemotePlayerClient constructor. Initializes an instance by using a player, a socket name, a port and
+     * the most efficient protocol the client accepts to use.
+     * @param player (Player): the player to which it must provide remote access.
+     * @param name (String): the name of the socket used for communication between itself and the proxy.
+     * @param port (int): the port to be used.
+     * @param maxProtocol (WireProtocol): the most efficient protocol the client accepts to use.
+     */
+    public RemotePlayerClient(Player player, String name, int port, String playerName, WireProtocol maxProtocol) {
         this.player = player;
         this.name = name;
         this.port = port;
         this.playerName = playerName;
+        this.maxProtocol = maxProtocol;
     }
 
     /**
      * Method that sets up a socket and lets it communicate with the proxy.
      */
     public void run() {
-        try {
-            Socket s = new Socket(name, port);
-            
-            BufferedReader r =
-                    new BufferedReader(
-                            new InputStreamReader(s.getInputStream(), US_ASCII));
-            
-            BufferedWriter w =
-                    new BufferedWriter(
-                            new OutputStreamWriter(s.getOutputStream(), US_ASCII) );
-            while(true) {
-                String readLine = r.readLine();
-                if(readLine == null) {
+        try (Socket s = new Socket(name, port)) {
+            Connection c = new Connection(s);
+            StateDelta stateDelta = new StateDelta();
+            Map<PlayerId, String> namesMap = new HashMap<>();
+            MessageId id;
+            while((id = c.receiveMessage()) != null) {
+                switch(id) {
+
+                case PROTOCOL:
+                    WireProtocol offered = c.argument(Serdes.wireProtocolSerde);
+                    WireProtocol chosen = offered.compareTo(maxProtocol) <= 0 ? offered : maxProtocol;
+                    c.reply(Serdes.wireProtocolSerde, chosen);
+                    c.setProtocol(chosen);
                     break;
-                }
-                List<String> messageList = Arrays.asList(readLine.split(Pattern.quote(" "), -1));
-                switch(MessageId.valueOf(messageList.get(0))) {
-                
+
                 case SET_PLAYER_NAME: 
                     player.setPlayerName();
-                    writeAndFlush(w, Serdes.stringSerde.serialize(playerName) + "\n");
+                    c.reply(Serdes.stringSerde, playerName);
                     break;
                     
                 case SET_PLAYER_NUM: 
-                    
-                    player.setPlayerNumber(Serdes.intSerde.deserialize(messageList.get(1)));
-                    Constants.THREE_PLAYER = Serdes.intSerde.deserialize(messageList.get(1)) == 1 ? true : false;
-                    PlayerId.ALL = Constants.THREE_PLAYER ? List.of(PlayerId.values()) : List.of(PlayerId.PLAYER_1, PlayerId.PLAYER_2);
-                    PlayerId.COUNT = PlayerId.ALL.size();
-                    Serdes.ticketSerde = Serde.oneOf(Constants.THREE_PLAYER ? ChMap.THREE_PLAYER_TICKETS : ChMap.TWO_PLAYER_TICKETS);
-                    Serdes.ticketBagSerde = Serde.bagOf(Serdes.ticketSerde, ',');
+                    player.setPlayerNumber(c.argument(Serdes.intSerde));
                     break;
                     
                 case INIT_PLAYERS:
-                    List<String> namesList = Serdes.stringListSerde.deserialize(messageList.get(2));
-                    Map<PlayerId, String> namesMap = new HashMap<>();
+                    PlayerId ownId = c.argument(Serdes.playerIdSerde);
+                    List<String> namesList = c.argument(Serdes.stringListSerde);
+                    namesMap.clear();
                     for(int i = 0; i < namesList.size(); i++) {
                         namesMap.put(PlayerId.ALL.get(i), namesList.get(i));
                     }
-                    player.initPlayers(Serdes.playerIdSerde.deserialize(messageList.get(1)), namesMap);
+                    player.initPlayers(ownId, namesMap);
                     break;
 
                 case RECEIVE_INFO:
-                    String info = Serdes.stringSerde.deserialize(messageList.get(1));
+                    String info = c.argument(Serdes.stringSerde);
                     player.receiveInfo(info);
                     break;
 
+                case RECEIVE_EVENT:
+                    player.receiveEvent(c.argument(Serdes.gameEventSerde), namesMap);
+                    break;
+
                 case UPDATE_STATE: 
-                    PublicGameState gs = Serdes.publicGameStateSerde.deserialize(messageList.get(1));
-                    PlayerState ps = Serdes.playerStateSerde.deserialize(messageList.get(2));
+                    PublicGameState gs = c.argument(Serdes.publicGameStateSerde);
+                    PlayerState ps = c.argument(Serdes.playerStateSerde);
+                    stateDelta.reset(gs, ps);
                     player.updateState(gs, ps);
                     break;
 
+                case UPDATE_STATE_DELTA:
+                    c.readBinary(stateDelta::read);
+                    player.updateState(stateDelta.gameState(), stateDelta.playerState());
+                    break;
+
                 case SET_INITIAL_TICKETS:
-                    SortedBag<Ticket> tickets = Serdes.ticketBagSerde.deserialize(messageList.get(1));
+                    SortedBag<Ticket> tickets = c.argument(Serdes.ticketBagSerde);
                     player.setInitialTicketChoice(tickets);
                     break;
 
                 case CHOOSE_INITIAL_TICKETS:
                     SortedBag<Ticket> initialTickets = player.chooseInitialTickets();
-                    writeAndFlush(w, Serdes.ticketBagSerde.serialize(initialTickets) + "\n");
+                    c.reply(Serdes.ticketBagSerde, initialTickets);
                     break;
 
                 case NEXT_TURN:
                     TurnKind nextTurn = player.nextTurn();
-                    writeAndFlush(w, Serdes.turnKindSerde.serialize(nextTurn)+ "\n");
+                    c.reply(Serdes.turnKindSerde, nextTurn);
                     break;
 
                 case CHOOSE_TICKETS:
-                    SortedBag<Ticket> options = Serdes.ticketBagSerde.deserialize(messageList.get(1));
+                    SortedBag<Ticket> options = c.argument(Serdes.ticketBagSerde);
                     SortedBag<Ticket> chosenTickets = player.chooseTickets(options);
-                    writeAndFlush(w, Serdes.ticketBagSerde.serialize(chosenTickets)+ "\n");
+                    c.reply(Serdes.ticketBagSerde, chosenTickets);
                     break;
 
                 case DRAW_SLOT: 
                     int drawSlot = player.drawSlot();
-                    writeAndFlush(w, Serdes.intSerde.serialize(drawSlot)+ "\n");
+                    c.reply(Serdes.intSerde, drawSlot);
                     break;
 
                 case ROUTE: 
                     Route claimedRoute = player.claimedRoute();
-                    writeAndFlush(w, Serdes.routeSerde.serialize(claimedRoute)+ "\n");
+                    c.reply(Serdes.routeSerde, claimedRoute);
                     break;
 
                 case CARDS: 
                     SortedBag<Card> cards = player.initialClaimCards();
-                    writeAndFlush(w, Serdes.cardBagSerde.serialize(cards)+ "\n");
+                    c.reply(Serdes.cardBagSerde, cards);
                     break;
 
                 case CHOOSE_ADDITIONAL_CARDS:    
-                    List<SortedBag<Card>>  additionalOptions = Serdes.cardListBagSerde.deserialize(messageList.get(1));
+                    List<SortedBag<Card>>  additionalOptions = c.argument(Serdes.cardListBagSerde);
                     SortedBag<Card> chosenAdditionalCards = player.chooseAdditionalCards(additionalOptions);
-                    writeAndFlush(w, Serdes.cardBagSerde.serialize(chosenAdditionalCards)+ "\n");
+                    c.reply(Serdes.cardBagSerde, chosenAdditionalCards);
                     break;
                 }
             }
@@ -169,20 +180,4 @@ public final class RemotePlayerClient {
         }
 
     }
-    
-    /**
-     * Method that writes the string provided as argument into a connection using the BufferedWriter provided
-     * as parameter. Then, the method flushes the BufferedWriter to make sure all items are sent through.
-     * @param w (BufferedWriter): the BufferedWriter used to send Strings through the Socket connection.
-     * @param toWrite (String): the String to send through the connection.
-     * @throws IOException if an I/O Error occurs.
-     */
-    private void writeAndFlush(BufferedWriter w, String toWrite) throws IOException{
-		w.write(toWrite);
-		w.flush();
-    }
 }
-
-
-
-
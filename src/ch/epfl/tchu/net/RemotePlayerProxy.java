@@ -1,22 +1,20 @@
 package ch.epfl.tchu.net;
 
-import java.io.*;
 import java.net.Socket;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import static java.nio.charset.StandardCharsets.US_ASCII;
+import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
-import ch.epfl.tchu.game.ChMap;
-import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
 import ch.epfl.tchu.game.PublicGameState;
 import ch.epfl.tchu.game.Route;
 import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.gui.Info;
 
 /**
  * Class representing the proxy of a player playing from another device. Implements the Player interface
@@ -26,48 +24,100 @@ import ch.epfl.tchu.game.Ticket;
 public final class RemotePlayerProxy implements Player{
 
     /**
-     * (Socket): the socket used to connect the client and the proxy.
+     * (Connection): the connection between the client and the proxy.
      */
-    private final Socket socket;
-    private final BufferedReader reader;
-    private final BufferedWriter writer;
+    private final Connection connection;
 
+    /**
+     * (StateDelta): the last states sent to the client, from which the following ones are sent as differences.
+     */
+    private final StateDelta stateDelta;
 
     /**
      * Default public RemotePlayerProxy constructor. Initializes an instance using the Socket provided
-     * as a parameter.
+     * as a parameter, communicating with the text protocol.
      * @param socket (Socket): the socket provided as parameter
      */
     public RemotePlayerProxy(Socket socket) {
-        this.socket = socket;
-        try {
-            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
-            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), US_ASCII));
-        } catch(IOException e) {
-            throw new UncheckedIOException(e);
+        this(socket, WireProtocol.TEXT);
+    }
+
+    /**
+     * Public RemotePlayerProxy constructor. Initializes an instance using the Socket provided as a parameter,
+     * and offers the given protocol to the client. The protocol chosen by the client, which cannot be more
+     * efficient than the one offered, is used for all the following messages. No offer is made for the text
+     * protocol, so that clients that do not know about the binary one can still connect.
+     * @param socket (Socket): the socket provided as parameter
+     * @param preferred (WireProtocol): the protocol offered to the client.
+     * @throws java.io.UncheckedIOException if an I/O error occurs during the negotiation.
+     */
+    public RemotePlayerProxy(Socket socket, WireProtocol preferred) {
+        this(socket, preferred, 0);
+    }
+
+    /**
+     * Public RemotePlayerProxy constructor. Initializes an instance like RemotePlayerProxy(socket, preferred), which
+     * pipelines the messages that expect no reply, such as RECEIVE_INFO and UPDATE_STATE: instead of being sent one
+     * by one, they are sent together right before the next message that expects a reply, or once the first of them
+     * has waited for maxFlushDelay milliseconds.
+     * @param socket (Socket): the socket provided as parameter
+     * @param preferred (WireProtocol): the protocol offered to the client.
+     * @param maxFlushDelay (int): the maximal time, in milliseconds, a message may wait before being sent,
+     * or 0 to send every message immediately.
+     * @throws IllegalArgumentException if maxFlushDelay is strictly negative.
+     * @throws java.io.UncheckedIOException if an I/O error occurs during the negotiation.
+     */
+    public RemotePlayerProxy(Socket socket, WireProtocol preferred, int maxFlushDelay) {
+        this.connection = new Connection(socket, maxFlushDelay);
+        this.stateDelta = new StateDelta();
+        if(preferred != WireProtocol.TEXT) {
+            connection.beginMessage(MessageId.PROTOCOL);
+            connection.add(Serdes.wireProtocolSerde, preferred);
+            connection.send();
+            connection.setProtocol(connection.receive(Serdes.wireProtocolSerde));
         }
+    }
+
+    /**
+     * Returns the protocol used to communicate with the client.
+     * @return (WireProtocol): the protocol used to communicate with the client.
+     */
+    public WireProtocol protocol() {
+        return connection.protocol();
+    }
+
+    /**
+     * Determines whether the client, which must not be expected to send anything at the moment, for example because it
+     * waits for its game to start, is still connected. Nothing that the client sent is lost.
+     * @param timeout (int): the time, in milliseconds, waited for data from the client, strictly positive.
+     * @return (boolean): true if the client is still connected, false if it has disconnected.
+     * @throws IllegalArgumentException if timeout is not strictly positive.
+     */
+    public boolean isConnected(int timeout) {
+        Preconditions.checkArgument(timeout > 0);
+        return connection.isOpen(timeout);
+    }
 
+    /**
+     * Sends all the messages waiting to be sent immediately, for example before the connection is closed.
+     * @throws java.io.UncheckedIOException if an I/O error occurs.
+     */
+    public void flush() {
+        connection.flush();
     }
-    
+
     @Override
     public String setPlayerName() {
-        String toBeSent = MessageId.SET_PLAYER_NAME.name();
-        this.sendThroughSocket(writer, toBeSent);
-        String toBeReceived = Serdes.stringSerde.deserialize(this.receiveThroughSocket(reader));
-        return toBeReceived;
+        connection.beginMessage(MessageId.SET_PLAYER_NAME);
+        connection.send();
+        return connection.receive(Serdes.stringSerde);
     }
-    
+
     @Override
     public void setPlayerNumber(int playerNum) {
-        // TODO Auto-generated method stub
-        Constants.THREE_PLAYER = playerNum == 1 ? true : false;
-        PlayerId.ALL = Constants.THREE_PLAYER ? List.of(PlayerId.values()) : List.of(PlayerId.PLAYER_1, PlayerId.PLAYER_2);
-        PlayerId.COUNT = PlayerId.ALL.size();
-        Serdes.ticketSerde = Serde.oneOf(Constants.THREE_PLAYER ? ChMap.THREE_PLAYER_TICKETS : ChMap.TWO_PLAYER_TICKETS);
-        Serdes.ticketBagSerde = Serde.bagOf(Serdes.ticketSerde, ',');
-        String toBeSent = MessageId.SET_PLAYER_NUM.name() + " " + Serdes.intSerde.serialize(playerNum);
-        
-        this.sendThroughSocket(writer, toBeSent);
+        connection.beginMessage(MessageId.SET_PLAYER_NUM);
+        connection.add(Serdes.intSerde, playerNum);
+        connection.send();
     }
 
     @Override
@@ -76,110 +126,104 @@ public final class RemotePlayerProxy implements Player{
         for(int i = 0; i < playerNames.size(); i++) {
             namesList.add(playerNames.get(PlayerId.ALL.get(i)));
         }
-        String toBeSent = MessageId.INIT_PLAYERS.name() + " " + Serdes.playerIdSerde.serialize(ownId)
-        + " " + Serdes.stringListSerde.serialize(namesList);
-        
-        this.sendThroughSocket(writer, toBeSent);
+        connection.beginMessage(MessageId.INIT_PLAYERS);
+        connection.add(Serdes.playerIdSerde, ownId);
+        connection.add(Serdes.stringListSerde, namesList);
+        connection.send();
     }
 
     @Override
     public void receiveInfo(String info) {
-        String toBeSent = MessageId.RECEIVE_INFO.name() + " " + Serdes.stringSerde.serialize(info);
-        this.sendThroughSocket(writer, toBeSent);
+        connection.beginMessage(MessageId.RECEIVE_INFO);
+        connection.add(Serdes.stringSerde, info);
+        connection.send();
+    }
+
+    /**
+     * Sends the event itself with the binary protocol, leaving its description to the client, and sends its
+     * description, as with receiveInfo, with the text protocol, which clients that do not know about events use.
+     */
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+        if(connection.protocol() == WireProtocol.BINARY) {
+            connection.beginMessage(MessageId.RECEIVE_EVENT);
+            connection.add(Serdes.gameEventSerde, event);
+            connection.send();
+        } else {
+            receiveInfo(Info.describe(event, playerNames));
+        }
     }
 
     @Override
     public void updateState(PublicGameState newState, PlayerState ownState) {
-        String toBeSent = MessageId.UPDATE_STATE.name() + " " + Serdes.publicGameStateSerde.serialize(newState) 
-        + " " + Serdes.playerStateSerde.serialize(ownState);
-        this.sendThroughSocket(writer, toBeSent);
+        if(connection.protocol() == WireProtocol.BINARY && stateDelta.canWrite(newState, ownState)) {
+            connection.beginMessage(MessageId.UPDATE_STATE_DELTA);
+            connection.addBinary(b -> stateDelta.write(newState, ownState, b));
+            connection.send();
+        } else {
+            connection.beginMessage(MessageId.UPDATE_STATE);
+            connection.add(Serdes.publicGameStateSerde, newState);
+            connection.add(Serdes.playerStateSerde, ownState);
+            connection.send();
+            stateDelta.reset(newState, ownState);
+        }
     }
 
     @Override
     public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
-        String toBeSent = MessageId.SET_INITIAL_TICKETS.name() + " " + Serdes.ticketBagSerde.serialize(tickets);
-        this.sendThroughSocket(writer, toBeSent);
+        connection.beginMessage(MessageId.SET_INITIAL_TICKETS);
+        connection.add(Serdes.ticketBagSerde, tickets);
+        connection.send();
     }
 
     @Override
     public SortedBag<Ticket> chooseInitialTickets() {
-        String toBeSent = MessageId.CHOOSE_INITIAL_TICKETS.name();
-        this.sendThroughSocket(writer, toBeSent);
-        return Serdes.ticketBagSerde.deserialize(this.receiveThroughSocket(reader));
+        connection.beginMessage(MessageId.CHOOSE_INITIAL_TICKETS);
+        connection.send();
+        return connection.receive(Serdes.ticketBagSerde);
     }
 
     @Override
     public TurnKind nextTurn() {
-        String toBeSent = MessageId.NEXT_TURN.name();
-        this.sendThroughSocket(writer, toBeSent);
-        return Serdes.turnKindSerde.deserialize(this.receiveThroughSocket(reader));
+        connection.beginMessage(MessageId.NEXT_TURN);
+        connection.send();
+        return connection.receive(Serdes.turnKindSerde);
     }
 
     @Override
     public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
-        String toBeSent = MessageId.CHOOSE_TICKETS.name() + " " + Serdes.ticketBagSerde.serialize(options);
-        this.sendThroughSocket(writer, toBeSent);
-        return Serdes.ticketBagSerde.deserialize(this.receiveThroughSocket(reader));
+        connection.beginMessage(MessageId.CHOOSE_TICKETS);
+        connection.add(Serdes.ticketBagSerde, options);
+        connection.send();
+        return connection.receive(Serdes.ticketBagSerde);
     }
 
     @Override
     public int drawSlot() {
-        String toBeSent = MessageId.DRAW_SLOT.name();
-        this.sendThroughSocket(writer, toBeSent);
-        return Serdes.intSerde.deserialize(this.receiveThroughSocket(reader));
+        connection.beginMessage(MessageId.DRAW_SLOT);
+        connection.send();
+        return connection.receive(Serdes.intSerde);
     }
 
     @Override
     public Route claimedRoute() {
-        String toBeSent = MessageId.ROUTE.name();
-        this.sendThroughSocket(writer, toBeSent);
-        return Serdes.routeSerde.deserialize(this.receiveThroughSocket(reader));
+        connection.beginMessage(MessageId.ROUTE);
+        connection.send();
+        return connection.receive(Serdes.routeSerde);
     }
 
     @Override
     public SortedBag<Card> initialClaimCards() {
-        String toBeSent = MessageId.CARDS.name();
-        this.sendThroughSocket(writer, toBeSent);
-        return Serdes.cardBagSerde.deserialize(this.receiveThroughSocket(reader));
+        connection.beginMessage(MessageId.CARDS);
+        connection.send();
+        return connection.receive(Serdes.cardBagSerde);
     }
 
     @Override
     public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
-        String toBeSent = MessageId.CHOOSE_ADDITIONAL_CARDS.name() + " " + Serdes.cardListBagSerde.serialize(options);
-        this.sendThroughSocket(writer, toBeSent);
-        return Serdes.cardBagSerde.deserialize(this.receiveThroughSocket(reader));
+        connection.beginMessage(MessageId.CHOOSE_ADDITIONAL_CARDS);
+        connection.add(Serdes.cardListBagSerde, options);
+        connection.send();
+        return connection.receive(Serdes.cardBagSerde);
     }
-
-    /**
-     * Returns the String that it receives from the socket connection.
-     * @return (String): the String that it received from the socket connection.
-     */
-    private String receiveThroughSocket(BufferedReader reader) {
-        try{     
-            return reader.readLine();
-        }
-        catch(IOException e) {
-            throw new UncheckedIOException(e);
-        }
-        finally {
-        }
-    }
-
-    /**
-     * Sends the given String through the socket connection to the remote player.
-     * @param toBeSent (String): the String to be sent.
-     */
-    private void sendThroughSocket(BufferedWriter writer, String toBeSent) {
-        try{
-            writer.write(toBeSent + " " + "\n");
-            writer.flush();
-        }
-        catch(IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
-
-   
-
-    
 }
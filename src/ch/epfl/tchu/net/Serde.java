@@ -1,15 +1,22 @@
 package ch.epfl.tchu.net;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
+import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 
 /**
  * Interface representing (de)serialization algorithms for communications between the players and the server.
+ * Every Serde can be used with both wire protocols: the text one, through serialize and deserialize, and the
+ * binary one, through write and read.
  * @author Shrey Mittal (312275)
  * @author David Chernis (310298)
  * @param <T> represents the type of object that will be (de)serialized.
@@ -30,6 +37,27 @@ public interface Serde<T> {
      */
     T deserialize(String serialized);
 
+    /**
+     * Writes the binary representation of the given object into the buffer, at its current position. By default,
+     * writes the text representation of the object; Serdes for which a more compact representation exists
+     * override this method along with read.
+     * @param deserialized (T): the object to be written.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     * @throws java.nio.BufferOverflowException if the buffer is too small.
+     */
+    default void write(T deserialized, ByteBuffer buffer) {
+        ByteBuffers.putString(buffer, serialize(deserialized));
+    }
+
+    /**
+     * Reads an object written by write from the buffer, at its current position.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (T): the object read.
+     */
+    default T read(ByteBuffer buffer) {
+        return deserialize(ByteBuffers.getString(buffer));
+    }
+
     /**
      * Returns the corresponding Serde based on the given serialization and deserialization functions.
      * @param <T> the Object type that will be (de)serialized with the given functions.
@@ -50,6 +78,36 @@ public interface Serde<T> {
         };
     }
 
+    /**
+     * Returns the corresponding Serde based on the given text and binary serialization and deserialization functions.
+     * @param <T> the Object type that will be (de)serialized with the given functions.
+     * @param serialization (Function<T, String>): the text serialization function.
+     * @param deserialization (Function<String, T>): the text deserialization function.
+     * @param writing (BiConsumer<T, ByteBuffer>): the binary serialization function.
+     * @param reading (Function<ByteBuffer, T>): the binary deserialization function.
+     * @return (Serde<T>): the corresponding Serde based on the given functions.
+     */
+    public static <T> Serde<T> of(Function<T, String> serialization, Function<String, T> deserialization,
+            BiConsumer<T, ByteBuffer> writing, Function<ByteBuffer, T> reading){
+        return new Serde<T>() {
+            public String serialize(T deserialized) {
+                return serialization.apply(deserialized);
+            }
+
+            public T deserialize(String serialized) {
+                return deserialization.apply(serialized);
+            }
+
+            public void write(T deserialized, ByteBuffer buffer) {
+                writing.accept(deserialized, buffer);
+            }
+
+            public T read(ByteBuffer buffer) {
+                return reading.apply(buffer);
+            }
+        };
+    }
+
     /**
      * Returns a Serde that can (de)serialize enumerable or enumerable-like values based on a list containing
      * all the possible enumerable or enumerable-like values, which is given as parameter to the method.
@@ -58,17 +116,42 @@ public interface Serde<T> {
      * values.
      * @return (Serde<T>): a Serde that can (de)serialize enumerable or enumerable-like values based on a list
      * containing all the possible enumerable or enumerable-like values, which is given as parameter to the
-     * method.
+     * method. With both encodings, it throws IllegalArgumentException when writing a value which is not in the list
+     * or when reading an index which does not designate one of its values.
      */
     public static <T> Serde<T> oneOf(List<T> allEnumValues){
+        // Index of each value, so that serializing does not need a linear search through the list.
+        // As with List.indexOf, only the first occurrence of a value counts.
+        Map<T, Integer> indices = new HashMap<>();
+        for(int i = 0; i < allEnumValues.size(); i++) {
+            indices.putIfAbsent(allEnumValues.get(i), i);
+        }
         return new Serde<T>() {
             public String serialize(T deserialized) {
-                Integer integerRepresentation = allEnumValues.indexOf(deserialized);
-                return integerRepresentation.toString();
+                return Integer.toString(indexOf(deserialized));
             }
 
             public T deserialize(String serialized) {
-                return allEnumValues.get(Integer.parseInt(serialized));
+                return valueAt(Integer.parseInt(serialized));
+            }
+
+            public void write(T deserialized, ByteBuffer buffer) {
+                ByteBuffers.putVarInt(buffer, indexOf(deserialized));
+            }
+
+            public T read(ByteBuffer buffer) {
+                return valueAt(ByteBuffers.getVarInt(buffer));
+            }
+
+            private int indexOf(T deserialized) {
+                Integer index = indices.get(deserialized);
+                Preconditions.checkArgument(index != null);
+                return index;
+            }
+
+            private T valueAt(int index) {
+                Preconditions.checkArgument(index >= 0 && index < allEnumValues.size());
+                return allEnumValues.get(index);
             }
         };
     }
@@ -113,6 +196,22 @@ public interface Serde<T> {
 
                 return newList;
             }
+
+            public void write(List<T> deserialized, ByteBuffer buffer) {
+                ByteBuffers.putVarInt(buffer, deserialized.size());
+                for(T t : deserialized) {
+                    tSerde.write(t, buffer);
+                }
+            }
+
+            public List<T> read(ByteBuffer buffer) {
+                int size = ByteBuffers.getSize(buffer);
+                List<T> newList = new ArrayList<T>(size);
+                for(int i = 0; i < size; i++) {
+                    newList.add(tSerde.read(buffer));
+                }
+                return newList;
+            }
         };
     }
 
@@ -130,14 +229,36 @@ public interface Serde<T> {
      * its serialized version.
      */
     public static <T extends Comparable<T>> Serde<SortedBag<T>> bagOf(Serde<T> tSerde, char separator){
+        Serde<List<T>> listSerde = listOf(tSerde, separator);
         return new Serde<SortedBag<T>>() {
 
             public String serialize(SortedBag<T> deserialized) {
-                return listOf(tSerde, separator).serialize(deserialized.toList());
+                return listSerde.serialize(deserialized.toList());
             }
 
             public SortedBag<T> deserialize(String serialized) {
-                return SortedBag.of(listOf(tSerde, separator).deserialize(serialized));
+                return SortedBag.of(listSerde.deserialize(serialized));
+            }
+
+            // In binary, a bag is written as the number of its distinct elements, followed by each of them
+            // along with its number of occurrences.
+            public void write(SortedBag<T> deserialized, ByteBuffer buffer) {
+                Map<T, Integer> counts = deserialized.toMap();
+                ByteBuffers.putVarInt(buffer, counts.size());
+                for(Map.Entry<T, Integer> e : counts.entrySet()) {
+                    tSerde.write(e.getKey(), buffer);
+                    ByteBuffers.putVarInt(buffer, e.getValue());
+                }
+            }
+
+            public SortedBag<T> read(ByteBuffer buffer) {
+                int distinct = ByteBuffers.getSize(buffer);
+                SortedBag.Builder<T> builder = new SortedBag.Builder<>();
+                for(int i = 0; i < distinct; i++) {
+                    T t = tSerde.read(buffer);
+                    builder.add(ByteBuffers.getVarInt(buffer), t);
+                }
+                return builder.build();
             }
         };
     }
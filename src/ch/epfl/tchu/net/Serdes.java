@@ -1,16 +1,24 @@
 package ch.epfl.tchu.net;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameConfig;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.GameEvent.Field;
+import ch.epfl.tchu.game.GameEvent.Kind;
 import ch.epfl.tchu.game.Player.TurnKind;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
@@ -18,7 +26,9 @@ import ch.epfl.tchu.game.PublicCardState;
 import ch.epfl.tchu.game.PublicGameState;
 import ch.epfl.tchu.game.PublicPlayerState;
 import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Station;
 import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trail;
 
 /**
  * A class containing all the different Serde types we may need in the game.
@@ -27,26 +37,38 @@ import ch.epfl.tchu.game.Ticket;
  */
 public final class Serdes {
 
+    /**
+     * (int): the number of bytes needed to write any set of routes as a set of bits.
+     */
+    private static final int ROUTE_SET_BYTES = (ChMap.routes().size() + Byte.SIZE - 1) / Byte.SIZE;
+
     /**
      * (Serde<Integer>): a Serde responsible for (de)serializing int fields.
      */
     public static final Serde<Integer> intSerde = Serde.of(
             (i) -> Integer.toString(i) ,
-            Integer::parseInt);
+            Integer::parseInt,
+            (i, b) -> ByteBuffers.putSignedVarInt(b, i),
+            ByteBuffers::getSignedVarInt);
 
     /**
-     * (Serde<String>): a Serde responsible for (de)serializing String fields.
+     * (Serde<String>): a Serde responsible for (de)serializing String fields. Strings are encoded in Base64
+     * in text, and written as is in binary.
      */
     public static final Serde<String> stringSerde = Serde.of(
             (i) -> Base64.getEncoder().encodeToString(i.getBytes(StandardCharsets.UTF_8)) ,
-            (i) -> new String (Base64.getDecoder().decode(i.getBytes(StandardCharsets.UTF_8)))
-            
-            );
+            (i) -> new String (Base64.getDecoder().decode(i.getBytes(StandardCharsets.UTF_8))),
+            (i, b) -> ByteBuffers.putString(b, i),
+            ByteBuffers::getString);
 
     /**
      * (Serde<PlayerId>): a Serde responsible for (de)serializing PlayerId enumerates.
      */
     public static final Serde<PlayerId> playerIdSerde = Serde.oneOf(List.of(PlayerId.values()));
+    /**
+     * (Serde<WireProtocol>): a Serde responsible for (de)serializing WireProtocol enumerates.
+     */
+    public static final Serde<WireProtocol> wireProtocolSerde = Serde.oneOf(WireProtocol.ALL);
     /**
      * (Serde<TurnKind>): a Serde responsible for (de)serializing TurnKind enumerates.
      */
@@ -60,9 +82,14 @@ public final class Serdes {
      */
     public static final Serde<Route> routeSerde = Serde.oneOf(ChMap.routes());
     /**
-     * (Serde<Ticket>): a Serde responsible for (de)serializing Ticket instances.
+     * (Serde<Station>): a Serde responsible for (de)serializing Station instances.
+     */
+    private static final Serde<Station> stationSerde = Serde.oneOf(ChMap.stations());
+    /**
+     * (Serde<Ticket>): a Serde responsible for (de)serializing Ticket instances. Covers the tickets of every
+     * game configuration, as the tickets of a 2 player game are the first ones of a 3 player game.
      */
-    public static Serde<Ticket> ticketSerde = Serde.oneOf(ChMap.tickets());
+    public static final Serde<Ticket> ticketSerde = Serde.oneOf(GameConfig.THREE_PLAYERS.tickets());
 
     /**
      * (Serde<List<String>>): a Serde responsible for (de)serializing lists of Strings.
@@ -73,9 +100,18 @@ public final class Serdes {
      */
     public static final Serde<List<Card>> cardListSerde = Serde.listOf(cardSerde, ',');
     /**
-     * (Serde<List<Route>>): a Serde responsible for (de)serializing lists of Routes.
+     * (Serde<List<Route>>): the text part of routeListSerde.
+     */
+    private static final Serde<List<Route>> routeListTextSerde = Serde.listOf(routeSerde, ',');
+    /**
+     * (Serde<List<Route>>): a Serde responsible for (de)serializing lists of Routes. In binary, the routes are
+     * written as a set of bits indexed by their position in ChMap.routes(), and are thus read back in that order.
      */
-    public static final Serde<List<Route>> routeListSerde = Serde.listOf(routeSerde, ',');
+    public static final Serde<List<Route>> routeListSerde = Serde.of(
+            routeListTextSerde::serialize,
+            routeListTextSerde::deserialize,
+            Serdes::writeRouteSet,
+            Serdes::readRouteSet);
     /**
      * (Serde<SortedBag<Card>>): a Serde responsible for (de)serializing sorted bags of Cards.
      */
@@ -83,7 +119,7 @@ public final class Serdes {
     /**
      * (Serde<SortedBag<Ticket>>): a Serde responsible for (de)serializing sorted bags of Tickets.
      */
-    public static Serde<SortedBag<Ticket>> ticketBagSerde = Serde.bagOf(ticketSerde, ',');
+    public static final Serde<SortedBag<Ticket>> ticketBagSerde = Serde.bagOf(ticketSerde, ',');
     /**
      * (Serde<List<String>>): a Serde responsible for (de)serializing lists of sorted bags of Cards.
      */
@@ -105,6 +141,22 @@ public final class Serdes {
                         cardListSerde.deserialize(tempList.get(0)), 
                         intSerde.deserialize(tempList.get(1)), 
                         intSerde.deserialize(tempList.get(2)));
+            },
+
+            (i, b) -> {
+                for(Card c : i.faceUpCards()) {
+                    cardSerde.write(c, b);
+                }
+                ByteBuffers.putVarInt(b, i.deckSize());
+                ByteBuffers.putVarInt(b, i.discardsSize());
+            },
+
+            (b) -> {
+                List<Card> faceUpCards = new ArrayList<>(Constants.FACE_UP_CARDS_COUNT);
+                for(int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++) {
+                    faceUpCards.add(cardSerde.read(b));
+                }
+                return new PublicCardState(faceUpCards, ByteBuffers.getVarInt(b), ByteBuffers.getVarInt(b));
             });
 
     /**
@@ -123,7 +175,15 @@ public final class Serdes {
                         intSerde.deserialize(tempList.get(0)), 
                         intSerde.deserialize(tempList.get(1)), 
                         routeListSerde.deserialize(tempList.get(2)));
-            });
+            },
+
+            (i, b) -> {
+                ByteBuffers.putVarInt(b, i.ticketCount());
+                ByteBuffers.putVarInt(b, i.cardCount());
+                routeListSerde.write(i.routes(), b);
+            },
+
+            (b) -> new PublicPlayerState(ByteBuffers.getVarInt(b), ByteBuffers.getVarInt(b), routeListSerde.read(b)));
 
     /**
      * (Serde<PlayerState>): a Serde responsible for (de)serializing PlayerState instances.
@@ -141,16 +201,25 @@ public final class Serdes {
                         ticketBagSerde.deserialize(tempList.get(0)), 
                         cardBagSerde.deserialize(tempList.get(1)), 
                         routeListSerde.deserialize(tempList.get(2)));
-            });
+            },
+
+            (i, b) -> {
+                ticketBagSerde.write(i.tickets(), b);
+                cardBagSerde.write(i.cards(), b);
+                routeListSerde.write(i.routes(), b);
+            },
+
+            (b) -> new PlayerState(ticketBagSerde.read(b), cardBagSerde.read(b), routeListSerde.read(b)));
 
     /**
      * (Serde<PublicGameState>): a Serde responsible for (de)serializing PublicGameState instances.
+     * The number of players of the game is deduced from the number of player states serialized.
      */
     public static final Serde<PublicGameState> publicGameStateSerde = Serde.of(
             (i) -> {
                 String playerIdString = i.lastPlayer() == null ? "" : playerIdSerde.serialize(i.lastPlayer());
                 String playerStateString = "";
-                for(PlayerId id: PlayerId.ALL) {
+                for(PlayerId id: i.playerIds()) {
                     playerStateString += ":" + publicPlayerStateSerde.serialize(i.playerState(id));
                     
                 }
@@ -165,8 +234,8 @@ public final class Serdes {
 
             (i) -> {
                 List<String> tempList = Arrays.asList(i.split(Pattern.quote(":"), -1));
-                Map<PlayerId, PublicPlayerState> playerStates = new HashMap<>();
-                for(PlayerId id: PlayerId.ALL) {
+                Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+                for(PlayerId id: PlayerId.ALL.subList(0, tempList.size() - 4)) {
                     playerStates.put(id, publicPlayerStateSerde.deserialize(tempList.get(3+id.ordinal())));
                 }
 
@@ -180,5 +249,210 @@ public final class Serdes {
                         lastPlayer
                         );
                 return temp;
-            }); 
+            },
+
+            (i, b) -> {
+                ByteBuffers.putVarInt(b, i.ticketsCount());
+                publicCardStateSerde.write(i.cardState(), b);
+                playerIdSerde.write(i.currentPlayerId(), b);
+                ByteBuffers.putVarInt(b, i.playerIds().size());
+                for(PlayerId id : i.playerIds()) {
+                    publicPlayerStateSerde.write(i.playerState(id), b);
+                }
+                // 0 if there is no last player yet, its ordinal plus one otherwise.
+                ByteBuffers.putVarInt(b, i.lastPlayer() == null ? 0 : i.lastPlayer().ordinal() + 1);
+            },
+
+            (b) -> {
+                int ticketsCount = ByteBuffers.getVarInt(b);
+                PublicCardState cardState = publicCardStateSerde.read(b);
+                PlayerId currentPlayerId = playerIdSerde.read(b);
+                int playerCount = ByteBuffers.getVarInt(b);
+                Preconditions.checkArgument(playerCount <= PlayerId.COUNT);
+                Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+                for(PlayerId id : PlayerId.ALL.subList(0, playerCount)) {
+                    playerStates.put(id, publicPlayerStateSerde.read(b));
+                }
+                int lastPlayer = ByteBuffers.getVarInt(b);
+                Preconditions.checkArgument(lastPlayer <= playerCount);
+                return new PublicGameState(ticketsCount, cardState, currentPlayerId, playerStates,
+                        lastPlayer == 0 ? null : PlayerId.ALL.get(lastPlayer - 1));
+            });
+
+    /**
+     * (Serde<GameEvent>): a Serde responsible for (de)serializing GameEvent instances. In binary, only the ordinal of
+     * the kind of the event and the fields this kind has are written, so that most events take a few bytes.
+     */
+    public static final Serde<GameEvent> gameEventSerde = Serde.of(
+            Serdes::serializeGameEvent,
+            Serdes::deserializeGameEvent,
+            Serdes::writeGameEvent,
+            Serdes::readGameEvent);
+
+    /**
+     * Serializes the given event as the ordinal of its kind followed by all its fields, separated by ";". The fields
+     * its kind does not have are empty, and its trail takes two fields: its first station and its routes, in order.
+     * @param event (GameEvent): the event to be serialized.
+     * @return (String): the serialized event.
+     */
+    private static String serializeGameEvent(GameEvent event) {
+        Trail trail = event.trail();
+        Kind kind = event.kind();
+        return String.join(";",
+                intSerde.serialize(kind.ordinal()),
+                kind.has(Field.PLAYER) ? playerIdSerde.serialize(event.playerId()) : "",
+                kind.has(Field.ROUTE) ? routeSerde.serialize(event.route()) : "",
+                kind.has(Field.CARDS) ? cardBagSerde.serialize(event.cards()) : "",
+                kind.has(Field.CARD) ? cardSerde.serialize(event.card()) : "",
+                trail != null && trail.length() > 0 ? stationSerde.serialize(trail.station1()) : "",
+                trail != null ? routeListTextSerde.serialize(trail.routes()) : "",
+                intSerde.serialize(event.count()),
+                intSerde.serialize(event.otherCount()));
+    }
+
+    /**
+     * Deserializes an event serialized by serializeGameEvent.
+     * @param serialized (String): the serialized event.
+     * @return (GameEvent): the event.
+     */
+    private static GameEvent deserializeGameEvent(String serialized) {
+        List<String> tempList = Arrays.asList(serialized.split(Pattern.quote(";"), -1));
+        Kind kind = Kind.ALL.get(intSerde.deserialize(tempList.get(0)));
+        return GameEvent.of(kind,
+                kind.has(Field.PLAYER) ? playerIdSerde.deserialize(tempList.get(1)) : null,
+                kind.has(Field.ROUTE) ? routeSerde.deserialize(tempList.get(2)) : null,
+                kind.has(Field.CARDS) ? cardBagSerde.deserialize(tempList.get(3)) : null,
+                kind.has(Field.CARD) ? cardSerde.deserialize(tempList.get(4)) : null,
+                kind.has(Field.TRAIL) ? Trail.of(
+                        tempList.get(5).isEmpty() ? null : stationSerde.deserialize(tempList.get(5)),
+                        routeListTextSerde.deserialize(tempList.get(6))) : null,
+                intSerde.deserialize(tempList.get(7)),
+                intSerde.deserialize(tempList.get(8)));
+    }
+
+    /**
+     * Writes the given event into the buffer, as the ordinal of its kind followed by the fields its kind has, in the
+     * order of Field. A trail is written as its number of routes followed, if there are any, by its first station and
+     * its routes, in order.
+     * @param event (GameEvent): the event to be written.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     */
+    private static void writeGameEvent(GameEvent event, ByteBuffer buffer) {
+        Kind kind = event.kind();
+        ByteBuffers.putVarInt(buffer, kind.ordinal());
+        if(kind.has(Field.PLAYER)) {
+            playerIdSerde.write(event.playerId(), buffer);
+        }
+        if(kind.has(Field.ROUTE)) {
+            routeSerde.write(event.route(), buffer);
+        }
+        if(kind.has(Field.CARDS)) {
+            cardBagSerde.write(event.cards(), buffer);
+        }
+        if(kind.has(Field.CARD)) {
+            cardSerde.write(event.card(), buffer);
+        }
+        if(kind.has(Field.TRAIL)) {
+            List<Route> routes = event.trail().routes();
+            ByteBuffers.putVarInt(buffer, routes.size());
+            if(!routes.isEmpty()) {
+                stationSerde.write(event.trail().station1(), buffer);
+                for(Route r : routes) {
+                    routeSerde.write(r, buffer);
+                }
+            }
+        }
+        if(kind.has(Field.COUNT)) {
+            ByteBuffers.putSignedVarInt(buffer, event.count());
+        }
+        if(kind.has(Field.OTHER_COUNT)) {
+            ByteBuffers.putSignedVarInt(buffer, event.otherCount());
+        }
+    }
+
+    /**
+     * Reads an event written by writeGameEvent from the buffer.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (GameEvent): the event read.
+     */
+    private static GameEvent readGameEvent(ByteBuffer buffer) {
+        Kind kind = Kind.ALL.get(ByteBuffers.getVarInt(buffer));
+        PlayerId playerId = kind.has(Field.PLAYER) ? playerIdSerde.read(buffer) : null;
+        Route route = kind.has(Field.ROUTE) ? routeSerde.read(buffer) : null;
+        SortedBag<Card> cards = kind.has(Field.CARDS) ? cardBagSerde.read(buffer) : null;
+        Card card = kind.has(Field.CARD) ? cardSerde.read(buffer) : null;
+        Trail trail = null;
+        if(kind.has(Field.TRAIL)) {
+            int routeCount = ByteBuffers.getSize(buffer);
+            Station station1 = routeCount == 0 ? null : stationSerde.read(buffer);
+            List<Route> routes = new ArrayList<>(routeCount);
+            for(int i = 0; i < routeCount; i++) {
+                routes.add(routeSerde.read(buffer));
+            }
+            trail = Trail.of(station1, routes);
+        }
+        int count = kind.has(Field.COUNT) ? ByteBuffers.getSignedVarInt(buffer) : 0;
+        int otherCount = kind.has(Field.OTHER_COUNT) ? ByteBuffers.getSignedVarInt(buffer) : 0;
+        return GameEvent.of(kind, playerId, route, cards, card, trail, count, otherCount);
+    }
+
+    /**
+     * Writes the given routes into the buffer, as a set identified by the positions of the routes in ChMap.routes().
+     * The number of routes is written first. Sets that have fewer routes than ROUTE_SET_BYTES, as most of them do,
+     * are then written as the gaps between their sorted positions, which take a single byte each; larger ones are
+     * written as a set of bits.
+     * @param routes (List<Route>): the routes to be written.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     */
+    private static void writeRouteSet(List<Route> routes, ByteBuffer buffer) {
+        ByteBuffers.putVarInt(buffer, routes.size());
+        if(routes.size() < ROUTE_SET_BYTES) {
+            int[] indices = new int[routes.size()];
+            for(int i = 0; i < indices.length; i++) {
+                indices[i] = ChMap.routeIndex(routes.get(i));
+            }
+            Arrays.sort(indices);
+            int previous = 0;
+            for(int index : indices) {
+                ByteBuffers.putVarInt(buffer, index - previous);
+                previous = index;
+            }
+        } else {
+            byte[] bits = new byte[ROUTE_SET_BYTES];
+            for(Route r : routes) {
+                int index = ChMap.routeIndex(r);
+                bits[index / Byte.SIZE] |= 1 << (index % Byte.SIZE);
+            }
+            buffer.put(bits);
+        }
+    }
+
+    /**
+     * Reads routes written by writeRouteSet from the buffer.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (List<Route>): the routes read, in the order of ChMap.routes().
+     * @throws IllegalArgumentException if the number of routes read is larger than the number of routes of the map.
+     */
+    private static List<Route> readRouteSet(ByteBuffer buffer) {
+        int count = ByteBuffers.getVarInt(buffer);
+        Preconditions.checkArgument(count <= ChMap.routes().size());
+        List<Route> routes = new ArrayList<>(count);
+        if(count < ROUTE_SET_BYTES) {
+            int index = 0;
+            for(int i = 0; i < count; i++) {
+                index += ByteBuffers.getVarInt(buffer);
+                routes.add(ChMap.routes().get(index));
+            }
+        } else {
+            for(int i = 0; i < ROUTE_SET_BYTES; i++) {
+                int bits = buffer.get() & 0xFF;
+                for(int bit = 0; bits != 0; bit++, bits >>>= 1) {
+                    if((bits & 1) != 0) {
+                        routes.add(ChMap.routes().get(i * Byte.SIZE + bit));
+                    }
+                }
+            }
+        }
+        return routes;
+    }
 }
@@ -0,0 +1,240 @@
+package ch.epfl.tchu.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * Class keeping track of the last state exchanged with a player, on both ends of the connection, so that the
+ * following states can be sent as their differences from it in the binary protocol.
+ * A difference only carries the face-up cards that changed and the routes and tickets that were added; the
+ * counters and the cards of the player, which take a few bytes, are always sent in full. Since the routes and
+ * tickets of a player are never taken away during a game, a state from which they were removed cannot be sent
+ * as a difference, and must be sent in full, like the first one. A full state is also sent every
+ * MAX_DELTAS differences, so that both ends start again from the same state regularly.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+final class StateDelta {
+
+    /**
+     * (int): the maximal number of differences sent in a row, before a full state must be sent again.
+     */
+    static final int MAX_DELTAS = 32;
+
+    /**
+     * (Comparator<Route>): orders routes as in ChMap.routes(), the order in which they are read in binary.
+     */
+    private static final Comparator<Route> ROUTE_ORDER = Comparator.comparingInt(ChMap::routeIndex);
+
+    /**
+     * (PublicGameState): the last public game state exchanged, or null if there is none yet.
+     */
+    private PublicGameState gameState;
+
+    /**
+     * (PlayerState): the last player state exchanged, or null if there is none yet.
+     */
+    private PlayerState playerState;
+
+    /**
+     * (int): the number of differences exchanged since the last full state.
+     */
+    private int deltaCount;
+
+    /**
+     * Returns the last public game state exchanged.
+     * @return (PublicGameState): the last public game state exchanged, or null if there is none yet.
+     */
+    PublicGameState gameState() {
+        return gameState;
+    }
+
+    /**
+     * Returns the last player state exchanged.
+     * @return (PlayerState): the last player state exchanged, or null if there is none yet.
+     */
+    PlayerState playerState() {
+        return playerState;
+    }
+
+    /**
+     * Records the given states as having been exchanged in full.
+     * @param gameState (PublicGameState): the public game state exchanged.
+     * @param playerState (PlayerState): the player state exchanged.
+     */
+    void reset(PublicGameState gameState, PlayerState playerState) {
+        this.gameState = gameState;
+        this.playerState = playerState;
+        this.deltaCount = 0;
+    }
+
+    /**
+     * Returns whether the given states can be sent as their differences from the last states exchanged.
+     * @param newGameState (PublicGameState): the public game state to be sent.
+     * @param newPlayerState (PlayerState): the player state to be sent.
+     * @return (boolean): true if the states can be sent as differences, false if they must be sent in full.
+     */
+    boolean canWrite(PublicGameState newGameState, PlayerState newPlayerState) {
+        if(gameState == null || deltaCount >= MAX_DELTAS
+                || !gameState.playerIds().equals(newGameState.playerIds())
+                || !newPlayerState.tickets().contains(playerState.tickets())
+                || !newPlayerState.routes().containsAll(playerState.routes())) {
+            return false;
+        }
+        for(PlayerId id : gameState.playerIds()) {
+            if(!newGameState.playerState(id).routes().containsAll(gameState.playerState(id).routes())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the given states into the buffer as their differences from the last states exchanged, and records
+     * them as exchanged once they have been fully written.
+     * @param newGameState (PublicGameState): the public game state to be sent.
+     * @param newPlayerState (PlayerState): the player state to be sent.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     * @throws IllegalStateException if the states cannot be sent as differences (see canWrite).
+     * @throws java.nio.BufferOverflowException if the buffer is too small, in which case nothing is recorded.
+     */
+    void write(PublicGameState newGameState, PlayerState newPlayerState, ByteBuffer buffer) {
+        if(!canWrite(newGameState, newPlayerState)) {
+            throw new IllegalStateException();
+        }
+        ByteBuffers.putVarInt(buffer, newGameState.ticketsCount());
+
+        PublicCardState cardState = newGameState.cardState();
+        ByteBuffers.putVarInt(buffer, cardState.deckSize());
+        ByteBuffers.putVarInt(buffer, cardState.discardsSize());
+        int changedSlots = 0;
+        for(int slot : Constants.FACE_UP_CARD_SLOTS) {
+            if(cardState.faceUpCard(slot) != gameState.cardState().faceUpCard(slot)) {
+                changedSlots |= 1 << slot;
+            }
+        }
+        buffer.put((byte) changedSlots);
+        for(int slot : Constants.FACE_UP_CARD_SLOTS) {
+            if((changedSlots & (1 << slot)) != 0) {
+                Serdes.cardSerde.write(cardState.faceUpCard(slot), buffer);
+            }
+        }
+
+        Serdes.playerIdSerde.write(newGameState.currentPlayerId(), buffer);
+        PlayerId lastPlayer = newGameState.lastPlayer();
+        ByteBuffers.putVarInt(buffer, lastPlayer == null ? 0 : lastPlayer.ordinal() + 1);
+        for(PlayerId id : gameState.playerIds()) {
+            PublicPlayerState state = newGameState.playerState(id);
+            ByteBuffers.putVarInt(buffer, state.ticketCount());
+            ByteBuffers.putVarInt(buffer, state.cardCount());
+            writeAddedRoutes(gameState.playerState(id).routes(), state.routes(), buffer);
+        }
+
+        Serdes.ticketBagSerde.write(newPlayerState.tickets().difference(playerState.tickets()), buffer);
+        Serdes.cardBagSerde.write(newPlayerState.cards(), buffer);
+        writeAddedRoutes(playerState.routes(), newPlayerState.routes(), buffer);
+
+        gameState = newGameState;
+        playerState = newPlayerState;
+        deltaCount++;
+    }
+
+    /**
+     * Reads differences written by write from the buffer, applies them to the last states exchanged and records
+     * the resulting states as exchanged.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @throws IllegalStateException if no full state has been exchanged yet.
+     */
+    void read(ByteBuffer buffer) {
+        if(gameState == null) {
+            throw new IllegalStateException();
+        }
+        int ticketsCount = ByteBuffers.getVarInt(buffer);
+
+        int deckSize = ByteBuffers.getVarInt(buffer);
+        int discardsSize = ByteBuffers.getVarInt(buffer);
+        int changedSlots = buffer.get();
+        List<Card> faceUpCards = new ArrayList<>(gameState.cardState().faceUpCards());
+        for(int slot : Constants.FACE_UP_CARD_SLOTS) {
+            if((changedSlots & (1 << slot)) != 0) {
+                faceUpCards.set(slot, Serdes.cardSerde.read(buffer));
+            }
+        }
+
+        PlayerId currentPlayerId = Serdes.playerIdSerde.read(buffer);
+        int lastPlayer = ByteBuffers.getVarInt(buffer);
+        Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for(PlayerId id : gameState.playerIds()) {
+            int ticketCount = ByteBuffers.getVarInt(buffer);
+            int cardCount = ByteBuffers.getVarInt(buffer);
+            List<Route> routes = readAddedRoutes(gameState.playerState(id).routes(), buffer);
+            playerStates.put(id, new PublicPlayerState(ticketCount, cardCount, routes));
+        }
+
+        SortedBag<Ticket> addedTickets = Serdes.ticketBagSerde.read(buffer);
+        SortedBag<Card> cards = Serdes.cardBagSerde.read(buffer);
+        List<Route> routes = readAddedRoutes(playerState.routes(), buffer);
+
+        gameState = new PublicGameState(ticketsCount, new PublicCardState(faceUpCards, deckSize, discardsSize),
+                currentPlayerId, playerStates, lastPlayer == 0 ? null : PlayerId.ALL.get(lastPlayer - 1));
+        playerState = new PlayerState(playerState.tickets().union(addedTickets), cards, routes);
+        deltaCount++;
+    }
+
+    /**
+     * Writes the routes of the new list that are not in the old one into the buffer.
+     * @param oldRoutes (List<Route>): the routes that were already exchanged.
+     * @param newRoutes (List<Route>): the routes to be sent, among which the old ones.
+     * @param buffer (ByteBuffer): the buffer to be written into.
+     */
+    private static void writeAddedRoutes(List<Route> oldRoutes, List<Route> newRoutes, ByteBuffer buffer) {
+        if(oldRoutes.size() == newRoutes.size()) {
+            Serdes.routeListSerde.write(List.of(), buffer);
+            return;
+        }
+        Set<Route> known = new HashSet<>(oldRoutes);
+        List<Route> added = new ArrayList<>();
+        for(Route r : newRoutes) {
+            if(!known.contains(r)) {
+                added.add(r);
+            }
+        }
+        Serdes.routeListSerde.write(added, buffer);
+    }
+
+    /**
+     * Reads routes written by writeAddedRoutes from the buffer, and adds them to the old ones.
+     * @param oldRoutes (List<Route>): the routes that were already exchanged.
+     * @param buffer (ByteBuffer): the buffer to be read from.
+     * @return (List<Route>): the old and the added routes, in the order of ChMap.routes().
+     */
+    private static List<Route> readAddedRoutes(List<Route> oldRoutes, ByteBuffer buffer) {
+        List<Route> added = Serdes.routeListSerde.read(buffer);
+        if(added.isEmpty()) {
+            return oldRoutes;
+        }
+        List<Route> routes = new ArrayList<>(oldRoutes.size() + added.size());
+        routes.addAll(oldRoutes);
+        routes.addAll(added);
+        routes.sort(ROUTE_ORDER);
+        return routes;
+    }
+}
@@ -0,0 +1,25 @@
+package ch.epfl.tchu.net;
+
+import java.util.List;
+
+/**
+ * The enumerable type WireProtocol represents the different encodings of the messages exchanged between
+ * the server and the clients.
+ * @author Shrey Mittal (312275)
+ * @author David Chernis (310298)
+ */
+public enum WireProtocol {
+    /**
+     * Messages are lines of space-separated ASCII fields (see Serde.serialize).
+     */
+    TEXT,
+    /**
+     * Messages are frames of bytes prefixed by their length (see Serde.write).
+     */
+    BINARY;
+
+    /**
+     * (List<WireProtocol>): list of all the different types of WireProtocol.
+     */
+    public static final List<WireProtocol> ALL = List.of(WireProtocol.values());
+}
@@ -0,0 +1,69 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardBagTest {
+    private static SortedBag<Card> randomBag(Random rng) {
+        var builder = new SortedBag.Builder<Card>();
+        for (var c : Card.ALL)
+            builder.add(rng.nextInt(4), c);
+        return builder.build();
+    }
+
+    @Test
+    void cardBagOfFailsWithNegativeCount() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            CardBag.of(-1, Card.RED);
+        });
+    }
+
+    @Test
+    void cardBagRoundTripsThroughSortedBag() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var bag = randomBag(rng);
+            var cardBag = CardBag.of(bag);
+            assertEquals(bag, cardBag.toSortedBag());
+            assertEquals(bag.toList(), cardBag.toList());
+            assertEquals(bag.size(), cardBag.size());
+            assertEquals(bag.isEmpty(), cardBag.isEmpty());
+            for (var c : Card.ALL) {
+                assertEquals(bag.countOf(c), cardBag.countOf(c));
+                assertEquals(bag.contains(c), cardBag.contains(c));
+            }
+        }
+    }
+
+    @Test
+    void cardBagOperationsBehaveLikeSortedBag() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var b1 = randomBag(rng);
+            var b2 = randomBag(rng);
+            var c1 = CardBag.of(b1);
+            var c2 = CardBag.of(b2);
+            assertEquals(b1.union(b2), c1.union(c2).toSortedBag());
+            assertEquals(b1.difference(b2), c1.difference(c2).toSortedBag());
+            assertEquals(b1.union(b2).size(), c1.union(c2).size());
+            assertEquals(b1.difference(b2).size(), c1.difference(c2).size());
+            assertEquals(b1.contains(b2), c1.contains(c2));
+            assertEquals(b1.contains(b2), c1.contains(b2));
+        }
+    }
+
+    @Test
+    void cardBagEqualsAndHashCodeAreStructural() {
+        var c1 = CardBag.of(SortedBag.of(2, Card.BLUE, 1, Card.LOCOMOTIVE));
+        var c2 = CardBag.of(1, Card.LOCOMOTIVE).union(CardBag.of(2, Card.BLUE));
+        assertEquals(c1, c2);
+        assertEquals(c1.hashCode(), c2.hashCode());
+        assertEquals(CardBag.of(), c1.difference(c2));
+        assertTrue(CardBag.of().isEmpty());
+    }
+}
@@ -0,0 +1,54 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+
+class CardSubsetsTest {
+    @Test
+    void cardSubsetsOfSizeFailsWithInvalidSize() {
+        var cards = CardBag.of(2, Card.RED);
+        assertThrows(IllegalArgumentException.class, () -> {
+            CardSubsets.ofSize(cards, -1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            CardSubsets.ofSize(cards, 3);
+        });
+    }
+
+    @Test
+    void cardSubsetsOfSizeWorksWithEmptySize() {
+        assertEquals(1, CardSubsets.ofSize(CardBag.of(2, Card.RED), 0).size());
+        assertEquals(SortedBag.of(), CardSubsets.ofSize(CardBag.of(2, Card.RED), 0).get(0));
+    }
+
+    @Test
+    void cardSubsetsOfSizeAgreesWithSortedBagSubsetsOfSize() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var builder = new SortedBag.Builder<Card>();
+            for (var j = 0; j < 3; j++)
+                builder.add(rng.nextInt(4), Card.ALL.get(rng.nextInt(Card.COUNT)));
+            var cards = builder.build();
+            var size = cards.isEmpty() ? 0 : rng.nextInt(Math.min(cards.size(), 4) + 1);
+
+            var subsets = CardSubsets.ofSize(CardBag.of(cards), size);
+            assertEquals(cards.subsetsOfSize(size), new HashSet<>(subsets));
+            assertEquals(subsets.size(), new HashSet<>(subsets).size());
+            for (var j = 1; j < subsets.size(); j++) {
+                assertTrue(subsets.get(j - 1).countOf(Card.LOCOMOTIVE) <= subsets.get(j).countOf(Card.LOCOMOTIVE));
+            }
+        }
+    }
+
+    @Test
+    void cardSubsetsOfSizeIsMemoized() {
+        var cards = SortedBag.of(3, Card.BLUE, 2, Card.LOCOMOTIVE);
+        assertSame(CardSubsets.ofSize(CardBag.of(cards), 2), CardSubsets.ofSize(CardBag.of(cards), 2));
+    }
+}
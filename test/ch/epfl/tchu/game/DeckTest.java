@@ -120,6 +120,21 @@ class DeckTest {
         assertEquals(cards, actualCardsBuilder.build());
     }
 
+    @Test
+    void deckDrawsAreIndependentOfEachOther() {
+        var deck = Deck.of(SortedBag.of(listOfSize(100)), new Random(2021));
+        var expected = deckToList(deck);
+        var drawn = deck.withoutTopCards(10);
+        var drawnTwice = drawn.withoutTopCard().withoutTopCards(20);
+        assertEquals(expected.get(10), drawn.topCard());
+        assertEquals(expected.get(31), drawnTwice.topCard());
+        assertEquals(69, drawnTwice.size());
+        assertEquals(SortedBag.of(expected.subList(10, 15)), drawn.topCards(5));
+        // Drawing from a deck never affects the decks it was drawn from.
+        assertEquals(expected, deckToList(deck));
+        assertEquals(expected.subList(10, 100), deckToList(drawn));
+    }
+
     private static <E extends Comparable<E>> List<E> deckToList(Deck<E> deck) {
         var list = new ArrayList<E>(deck.size());
         while (!deck.isEmpty()) {
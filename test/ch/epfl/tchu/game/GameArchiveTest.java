@@ -0,0 +1,118 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class GameArchiveTest {
+    private static byte[] record(GameConfig config, long seed) {
+        var rng = new Random(seed);
+        var players = new EnumMap<PlayerId, Player>(PlayerId.class);
+        var names = new EnumMap<PlayerId, String>(PlayerId.class);
+        for (var id : config.playerIds()) {
+            players.put(id, new GreedyPlayer(new Random(rng.nextLong())));
+            names.put(id, id.name());
+        }
+        var bytes = new ByteArrayOutputStream();
+        GameLog.play(players, names, seed, config, Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static TreeMap<Long, byte[]> logs() {
+        var logs = new TreeMap<Long, byte[]>();
+        for (var seed : new long[] { 42, -7, 2021 })
+            logs.put(seed, record(seed < 0 ? GameConfig.THREE_PLAYERS : GameConfig.TWO_PLAYERS, seed));
+        return logs;
+    }
+
+    private static Path write(TreeMap<Long, byte[]> logs) throws IOException {
+        var file = Files.createTempFile("tchu", ".archive");
+        Files.delete(file);
+        try (var writer = new GameArchive.Writer(file)) {
+            // The games are added in decreasing order of id, the archive must sort them.
+            for (var id : logs.descendingKeySet())
+                writer.add(id, ByteBuffer.wrap(logs.get(id)));
+        }
+        return file;
+    }
+
+    @Test
+    void gameArchiveFindsEveryGame() throws IOException {
+        var logs = logs();
+        var file = write(logs);
+        try (var archive = GameArchive.open(file)) {
+            assertEquals(logs.size(), archive.gameCount());
+            var i = 0;
+            for (var id : logs.keySet()) {
+                assertEquals(id, archive.gameId(i++));
+                assertTrue(archive.contains(id));
+                assertEquals(ByteBuffer.wrap(logs.get(id)), archive.log(id));
+            }
+            assertFalse(archive.contains(1));
+            assertThrows(IllegalArgumentException.class, () -> {
+                archive.log(1);
+            });
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void gameArchiveGivesStatesAndKindsOfTurns() throws IOException {
+        var logs = logs();
+        var file = write(logs);
+        try (var archive = GameArchive.open(file)) {
+            for (var id : logs.keySet()) {
+                var replay = GameLog.replay(ByteBuffer.wrap(logs.get(id)));
+                var turnCount = archive.turnCount(id);
+                assertEquals(replay.states().size() - 1, turnCount);
+                for (var turn = 0; turn < turnCount; turn += 7) {
+                    var expected = replay.states().get(turn);
+                    var actual = archive.stateBeforeTurn(id, turn);
+                    assertEquals(expected.currentPlayerId(), actual.currentPlayerId());
+                    assertEquals(expected.ticketsCount(), actual.ticketsCount());
+                    assertEquals(expected.cardState().faceUpCards(), actual.cardState().faceUpCards());
+                    for (var p : expected.playerIds())
+                        assertEquals(expected.playerState(p).cards(), actual.playerState(p).cards());
+
+                    var next = replay.states().get(turn + 1);
+                    var kind = archive.turnKind(id, turn);
+                    if (next.ticketsCount() < expected.ticketsCount())
+                        assertEquals(Player.TurnKind.DRAW_TICKETS, kind);
+                    if (next.claimedRoutes().size() > expected.claimedRoutes().size())
+                        assertEquals(Player.TurnKind.CLAIM_ROUTE, kind);
+                }
+                assertThrows(IllegalArgumentException.class, () -> {
+                    archive.stateBeforeTurn(id, turnCount);
+                });
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void gameArchiveWriterFailsWithDuplicateGame() throws IOException {
+        var file = Files.createTempFile("tchu", ".archive");
+        Files.delete(file);
+        var log = record(GameConfig.TWO_PLAYERS, 2021);
+        try (var writer = new GameArchive.Writer(file)) {
+            writer.add(1, ByteBuffer.wrap(log));
+            assertThrows(IllegalArgumentException.class, () -> {
+                writer.add(1, ByteBuffer.wrap(log));
+            });
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameConfigTest {
+    @Test
+    void gameConfigForPlayerCountFailsWithInvalidCount() {
+        for (var count : List.of(-1, 0, 1, 4)) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                GameConfig.forPlayerCount(count);
+            });
+        }
+    }
+
+    @Test
+    void gameConfigForPlayerCountReturnsTheRightConfig() {
+        assertSame(GameConfig.TWO_PLAYERS, GameConfig.forPlayerCount(2));
+        assertSame(GameConfig.THREE_PLAYERS, GameConfig.forPlayerCount(3));
+    }
+
+    @Test
+    void gameConfigPlayerIdsAreDefinedCorrectly() {
+        assertEquals(List.of(PlayerId.PLAYER_1, PlayerId.PLAYER_2), GameConfig.TWO_PLAYERS.playerIds());
+        assertEquals(PlayerId.ALL, GameConfig.THREE_PLAYERS.playerIds());
+        assertEquals(2, GameConfig.TWO_PLAYERS.playerCount());
+        assertEquals(3, GameConfig.THREE_PLAYERS.playerCount());
+    }
+
+    @Test
+    void gameConfigTicketsOfTwoPlayersArePrefixOfThreePlayers() {
+        var twoPlayerTickets = GameConfig.TWO_PLAYERS.tickets();
+        var threePlayerTickets = GameConfig.THREE_PLAYERS.tickets();
+        assertTrue(twoPlayerTickets.size() < threePlayerTickets.size());
+        assertEquals(twoPlayerTickets, threePlayerTickets.subList(0, twoPlayerTickets.size()));
+    }
+
+    @Test
+    void gameStateInitialWorksWithThreePlayers() {
+        var rng = TestRandomizer.newRandom();
+        var config = GameConfig.THREE_PLAYERS;
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var gameState = GameState.initial(SortedBag.of(config.tickets()), rng, config);
+            assertEquals(config.playerIds(), gameState.playerIds());
+            assertTrue(config.playerIds().contains(gameState.currentPlayerId()));
+            for (var id : config.playerIds())
+                assertEquals(Constants.INITIAL_CARDS_COUNT, gameState.playerState(id).cardCount());
+
+            var first = gameState.currentPlayerId();
+            gameState = gameState.forNextTurn().forNextTurn().forNextTurn();
+            assertEquals(first, gameState.currentPlayerId());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.GameEvent.Field;
+import ch.epfl.tchu.game.GameEvent.Kind;
+import ch.epfl.tchu.gui.Info;
+
+class GameEventTest {
+    private static final Route ROUTE = ChMap.routes().get(0);
+    private static final SortedBag<Card> CARDS = SortedBag.of(2, Card.RED, 1, Card.LOCOMOTIVE);
+
+    @Test
+    void gameEventFactoriesFillTheFieldsOfTheirKind() {
+        var event = GameEvent.claimedRoute(PlayerId.PLAYER_2, ROUTE, CARDS);
+        assertEquals(Kind.CLAIMED_ROUTE, event.kind());
+        assertEquals(PlayerId.PLAYER_2, event.playerId());
+        assertEquals(ROUTE, event.route());
+        assertEquals(CARDS, event.cards());
+        assertNull(event.card());
+        assertNull(event.trail());
+
+        var won = GameEvent.won(PlayerId.PLAYER_1, 80, -4);
+        assertEquals(80, won.count());
+        assertEquals(-4, won.otherCount());
+        assertEquals(Kind.DRAW, GameEvent.draw(30).kind());
+        assertFalse(GameEvent.draw(30).kind().has(Field.PLAYER));
+    }
+
+    @Test
+    void gameEventOfFailsWithMissingOrExtraFields() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameEvent.of(Kind.CLAIMED_ROUTE, PlayerId.PLAYER_1, ROUTE, null, null, null, 0, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameEvent.of(Kind.CAN_PLAY, PlayerId.PLAYER_1, ROUTE, null, null, null, 0, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameEvent.of(Kind.DREW_BLIND_CARD, PlayerId.PLAYER_1, null, null, null, null, 1, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameEvent.of(Kind.DRAW, PlayerId.PLAYER_1, null, null, null, null, 10, 0);
+        });
+    }
+
+    @Test
+    void gameEventsAreDescribedLikeInfoMessages() {
+        var names = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+        var ada = new Info("Ada");
+        var trail = Trail.longest(List.of(ROUTE));
+        assertEquals(ada.claimedRoute(ROUTE, CARDS),
+                Info.describe(GameEvent.claimedRoute(PlayerId.PLAYER_1, ROUTE, CARDS), names));
+        assertEquals(ada.drewAdditionalCards(CARDS, 2),
+                Info.describe(GameEvent.drewAdditionalCards(PlayerId.PLAYER_1, CARDS, 2), names));
+        assertEquals(ada.getsLongestTrailBonus(trail),
+                Info.describe(GameEvent.getsLongestTrailBonus(PlayerId.PLAYER_1, trail), names));
+        assertEquals(new Info("Charles").won(50, 40),
+                Info.describe(GameEvent.won(PlayerId.PLAYER_2, 50, 40), names));
+        assertEquals(Info.draw(List.of("Ada", "Charles"), 30), Info.describe(GameEvent.draw(30), names));
+    }
+}
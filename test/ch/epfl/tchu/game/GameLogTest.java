@@ -0,0 +1,162 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+
+class GameLogTest {
+    private static Map<PlayerId, Player> players(GameConfig config, long seed) {
+        var rng = new Random(seed);
+        var players = new EnumMap<PlayerId, Player>(PlayerId.class);
+        for (var id : config.playerIds())
+            players.put(id, new GreedyPlayer(new Random(rng.nextLong())));
+        return players;
+    }
+
+    private static Map<PlayerId, String> names(GameConfig config) {
+        var names = new EnumMap<PlayerId, String>(PlayerId.class);
+        for (var id : config.playerIds())
+            names.put(id, "Joueur " + id.ordinal());
+        return names;
+    }
+
+    private static byte[] record(GameConfig config, long seed) {
+        var bytes = new ByteArrayOutputStream();
+        GameLog.play(players(config, seed), names(config), seed, config, Channels.newChannel(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected.currentPlayerId(), actual.currentPlayerId());
+        assertEquals(expected.lastPlayer(), actual.lastPlayer());
+        assertEquals(expected.ticketsCount(), actual.ticketsCount());
+        assertEquals(expected.cardState().faceUpCards(), actual.cardState().faceUpCards());
+        assertEquals(expected.cardState().deckSize(), actual.cardState().deckSize());
+        assertEquals(expected.cardState().discardsSize(), actual.cardState().discardsSize());
+        if (!expected.cardState().isDeckEmpty())
+            assertEquals(expected.topCard(), actual.topCard());
+        for (var id : expected.playerIds()) {
+            assertEquals(expected.playerState(id).tickets(), actual.playerState(id).tickets());
+            assertEquals(expected.playerState(id).cards(), actual.playerState(id).cards());
+            assertEquals(expected.playerState(id).routes(), actual.playerState(id).routes());
+        }
+    }
+
+    @Test
+    void gameLogReplayRebuildsEveryState() {
+        for (var config : List.of(GameConfig.TWO_PLAYERS, GameConfig.THREE_PLAYERS)) {
+            var seed = 2021L + config.playerCount();
+            var expected = new ArrayList<GameState>();
+            Game.play(players(config, seed), names(config), SortedBag.of(config.tickets()), new Random(seed), config,
+                    expected::add);
+
+            var replay = GameLog.replay(ByteBuffer.wrap(record(config, seed)));
+            assertTrue(replay.isComplete());
+            assertEquals(seed, replay.seed());
+            assertEquals(config.playerCount(), replay.config().playerCount());
+            assertEquals(names(config), replay.playerNames());
+            assertEquals(expected.size(), replay.states().size());
+            for (var i = 0; i < expected.size(); i++)
+                assertSameState(expected.get(i), replay.states().get(i));
+        }
+    }
+
+    @Test
+    void gameLogIsCompact() {
+        var log = record(GameConfig.TWO_PLAYERS, 2021);
+        var turns = GameLog.replay(ByteBuffer.wrap(log)).states().size() - 1;
+        assertTrue(log.length < 40 + 12 * turns);
+    }
+
+    @Test
+    void gameLogReplaysTruncatedLogsUpToTheirEnd() {
+        var log = record(GameConfig.TWO_PLAYERS, 2021);
+        var full = GameLog.replay(ByteBuffer.wrap(log));
+        var truncated = GameLog.replay(ByteBuffer.wrap(log, 0, log.length / 2));
+        assertFalse(truncated.isComplete());
+        assertTrue(truncated.states().size() < full.states().size());
+        for (var i = 0; i < truncated.states().size(); i++)
+            assertSameState(full.states().get(i), truncated.states().get(i));
+    }
+
+    @Test
+    void gameLogTruncatesLongNamesBetweenCharacters() {
+        var config = GameConfig.TWO_PLAYERS;
+        var prefix = "a".repeat(254);
+        var names = Map.of(PlayerId.PLAYER_1, prefix + "é", PlayerId.PLAYER_2, "\uD83D\uDE82".repeat(100));
+        var bytes = new ByteArrayOutputStream();
+        GameLog.play(players(config, 2021), names, 2021, config, Channels.newChannel(bytes));
+        var replayed = GameLog.replay(ByteBuffer.wrap(bytes.toByteArray())).playerNames();
+        assertEquals(prefix, replayed.get(PlayerId.PLAYER_1));
+        assertEquals("\uD83D\uDE82".repeat(63), replayed.get(PlayerId.PLAYER_2));
+    }
+
+    @Test
+    void gameLogWritesEveryTurnBeforeTheNextOneStarts() {
+        var config = GameConfig.TWO_PLAYERS;
+        var bytes = new ByteArrayOutputStream();
+        var written = new ArrayList<Integer>();
+        var channel = Channels.newChannel(bytes);
+        var countingChannel = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                var n = channel.write(src);
+                written.add(bytes.size());
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+        GameLog.play(players(config, 2021), names(config), 2021, config, countingChannel);
+        var offsets = GameLog.turnOffsets(ByteBuffer.wrap(bytes.toByteArray()));
+        assertTrue(offsets.length > 10);
+        for (var offset : offsets)
+            assertTrue(written.contains(offset));
+    }
+
+    @Test
+    void gameLogReplayFailsWithCorruptRecords() {
+        var log = record(GameConfig.TWO_PLAYERS, 2021);
+        var offsets = GameLog.turnOffsets(ByteBuffer.wrap(log));
+        for (var kind : new byte[] { 3, 7, (byte) 0xFF }) {
+            var corrupt = log.clone();
+            corrupt[offsets[5] + 1] = kind;
+            assertThrows(IllegalArgumentException.class, () -> {
+                GameLog.replay(ByteBuffer.wrap(corrupt));
+            });
+        }
+    }
+
+    @Test
+    void gameLogReplayFailsWithInvalidLog() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameLog.replay(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+        });
+        var log = record(GameConfig.TWO_PLAYERS, 2021);
+        log[0]++;
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameLog.replay(ByteBuffer.wrap(log));
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package ch.epfl.tchu.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSimulatorTest {
+    @Test
+    void gameSimulatorFailsWithNegativeGameCount() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            GameSimulator.run(-1, 2021, RandomPlayer::new, GameConfig.TWO_PLAYERS);
+        });
+    }
+
+    @Test
+    void gameSimulatorPlaysAllGames() {
+        var stats = GameSimulator.run(20, 2021, RandomPlayer::new, GameConfig.TWO_PLAYERS);
+        assertEquals(20, stats.gameCount());
+        var decided = 0;
+        for (var id : GameConfig.TWO_PLAYERS.playerIds())
+            decided += stats.wins(id);
+        assertEquals(stats.gameCount() - stats.failedCount(), decided + stats.drawCount());
+        assertTrue(stats.gamesPerSecond() > 0);
+    }
+
+    @Test
+    void gameSimulatorIsDeterministicForAGivenSeed() {
+        var config = GameConfig.THREE_PLAYERS;
+        var stats1 = GameSimulator.run(10, 2021, RandomPlayer::new, config, new ForkJoinPool(1));
+        var stats2 = GameSimulator.run(10, 2021, RandomPlayer::new, config, new ForkJoinPool(4));
+        assertEquals(stats1.failedCount(), stats2.failedCount());
+        assertEquals(stats1.drawCount(), stats2.drawCount());
+        for (var id : config.playerIds()) {
+            assertEquals(stats1.wins(id), stats2.wins(id));
+            assertEquals(stats1.averagePoints(id), stats2.averagePoints(id), 0);
+        }
+    }
+
+    @Test
+    void gameSimulatorKeepsTheFirstFailure() {
+        var failure = new IllegalStateException("bot bug");
+        var stats = GameSimulator.run(5, 2021, (id, rng) -> {
+            throw failure;
+        }, GameConfig.TWO_PLAYERS);
+        assertEquals(5, stats.failedCount());
+        assertSame(failure, stats.firstFailure());
+        assertTrue(stats.toString().contains("bot bug"));
+
+        var completed = GameSimulator.run(5, 2021, RandomPlayer::new, GameConfig.TWO_PLAYERS);
+        if (completed.failedCount() == 0)
+            assertNull(completed.firstFailure());
+    }
+}
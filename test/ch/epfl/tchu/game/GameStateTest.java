@@ -39,7 +39,7 @@ class GameStateTest {
             assertEquals(List.of(), gameState.claimedRoutes());
             assertNull(gameState.lastPlayer());
             assertNotNull(gameState.currentPlayerId());
-            for (PlayerId id : PlayerId.ALL) {
+            for (PlayerId id : GameConfig.TWO_PLAYERS.playerIds()) {
                 var playerState = gameState.playerState(id);
                 assertEquals(List.of(), playerState.routes());
                 assertEquals(SortedBag.of(), playerState.tickets());
@@ -448,7 +448,7 @@ class GameStateTest {
             Collections.shuffle(allRoutes, rng);
             var gameState = GameState.initial(SortedBag.of(), rng);
             var testedPlayer = gameState.currentPlayerId();
-            var otherPlayer = testedPlayer.next();
+            var otherPlayer = testedPlayer.next(2);
 
             var drawableCardsCount = INITIAL_CARD_DECK_SIZE - 4;
             for (int j = 0; j < drawableCardsCount; j++) {
@@ -1,6 +1,7 @@
 package ch.epfl.tchu.game;
 
 import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.gui.Info;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -39,7 +40,7 @@ class GameTest {
         var playerNames = Map.of(PlayerId.PLAYER_1, "1", PlayerId.PLAYER_2, "2");
 
         assertThrows(IllegalArgumentException.class, () -> {
-            Game.play(Map.of(), playerNames, SortedBag.of(), new Random(2021), 0);
+            Game.play(Map.of(), playerNames, SortedBag.of(), new Random(2021), GameConfig.TWO_PLAYERS);
         });
 
         assertThrows(IllegalArgumentException.class, () -> {
@@ -47,7 +48,7 @@ class GameTest {
                     Map.of(PlayerId.PLAYER_1, new TestPlayer(0, List.of())),
                     playerNames,
                     SortedBag.of(),
-                    new Random(2021), 0);
+                    new Random(2021), GameConfig.TWO_PLAYERS);
         });
     }
 
@@ -58,7 +59,7 @@ class GameTest {
                 PlayerId.PLAYER_2, (Player) new TestPlayer(0, List.of()));
 
         assertThrows(IllegalArgumentException.class, () -> {
-            Game.play(players, Map.of(), SortedBag.of(), new Random(2021), 0);
+            Game.play(players, Map.of(), SortedBag.of(), new Random(2021), GameConfig.TWO_PLAYERS);
         });
 
         assertThrows(IllegalArgumentException.class, () -> {
@@ -66,7 +67,7 @@ class GameTest {
                     players,
                     Map.of(PlayerId.PLAYER_1, "1"),
                     SortedBag.of(),
-                    new Random(2021), 0);
+                    new Random(2021), GameConfig.TWO_PLAYERS);
         });
     }
 
@@ -82,12 +83,7 @@ class GameTest {
             if (playerNames != null) assertEquals(playerNames, player.playerNames);
             playerNames = player.playerNames;
         }
-        if(Constants.THREE_PLAYER) {
-        	assertEquals(Set.of(), unusedPlayerIds);
-        }
-        else {
-        	assertEquals(Set.of(PlayerId.PLAYER_3), unusedPlayerIds);
-        }
+        assertEquals(Set.of(PlayerId.PLAYER_3), unusedPlayerIds);
     }
 
     @Test
@@ -266,7 +262,7 @@ class GameTest {
         var playerNames = Map.of(
                 PlayerId.PLAYER_1, "Ada",
                 PlayerId.PLAYER_2, "Charles");
-        Game.play(players, playerNames, SortedBag.of(tickets), rng, 0);
+        Game.play(players, playerNames, SortedBag.of(tickets), rng, GameConfig.TWO_PLAYERS);
         return List.of(p1, p2);
     }
 
@@ -347,6 +343,11 @@ class GameTest {
             allInfos.addLast(info);
         }
 
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            receiveInfo(Info.describe(event, playerNames));
+        }
+
         @Override
         public void updateState(PublicGameState newState, PlayerState ownState) {
             registerCall(UPDATE_STATE);
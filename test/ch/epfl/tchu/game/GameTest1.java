@@ -113,6 +113,11 @@ public class GameTest1 {
             
         }
 
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            receiveInfo(Info.describe(event, playerNames));
+        }
+
         @Override
         public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
             initialTicketChoice = tickets;
@@ -0,0 +1,39 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+
+class GreedyPlayerTest {
+    @Test
+    void greedyPlayerPlaysCompleteGames() {
+        for (var config : List.of(GameConfig.TWO_PLAYERS, GameConfig.THREE_PLAYERS)) {
+            var stats = GameSimulator.run(20, 2021, (id, rng) -> new GreedyPlayer(rng), config);
+            assertEquals(0, stats.failedCount());
+        }
+    }
+
+    @Test
+    void greedyPlayerClaimsRoutesMissingForItsTickets() {
+        var route = ChMap.routes().get(0);
+        var ticket = new Ticket(route.station1(), route.station2(), 1);
+        var cardState = new PublicCardState(List.of(Card.RED, Card.RED, Card.BLUE, Card.BLUE, Card.RED), 30, 0);
+        var gameState = new PublicGameState(20, cardState, PlayerId.PLAYER_1, Map.of(
+                PlayerId.PLAYER_1, new PublicPlayerState(1, 6, List.of()),
+                PlayerId.PLAYER_2, new PublicPlayerState(0, 0, List.of())), null);
+        var ownState = new PlayerState(SortedBag.of(ticket), SortedBag.of(6, Card.LOCOMOTIVE), List.of());
+
+        var player = new GreedyPlayer(new Random(2021));
+        player.updateState(gameState, ownState);
+        assertEquals(Player.TurnKind.CLAIM_ROUTE, player.nextTurn());
+        var missing = TicketProgress.of(gameState, ownState).missingRoutes(ticket);
+        assertTrue(missing.contains(player.claimedRoute()));
+        assertTrue(ownState.possibleClaimCards(player.claimedRoute()).contains(player.initialClaimCards()));
+    }
+}
@@ -0,0 +1,221 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+
+class MctsPlayerTest {
+    private static GameState midGameState(Random rng) {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), rng);
+        state = state.withInitiallyChosenTickets(PlayerId.PLAYER_1, state.topTickets(3))
+                .withoutTopTickets(3);
+        state = state.withInitiallyChosenTickets(PlayerId.PLAYER_2, state.topTickets(3))
+                .withoutTopTickets(3);
+        for (int i = 0; i < 10; i++) {
+            state = state.withCardsDeckRecreatedIfNeeded(rng).withBlindlyDrawnCard();
+            state = state.withCardsDeckRecreatedIfNeeded(rng).withDrawnFaceUpCard(i % 5);
+            state = state.forNextTurn();
+        }
+        for (int i = 0; i < 3; i++) {
+            state = state.withMoreDiscardedCards(SortedBag.of(state.topCard())).withoutTopCard();
+        }
+        return state;
+    }
+
+    @Test
+    void mctsPlayerDeterminizationKeepsPublicInformation() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var state = midGameState(rng);
+            var ownState = state.playerState(PlayerId.PLAYER_1);
+            var determinized = MctsPlayer.determinize(state, PlayerId.PLAYER_1, ownState, GameConfig.TWO_PLAYERS, rng);
+
+            assertEquals(state.ticketsCount(), determinized.ticketsCount());
+            assertEquals(state.currentPlayerId(), determinized.currentPlayerId());
+            assertEquals(state.lastPlayer(), determinized.lastPlayer());
+            assertEquals(state.cardState().faceUpCards(), determinized.cardState().faceUpCards());
+            assertEquals(state.cardState().deckSize(), determinized.cardState().deckSize());
+            assertEquals(state.cardState().discardsSize(), determinized.cardState().discardsSize());
+            assertSame(ownState, determinized.playerState(PlayerId.PLAYER_1));
+
+            var other = determinized.playerState(PlayerId.PLAYER_2);
+            assertEquals(state.playerState(PlayerId.PLAYER_2).cardCount(), other.cardCount());
+            assertEquals(state.playerState(PlayerId.PLAYER_2).ticketCount(), other.ticketCount());
+            assertEquals(state.playerState(PlayerId.PLAYER_2).routes(), other.routes());
+
+            var cardCount = determinized.cardState().deckSize() + determinized.cardState().discardsSize()
+                    + determinized.cardState().faceUpCards().size();
+            for (var id : determinized.playerIds()) {
+                cardCount += determinized.playerState(id).cardCount();
+            }
+            assertEquals(Constants.TOTAL_CARDS_COUNT, cardCount);
+        }
+    }
+
+    @Test
+    void mctsPlayerPlaysLegalActionsAndClaimsRoutes() {
+        for (var threads = 1; threads <= 2; threads++) {
+            var player1 = new LegalityCheckingPlayer(new MctsPlayer(new Random(2021), 20, 1_000, threads));
+            var player2 = new LegalityCheckingPlayer(new MctsPlayer(new Random(2022), 20, 1_000, threads));
+            var players = Map.<PlayerId, Player>of(PlayerId.PLAYER_1, player1, PlayerId.PLAYER_2, player2);
+            var names = Map.of(PlayerId.PLAYER_1, "1", PlayerId.PLAYER_2, "2");
+            var points = Game.play(players, names, SortedBag.of(ChMap.tickets()), new Random(2023),
+                    GameConfig.TWO_PLAYERS);
+            assertEquals(2, points.size());
+            for (var player : List.of(player1, player2)) {
+                assertTrue(player.turnCount > 0);
+                assertFalse(player.ownState.routes().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void mctsPlayerBeatsRandomPlayer() {
+        // The search breaks ties between equally visited actions by their hash codes, so several games are played.
+        var config = GameConfig.TWO_PLAYERS;
+        var names = Map.of(PlayerId.PLAYER_1, "1", PlayerId.PLAYER_2, "2");
+        var gameCount = 0;
+        var wins = 0;
+        var mctsPoints = 0;
+        var randomPoints = 0;
+        for (var seed = 2021; seed < 2024; seed++) {
+            for (var mctsId : config.playerIds()) {
+                var randomId = mctsId.next(config.playerCount());
+                var players = Map.<PlayerId, Player>of(
+                        mctsId, new LegalityCheckingPlayer(new MctsPlayer(new Random(seed), 50, 1_000, 1)),
+                        randomId, new RandomPlayer(randomId, new Random(seed + 1)));
+                var points = Game.play(players, names, SortedBag.of(ChMap.tickets()), new Random(seed + 2), config);
+                gameCount++;
+                if (points.get(mctsId) > points.get(randomId))
+                    wins++;
+                mctsPoints += points.get(mctsId);
+                randomPoints += points.get(randomId);
+            }
+        }
+        assertTrue(2 * wins > gameCount, wins + "/" + gameCount);
+        assertTrue(mctsPoints > randomPoints, mctsPoints + " <= " + randomPoints);
+    }
+
+    /**
+     * Player delegating to another one and checking that each of its decisions is legal in the last state it received.
+     */
+    private static final class LegalityCheckingPlayer implements Player {
+        private final Player player;
+        private SortedBag<Ticket> initialTickets;
+        private PublicGameState gameState;
+        private PlayerState ownState;
+        private Route route;
+        private int turnCount;
+
+        LegalityCheckingPlayer(Player player) {
+            this.player = player;
+        }
+
+        @Override
+        public String setPlayerName() {
+            return player.setPlayerName();
+        }
+
+        @Override
+        public void setPlayerNumber(int playerNum) {
+            player.setPlayerNumber(playerNum);
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            player.receiveEvent(event, playerNames);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            this.gameState = newState;
+            this.ownState = ownState;
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            initialTickets = tickets;
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            var chosen = player.chooseInitialTickets();
+            assertTrue(initialTickets.contains(chosen));
+            assertTrue(chosen.size() >= initialTickets.size() - Constants.DISCARDABLE_TICKETS_COUNT);
+            return chosen;
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            var kind = player.nextTurn();
+            turnCount++;
+            if (kind == TurnKind.DRAW_TICKETS)
+                assertTrue(gameState.canDrawTickets());
+            else if (kind == TurnKind.DRAW_CARDS)
+                assertTrue(gameState.canDrawCards());
+            return kind;
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            var chosen = player.chooseTickets(options);
+            assertTrue(options.contains(chosen));
+            assertFalse(chosen.isEmpty());
+            return chosen;
+        }
+
+        @Override
+        public int drawSlot() {
+            var slot = player.drawSlot();
+            assertTrue(slot == Constants.DECK_SLOT || Constants.FACE_UP_CARD_SLOTS.contains(slot));
+            return slot;
+        }
+
+        @Override
+        public Route claimedRoute() {
+            route = player.claimedRoute();
+            var index = ChMap.routes().indexOf(route);
+            var siblingIndex = ChMap.siblingIndex(index);
+            assertFalse(gameState.claimedRoutes().contains(route));
+            if (siblingIndex != -1) {
+                var sibling = ChMap.routes().get(siblingIndex);
+                assertFalse(gameState.claimedRoutes().contains(sibling));
+            }
+            assertTrue(ownState.canClaimRoute(route));
+            return route;
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            var cards = player.initialClaimCards();
+            assertTrue(ownState.possibleClaimCards(route).contains(cards));
+            return cards;
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            var cards = player.chooseAdditionalCards(options);
+            assertTrue(cards.isEmpty() || options.contains(cards));
+            return cards;
+        }
+    }
+}
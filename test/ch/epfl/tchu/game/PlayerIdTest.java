@@ -9,12 +9,19 @@ import static org.junit.jupiter.api.Assertions.*;
 class PlayerIdTest {
     @Test
     void playerIdAllIsDefinedCorrectly() {
-        assertEquals(List.of(PlayerId.PLAYER_1, PlayerId.PLAYER_2), PlayerId.ALL);
+        assertEquals(List.of(PlayerId.PLAYER_1, PlayerId.PLAYER_2, PlayerId.PLAYER_3), PlayerId.ALL);
     }
 
     @Test
     void playerIdNextWorks() {
-        assertEquals(PlayerId.PLAYER_2, PlayerId.PLAYER_1.next());
-        assertEquals(PlayerId.PLAYER_1, PlayerId.PLAYER_2.next());
+        assertEquals(PlayerId.PLAYER_2, PlayerId.PLAYER_1.next(2));
+        assertEquals(PlayerId.PLAYER_1, PlayerId.PLAYER_2.next(2));
+    }
+
+    @Test
+    void playerIdNextWorksWithThreePlayers() {
+        assertEquals(PlayerId.PLAYER_2, PlayerId.PLAYER_1.next(3));
+        assertEquals(PlayerId.PLAYER_3, PlayerId.PLAYER_2.next(3));
+        assertEquals(PlayerId.PLAYER_1, PlayerId.PLAYER_3.next(3));
     }
 }
\ No newline at end of file
@@ -414,6 +414,49 @@ class PlayerStateTest {
         assertEquals(14 - 7, s5.ticketPoints());
     }
 
+    @Test
+    void playerStateTicketPointsWorksWithIncrementalConnectivity() {
+        var chMap = new ChMap();
+
+        var routes = List.of(
+                chMap.FR2_GEN_1, chMap.GEN_LAU_1, chMap.LAU_MAR_1,
+                chMap.MAR_SIO_1, chMap.BRI_SIO_1, chMap.BRI_IT5_1, chMap.LAU_NEU_1,
+                chMap.FRI_LAU_1, chMap.BER_FRI_1, chMap.BER_LUC_1, chMap.LUC_ZOU_1,
+                chMap.ZOU_ZUR_1, chMap.STG_ZUR_1, chMap.DE5_STG_1, chMap.STG_VAD_1);
+        var tickets = SortedBag.of(1, chMap.GEN_ZUR, 1, chMap.INT_WIN);
+
+        var incremental = PlayerState.initial(SortedBag.of(4, Card.RED)).withAddedTickets(tickets);
+        for (var route : routes) {
+            incremental = incremental.withClaimedRoute(route, SortedBag.of());
+            var rebuilt = new PlayerState(tickets, incremental.cards(), incremental.routes());
+            assertEquals(rebuilt.ticketPoints(), incremental.ticketPoints());
+        }
+        assertEquals(14 - 7, incremental.ticketPoints());
+        assertEquals(true, incremental.connectivity().connected(chMap.GEN, chMap.ZUR));
+    }
+
+    @Test
+    void playerStateTicketPointsRunningTotalAgreesWithRebuiltState() {
+        var chMap = new ChMap();
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var routes = new ArrayList<>(chMap.ALL_ROUTES);
+            Collections.shuffle(routes, rng);
+            var incremental = PlayerState.initial(SortedBag.of(4, Card.RED));
+            for (var j = 0; j < 40; j++) {
+                if (rng.nextInt(4) == 0) {
+                    var ticket = chMap.ALL_TICKETS.get(rng.nextInt(chMap.ALL_TICKETS.size()));
+                    incremental = incremental.withAddedTickets(SortedBag.of(ticket));
+                } else {
+                    incremental = incremental.withClaimedRoute(routes.get(j), SortedBag.of());
+                }
+                var rebuilt = new PlayerState(incremental.tickets(), incremental.cards(), incremental.routes());
+                assertEquals(rebuilt.ticketPoints(), incremental.ticketPoints());
+                assertEquals(rebuilt.finalPoints(), incremental.finalPoints());
+            }
+        }
+    }
+
     @Test
     void playerStateTicketPointsWorksOnKnownExample2() {
         var chMap = new ChMap();
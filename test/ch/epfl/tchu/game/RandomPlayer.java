@@ -0,0 +1,96 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+final class RandomPlayer implements Player {
+    private final Random rng;
+    private SortedBag<Ticket> initialTickets;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private Route route;
+    private SortedBag<Card> claimCards;
+
+    RandomPlayer(PlayerId id, Random rng) {
+        this.rng = rng;
+    }
+
+    @Override
+    public String setPlayerName() {
+        return "";
+    }
+
+    @Override
+    public void setPlayerNumber(int playerNum) {}
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {}
+
+    @Override
+    public void receiveInfo(String info) {}
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {}
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return initialTickets;
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        var claimed = new HashSet<>(gameState.claimedRoutes());
+        List<Route> claimable = ChMap.routes().stream()
+                .filter(r -> !claimed.contains(r))
+                .filter(ownState::canClaimRoute)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (claimable.isEmpty()) {
+            return gameState.canDrawCards() ? TurnKind.DRAW_CARDS : TurnKind.DRAW_TICKETS;
+        }
+        route = claimable.get(rng.nextInt(claimable.size()));
+        claimCards = ownState.possibleClaimCards(route).get(0);
+        return TurnKind.CLAIM_ROUTE;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return SortedBag.of(options.get(0));
+    }
+
+    @Override
+    public int drawSlot() {
+        return rng.nextInt(6) - 1;
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return route;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return claimCards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return options.get(0);
+    }
+}
@@ -383,4 +383,41 @@ class RouteTest {
             assertEquals(expectedClaimPoints.get(l), r.claimPoints());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void routePossibleClaimCardsIsImmutable() {
+        var r = ChMap.routes().get(0);
+        assertSame(r.possibleClaimCards(), r.possibleClaimCards());
+        assertThrows(UnsupportedOperationException.class, () -> {
+            r.possibleClaimCards().clear();
+        });
+    }
+
+    @Test
+    void routeCanBeClaimedWithAgreesWithPossibleClaimCards() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var builder = new SortedBag.Builder<Card>();
+            for (var card : Card.ALL)
+                builder.add(rng.nextInt(4), card);
+            var cards = builder.build();
+            var cardBag = CardBag.of(cards);
+            for (var r : ChMap.routes()) {
+                var expected = r.possibleClaimCards().stream().anyMatch(cards::contains);
+                assertEquals(expected, r.canBeClaimedWith(cardBag));
+            }
+        }
+    }
+
+    @Test
+    void chMapRouteIndexWorks() {
+        var routes = ChMap.routes();
+        for (var i = 0; i < routes.size(); i++)
+            assertEquals(i, ChMap.routeIndex(routes.get(i)));
+        var s1 = new Station(0, "Lausanne");
+        var s2 = new Station(1, "EPFL");
+        assertThrows(IllegalArgumentException.class, () -> {
+            ChMap.routeIndex(new Route("id", s1, s2, 1, Level.OVERGROUND, null));
+        });
+    }
+}
@@ -415,4 +415,38 @@ class StationPartitionTest {
         }
         //endregion
     }
+
+    @Test
+    void stationPartitionWithConnectedAgreesWithBuilder() {
+        var stations = new ChMap().ALL_STATIONS;
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var incremental = new StationPartition.Builder(0).build();
+            var built = new StationPartition.Builder(stations.size());
+            for (var j = 0; j < rng.nextInt(40); j++) {
+                var s1 = stations.get(rng.nextInt(stations.size()));
+                var s2 = stations.get(rng.nextInt(stations.size()));
+                incremental = incremental.withConnected(s1, s2);
+                built.connect(s1, s2);
+            }
+            var partition = built.build();
+            for (var s1 : stations) {
+                for (var s2 : stations)
+                    assertEquals(partition.connected(s1, s2), incremental.connected(s1, s2));
+            }
+        }
+    }
+
+    @Test
+    void stationPartitionWithConnectedIsPersistent() {
+        var stations = new ChMap().ALL_STATIONS;
+        var s0 = stations.get(0);
+        var s1 = stations.get(1);
+        var s2 = stations.get(2);
+        var p1 = new StationPartition.Builder(stations.size()).build().withConnected(s0, s1);
+        var p2 = p1.withConnected(s1, s2);
+        assertFalse(p1.connected(s0, s2));
+        assertTrue(p2.connected(s0, s2));
+        assertSame(p2, p2.withConnected(s2, s0));
+    }
 }
@@ -0,0 +1,167 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+
+class TicketProgressTest {
+    private static final PublicCardState CARD_STATE =
+            new PublicCardState(List.of(Card.RED, Card.RED, Card.BLUE, Card.BLUE, Card.LOCOMOTIVE), 30, 0);
+
+    private static PublicGameState gameState(List<Route> ownRoutes, List<Route> otherRoutes) {
+        return new PublicGameState(20, CARD_STATE, PlayerId.PLAYER_1, Map.of(
+                PlayerId.PLAYER_1, new PublicPlayerState(1, 0, ownRoutes),
+                PlayerId.PLAYER_2, new PublicPlayerState(0, 0, otherRoutes)), null);
+    }
+
+    private static Route route(String id) {
+        return ChMap.routes().stream().filter(r -> r.id().equals(id)).findFirst().get();
+    }
+
+    private static Station station(String name) {
+        return ChMap.stations().stream().filter(s -> s.name().equals(name)).findFirst().get();
+    }
+
+    private static PlayerState playerState(List<Ticket> tickets, List<Route> ownRoutes) {
+        return new PlayerState(SortedBag.of(tickets), SortedBag.of(), ownRoutes);
+    }
+
+    @Test
+    void ticketProgressKnowsCompletedTickets() {
+        var route = ChMap.routes().get(0);
+        var ticket = new Ticket(route.station1(), route.station2(), 1);
+        var progress = TicketProgress.of(gameState(List.of(route), List.of()),
+                playerState(List.of(ticket), List.of(route)));
+        assertTrue(progress.isCompleted(ticket));
+        assertEquals(0, progress.remainingLength(ticket));
+        assertEquals(List.of(ticket), progress.tickets());
+    }
+
+    @Test
+    void ticketProgressComputesRemainingLengthOfFreeRoute() {
+        var ticket = new Ticket(station("Lucerne"), station("Zürich"), 1);
+        var progress = TicketProgress.of(gameState(List.of(), List.of()), playerState(List.of(ticket), List.of()));
+        assertFalse(progress.isCompleted(ticket));
+        assertEquals(2, progress.remainingLength(ticket));
+        assertEquals(2, progress.missingRoutes(ticket).size());
+    }
+
+    @Test
+    void ticketProgressDoesNotCountOwnRoutes() {
+        var ticket = new Ticket(station("Lucerne"), station("Zürich"), 1);
+        var claimed = route("LUC_ZOU_1");
+        var before = TicketProgress.of(gameState(List.of(), List.of()), playerState(List.of(ticket), List.of()));
+        var after = before.updated(gameState(List.of(claimed), List.of()),
+                playerState(List.of(ticket), List.of(claimed)));
+        assertEquals(2, before.remainingLength(ticket));
+        assertEquals(1, after.remainingLength(ticket));
+        assertFalse(after.isCompleted(ticket));
+        assertFalse(after.missingRoutes(ticket).contains(claimed));
+    }
+
+    @Test
+    void ticketProgressDetectsUnreachableTickets() {
+        var station = ChMap.routes().get(0).station1();
+        var blocking = new ArrayList<Route>();
+        for (var r : ChMap.routes()) {
+            if (r.stations().contains(station))
+                blocking.add(r);
+        }
+        var other = ChMap.routes().get(0).station2();
+        var ticket = new Ticket(station, other, 1);
+        var progress = TicketProgress.of(gameState(List.of(), blocking), playerState(List.of(ticket), List.of()));
+        assertFalse(progress.isCompleted(ticket));
+        assertEquals(TicketProgress.UNREACHABLE, progress.remainingLength(ticket));
+    }
+
+    @Test
+    void ticketProgressOnlyBlocksSiblingsInTwoPlayerGames() {
+        var ticket = new Ticket(station("Lucerne"), station("Zürich"), 1);
+        var ps = playerState(List.of(ticket), List.of());
+
+        // In a two-player game, the claim of LUC_ZOU_1 also blocks LUC_ZOU_2, so the ticket goes through Schwyz.
+        var twoPlayers = TicketProgress.of(gameState(List.of(), List.of(route("LUC_ZOU_1"))), ps);
+        assertEquals(3, twoPlayers.remainingLength(ticket));
+        assertFalse(twoPlayers.missingRoutes(ticket).contains(route("LUC_ZOU_2")));
+        assertTrue(twoPlayers.missingRoutes(ticket).contains(route("LUC_SCZ_1")));
+
+        // Once both routes between Zoug and Zürich are blocked, the ticket goes through Schwyz and Pfäffikon.
+        var bothBlocked = twoPlayers.updated(gameState(List.of(), List.of(route("LUC_ZOU_1"), route("ZOU_ZUR_1"))), ps);
+        assertEquals(4, bothBlocked.remainingLength(ticket));
+        assertEquals(Set.of(route("LUC_SCZ_1"), route("PFA_SCZ_1"), route("PFA_ZUR_1")),
+                Set.copyOf(bothBlocked.missingRoutes(ticket)));
+
+        // In a three-player game, the sibling of a route claimed by another player stays free.
+        var threePlayers = TicketProgress.of(new PublicGameState(20, CARD_STATE, PlayerId.PLAYER_1, Map.of(
+                PlayerId.PLAYER_1, new PublicPlayerState(1, 0, List.of()),
+                PlayerId.PLAYER_2, new PublicPlayerState(0, 0, List.of(route("LUC_ZOU_1"))),
+                PlayerId.PLAYER_3, new PublicPlayerState(0, 0, List.of())), null), ps);
+        assertEquals(2, threePlayers.remainingLength(ticket));
+        assertTrue(threePlayers.missingRoutes(ticket).contains(route("LUC_ZOU_2")));
+    }
+
+    @Test
+    void ticketProgressFailsWithUnknownTicket() {
+        var progress = TicketProgress.of(gameState(List.of(), List.of()), playerState(List.of(), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> {
+            progress.remainingLength(ChMap.tickets().get(0));
+        });
+    }
+
+    @Test
+    void ticketProgressMissingRoutesAddUpToRemainingLength() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var ticket = ChMap.tickets().get(rng.nextInt(ChMap.tickets().size()));
+            var routes = new ArrayList<>(ChMap.routes());
+            var ownRoutes = new ArrayList<Route>();
+            var otherRoutes = new ArrayList<Route>();
+            for (var j = 0; j < 10; j++)
+                (rng.nextBoolean() ? ownRoutes : otherRoutes).add(routes.remove(rng.nextInt(routes.size())));
+            var progress = TicketProgress.of(gameState(ownRoutes, otherRoutes), playerState(List.of(ticket), ownRoutes));
+            var missing = progress.missingRoutes(ticket);
+            var remaining = progress.remainingLength(ticket);
+            if (remaining == TicketProgress.UNREACHABLE) {
+                assertTrue(missing.isEmpty());
+            } else {
+                assertEquals(remaining, missing.stream().mapToInt(Route::length).sum());
+                for (var r : missing)
+                    assertFalse(ownRoutes.contains(r) || otherRoutes.contains(r));
+            }
+        }
+    }
+
+    @Test
+    void ticketProgressUpdatedAgreesWithOf() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var tickets = new ArrayList<Ticket>();
+            for (var j = 0; j < 4; j++)
+                tickets.add(ChMap.tickets().get(rng.nextInt(ChMap.tickets().size())));
+            var routes = new ArrayList<>(ChMap.routes());
+            var ownRoutes = new ArrayList<Route>();
+            var otherRoutes = new ArrayList<Route>();
+            var progress = TicketProgress.of(gameState(ownRoutes, otherRoutes), playerState(tickets, ownRoutes));
+            for (var j = 0; j < 30; j++) {
+                var route = routes.remove(rng.nextInt(routes.size()));
+                (rng.nextBoolean() ? ownRoutes : otherRoutes).add(route);
+                var gs = gameState(List.copyOf(ownRoutes), List.copyOf(otherRoutes));
+                var ps = playerState(tickets, List.copyOf(ownRoutes));
+                progress = progress.updated(gs, ps);
+                var expected = TicketProgress.of(gs, ps);
+                for (var t : tickets) {
+                    assertEquals(expected.remainingLength(t), progress.remainingLength(t));
+                    assertEquals(expected.isCompleted(t), progress.isCompleted(t));
+                }
+            }
+        }
+    }
+}
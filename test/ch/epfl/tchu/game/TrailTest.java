@@ -1,7 +1,10 @@
 package ch.epfl.tchu.game;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -333,6 +336,54 @@ class TrailTest {
         assertEquals(28, longestG.length());
     }
 
+    @Test
+    void trailLongestIncrementalMatchesFullComputation() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            var allRoutes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(allRoutes, rng);
+            var routes = new ArrayList<Route>();
+            var longest = Trail.longest(List.of());
+            for (var r : allRoutes.subList(0, 18)) {
+                routes.add(r);
+                longest = Trail.longest(longest, routes, r);
+                assertEquals(Trail.longest(routes).length(), longest.length());
+            }
+        }
+    }
+
+    @Test
+    void trailLongestIncrementalFailsWithUnknownRoute() {
+        var chRoutes = new ChRoutes();
+        var routes = List.of(chRoutes.BER_LUC_1);
+        assertThrows(IllegalArgumentException.class, () -> {
+            Trail.longest(Trail.longest(routes), routes, chRoutes.GEN_YVE_1);
+        });
+    }
+
+    @Test
+    void trailOfRebuildsLongestTrails() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            var routes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(routes, rng);
+            var longest = Trail.longest(routes.subList(0, 20));
+            var trail = Trail.of(longest.station1(), longest.routes());
+            assertEquals(longest.length(), trail.length());
+            assertEquals(longest.station2(), trail.station2());
+            assertEquals(longest.toString(), trail.toString());
+        }
+        assertEquals(0, Trail.of(null, List.of()).length());
+    }
+
+    @Test
+    void trailOfFailsWithDisconnectedRoutes() {
+        var chRoutes = new ChRoutes();
+        assertThrows(IllegalArgumentException.class, () -> {
+            Trail.of(chRoutes.BER, List.of(chRoutes.BER_LUC_1, chRoutes.GEN_YVE_1));
+        });
+    }
+
     private static final class ChRoutes {
         // Stations
         final Station BAD = new Station(0, "Baden");
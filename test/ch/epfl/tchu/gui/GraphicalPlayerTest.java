@@ -6,6 +6,7 @@ import java.util.Map;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameConfig;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
 import ch.epfl.tchu.game.PublicCardState;
@@ -34,11 +35,11 @@ public final class GraphicalPlayerTest extends Application {
 
     @Override
     public void start(Stage primaryStage) {
-      ObservableGameState gameState = new ObservableGameState(PLAYER_1);
+      ObservableGameState gameState = new ObservableGameState(PLAYER_1, GameConfig.TWO_PLAYERS);
 
       Map<PlayerId, String> playerNames = Map.of(PLAYER_1, "Ada", PLAYER_2, "Charles");
       
-      GraphicalPlayer p = new GraphicalPlayer(PLAYER_1, playerNames);
+      GraphicalPlayer p = new GraphicalPlayer(PLAYER_1, playerNames, GameConfig.TWO_PLAYERS);
       setState(p);
       
       DrawTicketsHandler drawTicketsH =
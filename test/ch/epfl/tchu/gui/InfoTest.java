@@ -84,6 +84,13 @@ class InfoTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void infoDrawNamesEveryPlayer() {
+        var actual = Info.draw(List.of("Ada", "Charles", "Niklaus"), 17);
+        var expected = "\nAda, Charles et Niklaus sont ex æqo avec 17 points !\n";
+        assertEquals(expected, actual);
+    }
+
     @Test
     void infoWillPlayFirstWorks() {
         var info = new Info("Niklaus");
@@ -0,0 +1,77 @@
+package ch.epfl.tchu.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.game.ChMap;
+
+class MapGeometryTest {
+    private static double[] center(MapGeometry geometry, int segment) {
+        return new double[] {
+                geometry.x(segment) + MapGeometry.SEGMENT_WIDTH / 2.0,
+                geometry.y(segment) + MapGeometry.SEGMENT_HEIGHT / 2.0 };
+    }
+
+    @Test
+    void mapGeometryHasOneSegmentPerCar() {
+        var geometry = MapGeometry.chMap();
+        assertEquals(ChMap.routes().size(), geometry.routeCount());
+        for (var i = 0; i < geometry.routeCount(); i++)
+            assertEquals(ChMap.routes().get(i).length(), geometry.endSegment(i) - geometry.firstSegment(i));
+    }
+
+    @Test
+    void mapGeometryRouteAtWorksOnTheCenterOfEverySegment() {
+        var geometry = MapGeometry.chMap();
+        for (var i = 0; i < geometry.routeCount(); i++) {
+            for (var s = geometry.firstSegment(i); s < geometry.endSegment(i); s++) {
+                var center = center(geometry, s);
+                var found = geometry.routeAt(center[0], center[1]);
+                assertTrue(found == i || Arrays.binarySearch(geometry.overlappingRoutes(i), found) >= 0);
+            }
+        }
+    }
+
+    @Test
+    void mapGeometryContainsHandlesRotation() {
+        var css = new StringBuilder();
+        for (var route : ChMap.routes()) {
+            for (var j = 1; j <= route.length(); j++) {
+                var angle = route == ChMap.routes().get(0) && j == 1 ? 90 : 0;
+                css.append("#").append(route.id()).append("_").append(j)
+                        .append(" { -fx-translate-x: 1000; -fx-translate-y: 1000; -fx-rotate: ").append(angle).append(" }\n");
+            }
+        }
+        var geometry = MapGeometry.parse(css);
+        // Rotated by 90 degrees around its center (1018, 1006), the first segment spans 1012..1024 by 988..1024.
+        assertTrue(geometry.contains(0, 1018, 990));
+        assertFalse(geometry.contains(0, 1002, 1006));
+        assertTrue(geometry.contains(1, 1002, 1006));
+        assertFalse(geometry.contains(1, 1018, 990));
+        assertEquals(-1, geometry.routeAt(10, 10));
+    }
+
+    @Test
+    void mapGeometryFailsWithMissingSegments() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            MapGeometry.parse("#BAD_BAL_1_1 { -fx-translate-x: 497; -fx-translate-y: 123; -fx-rotate: 27 }");
+        });
+    }
+
+    @Test
+    void mapGeometryCornersAreInsideTheEnlargedSegment() {
+        var geometry = MapGeometry.chMap();
+        for (var s = 0; s < geometry.endSegment(geometry.routeCount() - 1); s++) {
+            var corners = geometry.corners(s, 0);
+            var center = center(geometry, s);
+            for (var c = 0; c < corners.length; c += 2) {
+                var x = (corners[c] + center[0]) / 2;
+                var y = (corners[c + 1] + center[1]) / 2;
+                assertTrue(geometry.contains(s, x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ch.epfl.tchu.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateTest {
+    @Test
+    void messageTemplateFormatsLikeStringFormat() {
+        var patterns = List.of(StringsFr.CHOOSE_TICKETS, StringsFr.KEPT_N_TICKETS, StringsFr.CLAIMED_ROUTE,
+                StringsFr.WINS, StringsFr.DRAW, "%s", "", "sans argument", "%s%s");
+        for (var pattern : patterns) {
+            var template = MessageTemplate.of(pattern);
+            var arguments = new Object[template.argumentCount()];
+            for (var i = 0; i < arguments.length; i++)
+                arguments[i] = i % 2 == 0 ? "arg" + i : Integer.valueOf(i);
+            assertEquals(String.format(pattern, arguments), template.format(arguments));
+        }
+    }
+
+    @Test
+    void messageTemplateFailsWithOtherSpecifiers() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            MessageTemplate.of("%d points");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            MessageTemplate.of("100%");
+        });
+    }
+
+    @Test
+    void messageTemplateFailsWithWrongArgumentCount() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            MessageTemplate.of(StringsFr.WILL_PLAY_FIRST).format("a", "b");
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package ch.epfl.tchu.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameConfig;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+class ObservableGameStateTest {
+    private static final Route R5 = ChMap.routes().get(5);
+    private static final Route R10 = ChMap.routes().get(10);
+    private static final Route R40 = ChMap.routes().get(40);
+
+    private static PublicGameState gameState(List<Route> routes1, List<Route> routes2) {
+        var cardState = new PublicCardState(List.of(Card.RED, Card.RED, Card.BLUE, Card.BLUE, Card.RED), 30, 0);
+        return new PublicGameState(40, cardState, PlayerId.PLAYER_1, Map.of(
+                PlayerId.PLAYER_1, new PublicPlayerState(0, 0, routes1),
+                PlayerId.PLAYER_2, new PublicPlayerState(0, 0, routes2)), null);
+    }
+
+    @Test
+    void observableGameStateFindsNewRoutesWhateverTheirOrder() {
+        var gameState = new ObservableGameState(PlayerId.PLAYER_1, GameConfig.TWO_PLAYERS);
+        var playerState = new PlayerState(SortedBag.of(), SortedBag.of(), List.of());
+
+        gameState.setState(gameState(List.of(), List.of(R5, R40)), playerState);
+        assertEquals(PlayerId.PLAYER_2, gameState.routeId(R5).get());
+        assertNull(gameState.routeId(R10).get());
+        assertEquals(PlayerId.PLAYER_2, gameState.routeId(R40).get());
+
+        gameState.setState(gameState(List.of(), List.of(R5, R10, R40)), playerState);
+        assertEquals(PlayerId.PLAYER_2, gameState.routeId(R5).get());
+        assertEquals(PlayerId.PLAYER_2, gameState.routeId(R10).get());
+        assertEquals(PlayerId.PLAYER_2, gameState.routeId(R40).get());
+    }
+
+    @Test
+    void observableGameStateUpdatesTheProgressWhenOnlyRoutesChange() {
+        var gameState = new ObservableGameState(PlayerId.PLAYER_1, GameConfig.TWO_PLAYERS);
+        var ticket = new Ticket(R10.station1(), R10.station2(), 1);
+        var tickets = SortedBag.of(ticket);
+
+        gameState.setState(gameState(List.of(), List.of()), new PlayerState(tickets, SortedBag.of(), List.of()));
+        var before = gameState.ticketProgress().get();
+        assertFalse(before.isCompleted(ticket));
+        assertEquals(List.of(ticket), gameState.playerTickets());
+
+        gameState.setState(gameState(List.of(R10), List.of()), new PlayerState(tickets, SortedBag.of(), List.of(R10)));
+        var after = gameState.ticketProgress().get();
+        assertNotSame(before, after);
+        assertTrue(after.isCompleted(ticket));
+        assertEquals(0, after.remainingLength(ticket));
+        assertEquals(List.of(ticket), gameState.playerTickets());
+    }
+
+    @Test
+    void observableGameStateKeepsTheOwnersOfRoutesListedAgain() {
+        var gameState = new ObservableGameState(PlayerId.PLAYER_1, GameConfig.TWO_PLAYERS);
+        var playerState = new PlayerState(SortedBag.of(), SortedBag.of(), List.of(R10));
+
+        gameState.setState(gameState(List.of(R10), List.of(R40)), playerState);
+        gameState.setState(gameState(List.of(R10), List.of(R5, R40)), playerState);
+        assertEquals(PlayerId.PLAYER_1, gameState.routeId(R10).get());
+        assertEquals(PlayerId.PLAYER_2, gameState.routeId(R5).get());
+        assertEquals(PlayerId.PLAYER_2, gameState.routeId(R40).get());
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Random;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.ChMap;
 import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameConfig;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.Ticket;
@@ -26,7 +27,7 @@ public final class Stage11Test extends Application {
                 Map.of(PLAYER_1, new GraphicalPlayerAdapter(),
                         PLAYER_2, new GraphicalPlayerAdapter());
         Random rng = new Random();
-        new Thread(() -> Game.play(players, names, tickets, rng, 0)).start();
+        new Thread(() -> Game.play(players, names, tickets, rng, GameConfig.TWO_PLAYERS)).start();
     }
 
 
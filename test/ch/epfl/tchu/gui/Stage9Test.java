@@ -6,6 +6,7 @@ import java.util.Map;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameConfig;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
 import ch.epfl.tchu.game.PublicCardState;
@@ -34,7 +35,7 @@ public final class Stage9Test extends Application {
 
     @Override
     public void start(Stage primaryStage) {
-      ObservableGameState gameState = new ObservableGameState(PLAYER_1);
+      ObservableGameState gameState = new ObservableGameState(PLAYER_1, GameConfig.TWO_PLAYERS);
 
       Map<PlayerId, String> playerNames =
               Map.of(PLAYER_1, "Ada", PLAYER_2, "Charles");
@@ -0,0 +1,63 @@
+package ch.epfl.tchu.gui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+
+class StateCoalescerTest {
+    private static PublicGameState gameState(int ticketsCount) {
+        var cardState = new PublicCardState(List.of(Card.RED, Card.RED, Card.BLUE, Card.BLUE, Card.RED), 30, 0);
+        return new PublicGameState(ticketsCount, cardState, PlayerId.PLAYER_1, Map.of(
+                PlayerId.PLAYER_1, new PublicPlayerState(0, 0, List.of()),
+                PlayerId.PLAYER_2, new PublicPlayerState(0, 0, List.of())), null);
+    }
+
+    @Test
+    void stateCoalescerAppliesOnlyTheLatestStateAndAllInfos() {
+        var tasks = new ArrayList<Runnable>();
+        var states = new ArrayList<PublicGameState>();
+        var infos = new ArrayList<List<String>>();
+        var coalescer = new StateCoalescer(tasks::add, (gs, ps) -> states.add(gs), infos::add);
+        var playerState = new PlayerState(SortedBag.of(), SortedBag.of(), List.of());
+
+        coalescer.postInfo("a");
+        coalescer.postState(gameState(1), playerState);
+        coalescer.postInfo("b");
+        coalescer.postState(gameState(2), playerState);
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        assertEquals(1, states.size());
+        assertEquals(2, states.get(0).ticketsCount());
+        assertEquals(List.of(List.of("a", "b")), infos);
+    }
+
+    @Test
+    void stateCoalescerSchedulesAgainOnceApplied() {
+        var tasks = new ArrayList<Runnable>();
+        var states = new ArrayList<PublicGameState>();
+        var infos = new ArrayList<List<String>>();
+        var coalescer = new StateCoalescer(tasks::add, (gs, ps) -> states.add(gs), infos::add);
+
+        coalescer.postInfo("a");
+        tasks.remove(0).run();
+        assertTrue(states.isEmpty());
+        coalescer.postState(gameState(3), new PlayerState(SortedBag.of(), SortedBag.of(), List.of()));
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(List.of(List.of("a")), infos);
+        assertEquals(3, states.get(0).ticketsCount());
+    }
+}
@@ -0,0 +1,301 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameConfig;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+public class GameServerTest {
+    private static final long CLIENT_TIMEOUT = 60_000;
+
+    @Test
+    void gameServerFailsWithNoTable() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new GameServer(0, GameConfig.TWO_PLAYERS, 0, new Random(2021));
+        });
+    }
+
+    @Test
+    void gameServerPlaysSeveralTablesAtOnce() throws InterruptedException {
+        var config = GameConfig.THREE_PLAYERS;
+        var server = new GameServer(0, config, 2, new Random(2021));
+        server.start();
+
+        var rng = new Random(2021);
+        var bots = new ArrayList<RandomPlayer>();
+        var clients = new ArrayList<Thread>();
+        for (int i = 0; i < 2 * config.playerCount(); i++) {
+            var bot = new RandomPlayer(new Random(rng.nextLong()));
+            var client = new RemotePlayerClient(bot, "localhost", server.port(), "bot" + i);
+            var thread = new Thread(client::run);
+            thread.start();
+            bots.add(bot);
+            clients.add(thread);
+        }
+        for (var thread : clients) {
+            thread.join(CLIENT_TIMEOUT);
+            assertFalse(thread.isAlive());
+        }
+        server.close();
+
+        assertEquals(2, server.finishedTableCount());
+        assertEquals(0, server.activeTableCount());
+        for (var bot : bots) {
+            assertEquals(config.playerCount(), bot.playerNames.size());
+            assertNotNull(bot.gameState);
+            assertNotNull(bot.gameState.lastPlayer());
+        }
+    }
+
+    @Test
+    void gameServerPlaysWithTextAndBinaryClientsAtTheSameTable() throws InterruptedException {
+        var config = GameConfig.TWO_PLAYERS;
+        var server = new GameServer(0, config, 1, new Random(2021), null, WireProtocol.BINARY);
+        server.start();
+
+        var rng = new Random(2022);
+        var bots = new ArrayList<RandomPlayer>();
+        var clients = new ArrayList<Thread>();
+        for (var protocol : WireProtocol.ALL) {
+            var bot = new RandomPlayer(new Random(rng.nextLong()));
+            var client = new RemotePlayerClient(bot, "localhost", server.port(), protocol.name(), protocol);
+            var thread = new Thread(client::run);
+            thread.start();
+            bots.add(bot);
+            clients.add(thread);
+        }
+        for (var thread : clients) {
+            thread.join(CLIENT_TIMEOUT);
+            assertFalse(thread.isAlive());
+        }
+        server.close();
+
+        assertEquals(1, server.finishedTableCount());
+        for (var bot : bots) {
+            assertEquals(new HashSet<>(WireProtocol.ALL.stream().map(Enum::name).collect(Collectors.toList())),
+                    new HashSet<>(bot.playerNames.values()));
+            assertNotNull(bot.gameState.lastPlayer());
+        }
+    }
+
+    @Test
+    void gameServerOffersTheBinaryProtocolByDefault() throws IOException {
+        var server = new GameServer(0, GameConfig.TWO_PLAYERS, 1, new Random(2021));
+        server.start();
+        try (var client = new Socket("localhost", server.port())) {
+            client.setSoTimeout((int) CLIENT_TIMEOUT);
+            var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+            assertEquals(MessageId.PROTOCOL.name() + " " + Serdes.wireProtocolSerde.serialize(WireProtocol.BINARY),
+                    reader.readLine());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    void gameServerDisconnectsClientsBeyondTheMaximalNumberOfHandshakes() throws IOException {
+        var server = new GameServer(0, GameConfig.TWO_PLAYERS, 1, new Random(2021));
+        server.start();
+        var silent = new ArrayList<Socket>();
+        try {
+            // Clients which never send their name, each occupying a handshake thread until it times out.
+            for (int i = 0; i < GameServer.MAX_HANDSHAKES; i++) {
+                var client = new Socket("localhost", server.port());
+                client.setSoTimeout((int) CLIENT_TIMEOUT);
+                silent.add(client);
+                var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                assertNotNull(reader.readLine());
+            }
+            try (var client = new Socket("localhost", server.port())) {
+                client.setSoTimeout((int) CLIENT_TIMEOUT);
+                assertEquals(-1, client.getInputStream().read());
+            }
+        } finally {
+            for (var client : silent)
+                client.close();
+            server.close();
+        }
+    }
+
+    @Test
+    void gameServerDisconnectsWaitingClientsWhenClosed() throws InterruptedException {
+        var server = new GameServer(0, GameConfig.TWO_PLAYERS, 1, new Random(2021));
+        server.start();
+        var bot = new RandomPlayer(new Random(2021));
+        var client = new RemotePlayerClient(bot, "localhost", server.port(), "bot");
+        var thread = new Thread(client::run);
+        thread.start();
+
+        // Waits for the client to be seated in the lobby.
+        while (bot.nameRequested == false)
+            Thread.sleep(10);
+        server.close();
+        thread.join(CLIENT_TIMEOUT);
+        assertFalse(thread.isAlive());
+        assertEquals(0, server.finishedTableCount());
+        assertNull(bot.playerNames);
+    }
+
+    @Test
+    void gameServerDropsClientsThatDisconnectInTheLobby() throws Exception {
+        var server = new GameServer(0, GameConfig.TWO_PLAYERS, 1, new Random(2021));
+        server.start();
+
+        // A text client which gives its name and disconnects while waiting for the other player.
+        try (var ghost = new Socket("localhost", server.port())) {
+            var reader = new BufferedReader(new InputStreamReader(ghost.getInputStream(), StandardCharsets.US_ASCII));
+            var writer = new OutputStreamWriter(ghost.getOutputStream(), StandardCharsets.US_ASCII);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(MessageId.PROTOCOL.name())) {
+                    writer.write(Serdes.wireProtocolSerde.serialize(WireProtocol.TEXT) + "\n");
+                } else if (line.startsWith(MessageId.SET_PLAYER_NAME.name())) {
+                    writer.write(Serdes.stringSerde.serialize("ghost") + "\n");
+                    writer.flush();
+                    break;
+                }
+                writer.flush();
+            }
+            while (server.waitingClientCount() == 0)
+                Thread.sleep(10);
+        }
+
+        var rng = new Random(2023);
+        var bots = new ArrayList<RandomPlayer>();
+        var clients = new ArrayList<Thread>();
+        for (int i = 0; i < 2; i++) {
+            var bot = new RandomPlayer(new Random(rng.nextLong()));
+            var thread = new Thread(new RemotePlayerClient(bot, "localhost", server.port(), "bot" + i)::run);
+            thread.start();
+            bots.add(bot);
+            clients.add(thread);
+        }
+        for (var thread : clients) {
+            thread.join(CLIENT_TIMEOUT);
+            assertFalse(thread.isAlive());
+        }
+        server.close();
+
+        assertEquals(1, server.finishedTableCount());
+        for (var bot : bots) {
+            assertEquals(Set.of("bot0", "bot1"), new HashSet<>(bot.playerNames.values()));
+            assertNotNull(bot.gameState.lastPlayer());
+        }
+    }
+
+    private static final class RandomPlayer implements Player {
+        private final Random rng;
+        private volatile boolean nameRequested;
+        private Map<PlayerId, String> playerNames;
+        private SortedBag<Ticket> initialTickets;
+        private PublicGameState gameState;
+        private PlayerState ownState;
+        private Route route;
+        private SortedBag<Card> claimCards;
+
+        RandomPlayer(Random rng) {
+            this.rng = rng;
+        }
+
+        @Override
+        public String setPlayerName() {
+            nameRequested = true;
+            return "";
+        }
+
+        @Override
+        public void setPlayerNumber(int playerNum) {}
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            this.playerNames = playerNames;
+        }
+
+        @Override
+        public void receiveInfo(String info) {}
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {}
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            this.gameState = newState;
+            this.ownState = ownState;
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            initialTickets = tickets;
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return initialTickets;
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            var claimed = new HashSet<>(gameState.claimedRoutes());
+            List<Route> claimable = ChMap.routes().stream()
+                    .filter(r -> !claimed.contains(r))
+                    .filter(ownState::canClaimRoute)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (claimable.isEmpty()) {
+                return gameState.canDrawCards() ? TurnKind.DRAW_CARDS : TurnKind.DRAW_TICKETS;
+            }
+            route = claimable.get(rng.nextInt(claimable.size()));
+            claimCards = ownState.possibleClaimCards(route).get(0);
+            return TurnKind.CLAIM_ROUTE;
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return SortedBag.of(options.get(0));
+        }
+
+        @Override
+        public int drawSlot() {
+            return rng.nextInt(6) - 1;
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return route;
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return claimCards;
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return options.get(0);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import org.junit.jupiter.api.Test;
+
+public class RemotePlayerProxyTest {
+    private static final int TIMEOUT = 10_000;
+
+    @Test
+    void remotePlayerProxyFailsWithNegativeFlushDelay() throws IOException {
+        try (var server = new ServerSocket(0);
+             var client = new Socket("localhost", server.getLocalPort());
+             var socket = server.accept()) {
+            assertTrue(client.isConnected());
+            assertThrows(IllegalArgumentException.class, () -> {
+                new RemotePlayerProxy(socket, WireProtocol.TEXT, -1);
+            });
+        }
+    }
+
+    @Test
+    void remotePlayerProxySendsPipelinedMessagesBeforeAwaitingReply() throws IOException {
+        try (var server = new ServerSocket(0);
+             var client = new Socket("localhost", server.getLocalPort());
+             var socket = server.accept()) {
+            client.setSoTimeout(TIMEOUT);
+            // The messages can only be sent because a reply is awaited, not because of the delay.
+            var proxy = new RemotePlayerProxy(socket, WireProtocol.TEXT, 3_600_000);
+            var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), US_ASCII));
+            var writer = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), US_ASCII));
+
+            proxy.receiveInfo("first");
+            proxy.receiveInfo("second");
+            writer.write(Serdes.intSerde.serialize(3) + "\n");
+            writer.flush();
+            assertEquals(3, proxy.drawSlot());
+
+            assertTrue(reader.readLine().startsWith(MessageId.RECEIVE_INFO.name()));
+            assertTrue(reader.readLine().startsWith(MessageId.RECEIVE_INFO.name()));
+            assertEquals(MessageId.DRAW_SLOT.name(), reader.readLine().trim());
+        }
+    }
+
+    @Test
+    void remotePlayerProxySendsPipelinedMessagesAfterMaxDelay() throws IOException {
+        try (var server = new ServerSocket(0);
+             var client = new Socket("localhost", server.getLocalPort());
+             var socket = server.accept()) {
+            client.setSoTimeout(TIMEOUT);
+            var proxy = new RemotePlayerProxy(socket, WireProtocol.TEXT, 10);
+            var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), US_ASCII));
+
+            proxy.setPlayerNumber(2);
+            assertEquals(MessageId.SET_PLAYER_NUM.name() + " 2", reader.readLine());
+        }
+    }
+
+    @Test
+    void remotePlayerProxyFlushesAfterMaxDelayWhileAnotherClientStopsReading() throws Exception {
+        try (var server = new ServerSocket(0);
+             var stalledClient = new Socket("localhost", server.getLocalPort());
+             var stalledSocket = server.accept();
+             var client = new Socket("localhost", server.getLocalPort());
+             var socket = server.accept()) {
+            client.setSoTimeout(TIMEOUT);
+            var stalledProxy = new RemotePlayerProxy(stalledSocket, WireProtocol.TEXT, 10);
+            var proxy = new RemotePlayerProxy(socket, WireProtocol.TEXT, 10);
+            var info = "x".repeat(1_000);
+            // Fills the buffers of the connection of the client which never reads, until its writes block.
+            var writer = new Thread(() -> {
+                try {
+                    while (true)
+                        stalledProxy.receiveInfo(info);
+                } catch (UncheckedIOException e) {
+                    // The socket has been closed at the end of the test.
+                }
+            });
+            writer.setDaemon(true);
+            writer.start();
+            Thread.sleep(500);
+            assertTrue(stalledClient.isConnected());
+
+            var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), US_ASCII));
+            proxy.setPlayerNumber(2);
+            assertEquals(MessageId.SET_PLAYER_NUM.name() + " 2", reader.readLine());
+        }
+    }
+
+    @Test
+    void remotePlayerProxyRejectsMalformedOrHugeFrames() throws IOException {
+        var lengths = new byte[][] {
+                { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01 },
+                { (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x04 },
+                { (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x04 } };
+        for (var length : lengths) {
+            try (var server = new ServerSocket(0);
+                 var client = new Socket("localhost", server.getLocalPort());
+                 var socket = server.accept()) {
+                socket.setSoTimeout(TIMEOUT);
+                var out = client.getOutputStream();
+                out.write((Serdes.wireProtocolSerde.serialize(WireProtocol.BINARY) + "\n").getBytes(US_ASCII));
+                out.write(length);
+                out.flush();
+
+                var proxy = new RemotePlayerProxy(socket, WireProtocol.BINARY);
+                assertEquals(WireProtocol.BINARY, proxy.protocol());
+                assertThrows(UncheckedIOException.class, proxy::drawSlot);
+            }
+        }
+    }
+
+    @Test
+    void connectionRejectsFramesWithoutAValidMessageId() throws IOException {
+        var frames = new byte[][] { { 0x00 }, { 0x01, 0x7F }, { 0x01, (byte) 0xFF } };
+        for (var frame : frames) {
+            try (var server = new ServerSocket(0);
+                 var client = new Socket("localhost", server.getLocalPort());
+                 var socket = server.accept()) {
+                client.setSoTimeout(TIMEOUT);
+                socket.getOutputStream().write(frame);
+                socket.getOutputStream().flush();
+
+                var connection = new Connection(client);
+                connection.setProtocol(WireProtocol.BINARY);
+                assertThrows(UncheckedIOException.class, connection::receiveMessage);
+            }
+        }
+    }
+
+    @Test
+    void remotePlayerProxyOffersNoProtocolByDefault() throws IOException {
+        try (var server = new ServerSocket(0);
+             var client = new Socket("localhost", server.getLocalPort());
+             var socket = server.accept()) {
+            client.setSoTimeout(TIMEOUT);
+            var proxy = new RemotePlayerProxy(socket);
+            var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), US_ASCII));
+
+            proxy.setPlayerNumber(3);
+            assertEquals(MessageId.SET_PLAYER_NUM.name() + " 3", reader.readLine());
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package ch.epfl.tchu.net;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -66,6 +68,19 @@ public class SerdeTest {
 	    }
 	}
 	
+	@Test
+	void oneOfRejectsUnknownValuesAndIndicesWithBothEncodings() {
+	    var serde = Serde.oneOf(List.of(Card.RED, Card.BLUE));
+	    assertThrows(IllegalArgumentException.class, () -> serde.serialize(Card.BLACK));
+	    assertThrows(IllegalArgumentException.class, () -> serde.write(Card.BLACK, ByteBuffer.allocate(8)));
+	    assertThrows(IllegalArgumentException.class, () -> serde.deserialize("2"));
+	    assertThrows(IllegalArgumentException.class, () -> serde.deserialize("-1"));
+	    var buffer = ByteBuffer.allocate(8);
+	    ByteBuffers.putVarInt(buffer, 2);
+	    buffer.flip();
+	    assertThrows(IllegalArgumentException.class, () -> serde.read(buffer));
+	}
+	
 	@Test
 	void oneOfWorks() {
 	    for(PlayerId pid : PlayerId.ALL) {
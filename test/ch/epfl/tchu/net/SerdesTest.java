@@ -1,7 +1,9 @@
 package ch.epfl.tchu.net;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -10,15 +12,20 @@ import org.junit.jupiter.api.Test;
 
 import static ch.epfl.tchu.game.Card.*;
 
+import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
 
 import static ch.epfl.tchu.game.PlayerId.*;
 import ch.epfl.tchu.game.PublicCardState;
 import ch.epfl.tchu.game.PublicGameState;
 import ch.epfl.tchu.game.PublicPlayerState;
 import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Trail;
+import ch.epfl.tchu.gui.Info;
 
 public class SerdesTest {
     
@@ -44,4 +51,167 @@ public class SerdesTest {
         @SuppressWarnings("unused")
 		PublicGameState gsNew = Serdes.publicGameStateSerde.deserialize("40:6,7,2,0,6;30;31:1:10;11;0,1:20;21;:");
     }
-}
\ No newline at end of file
+
+    @Test
+    void publicGameStateSerdeWorksWithThreePlayers() {
+        List<Card> fu = List.of(RED, WHITE, BLUE, BLACK, RED);
+        PublicCardState cs = new PublicCardState(fu, 30, 31);
+        Map<PlayerId, PublicPlayerState> ps = Map.of(
+          PLAYER_1, new PublicPlayerState(10, 11, ChMap.routes().subList(0, 2)),
+          PLAYER_2, new PublicPlayerState(20, 21, List.of()),
+          PLAYER_3, new PublicPlayerState(5, 6, ChMap.routes().subList(2, 3)));
+        PublicGameState gs = new PublicGameState(40, cs, PLAYER_3, ps, PLAYER_1);
+        String serialized = "40:6,7,2,0,6;30;31:2:10;11;0,1:20;21;:5;6;2:0";
+        assertEquals(serialized, Serdes.publicGameStateSerde.serialize(gs));
+
+        PublicGameState gsNew = Serdes.publicGameStateSerde.deserialize(serialized);
+        assertEquals(PlayerId.ALL, gsNew.playerIds());
+        assertEquals(PLAYER_3, gsNew.currentPlayerId());
+        assertEquals(PLAYER_1, gsNew.lastPlayer());
+        assertEquals(ChMap.routes().subList(2, 3), gsNew.playerState(PLAYER_3).routes());
+        assertEquals(serialized, Serdes.publicGameStateSerde.serialize(gsNew));
+    }
+
+    @Test
+    void binaryIntSerdeWorksWithNegativeAndLargeValues() {
+        var buffer = ByteBuffer.allocate(64);
+        int[] values = {0, 1, -1, 63, -64, 64, 300, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int v : values)
+            Serdes.intSerde.write(v, buffer);
+        buffer.flip();
+        for (int v : values)
+            assertEquals(v, (int) Serdes.intSerde.read(buffer));
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void binaryOneOfSerdeWritesIndexAsSingleByte() {
+        var buffer = ByteBuffer.allocate(8);
+        Serdes.cardSerde.write(LOCOMOTIVE, buffer);
+        assertEquals(1, buffer.position());
+        buffer.flip();
+        assertEquals(LOCOMOTIVE, Serdes.cardSerde.read(buffer));
+    }
+
+    @Test
+    void binaryStringSerdeWorksWithNonAsciiCharacters() {
+        var buffer = ByteBuffer.allocate(64);
+        Serdes.stringSerde.write("Zürich — Genève", buffer);
+        Serdes.stringSerde.write("", buffer);
+        buffer.flip();
+        assertEquals("Zürich — Genève", Serdes.stringSerde.read(buffer));
+        assertEquals("", Serdes.stringSerde.read(buffer));
+    }
+
+    @Test
+    void binaryPublicGameStateSerdeWorks() {
+        List<Card> fu = List.of(RED, WHITE, BLUE, BLACK, RED);
+        PublicCardState cs = new PublicCardState(fu, 30, 31);
+        Map<PlayerId, PublicPlayerState> ps = Map.of(
+          PLAYER_1, new PublicPlayerState(10, 11, ChMap.routes().subList(0, 2)),
+          PLAYER_2, new PublicPlayerState(20, 21, List.of()),
+          PLAYER_3, new PublicPlayerState(5, 6, ChMap.routes().subList(2, 3)));
+        PublicGameState gs = new PublicGameState(40, cs, PLAYER_3, ps, PLAYER_1);
+
+        var buffer = ByteBuffer.allocate(256);
+        Serdes.publicGameStateSerde.write(gs, buffer);
+        int binaryLength = buffer.position();
+        buffer.flip();
+        PublicGameState gsNew = Serdes.publicGameStateSerde.read(buffer);
+        assertEquals(0, buffer.remaining());
+        assertEquals(Serdes.publicGameStateSerde.serialize(gs), Serdes.publicGameStateSerde.serialize(gsNew));
+        assertEquals(true, binaryLength < Serdes.publicGameStateSerde.serialize(gs).length());
+    }
+
+    @Test
+    void binaryPlayerStateSerdeWorks() {
+        var tickets = SortedBag.of(ChMap.tickets().subList(0, 3));
+        var cards = SortedBag.of(3, LOCOMOTIVE, 2, RED);
+        var routes = List.of(ChMap.routes().get(7), ChMap.routes().get(3));
+        PlayerState ps = new PlayerState(tickets, cards, routes);
+
+        var buffer = ByteBuffer.allocate(256);
+        Serdes.playerStateSerde.write(ps, buffer);
+        buffer.flip();
+        PlayerState psNew = Serdes.playerStateSerde.read(buffer);
+        assertEquals(0, buffer.remaining());
+        assertEquals(tickets, psNew.tickets());
+        assertEquals(cards, psNew.cards());
+        // Claimed routes are encoded as a set, and read back in the order of the map.
+        assertEquals(List.of(ChMap.routes().get(3), ChMap.routes().get(7)), psNew.routes());
+    }
+
+    @Test
+    void binaryRouteListSerdeWorksWithManyRoutes() {
+        var routes = ChMap.routes().subList(10, 40);
+        var buffer = ByteBuffer.allocate(64);
+        Serdes.routeListSerde.write(routes, buffer);
+        buffer.flip();
+        assertEquals(routes, Serdes.routeListSerde.read(buffer));
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void gameEventSerdeWorksInTextAndBinary() {
+        var names = Map.of(PLAYER_1, "Ada", PLAYER_2, "Charles");
+        var routes = ChMap.routes().subList(20, 60);
+        var cards = SortedBag.of(2, RED, 1, LOCOMOTIVE);
+        var events = List.of(
+                GameEvent.willPlayFirst(PLAYER_2),
+                GameEvent.drewTickets(PLAYER_1, 3),
+                GameEvent.drewVisibleCard(PLAYER_1, BLUE),
+                GameEvent.attemptsTunnelClaim(PLAYER_2, routes.get(3), cards),
+                GameEvent.drewAdditionalCards(PLAYER_2, SortedBag.of(3, WHITE), 0),
+                GameEvent.getsLongestTrailBonus(PLAYER_1, Trail.longest(routes)),
+                GameEvent.getsLongestTrailBonus(PLAYER_2, Trail.longest(List.of())),
+                GameEvent.won(PLAYER_1, 12, -7),
+                GameEvent.draw(40));
+        var buffer = ByteBuffer.allocate(256);
+        for (var event : events) {
+            var expected = Info.describe(event, names);
+            var text = Serdes.gameEventSerde.serialize(event);
+            assertEquals(expected, Info.describe(Serdes.gameEventSerde.deserialize(text), names));
+
+            buffer.clear();
+            Serdes.gameEventSerde.write(event, buffer);
+            assertEquals(true, buffer.position() < text.length());
+            buffer.flip();
+            assertEquals(expected, Info.describe(Serdes.gameEventSerde.read(buffer), names));
+            assertEquals(0, buffer.remaining());
+        }
+    }
+
+    @Test
+    void binarySerdesRejectSizesLargerThanTheBuffer() {
+        var buffer = ByteBuffer.allocate(16);
+        ByteBuffers.putVarInt(buffer, 1_000_000);
+        buffer.put((byte) 0);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> Serdes.cardListSerde.read(buffer.duplicate()));
+        assertThrows(IllegalArgumentException.class, () -> Serdes.cardBagSerde.read(buffer.duplicate()));
+        assertThrows(IllegalArgumentException.class, () -> Serdes.stringSerde.read(buffer.duplicate()));
+    }
+
+    @Test
+    void binaryPublicGameStateSerdeRejectsTooManyPlayers() {
+        var buffer = ByteBuffer.allocate(64);
+        ByteBuffers.putVarInt(buffer, 10);
+        Serdes.publicCardStateSerde.write(new PublicCardState(Card.ALL.subList(0, 5), 10, 0), buffer);
+        Serdes.playerIdSerde.write(PlayerId.PLAYER_1, buffer);
+        ByteBuffers.putVarInt(buffer, PlayerId.COUNT + 1);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> Serdes.publicGameStateSerde.read(buffer));
+    }
+
+    @Test
+    void binaryVarIntRejectsValuesThatDoNotFitInAPositiveInt() {
+        var tooLarge = new byte[][] {
+                { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x08 },
+                { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F },
+                { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01 } };
+        for (var bytes : tooLarge)
+            assertThrows(IllegalArgumentException.class, () -> ByteBuffers.getVarInt(ByteBuffer.wrap(bytes)));
+        var max = ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 });
+        assertEquals(Integer.MAX_VALUE, ByteBuffers.getVarInt(max));
+    }
+}
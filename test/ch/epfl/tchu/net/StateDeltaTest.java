@@ -0,0 +1,117 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ch.epfl.tchu.game.Card.*;
+import static ch.epfl.tchu.game.PlayerId.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+
+public class StateDeltaTest {
+    private static final PlayerState OWN_STATE = new PlayerState(
+            SortedBag.of(ChMap.tickets().subList(0, 2)),
+            SortedBag.of(2, RED, 1, LOCOMOTIVE),
+            ChMap.routes().subList(4, 5));
+
+    private static PublicGameState gameState(List<Card> faceUpCards, int deckSize,
+            PublicPlayerState player1, PlayerState player2) {
+        return new PublicGameState(40, new PublicCardState(faceUpCards, deckSize, 3), PLAYER_2,
+                Map.of(PLAYER_1, player1,
+                       PLAYER_2, new PublicPlayerState(player2.ticketCount(), player2.cardCount(), player2.routes())),
+                null);
+    }
+
+    private static final PublicGameState GAME_STATE = gameState(List.of(RED, WHITE, BLUE, BLACK, RED), 60,
+            new PublicPlayerState(3, 4, ChMap.routes().subList(0, 2)), OWN_STATE);
+
+    @Test
+    void stateDeltaCannotWriteWithoutFullState() {
+        var delta = new StateDelta();
+        assertFalse(delta.canWrite(GAME_STATE, OWN_STATE));
+        assertThrows(IllegalStateException.class, () -> {
+            delta.write(GAME_STATE, OWN_STATE, ByteBuffer.allocate(256));
+        });
+    }
+
+    @Test
+    void stateDeltaReconstructsChangedState() {
+        var sender = new StateDelta();
+        var receiver = new StateDelta();
+        sender.reset(GAME_STATE, OWN_STATE);
+        receiver.reset(GAME_STATE, OWN_STATE);
+
+        var newOwnState = new PlayerState(
+                SortedBag.of(ChMap.tickets().subList(0, 4)),
+                SortedBag.of(1, GREEN),
+                List.of(ChMap.routes().get(9), ChMap.routes().get(4)));
+        var newGameState = gameState(List.of(RED, WHITE, ORANGE, BLACK, LOCOMOTIVE), 57,
+                new PublicPlayerState(3, 2, ChMap.routes().subList(0, 3)), newOwnState);
+
+        var buffer = ByteBuffer.allocate(256);
+        assertTrue(sender.canWrite(newGameState, newOwnState));
+        sender.write(newGameState, newOwnState, buffer);
+        buffer.flip();
+        receiver.read(buffer);
+        assertEquals(0, buffer.remaining());
+
+        // The reconstructed state is the one a full binary state would give, with routes in the order of the map.
+        var full = ByteBuffer.allocate(256);
+        Serdes.publicGameStateSerde.write(newGameState, full);
+        full.flip();
+        assertEquals(Serdes.publicGameStateSerde.serialize(Serdes.publicGameStateSerde.read(full)),
+                Serdes.publicGameStateSerde.serialize(receiver.gameState()));
+        assertEquals(newOwnState.tickets(), receiver.playerState().tickets());
+        assertEquals(newOwnState.cards(), receiver.playerState().cards());
+        assertEquals(List.of(ChMap.routes().get(4), ChMap.routes().get(9)), receiver.playerState().routes());
+    }
+
+    @Test
+    void stateDeltaIsSmallerThanFullState() {
+        var sender = new StateDelta();
+        sender.reset(GAME_STATE, OWN_STATE);
+        var newGameState = gameState(List.of(RED, WHITE, BLUE, BLACK, GREEN), 59,
+                new PublicPlayerState(3, 4, ChMap.routes().subList(0, 2)), OWN_STATE);
+
+        var delta = ByteBuffer.allocate(256);
+        sender.write(newGameState, OWN_STATE, delta);
+        var full = ByteBuffer.allocate(256);
+        Serdes.publicGameStateSerde.write(newGameState, full);
+        Serdes.playerStateSerde.write(OWN_STATE, full);
+        assertTrue(delta.position() < full.position());
+    }
+
+    @Test
+    void stateDeltaRequiresFullStateWhenRoutesAreRemoved() {
+        var sender = new StateDelta();
+        sender.reset(GAME_STATE, OWN_STATE);
+        var newGameState = gameState(List.of(RED, WHITE, BLUE, BLACK, RED), 60,
+                new PublicPlayerState(3, 4, ChMap.routes().subList(1, 2)), OWN_STATE);
+        assertFalse(sender.canWrite(newGameState, OWN_STATE));
+    }
+
+    @Test
+    void stateDeltaRequiresPeriodicFullState() {
+        var sender = new StateDelta();
+        sender.reset(GAME_STATE, OWN_STATE);
+        var buffer = ByteBuffer.allocate(256);
+        for (int i = 0; i < StateDelta.MAX_DELTAS; i++) {
+            assertTrue(sender.canWrite(GAME_STATE, OWN_STATE));
+            buffer.clear();
+            sender.write(GAME_STATE, OWN_STATE, buffer);
+        }
+        assertFalse(sender.canWrite(GAME_STATE, OWN_STATE));
+        sender.reset(GAME_STATE, OWN_STATE);
+        assertTrue(sender.canWrite(GAME_STATE, OWN_STATE));
+    }
+}
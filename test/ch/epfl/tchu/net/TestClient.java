@@ -5,6 +5,7 @@ import java.util.Map;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
@@ -34,6 +35,11 @@ public final class TestClient {
             
         }
 
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> names) {
+
+        }
+
         @Override
         public void updateState(PublicGameState newState, PlayerState ownState) {
             // TODO Auto-generated method stub